@@ -0,0 +1,147 @@
+package com.corso.samples.datatypes;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ArrayKernels con la Vector API contro gli stessi cicli scalari
+ * (ArrayKernels.SCALARI): somme, massimo, prodotto scalare, conteggio,
+ * somme prefisse e inversione su int[] e double[].
+ * Richiede java-samples-001 installato con il profilo vector
+ * (mvn -Pvector install): senza VectorKernels il setup si ferma.
+ * Con 10000 elementi i dati stanno in cache; con 1000000 pesa la banda di memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ArrayKernelsBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int elementi;
+
+    private final ArrayKernels.Kernels scalari = ArrayKernels.SCALARI;
+
+    private int[] interi;
+    private int[] altriInteri;
+    private double[] prezzi;
+    private double[] quantita;
+    private int[] cumulati;
+
+    @Setup
+    public void setup() {
+        if (ArrayKernels.implementazione().equals("scalare")) {
+            throw new IllegalStateException("VectorKernels assente: installare java-samples-001 con -Pvector");
+        }
+        Random rand = new Random(12345);
+        interi = new int[elementi];
+        altriInteri = new int[elementi];
+        prezzi = new double[elementi];
+        quantita = new double[elementi];
+        cumulati = new int[elementi];
+        for (int i = 0; i < elementi; i++) {
+            interi[i] = rand.nextInt(1_000_000);
+            altriInteri[i] = rand.nextInt(1_000_000);
+            prezzi[i] = rand.nextInt(10_000) / 100.0;
+            quantita[i] = rand.nextInt(10);
+        }
+    }
+
+    @Benchmark
+    public int sumIntScalare() {
+        return scalari.sum(interi);
+    }
+
+    @Benchmark
+    public int sumIntVector() {
+        return ArrayKernels.sum(interi);
+    }
+
+    @Benchmark
+    public double sumDoubleScalare() {
+        return scalari.sum(prezzi);
+    }
+
+    @Benchmark
+    public double sumDoubleVector() {
+        return ArrayKernels.sum(prezzi);
+    }
+
+    @Benchmark
+    public int maxIntScalare() {
+        return scalari.max(interi);
+    }
+
+    @Benchmark
+    public int maxIntVector() {
+        return ArrayKernels.max(interi);
+    }
+
+    @Benchmark
+    public long dotIntScalare() {
+        return scalari.dot(interi, altriInteri);
+    }
+
+    @Benchmark
+    public long dotIntVector() {
+        return ArrayKernels.dot(interi, altriInteri);
+    }
+
+    @Benchmark
+    public double dotDoubleScalare() {
+        return scalari.dot(prezzi, quantita);
+    }
+
+    @Benchmark
+    public double dotDoubleVector() {
+        return ArrayKernels.dot(prezzi, quantita);
+    }
+
+    @Benchmark
+    public int countIntScalare() {
+        return scalari.count(interi, ArrayKernels.Confronto.MAGGIORE, 900_000);
+    }
+
+    @Benchmark
+    public int countIntVector() {
+        return ArrayKernels.count(interi, ArrayKernels.Confronto.MAGGIORE, 900_000);
+    }
+
+    @Benchmark
+    public int[] prefixSumIntScalare() {
+        scalari.prefixSum(interi, cumulati);
+        return cumulati;
+    }
+
+    @Benchmark
+    public int[] prefixSumIntVector() {
+        ArrayKernels.prefixSum(interi, cumulati);
+        return cumulati;
+    }
+
+    @Benchmark
+    public int[] reverseIntScalare() {
+        scalari.reverse(interi);
+        return interi;
+    }
+
+    @Benchmark
+    public int[] reverseIntVector() {
+        ArrayKernels.reverse(interi);
+        return interi;
+    }
+}
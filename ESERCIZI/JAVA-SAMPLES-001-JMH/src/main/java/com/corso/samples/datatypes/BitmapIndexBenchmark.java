@@ -0,0 +1,110 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtro con più predicati ripetuto sugli stessi dati: Stream.filter su una
+ * List di StreamsDemo.Persona, scansione delle colonne di {@link PersonaTable}
+ * e {@link PersonaBitmapIndex}. L'indice si costruisce nel setup, una volta:
+ * il confronto è sul costo di ogni query successiva.
+ * - query: Milano AND IT AND eta > 30 AND stipendio in [40000, 60000] (circa 1,2% delle righe)
+ * - conteggio: NOT (eta > 30) OR citta = Roma (circa metà delle righe)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BitmapIndexBenchmark {
+
+    @Param({"1000000", "5000000"})
+    public int size;
+
+    private List<StreamsDemo.Persona> persone;
+    private PersonaTable tabella;
+    private PersonaBitmapIndex indice;
+    private BitmapPredicate query;
+    private BitmapPredicate conteggio;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        persone = new ArrayList<>(size);
+        PersonaTable.Builder builder = PersonaTable.builder(size);
+        for (int i = 0; i < size; i++) {
+            String nome = "P" + (i % 1000);
+            int eta = 20 + rand.nextInt(45);
+            String citta = ColumnarAggregationBenchmark.CITTA[rand.nextInt(ColumnarAggregationBenchmark.CITTA.length)];
+            double stipendio = 25_000 + rand.nextInt(50_000);
+            String dipartimento = ColumnarAggregationBenchmark.DIPARTIMENTI[
+                rand.nextInt(ColumnarAggregationBenchmark.DIPARTIMENTI.length)];
+            persone.add(new StreamsDemo.Persona(nome, eta, citta, stipendio, dipartimento, List.of()));
+            builder.aggiungi(nome, eta, citta, stipendio, dipartimento);
+        }
+        tabella = builder.build();
+        indice = tabella.indiceBitmap();
+        query = indice.citta().eq("Milano")
+            .and(indice.dipartimento().eq("IT"))
+            .and(indice.eta().greaterThan(30))
+            .and(indice.stipendio().between(40_000, 60_000));
+        conteggio = indice.not(indice.eta().greaterThan(30)).or(indice.citta().eq("Roma"));
+
+        if (!Arrays.equals(streamQuery(), bitmapQuery()) || !Arrays.equals(colonneQuery(), bitmapQuery())
+            || streamConteggio() != bitmapConteggio()) {
+            throw new IllegalStateException("Risultati diversi tra stream, colonne e indice bitmap");
+        }
+    }
+
+    @Benchmark
+    public int[] streamQuery() {
+        return IntStream.range(0, size)
+            .filter(i -> {
+                StreamsDemo.Persona p = persone.get(i);
+                return p.getCitta().equals("Milano") && p.getDipartimento().equals("IT")
+                    && p.getEta() > 30 && p.getStipendio() >= 40_000 && p.getStipendio() <= 60_000;
+            })
+            .toArray();
+    }
+
+    @Benchmark
+    public int[] colonneQuery() {
+        return IntStream.range(0, size)
+            .filter(r -> tabella.getEta(r) > 30 && tabella.getStipendio(r) >= 40_000
+                && tabella.getStipendio(r) <= 60_000
+                && tabella.getCitta(r).equals("Milano") && tabella.getDipartimento(r).equals("IT"))
+            .toArray();
+    }
+
+    @Benchmark
+    public int[] bitmapQuery() {
+        return indice.select(query);
+    }
+
+    @Benchmark
+    public long streamConteggio() {
+        return persone.stream().filter(p -> p.getEta() <= 30 || p.getCitta().equals("Roma")).count();
+    }
+
+    @Benchmark
+    public int bitmapConteggio() {
+        return indice.count(conteggio);
+    }
+}
@@ -0,0 +1,113 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cache condivisa da più thread con accessi Zipf (90% letture, 10% scritture):
+ * LRU su synchronizedMap(LinkedHashMap), ConcurrentHashMap senza limite
+ * e ConcurrentCache limitata con W-TinyLFU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(4)
+public class CacheBenchmark {
+
+    private static final int CHIAVI = 100_000;
+    private static final int ACCESSI = 1 << 20;
+
+    @Param({"1000", "10000"})
+    public int capacita;
+
+    private long[] traccia;
+    private Map<Long, Long> lruSincronizzata;
+    private Map<Long, Long> concurrentHashMap;
+    private ConcurrentCache<Long, Long> cache;
+
+    @State(Scope.Thread)
+    public static class Cursore {
+        int posizione = new Random().nextInt(ACCESSI);
+    }
+
+    @Setup
+    public void setup() {
+        // Distribuzione Zipf con esponente 0.9
+        double[] cumulata = new double[CHIAVI];
+        double somma = 0;
+        for (int i = 0; i < CHIAVI; i++) {
+            somma += 1 / Math.pow(i + 1, 0.9);
+            cumulata[i] = somma;
+        }
+        Random rand = new Random(12345);
+        traccia = new long[ACCESSI];
+        for (int i = 0; i < ACCESSI; i++) {
+            int k = Arrays.binarySearch(cumulata, rand.nextDouble() * somma);
+            traccia[i] = k < 0 ? -k - 1 : k;
+        }
+
+        int max = capacita;
+        lruSincronizzata = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > max;
+            }
+        });
+        concurrentHashMap = new ConcurrentHashMap<>();
+        cache = ConcurrentCache.<Long, Long>builder().maximumSize(capacita).build();
+    }
+
+    private static long accedi(Map<Long, Long> mappa, long chiave, int i) {
+        if (i % 10 == 0) {
+            mappa.put(chiave, chiave);
+            return chiave;
+        }
+        Long valore = mappa.get(chiave);
+        return valore != null ? valore : -1;
+    }
+
+    @Benchmark
+    public long synchronizedLru(Cursore cursore) {
+        int i = cursore.posizione++ & (ACCESSI - 1);
+        return accedi(lruSincronizzata, traccia[i], i);
+    }
+
+    @Benchmark
+    public long concurrentHashMapIllimitata(Cursore cursore) {
+        int i = cursore.posizione++ & (ACCESSI - 1);
+        return accedi(concurrentHashMap, traccia[i], i);
+    }
+
+    @Benchmark
+    public long concurrentCache(Cursore cursore) {
+        int i = cursore.posizione++ & (ACCESSI - 1);
+        long chiave = traccia[i];
+        if (i % 10 == 0) {
+            cache.put(chiave, chiave);
+            return chiave;
+        }
+        Long valore = cache.getIfPresent(chiave);
+        return valore != null ? valore : -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Report stipendi per dipartimento: List di StreamsDemo.Persona con Collectors
+ * contro {@link PersonaTable}. Fino a 10 milioni di righe perché la versione
+ * a oggetti deve stare nello heap; per 50 milioni vedi ColumnarAggregationLargeBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ColumnarAggregationBenchmark {
+
+    static final String[] CITTA = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+    static final String[] DIPARTIMENTI = {"IT", "Marketing", "HR", "Sales", "Management"};
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private List<StreamsDemo.Persona> persone;
+    private PersonaTable tabella;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        persone = new ArrayList<>(size);
+        PersonaTable.Builder builder = PersonaTable.builder(size);
+        for (int i = 0; i < size; i++) {
+            String nome = "P" + (i % 1000);
+            int eta = 20 + rand.nextInt(45);
+            String citta = CITTA[rand.nextInt(CITTA.length)];
+            double stipendio = 25_000 + rand.nextInt(50_000);
+            String dipartimento = DIPARTIMENTI[rand.nextInt(DIPARTIMENTI.length)];
+            persone.add(new StreamsDemo.Persona(nome, eta, citta, stipendio, dipartimento, List.of()));
+            builder.aggiungi(nome, eta, citta, stipendio, dipartimento);
+        }
+        tabella = builder.build();
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> collectorsPerDipartimento() {
+        return persone.stream()
+            .collect(Collectors.groupingBy(StreamsDemo.Persona::getDipartimento,
+                Collectors.summarizingDouble(StreamsDemo.Persona::getStipendio)));
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> collectorsPerDipartimentoParallel() {
+        return persone.parallelStream()
+            .collect(Collectors.groupingBy(StreamsDemo.Persona::getDipartimento,
+                Collectors.summarizingDouble(StreamsDemo.Persona::getStipendio)));
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> tabellaPerDipartimento() {
+        return tabella.stipendioPerDipartimento();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics collectorsRiepilogo() {
+        return persone.parallelStream().collect(Collectors.summarizingDouble(StreamsDemo.Persona::getStipendio));
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics tabellaRiepilogo() {
+        return tabella.statisticheStipendio();
+    }
+}
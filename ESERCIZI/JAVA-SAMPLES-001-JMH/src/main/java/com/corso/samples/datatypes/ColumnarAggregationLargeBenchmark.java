@@ -0,0 +1,65 @@
+package com.corso.samples.datatypes;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Aggregazioni di {@link PersonaTable} su 50 milioni di righe (circa 1,2 GB di colonne).
+ * Il tempo per riga va confrontato con la banda di memoria: stipendioPerDipartimento
+ * legge 12 byte per riga (codice + stipendio), statisticheStipendio 8.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ColumnarAggregationLargeBenchmark {
+
+    @Param({"50000000"})
+    public int size;
+
+    private PersonaTable tabella;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        PersonaTable.Builder builder = PersonaTable.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.aggiungi("P" + (i % 1000), 20 + rand.nextInt(45),
+                ColumnarAggregationBenchmark.CITTA[rand.nextInt(ColumnarAggregationBenchmark.CITTA.length)],
+                25_000 + rand.nextInt(50_000),
+                ColumnarAggregationBenchmark.DIPARTIMENTI[rand.nextInt(ColumnarAggregationBenchmark.DIPARTIMENTI.length)]);
+        }
+        tabella = builder.build();
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> stipendioPerDipartimento() {
+        return tabella.stipendioPerDipartimento();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics statisticheStipendio() {
+        return tabella.statisticheStipendio();
+    }
+
+    @Benchmark
+    public double medianaStipendio() {
+        return tabella.percentileStipendio(50);
+    }
+}
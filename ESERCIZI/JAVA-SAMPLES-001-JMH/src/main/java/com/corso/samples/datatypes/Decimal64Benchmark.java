@@ -0,0 +1,100 @@
+package com.corso.samples.datatypes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Totale IVA di una fattura (prezzo * quantità, IVA 22% arrotondata HALF_UP
+ * per riga): BigDecimal contro Decimal64 immutabile, Decimal64.Accumulator e
+ * colonne long[]. Tutte le varianti danno lo stesso totale (verificato nel setup).
+ * Con -prof gc si vedono i byte allocati per riga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class Decimal64Benchmark {
+
+    private static final BigDecimal ALIQUOTA = new BigDecimal("0.22");
+    private static final Decimal64 ALIQUOTA_64 = Decimal64.of("0.22");
+
+    @Param({"100000"})
+    public int righe;
+
+    private long[] prezzi;
+    private int[] quantita;
+    private long[] imponibili;
+    private long[] iva;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        prezzi = new long[righe];
+        quantita = new int[righe];
+        imponibili = new long[righe];
+        iva = new long[righe];
+        for (int i = 0; i < righe; i++) {
+            prezzi[i] = 100 + rand.nextInt(100_000);
+            quantita[i] = 1 + rand.nextInt(20);
+        }
+        BigDecimal atteso = bigDecimal();
+        if (!decimal64().toBigDecimal().equals(atteso) || !accumulatore().toBigDecimal().equals(atteso)
+            || !colonne().toBigDecimal().equals(atteso)) {
+            throw new IllegalStateException("Totali diversi da BigDecimal");
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal totale = BigDecimal.ZERO.setScale(2);
+        for (int i = 0; i < righe; i++) {
+            BigDecimal imponibile = BigDecimal.valueOf(prezzi[i], 2).multiply(BigDecimal.valueOf(quantita[i]));
+            totale = totale.add(imponibile.multiply(ALIQUOTA).setScale(2, RoundingMode.HALF_UP));
+        }
+        return totale;
+    }
+
+    @Benchmark
+    public Decimal64 decimal64() {
+        Decimal64 totale = Decimal64.valueOf(0, 2);
+        for (int i = 0; i < righe; i++) {
+            Decimal64 imponibile = Decimal64.valueOf(prezzi[i], 2).multiply(quantita[i]);
+            totale = totale.add(imponibile.multiply(ALIQUOTA_64, 2, RoundingMode.HALF_UP));
+        }
+        return totale;
+    }
+
+    @Benchmark
+    public Decimal64 accumulatore() {
+        Decimal64.Accumulator totale = Decimal64.accumulator(2);
+        for (int i = 0; i < righe; i++) {
+            totale.addProduct(Decimal64.valueOf(prezzi[i] * quantita[i], 2), ALIQUOTA_64, RoundingMode.HALF_UP);
+        }
+        return totale.value();
+    }
+
+    @Benchmark
+    public Decimal64 colonne() {
+        for (int i = 0; i < righe; i++) {
+            imponibili[i] = Math.multiplyExact(prezzi[i], quantita[i]);
+        }
+        Decimal64.multiply(imponibili, 2, ALIQUOTA_64, RoundingMode.HALF_UP, iva);
+        return Decimal64.sum(iva, 2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.corso.samples.datatypes;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conteggio di frequenze su un testo sintetico: HashMap con valori boxed
+ * contro le collezioni primitive a indirizzamento aperto.
+ * Il testo è un int[] di id di parola (100M String[] non starebbero nell'heap
+ * insieme alle mappe); le varianti su String passano dal vocabolario.
+ * Per vedere allocazioni e GC: java -jar target/benchmarks.jar FrequencyCount -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FrequencyCountBenchmark {
+
+    @Param({"10000000", "100000000"})
+    public int token;
+
+    @Param({"1000", "100000"})
+    public int vocabolario;
+
+    private String[] parole;
+    private int[] testo;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        parole = new String[vocabolario];
+        for (int i = 0; i < vocabolario; i++) {
+            parole[i] = "parola" + i;
+        }
+        testo = new int[token];
+        for (int i = 0; i < token; i++) {
+            // Distribuzione sbilanciata: poche parole molto frequenti
+            double u = rand.nextDouble();
+            testo[i] = (int) (u * u * u * vocabolario);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> hashMapMerge() {
+        Map<String, Integer> frequenze = new HashMap<>();
+        for (int id : testo) {
+            frequenze.merge(parole[id], 1, Integer::sum);
+        }
+        return frequenze;
+    }
+
+    @Benchmark
+    public ObjectIntCounter<String> objectIntCounter() {
+        ObjectIntCounter<String> frequenze = new ObjectIntCounter<>();
+        for (int id : testo) {
+            frequenze.increment(parole[id]);
+        }
+        return frequenze;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> hashMapInteger() {
+        Map<Integer, Integer> frequenze = new HashMap<>();
+        for (int id : testo) {
+            frequenze.merge(id, 1, Integer::sum);
+        }
+        return frequenze;
+    }
+
+    @Benchmark
+    public IntIntHashMap intIntHashMap() {
+        IntIntHashMap frequenze = new IntIntHashMap();
+        for (int id : testo) {
+            frequenze.addTo(id, 1);
+        }
+        return frequenze;
+    }
+}
@@ -0,0 +1,110 @@
+package com.corso.samples.datatypes;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Prodotto e trasposta di matrici quadrate: double[][] con i cicli annidati
+ * da manuale (i-j-k, colonna di B saltando una riga a ogni passo), double[][]
+ * con i cicli riordinati (i-k-j) e Matrix (array piatto, blocchi, fork-join).
+ * Il setup verifica che i tre prodotti coincidano.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MatrixBenchmark {
+
+    @Param({"256", "1024"})
+    public int n;
+
+    private double[][] a;
+    private double[][] b;
+    private Matrix ma;
+    private Matrix mb;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        a = new double[n][n];
+        b = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = rand.nextInt(100);
+                b[i][j] = rand.nextInt(100);
+            }
+        }
+        ma = Matrix.of(a);
+        mb = Matrix.of(b);
+        Matrix atteso = Matrix.of(jaggedIJK());
+        if (!atteso.equals(Matrix.of(jaggedIKJ())) || !atteso.equals(matrixMultiply())) {
+            throw new IllegalStateException("Prodotti diversi");
+        }
+    }
+
+    @Benchmark
+    public double[][] jaggedIJK() {
+        double[][] c = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double somma = 0;
+                for (int k = 0; k < n; k++) {
+                    somma += a[i][k] * b[k][j];
+                }
+                c[i][j] = somma;
+            }
+        }
+        return c;
+    }
+
+    @Benchmark
+    public double[][] jaggedIKJ() {
+        double[][] c = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double[] riga = c[i];
+            for (int k = 0; k < n; k++) {
+                double aik = a[i][k];
+                double[] rigaB = b[k];
+                for (int j = 0; j < n; j++) {
+                    riga[j] += aik * rigaB[j];
+                }
+            }
+        }
+        return c;
+    }
+
+    @Benchmark
+    public Matrix matrixMultiply() {
+        return ma.multiply(mb);
+    }
+
+    @Benchmark
+    public double[][] jaggedTranspose() {
+        double[][] t = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                t[j][i] = a[i][j];
+            }
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Matrix matrixTranspose() {
+        return ma.transpose();
+    }
+}
@@ -0,0 +1,112 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * Benchmark degli algoritmi O(n log n) e lineari di {@link AlgoritmiOrdinamentoDemo}
+ * (Merge, Heap, Shell, Counting, Radix, Bucket) e di {@link PatternDefeatingSort}
+ * fino a 10 milioni di elementi.
+ * {@code arraysSort} (Dual-Pivot Quick Sort del JDK) è il riferimento.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class NLogNSortBenchmark extends SortBenchmarkSupport {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public InputShape shape;
+
+    @Setup
+    public void setup() {
+        prepare(shape, size);
+    }
+
+    @Benchmark
+    public int[] copiaBaseline() {
+        return fresh();
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        int[] arr = fresh();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSort() {
+        int[] arr = fresh();
+        demo.mergeSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] heapSort() {
+        int[] arr = fresh();
+        demo.heapSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] shellSort() {
+        int[] arr = fresh();
+        demo.shellSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] shellSortKnuth() {
+        int[] arr = fresh();
+        demo.shellSortKnuth(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] countingSort() {
+        int[] arr = fresh();
+        demo.countingSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        int[] arr = fresh();
+        demo.radixSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] bucketSort() {
+        int[] arr = fresh();
+        demo.bucketSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] patternDefeatingSort() {
+        int[] arr = fresh();
+        PatternDefeatingSort.sort(arr);
+        return arr;
+    }
+}
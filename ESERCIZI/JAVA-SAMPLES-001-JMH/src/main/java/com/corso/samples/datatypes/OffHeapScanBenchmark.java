@@ -0,0 +1,111 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scansioni sulle stesse persone in tre rappresentazioni: oggetti nell'heap
+ * (List<Persona>), colonne nell'heap (PersonaTable) e colonne fuori dall'heap
+ * (OffHeapPersonaTable), sia con le aggregazioni colonnari sia con gli stream di viste.
+ * Con -prof gc si vede anche la differenza di lavoro del GC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OffHeapScanBenchmark {
+
+    @Param({"5000000"})
+    public int size;
+
+    private List<StreamsDemo.Persona> persone;
+    private PersonaTable tabella;
+    private OffHeapPersonaTable offHeap;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        String[] citta = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+        String[] dipartimenti = {"IT", "Marketing", "HR", "Sales", "Management"};
+        persone = new ArrayList<>(size);
+        PersonaTable.Builder builder = PersonaTable.builder(size);
+        OffHeapPersonaTable.Builder builderOffHeap = OffHeapPersonaTable.builder(size);
+        for (int i = 0; i < size; i++) {
+            String nome = "P" + i;
+            int eta = 20 + rand.nextInt(45);
+            String c = citta[rand.nextInt(citta.length)];
+            double stipendio = 25_000 + rand.nextInt(50_000);
+            String dip = dipartimenti[rand.nextInt(dipartimenti.length)];
+            persone.add(new StreamsDemo.Persona(nome, eta, c, stipendio, dip));
+            builder.aggiungi(nome, eta, c, stipendio, dip);
+            builderOffHeap.aggiungi(nome, eta, c, stipendio, dip);
+        }
+        tabella = builder.build();
+        offHeap = builderOffHeap.build();
+    }
+
+    // ==================== RIEPILOGO STIPENDI ====================
+
+    @Benchmark
+    public DoubleSummaryStatistics oggettiStream() {
+        return persone.stream().mapToDouble(StreamsDemo.Persona::getStipendio).summaryStatistics();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics colonneHeap() {
+        return tabella.statisticheStipendio();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics colonneOffHeap() {
+        return offHeap.statisticheStipendio();
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics vistaOffHeapStream() {
+        return offHeap.stream().mapToDouble(StreamsDemo.Persona::getStipendio).summaryStatistics();
+    }
+
+    // ==================== GROUP-BY DIPARTIMENTO ====================
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> oggettiGroupingBy() {
+        return persone.stream().collect(Collectors.groupingBy(StreamsDemo.Persona::getDipartimento,
+            Collectors.summarizingDouble(StreamsDemo.Persona::getStipendio)));
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> colonneHeapPerDipartimento() {
+        return tabella.stipendioPerDipartimento();
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> colonneOffHeapPerDipartimento() {
+        return offHeap.stipendioPerDipartimento();
+    }
+
+    @Benchmark
+    public Map<String, DoubleSummaryStatistics> vistaOffHeapGroupingBy() {
+        return offHeap.stream().collect(Collectors.groupingBy(StreamsDemo.Persona::getDipartimento,
+            Collectors.summarizingDouble(StreamsDemo.Persona::getStipendio)));
+    }
+}
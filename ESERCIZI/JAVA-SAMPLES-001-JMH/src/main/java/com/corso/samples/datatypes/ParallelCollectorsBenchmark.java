@@ -0,0 +1,116 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Group-by su Ordine.getCliente con stream paralleli: Collectors del JDK
+ * contro {@link ParallelCollectors}, al variare del numero di clienti distinti
+ * (poche chiavi = contesa sulle stesse chiavi, molte chiavi = combiner costoso).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelCollectorsBenchmark {
+
+    @Param({"1000000", "5000000"})
+    public int size;
+
+    @Param({"100", "100000"})
+    public int clienti;
+
+    private List<StreamsDemo.Ordine> ordini;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        String[] nomi = new String[clienti];
+        for (int i = 0; i < clienti; i++) {
+            nomi[i] = "Cliente" + i;
+        }
+        ordini = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ordini.add(new StreamsDemo.Ordine("O" + i, nomi[rand.nextInt(clienti)],
+                rand.nextInt(100_000) / 100.0, "Completato", List.of()));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCounting() {
+        return ordini.parallelStream()
+            .collect(Collectors.groupingBy(StreamsDemo.Ordine::getCliente, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByConcurrentCounting() {
+        return ordini.parallelStream()
+            .collect(Collectors.groupingByConcurrent(StreamsDemo.Ordine::getCliente, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countingByKey() {
+        return ordini.parallelStream()
+            .collect(ParallelCollectors.countingByKey(StreamsDemo.Ordine::getCliente));
+    }
+
+    @Benchmark
+    public Map<String, Double> groupingBySumming() {
+        return ordini.parallelStream()
+            .collect(Collectors.groupingBy(StreamsDemo.Ordine::getCliente,
+                Collectors.summingDouble(StreamsDemo.Ordine::getImporto)));
+    }
+
+    @Benchmark
+    public ObjectDoubleHashMap<String> summingDoubleByKey() {
+        return ordini.parallelStream()
+            .collect(ParallelCollectors.summingDoubleByKey(StreamsDemo.Ordine::getCliente,
+                StreamsDemo.Ordine::getImporto));
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics collectorsSummarizing() {
+        return ordini.parallelStream().collect(Collectors.summarizingDouble(StreamsDemo.Ordine::getImporto));
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics parallelSummarizing() {
+        return ordini.parallelStream().collect(ParallelCollectors.summarizingDouble(StreamsDemo.Ordine::getImporto));
+    }
+
+    @Benchmark
+    public long distinctCount() {
+        return ordini.parallelStream().map(StreamsDemo.Ordine::getCliente).distinct().count();
+    }
+
+    @Benchmark
+    public long approxDistinct() {
+        return ordini.parallelStream().collect(ParallelCollectors.approxDistinct(StreamsDemo.Ordine::getCliente));
+    }
+
+    @Benchmark
+    public double quantileP99() {
+        return ordini.parallelStream()
+            .collect(ParallelCollectors.quantiles(StreamsDemo.Ordine::getImporto))
+            .quantile(0.99);
+    }
+}
@@ -0,0 +1,63 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * {@link ParallelSort} a confronto con Arrays.parallelSort fino a 100 milioni di int.
+ * Il risultato dipende dal numero di core: lanciare sulla macchina di destinazione.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelSortBenchmark extends SortBenchmarkSupport {
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "FEW_UNIQUE", "SAWTOOTH"})
+    public InputShape shape;
+
+    @Setup
+    public void setup() {
+        prepare(shape, size);
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        int[] arr = fresh();
+        Arrays.parallelSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        int[] arr = fresh();
+        ParallelSort.mergeSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] parallelRadixSort() {
+        int[] arr = fresh();
+        ParallelSort.radixSort(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,89 @@
+package com.corso.samples.datatypes;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * Benchmark degli algoritmi O(n²) di {@link AlgoritmiOrdinamentoDemo}.
+ * Le dimensioni si fermano a 50.000 elementi: oltre, un singolo ordinamento
+ * richiede minuti e il benchmark non è più utilizzabile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class QuadraticSortBenchmark extends SortBenchmarkSupport {
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param
+    public InputShape shape;
+
+    @Setup
+    public void setup() {
+        prepare(shape, size);
+    }
+
+    @Benchmark
+    public int[] copiaBaseline() {
+        return fresh();
+    }
+
+    @Benchmark
+    public int[] bubbleSort() {
+        int[] arr = fresh();
+        demo.bubbleSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] bubbleSortOttimizzato() {
+        int[] arr = fresh();
+        demo.bubbleSortOttimizzato(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] selectionSort() {
+        int[] arr = fresh();
+        demo.selectionSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] selectionSortStabile() {
+        int[] arr = fresh();
+        demo.selectionSortStabile(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertionSort() {
+        int[] arr = fresh();
+        demo.insertionSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertionSortBinary() {
+        int[] arr = fresh();
+        demo.insertionSortBinary(arr);
+        return arr;
+    }
+}
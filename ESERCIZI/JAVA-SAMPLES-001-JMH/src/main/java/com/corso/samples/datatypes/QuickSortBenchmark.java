@@ -0,0 +1,77 @@
+package com.corso.samples.datatypes;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * Benchmark delle varianti di Quick Sort su tutte le forme di input.
+ * Su input ordinati o con pochi valori distinti le varianti senza limite
+ * di profondità degenerano in O(n²) con ricorsione profonda n: per questo
+ * le dimensioni si fermano a 100.000 e lo stack dei thread è alzato a 512 MB.
+ * Le dimensioni maggiori sono in {@link QuickSortLargeBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Xss512m"})
+public class QuickSortBenchmark extends SortBenchmarkSupport {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param
+    public InputShape shape;
+
+    @Setup
+    public void setup() {
+        prepare(shape, size);
+    }
+
+    @Benchmark
+    public int[] copiaBaseline() {
+        return fresh();
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        int[] arr = fresh();
+        demo.quickSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSortMedianOfThree() {
+        int[] arr = fresh();
+        demo.quickSortMedianOfThree(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSortRandomized() {
+        int[] arr = fresh();
+        demo.quickSortRandomized(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSort3Way() {
+        int[] arr = fresh();
+        demo.quickSort3Way(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,69 @@
+package com.corso.samples.datatypes;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * Quick Sort su array grandi (fino a 10 milioni) solo con input casuale,
+ * l'unica forma su cui tutte le varianti restano in O(n log n).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Xss64m"})
+public class QuickSortLargeBenchmark extends SortBenchmarkSupport {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM"})
+    public InputShape shape;
+
+    @Setup
+    public void setup() {
+        prepare(shape, size);
+    }
+
+    @Benchmark
+    public int[] quickSort() {
+        int[] arr = fresh();
+        demo.quickSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSortMedianOfThree() {
+        int[] arr = fresh();
+        demo.quickSortMedianOfThree(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSortRandomized() {
+        int[] arr = fresh();
+        demo.quickSortRandomized(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSort3Way() {
+        int[] arr = fresh();
+        demo.quickSort3Way(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,28 @@
+package com.corso.samples.datatypes;
+
+import com.corso.samples.jmh.InputShape;
+
+/**
+ * Stato comune ai benchmark di ordinamento.
+ * L'array originale viene generato una volta per trial; ogni invocazione
+ * lo copia in un buffer di lavoro preallocato e ordina la copia.
+ * Il costo della copia è incluso in tutte le misure ed è riportato a parte
+ * dal benchmark {@code copiaBaseline}.
+ */
+abstract class SortBenchmarkSupport {
+
+    protected final AlgoritmiOrdinamentoDemo demo = new AlgoritmiOrdinamentoDemo();
+
+    protected int[] original;
+    protected int[] work;
+
+    protected void prepare(InputShape shape, int size) {
+        original = shape.generate(size);
+        work = new int[size];
+    }
+
+    protected int[] fresh() {
+        System.arraycopy(original, 0, work, 0, original.length);
+        return work;
+    }
+}
@@ -0,0 +1,105 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Indice ordinato sotto un carico misto: n inserimenti di chiavi casuali con una
+ * query per intervallo ogni 10 e, a indice pieno, n ricerche floorKey.
+ * Confronta la lista ordinata (binarySearch + add(indice), il pattern di
+ * CollectionsArraysDemo), TreeMap e LongBPlusTree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortedIndexBenchmark {
+
+    private static final long AMPIEZZA = 10_000_000L;
+
+    @Param({"100000"})
+    public int n;
+
+    private long[] chiavi;
+
+    @Setup
+    public void setup() {
+        chiavi = new Random(12345).longs(n, 0, 1_000_000_000L).toArray();
+    }
+
+    // ==================== INSERIMENTI + INTERVALLI ====================
+
+    @Benchmark
+    public long listaOrdinata() {
+        List<Long> lista = new ArrayList<>();
+        long trovati = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = Collections.binarySearch(lista, chiavi[i]);
+            if (pos < 0) {
+                lista.add(-pos - 1, chiavi[i]);
+            }
+            if (i % 10 == 0) {
+                trovati += primoNonMinore(lista, chiavi[i] + AMPIEZZA) - primoNonMinore(lista, chiavi[i]);
+            }
+        }
+        for (long k : chiavi) {
+            trovati += primoNonMinore(lista, k);
+        }
+        return trovati;
+    }
+
+    @Benchmark
+    public long treeMap() {
+        TreeMap<Long, Long> mappa = new TreeMap<>();
+        long trovati = 0;
+        for (int i = 0; i < n; i++) {
+            mappa.put(chiavi[i], (long) i);
+            if (i % 10 == 0) {
+                trovati += mappa.subMap(chiavi[i], chiavi[i] + AMPIEZZA).size();
+            }
+        }
+        for (long k : chiavi) {
+            trovati += mappa.floorKey(k);
+        }
+        return trovati;
+    }
+
+    @Benchmark
+    public long longBPlusTree() {
+        LongBPlusTree albero = new LongBPlusTree();
+        long trovati = 0;
+        for (int i = 0; i < n; i++) {
+            albero.put(chiavi[i], i);
+            if (i % 10 == 0) {
+                trovati += albero.countInRange(chiavi[i], chiavi[i] + AMPIEZZA);
+            }
+        }
+        for (long k : chiavi) {
+            trovati += albero.floorKey(k).getAsLong();
+        }
+        return trovati;
+    }
+
+    private static int primoNonMinore(List<Long> lista, long chiave) {
+        int pos = Collections.binarySearch(lista, chiave);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+}
@@ -0,0 +1,84 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ordinamento di StreamsDemo.Ordine per importo: Comparator con boxing
+ * contro {@link Sorter} con chiave estratta, per ogni algoritmo.
+ * Il benchmark sta nel package di StreamsDemo perché Ordine è package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SorterBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"MERGE", "TIM", "HEAP", "QUICK_RANDOMIZED", "QUICK_3WAY"})
+    public Sorter.Algoritmo algoritmo;
+
+    private StreamsDemo.Ordine[] original;
+    private StreamsDemo.Ordine[] work;
+    private Sorter<StreamsDemo.Ordine> perChiave;
+    private Sorter<StreamsDemo.Ordine> perComparator;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        original = new StreamsDemo.Ordine[size];
+        for (int i = 0; i < size; i++) {
+            original[i] = new StreamsDemo.Ordine("O" + i, "Cliente" + rand.nextInt(1000),
+                rand.nextInt(100_000) / 100.0, "Completato", List.of());
+        }
+        work = new StreamsDemo.Ordine[size];
+        perChiave = Sorter.<StreamsDemo.Ordine>comparingDouble(StreamsDemo.Ordine::getImporto).algoritmo(algoritmo);
+        perComparator = Sorter.<StreamsDemo.Ordine>comparing(Comparator.comparing(StreamsDemo.Ordine::getImporto))
+            .algoritmo(algoritmo);
+    }
+
+    private StreamsDemo.Ordine[] fresh() {
+        System.arraycopy(original, 0, work, 0, size);
+        return work;
+    }
+
+    @Benchmark
+    public Object[] arraysSortComparator() {
+        StreamsDemo.Ordine[] arr = fresh();
+        Arrays.sort(arr, Comparator.comparing(StreamsDemo.Ordine::getImporto));
+        return arr;
+    }
+
+    @Benchmark
+    public Object[] sorterComparator() {
+        StreamsDemo.Ordine[] arr = fresh();
+        perComparator.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public Object[] sorterChiave() {
+        StreamsDemo.Ordine[] arr = fresh();
+        perChiave.sort(arr);
+        return arr;
+    }
+}
@@ -0,0 +1,105 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * I k elementi più grandi: ordinamento completo contro {@link Selection}
+ * su int[] e sorted().limit() contro {@link TopKCollector} sugli ordini.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TopKBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"10", "100", "10000"})
+    public int k;
+
+    private int[] original;
+    private int[] work;
+    private List<StreamsDemo.Ordine> ordini;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(12345);
+        original = new int[size];
+        ordini = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            original[i] = rand.nextInt();
+            ordini.add(new StreamsDemo.Ordine("O" + i, "Cliente" + rand.nextInt(1000),
+                rand.nextInt(100_000) / 100.0, "Completato", List.of()));
+        }
+        work = new int[size];
+    }
+
+    private int[] fresh() {
+        System.arraycopy(original, 0, work, 0, size);
+        return work;
+    }
+
+    // ==================== int[] ====================
+
+    @Benchmark
+    public int arraysSort() {
+        int[] arr = fresh();
+        Arrays.sort(arr);
+        return arr[size - k];
+    }
+
+    @Benchmark
+    public int nthElement() {
+        int[] arr = fresh();
+        Selection.nthElement(arr, size - k);
+        return arr[size - k];
+    }
+
+    @Benchmark
+    public int[] topKHeap() {
+        return Selection.topK(original, k);
+    }
+
+    // ==================== Stream di oggetti ====================
+
+    @Benchmark
+    public List<StreamsDemo.Ordine> streamSortedLimit() {
+        return ordini.stream()
+            .sorted(Comparator.comparingDouble(StreamsDemo.Ordine::getImporto).reversed())
+            .limit(k)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<StreamsDemo.Ordine> topKCollector() {
+        return ordini.stream()
+            .collect(TopKCollector.comparingDouble(k, StreamsDemo.Ordine::getImporto));
+    }
+
+    @Benchmark
+    public List<StreamsDemo.Ordine> topKCollectorParallel() {
+        return ordini.parallelStream()
+            .collect(TopKCollector.comparingDouble(k, StreamsDemo.Ordine::getImporto));
+    }
+}
@@ -0,0 +1,118 @@
+package com.corso.samples.javaadv;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link MappedRecordStore} su 4 milioni di record da 16 byte (id, valore)
+ * e altrettanti record variabili, contro seek e read di RandomAccessFile.
+ * - letturaFissa / letturaVariabile: get(i) casuale, slice senza copia
+ * - letturaRandomAccessFile: lo stesso record fisso con seek + readDouble
+ * - aggiunta: append di un record fisso su uno store che cresce per segmenti
+ *   (ForcePolicy.onClose: misura la memoria, non il disco)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MappedRecordStoreBenchmark {
+
+    private static final int RECORD = 4_000_000;
+
+    private Path directory;
+    private MappedRecordStore fissi;
+    private MappedRecordStore variabili;
+    private RandomAccessFile raf;
+    private MappedRecordStore scrittura;
+    private final ByteBuffer record = ByteBuffer.allocate(16);
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("mrs-bench");
+        try (MappedRecordStore store = MappedRecordStore.builder(directory.resolve("fissi")).fixedSize(16).open();
+             MappedRecordStore store2 = MappedRecordStore.builder(directory.resolve("variabili")).open()) {
+            for (int i = 0; i < RECORD; i++) {
+                record.clear();
+                record.putLong(i).putDouble(i * 0.5).flip();
+                store.append(record);
+                store2.append(new byte[8 + i % 40]);
+            }
+        }
+        fissi = MappedRecordStore.builder(directory.resolve("fissi")).readOnly().open();
+        variabili = MappedRecordStore.builder(directory.resolve("variabili")).readOnly().open();
+        raf = new RandomAccessFile(directory.resolve("fissi").toFile(), "r");
+        raf.seek(64 + 16L * 1234 + 8);
+        if (raf.readDouble() != fissi.get(1234).getDouble(8) || variabili.size() != RECORD) {
+            throw new IllegalStateException("Layout del file diverso da quello atteso");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void nuovoStore() throws IOException {
+        Files.deleteIfExists(directory.resolve("scrittura"));
+        scrittura = MappedRecordStore.builder(directory.resolve("scrittura")).fixedSize(16).open();
+    }
+
+    @TearDown(Level.Iteration)
+    public void chiudiStore() throws IOException {
+        scrittura.close();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fissi.close();
+        variabili.close();
+        raf.close();
+        try (var file = Files.list(directory)) {
+            for (Path p : (Iterable<Path>) file::iterator) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public double letturaFissa() {
+        return fissi.get(random.nextInt(RECORD)).getDouble(8);
+    }
+
+    @Benchmark
+    public int letturaVariabile() {
+        return variabili.get(random.nextInt(RECORD)).remaining();
+    }
+
+    @Benchmark
+    public double letturaRandomAccessFile() throws IOException {
+        // Record i: dopo i 64 byte di header, 16 byte ciascuno
+        raf.seek(64 + 16L * random.nextInt(RECORD) + 8);
+        return raf.readDouble();
+    }
+
+    @Benchmark
+    public long aggiunta() {
+        record.clear();
+        record.putLong(1).putDouble(0.5).flip();
+        return scrittura.append(record);
+    }
+}
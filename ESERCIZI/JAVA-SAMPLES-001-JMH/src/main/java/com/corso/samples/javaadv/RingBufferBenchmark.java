@@ -0,0 +1,140 @@
+package com.corso.samples.javaadv;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Passaggio di messaggi tra thread: ArrayBlockingQueue contro RingBufferQueue
+ * con 1 producer/1 consumer (spsc), 2/1 (mpsc) e 2/2 (mpmc). Ogni gruppo JMH ha
+ * la sua coda; offer e poll vengono ripetuti (con yield) finché riescono, così
+ * un'operazione misurata è un messaggio passato davvero. Control.stopMeasurement
+ * evita che un lato resti in attesa dopo la fine dell'iterazione.
+ * Con meno core che thread i risultati misurano soprattutto lo scheduler.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RingBufferBenchmark {
+
+    private static final Integer MESSAGGIO = 42;
+
+    @State(Scope.Group)
+    public static class Coda {
+        @Param({"ArrayBlockingQueue", "RingBufferQueue"})
+        public String tipo;
+
+        BlockingQueue<Integer> coda;
+
+        BlockingQueue<Integer> crea(String variante) {
+            if (tipo.equals("ArrayBlockingQueue")) {
+                return new ArrayBlockingQueue<>(1024);
+            }
+            return switch (variante) {
+                case "spsc" -> RingBufferQueue.spsc(1024, RingBufferQueue.WaitStrategy.YIELD);
+                case "mpsc" -> RingBufferQueue.mpsc(1024, RingBufferQueue.WaitStrategy.YIELD);
+                default -> RingBufferQueue.mpmc(1024, RingBufferQueue.WaitStrategy.YIELD);
+            };
+        }
+    }
+
+    public static class CodaSpsc extends Coda {
+        @Setup
+        public void setup() {
+            coda = crea("spsc");
+        }
+    }
+
+    public static class CodaMpsc extends Coda {
+        @Setup
+        public void setup() {
+            coda = crea("mpsc");
+        }
+    }
+
+    public static class CodaMpmc extends Coda {
+        @Setup
+        public void setup() {
+            coda = crea("mpmc");
+        }
+    }
+
+    // ==================== 1 PRODUCER / 1 CONSUMER ====================
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscOffer(CodaSpsc stato, Control control) {
+        offri(stato.coda, control);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Integer spscPoll(CodaSpsc stato, Control control) {
+        return preleva(stato.coda, control);
+    }
+
+    // ==================== 2 PRODUCER / 1 CONSUMER ====================
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(2)
+    public void mpscOffer(CodaMpsc stato, Control control) {
+        offri(stato.coda, control);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public Integer mpscPoll(CodaMpsc stato, Control control) {
+        return preleva(stato.coda, control);
+    }
+
+    // ==================== 2 PRODUCER / 2 CONSUMER ====================
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public void mpmcOffer(CodaMpmc stato, Control control) {
+        offri(stato.coda, control);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public Integer mpmcPoll(CodaMpmc stato, Control control) {
+        return preleva(stato.coda, control);
+    }
+
+    private static void offri(BlockingQueue<Integer> coda, Control control) {
+        while (!coda.offer(MESSAGGIO) && !control.stopMeasurement) {
+            Thread.yield();
+        }
+    }
+
+    private static Integer preleva(BlockingQueue<Integer> coda, Control control) {
+        Integer e;
+        while ((e = coda.poll()) == null && !control.stopMeasurement) {
+            Thread.yield();
+        }
+        return e;
+    }
+}
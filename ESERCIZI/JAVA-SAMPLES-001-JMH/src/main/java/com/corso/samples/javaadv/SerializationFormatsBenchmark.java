@@ -0,0 +1,98 @@
+package com.corso.samples.javaadv;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Formati di serializzazione a confronto nei due sensi, per ogni forma di
+ * {@link SerializationPayload}: Java nativa (Externalizable per SMALL, che è un
+ * Product, e Serializable per il suo gemello SMALL_SERIALIZABLE), Jackson, Gson,
+ * JAXB e XMLEncoder, tutti attraverso {@link SerializationService} (contesti e mapper già pronti, buffer riusato).
+ * - scrittura: oggetto in byte
+ * - lettura: byte in oggetto
+ * La dimensione codificata è la metrica secondaria byteCodificati; i byte
+ * allocati per operazione (gc.alloc.rate.norm) e l'export JSON, da confrontare
+ * tra una release e l'altra, si ottengono con il runner:
+ *   java -cp target/benchmarks.jar com.corso.samples.jmh.BenchmarkRunner SerializationFormatsBenchmark serializzazione.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SerializationFormatsBenchmark {
+
+    @Param({"SMALL", "SMALL_SERIALIZABLE", "NESTED", "COLLECTION", "POLYMORPHIC"})
+    public SerializationPayload payload;
+
+    @Param({"JAVA", "JACKSON", "GSON", "JAXB", "XML_ENCODER"})
+    public SerializationService.Format formato;
+
+    private Object oggetto;
+    private Class<?> classe;
+    private SerializationService servizio;
+    private SerializationService.PooledBuffer buffer;
+    private byte[] codificato;
+
+    /**
+     * Dimensione codificata riportata accanto al throughput. JMH azzera i contatori
+     * a ogni iterazione, quindi la assegnano i metodi misurati (una scrittura di campo)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Dimensione {
+        public long byteCodificati;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        oggetto = payload.crea();
+        classe = oggetto.getClass();
+        servizio = new SerializationService(new ObjectMapper(), SerializationPayload.gson());
+        buffer = servizio.acquireBuffer();
+        codificato = servizio.serialize(oggetto, formato);
+
+        // Confronto sull'albero JSON: vale per tutte le forme senza equals nelle classi
+        ObjectMapper mapper = new ObjectMapper();
+        Object letto = servizio.deserialize(codificato, classe, formato);
+        if (!mapper.valueToTree(letto).equals(mapper.valueToTree(oggetto))) {
+            throw new IllegalStateException("Round trip diverso per " + payload + " in " + formato);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.close();
+    }
+
+    @Benchmark
+    public int scrittura(Dimensione dimensione) throws IOException {
+        buffer.reset();
+        servizio.write(oggetto, formato, buffer);
+        dimensione.byteCodificati = buffer.size();
+        return buffer.size();
+    }
+
+    @Benchmark
+    public Object lettura(Dimensione dimensione) throws IOException {
+        dimensione.byteCodificati = codificato.length;
+        return servizio.deserialize(codificato, classe, formato);
+    }
+}
@@ -0,0 +1,250 @@
+package com.corso.samples.javaadv;
+
+import java.io.ObjectStreamField;
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElements;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Forme di oggetto usate dai benchmark di serializzazione. Ogni classe è un
+ * bean pubblico (costruttore vuoto, getter e setter) e Serializable, così
+ * funziona con tutti i formati: Java nativa, Jackson, Gson, JAXB e XMLEncoder.
+ */
+public enum SerializationPayload {
+
+    /** Un SerializationDemo.Product: per la serializzazione nativa è Externalizable */
+    SMALL {
+        @Override
+        Object crea() {
+            return new SerializationDemo.Product("P-001", "Laptop Pro 14", 1299.99, 12);
+        }
+    },
+
+    /**
+     * Gli stessi campi di SMALL in un Prodotto solo Serializable: con il formato JAVA
+     * confronta la serializzazione nativa per riflessione con l'Externalizable di SMALL
+     */
+    SMALL_SERIALIZABLE {
+        @Override
+        Object crea() {
+            return new Prodotto("P-001", "Laptop Pro 14", 1299.99, 12);
+        }
+    },
+
+    /** Una SerializationDemo.Person con il suo Address */
+    NESTED {
+        @Override
+        Object crea() {
+            return persona(0);
+        }
+    },
+
+    /** Una Rubrica con 100 persone e 100 etichette */
+    COLLECTION {
+        @Override
+        Object crea() {
+            Rubrica rubrica = new Rubrica();
+            rubrica.setNome("Clienti");
+            for (int i = 0; i < 100; i++) {
+                rubrica.getPersone().add(persona(i));
+                rubrica.getEtichette().add("etichetta-" + i);
+            }
+            return rubrica;
+        }
+    },
+
+    /** Un Disegno con 100 forme, metà Cerchio e metà Rettangolo, dietro il tipo astratto Forma */
+    POLYMORPHIC {
+        @Override
+        Object crea() {
+            Disegno disegno = new Disegno();
+            disegno.setTitolo("Planimetria");
+            for (int i = 0; i < 100; i++) {
+                Forma forma = i % 2 == 0 ? new Cerchio(1 + i * 0.5) : new Rettangolo(2 + i, 3 + i * 0.25);
+                forma.setColore(i % 3 == 0 ? "rosso" : "blu");
+                disegno.getForme().add(forma);
+            }
+            return disegno;
+        }
+    };
+
+    abstract Object crea();
+
+    private static SerializationDemo.Person persona(int i) {
+        SerializationDemo.Person persona = new SerializationDemo.Person("Persona " + i, 20 + i % 50, "persona" + i + "@example.com");
+        persona.setAddress(new SerializationDemo.Address("Via Roma " + (i + 1), "Milano", "20100"));
+        return persona;
+    }
+
+    /**
+     * Gson non conosce i sottotipi di Forma: li scrive e li legge con un campo "tipo",
+     * come fa Jackson con @JsonTypeInfo
+     */
+    static Gson gson() {
+        return new GsonBuilder().registerTypeAdapter(Forma.class, new FormaGson()).create();
+    }
+
+    private static final class FormaGson implements JsonSerializer<Forma>, JsonDeserializer<Forma> {
+        @Override
+        public JsonElement serialize(Forma forma, Type tipo, JsonSerializationContext context) {
+            JsonObject json = context.serialize(forma, forma.getClass()).getAsJsonObject();
+            json.addProperty("tipo", forma instanceof Cerchio ? "cerchio" : "rettangolo");
+            return json;
+        }
+
+        @Override
+        public Forma deserialize(JsonElement json, Type tipo, JsonDeserializationContext context) {
+            String nome = json.getAsJsonObject().get("tipo").getAsString();
+            return switch (nome) {
+                case "cerchio" -> context.deserialize(json, Cerchio.class);
+                case "rettangolo" -> context.deserialize(json, Rettangolo.class);
+                default -> throw new JsonParseException("Forma sconosciuta: " + nome);
+            };
+        }
+    }
+
+    // ==================== MODELLO ====================
+
+    /**
+     * Gemello Serializable di SerializationDemo.Product: stessi campi e stesse proprietà.
+     * serialPersistentFields esclude description solo dalla serializzazione nativa,
+     * come fa writeExternal; transient la toglierebbe anche a Gson
+     */
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Prodotto implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("code", String.class),
+            new ObjectStreamField("name", String.class),
+            new ObjectStreamField("price", double.class),
+            new ObjectStreamField("quantity", int.class)
+        };
+
+        private String code;
+        private String name;
+        private double price;
+        private int quantity;
+        private String description;
+
+        public Prodotto() {}
+
+        public Prodotto(String code, String name, double price, int quantity) {
+            this.code = code;
+            this.name = name;
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        public String getCode() { return code; }
+        public void setCode(String code) { this.code = code; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public double getPrice() { return price; }
+        public void setPrice(double price) { this.price = price; }
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Rubrica implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String nome;
+        // ArrayList e non List: il campo di una classe Serializable deve esserlo a sua volta
+        private ArrayList<SerializationDemo.Person> persone = new ArrayList<>();
+        private ArrayList<String> etichette = new ArrayList<>();
+
+        public String getNome() { return nome; }
+        public void setNome(String nome) { this.nome = nome; }
+        public List<SerializationDemo.Person> getPersone() { return persone; }
+        public void setPersone(List<SerializationDemo.Person> persone) { this.persone = new ArrayList<>(persone); }
+        public List<String> getEtichette() { return etichette; }
+        public void setEtichette(List<String> etichette) { this.etichette = new ArrayList<>(etichette); }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Disegno implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String titolo;
+        @XmlElements({
+            @XmlElement(name = "cerchio", type = Cerchio.class),
+            @XmlElement(name = "rettangolo", type = Rettangolo.class)
+        })
+        private ArrayList<Forma> forme = new ArrayList<>();
+
+        public String getTitolo() { return titolo; }
+        public void setTitolo(String titolo) { this.titolo = titolo; }
+        public List<Forma> getForme() { return forme; }
+        public void setForme(List<Forma> forme) { this.forme = new ArrayList<>(forme); }
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "tipo")
+    @JsonSubTypes({
+        @JsonSubTypes.Type(value = Cerchio.class, name = "cerchio"),
+        @JsonSubTypes.Type(value = Rettangolo.class, name = "rettangolo")
+    })
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public abstract static class Forma implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String colore;
+
+        public String getColore() { return colore; }
+        public void setColore(String colore) { this.colore = colore; }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Cerchio extends Forma {
+        private static final long serialVersionUID = 1L;
+
+        private double raggio;
+
+        public Cerchio() {}
+
+        public Cerchio(double raggio) { this.raggio = raggio; }
+
+        public double getRaggio() { return raggio; }
+        public void setRaggio(double raggio) { this.raggio = raggio; }
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Rettangolo extends Forma {
+        private static final long serialVersionUID = 1L;
+
+        private double base;
+        private double altezza;
+
+        public Rettangolo() {}
+
+        public Rettangolo(double base, double altezza) {
+            this.base = base;
+            this.altezza = altezza;
+        }
+
+        public double getBase() { return base; }
+        public void setBase(double base) { this.base = base; }
+        public double getAltezza() { return altezza; }
+        public void setAltezza(double altezza) { this.altezza = altezza; }
+    }
+}
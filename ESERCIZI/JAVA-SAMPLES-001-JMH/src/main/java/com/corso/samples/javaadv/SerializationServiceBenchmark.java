@@ -0,0 +1,119 @@
+package com.corso.samples.javaadv;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+
+/**
+ * Serializzazione di una SerializationDemo.Person per formato, attraverso
+ * {@link SerializationService} (contesti, mapper e codec in cache, buffer del pool)
+ * e creando tutto a ogni chiamata come faceva SerializationDemo:
+ * JAXBContext, ObjectMapper, Gson, BinaryCodec.fromClass e ByteArrayOutputStream nuovi.
+ * - servizioScrittura: oggetto in byte su un buffer riusato
+ * - servizioLettura: byte già serializzati in oggetto
+ * - servizioRoundTrip: scrittura e lettura con il servizio
+ * - senzaCacheScrittura: come servizioScrittura, senza nulla di riusato
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SerializationServiceBenchmark {
+
+    @Param({"JAVA", "JACKSON", "GSON", "JAXB", "BINARY"})
+    public SerializationService.Format formato;
+
+    private SerializationDemo.Person persona;
+    private SerializationService servizio;
+    private SerializationService.PooledBuffer buffer;
+    private byte[] serializzata;
+
+    @Setup
+    public void setup() throws IOException {
+        persona = new SerializationDemo.Person("Mario Rossi", 35, "mario.rossi@example.com");
+        persona.setAddress(new SerializationDemo.Address("Via Roma 1", "Milano", "20100"));
+        servizio = new SerializationService();
+        buffer = servizio.acquireBuffer();
+        serializzata = servizio.serialize(persona, formato);
+
+        SerializationDemo.Person letta = servizioRoundTrip();
+        if (!letta.toString().equals(persona.toString())
+            || !letta.getAddress().toString().equals(persona.getAddress().toString())) {
+            throw new IllegalStateException("Round trip diverso per " + formato + ": " + letta);
+        }
+        if (senzaCacheScrittura() != servizioScrittura()) {
+            throw new IllegalStateException("Dimensioni diverse con e senza servizio per " + formato);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.close();
+    }
+
+    @Benchmark
+    public int servizioScrittura() throws IOException {
+        buffer.reset();
+        servizio.write(persona, formato, buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public SerializationDemo.Person servizioRoundTrip() throws IOException {
+        return servizio.deserialize(servizio.serialize(persona, formato), SerializationDemo.Person.class, formato);
+    }
+
+    @Benchmark
+    public SerializationDemo.Person servizioLettura() throws IOException {
+        return servizio.deserialize(serializzata, SerializationDemo.Person.class, formato);
+    }
+
+    @Benchmark
+    public int senzaCacheScrittura() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        switch (formato) {
+            case JAVA -> {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(persona);
+                oos.close();
+            }
+            case JACKSON -> new ObjectMapper().writeValue(out, persona);
+            case GSON -> out.write(new Gson().toJson(persona).getBytes(StandardCharsets.UTF_8));
+            case JAXB -> {
+                try {
+                    JAXBContext.newInstance(SerializationDemo.Person.class).createMarshaller().marshal(
+                        new JAXBElement<>(new QName("person"), SerializationDemo.Person.class, persona), out);
+                } catch (JAXBException e) {
+                    throw new IOException(e);
+                }
+            }
+            case BINARY -> out.write(BinaryCodec.fromClass(SerializationDemo.Person.class).toByteArray(persona));
+        }
+        return out.size();
+    }
+}
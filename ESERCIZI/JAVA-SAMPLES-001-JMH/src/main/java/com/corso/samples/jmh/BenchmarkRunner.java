@@ -0,0 +1,32 @@
+package com.corso.samples.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Avvia i benchmark con il profiler GC sempre attivo (allocation rate,
+ * gc.alloc.rate.norm = byte allocati per operazione) ed esporta i
+ * risultati in JSON.
+ *
+ * Uso:
+ *   java -cp target/benchmarks.jar com.corso.samples.jmh.BenchmarkRunner [regex] [file.json]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : ".*";
+        String resultFile = args.length > 1 ? args[1] : "jmh-result.json";
+
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile)
+            .build();
+
+        new Runner(options).run();
+    }
+}
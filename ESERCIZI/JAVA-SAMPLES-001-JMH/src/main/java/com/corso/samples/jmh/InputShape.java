@@ -0,0 +1,74 @@
+package com.corso.samples.jmh;
+
+import java.util.Random;
+
+/**
+ * Forme di input usate dai benchmark di ordinamento.
+ * Tutti i valori generati sono non negativi e minori di n, così che
+ * Counting Sort, Radix Sort e Bucket Sort lavorino su un range O(n).
+ */
+public enum InputShape {
+
+    /** Valori casuali uniformi in [0, n) */
+    RANDOM {
+        @Override
+        void fill(int[] arr, Random rand) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(arr.length);
+            }
+        }
+    },
+
+    /** Già ordinato in modo crescente */
+    SORTED {
+        @Override
+        void fill(int[] arr, Random rand) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = i;
+            }
+        }
+    },
+
+    /** Ordinato in modo decrescente */
+    REVERSE_SORTED {
+        @Override
+        void fill(int[] arr, Random rand) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = arr.length - 1 - i;
+            }
+        }
+    },
+
+    /** Pochi valori distinti (16), molti duplicati */
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] arr, Random rand) {
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = rand.nextInt(16);
+            }
+        }
+    },
+
+    /** Sequenze crescenti ripetute (16 "denti" di sega) */
+    SAWTOOTH {
+        @Override
+        void fill(int[] arr, Random rand) {
+            int period = Math.max(1, arr.length / 16);
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = i % period;
+            }
+        }
+    };
+
+    abstract void fill(int[] arr, Random rand);
+
+    /**
+     * Genera un array di dimensione n con la forma richiesta.
+     * Il seed è fisso per rendere i run confrontabili tra loro.
+     */
+    public int[] generate(int n) {
+        int[] arr = new int[n];
+        fill(arr, new Random(12345));
+        return arr;
+    }
+}
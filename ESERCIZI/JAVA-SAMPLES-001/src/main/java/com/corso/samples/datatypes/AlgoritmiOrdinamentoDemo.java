@@ -24,16 +24,17 @@ import java.util.function.Consumer;
  * - Bucket Sort
  * - Shell Sort
  * - Tim Sort (ibrido)
+ * - Pattern-Defeating Quick Sort (introsort ibrido, vedi PatternDefeatingSort)
+ * - Merge Sort e Radix Sort paralleli con Fork/Join (vedi ParallelSort)
  * - Analisi complessità temporale e spaziale
  * - Comparazioni di performance
- * - Visualizzazione passi
+ * - Ordinamento strumentato: confronti, scambi, allocazioni (SortStats, eventi JFR)
  * - Ordinamento di oggetti custom
+ * - API generica Sorter (Comparator o chiave primitiva, algoritmo a scelta)
+ * - Selezione parziale: nthElement, partialSort e top-K (vedi Selection)
  */
 public class AlgoritmiOrdinamentoDemo {
 
-    private static boolean visualizzaPasosi = false;
-    private static int contatorePassi = 0;
-
     public static void sample() {
         AlgoritmiOrdinamentoDemo demo = new AlgoritmiOrdinamentoDemo();
         
@@ -48,17 +49,22 @@ public class AlgoritmiOrdinamentoDemo {
         demo.mergeSortDemo();
         demo.quickSortDemo();
         demo.heapSortDemo();
+        demo.patternDefeatingSortDemo();
         
         // Algoritmi speciali
         demo.countingSortDemo();
         demo.radixSortDemo();
         demo.bucketSortDemo();
         demo.shellSortDemo();
+        demo.parallelSortDemo();
         
         // Analisi e comparazioni
         demo.analisiComplessita();
         demo.comparazionePerformance();
+        demo.strumentazioneDemo();
         demo.ordinamentoOggetti();
+        demo.sorterDemo();
+        demo.selezioneDemo();
         demo.casiSpeciali();
         demo.bestPractices();
     }
@@ -90,53 +96,28 @@ public class AlgoritmiOrdinamentoDemo {
      * Aggiunge flag per terminare anticipatamente se l'array è già ordinato
      */
     public void bubbleSortOttimizzato(int[] arr) {
-        int n = arr.length;
-        boolean scambiato;
-        
-        for (int i = 0; i < n - 1; i++) {
-            scambiato = false;
-            
-            for (int j = 0; j < n - i - 1; j++) {
-                if (arr[j] > arr[j + 1]) {
-                    int temp = arr[j];
-                    arr[j] = arr[j + 1];
-                    arr[j + 1] = temp;
-                    scambiato = true;
-                }
-            }
-            
-            // Se nessun scambio, l'array è ordinato
-            if (!scambiato) {
-                break;
-            }
-        }
+        bubbleSortOttimizzato(arr, SortCounter.NESSUNO);
     }
 
     /**
-     * Bubble Sort con visualizzazione passi
+     * Bubble Sort ottimizzato strumentato: conta confronti e scambi in c
      */
-    public void bubbleSortVisualizzato(int[] arr) {
+    public void bubbleSortOttimizzato(int[] arr, SortCounter c) {
         int n = arr.length;
-        System.out.println("Array iniziale: " + Arrays.toString(arr));
+        boolean scambiato;
         
         for (int i = 0; i < n - 1; i++) {
-            boolean scambiato = false;
-            System.out.println("\n--- Pass " + (i + 1) + " ---");
+            scambiato = false;
             
             for (int j = 0; j < n - i - 1; j++) {
-                if (arr[j] > arr[j + 1]) {
-                    System.out.println("Scambio " + arr[j] + " con " + arr[j + 1]);
-                    int temp = arr[j];
-                    arr[j] = arr[j + 1];
-                    arr[j + 1] = temp;
+                if (c.confronta(arr[j], arr[j + 1]) > 0) {
+                    c.scambia(arr, j, j + 1);
                     scambiato = true;
                 }
             }
             
-            System.out.println("Dopo pass " + (i + 1) + ": " + Arrays.toString(arr));
-            
+            // Se nessun scambio, l'array è ordinato
             if (!scambiato) {
-                System.out.println("Array già ordinato, termino anticipatamente");
                 break;
             }
         }
@@ -151,9 +132,8 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Array originale: " + Arrays.toString(arr1));
         bubbleSort(arr1.clone());
         
-        int[] arr2 = {5, 2, 8, 1, 9};
-        System.out.println("\nBubble Sort con visualizzazione:");
-        bubbleSortVisualizzato(arr2);
+        System.out.println("\nBubble Sort strumentato (1000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Bubble Sort", arrayCasuale(1000), this::bubbleSortOttimizzato, 3));
         
         // Test su array quasi ordinato
         int[] arr3 = {1, 2, 3, 5, 4};
@@ -185,51 +165,26 @@ public class AlgoritmiOrdinamentoDemo {
      * Stabile: No (ma può essere reso stabile)
      */
     public void selectionSort(int[] arr) {
-        int n = arr.length;
-        
-        for (int i = 0; i < n - 1; i++) {
-            // Trova l'indice del minimo elemento
-            int minIndex = i;
-            for (int j = i + 1; j < n; j++) {
-                if (arr[j] < arr[minIndex]) {
-                    minIndex = j;
-                }
-            }
-            
-            // Scambia il minimo trovato con il primo elemento
-            int temp = arr[minIndex];
-            arr[minIndex] = arr[i];
-            arr[i] = temp;
-        }
+        selectionSort(arr, SortCounter.NESSUNO);
     }
 
     /**
-     * Selection Sort con visualizzazione
+     * Selection Sort strumentato
      */
-    public void selectionSortVisualizzato(int[] arr) {
+    public void selectionSort(int[] arr, SortCounter c) {
         int n = arr.length;
-        System.out.println("Array iniziale: " + Arrays.toString(arr));
         
         for (int i = 0; i < n - 1; i++) {
+            // Trova l'indice del minimo elemento
             int minIndex = i;
-            
-            System.out.println("\n--- Pass " + (i + 1) + " ---");
-            System.out.println("Cerco minimo da indice " + i);
-            
             for (int j = i + 1; j < n; j++) {
-                if (arr[j] < arr[minIndex]) {
+                if (c.confronta(arr[j], arr[minIndex]) < 0) {
                     minIndex = j;
                 }
             }
             
-            System.out.println("Minimo trovato: " + arr[minIndex] + " all'indice " + minIndex);
-            System.out.println("Scambio con elemento all'indice " + i + " (valore " + arr[i] + ")");
-            
-            int temp = arr[minIndex];
-            arr[minIndex] = arr[i];
-            arr[i] = temp;
-            
-            System.out.println("Dopo pass " + (i + 1) + ": " + Arrays.toString(arr));
+            // Scambia il minimo trovato con il primo elemento
+            c.scambia(arr, minIndex, i);
         }
     }
 
@@ -263,9 +218,9 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Complessità: O(n²) tempo, O(1) spazio");
         System.out.println("Stabile: No (versione base)\n");
         
-        int[] arr = {29, 10, 14, 37, 13};
-        System.out.println("Selection Sort con visualizzazione:");
-        selectionSortVisualizzato(arr.clone());
+        System.out.println("Selection Sort strumentato (1000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Selection Sort", arrayCasuale(1000), this::selectionSort, 3));
+        System.out.println("Gli scambi sono sempre n - 1, i confronti sempre n(n-1)/2");
         
         System.out.println();
     }
@@ -279,42 +234,26 @@ public class AlgoritmiOrdinamentoDemo {
      * Stabile: Sì
      */
     public void insertionSort(int[] arr) {
-        int n = arr.length;
-        
-        for (int i = 1; i < n; i++) {
-            int key = arr[i];
-            int j = i - 1;
-            
-            // Sposta gli elementi maggiori di key una posizione avanti
-            while (j >= 0 && arr[j] > key) {
-                arr[j + 1] = arr[j];
-                j--;
-            }
-            arr[j + 1] = key;
-        }
+        insertionSort(arr, SortCounter.NESSUNO);
     }
 
     /**
-     * Insertion Sort con visualizzazione
+     * Insertion Sort strumentato: ogni shift conta come spostamento
      */
-    public void insertionSortVisualizzato(int[] arr) {
+    public void insertionSort(int[] arr, SortCounter c) {
         int n = arr.length;
-        System.out.println("Array iniziale: " + Arrays.toString(arr));
         
         for (int i = 1; i < n; i++) {
             int key = arr[i];
             int j = i - 1;
             
-            System.out.println("\n--- Pass " + i + " ---");
-            System.out.println("Inserisco elemento " + key + " nella parte ordinata");
-            
-            while (j >= 0 && arr[j] > key) {
+            // Sposta gli elementi maggiori di key una posizione avanti
+            while (j >= 0 && c.confronta(arr[j], key) > 0) {
                 arr[j + 1] = arr[j];
                 j--;
             }
             arr[j + 1] = key;
-            
-            System.out.println("Dopo pass " + i + ": " + Arrays.toString(arr));
+            c.sposta(i - j);
         }
     }
 
@@ -346,9 +285,8 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Spazio: O(1)");
         System.out.println("Stabile: Sì\n");
         
-        int[] arr = {12, 11, 13, 5, 6};
-        System.out.println("Insertion Sort con visualizzazione:");
-        insertionSortVisualizzato(arr.clone());
+        System.out.println("Insertion Sort strumentato (1000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Insertion Sort", arrayCasuale(1000), this::insertionSort, 3));
         
         // Caso migliore: array già ordinato
         int[] arrOrdinato = {1, 2, 3, 4, 5};
@@ -379,26 +317,36 @@ public class AlgoritmiOrdinamentoDemo {
      * Stabile: Sì
      */
     public void mergeSort(int[] arr) {
+        mergeSort(arr, SortCounter.NESSUNO);
+    }
+
+    /**
+     * Merge Sort strumentato: gli array temporanei di ogni merge compaiono
+     * nei byte allocati
+     */
+    public void mergeSort(int[] arr, SortCounter c) {
         if (arr.length < 2) {
             return;
         }
-        mergeSortHelper(arr, 0, arr.length - 1);
+        mergeSortHelper(arr, 0, arr.length - 1, c);
     }
 
-    private void mergeSortHelper(int[] arr, int left, int right) {
+    private void mergeSortHelper(int[] arr, int left, int right, SortCounter c) {
         if (left < right) {
+            c.entra();
             int mid = left + (right - left) / 2;
             
             // Ordina ricorsivamente le due metà
-            mergeSortHelper(arr, left, mid);
-            mergeSortHelper(arr, mid + 1, right);
+            mergeSortHelper(arr, left, mid, c);
+            mergeSortHelper(arr, mid + 1, right, c);
             
             // Merge delle due metà ordinate
-            merge(arr, left, mid, right);
+            merge(arr, left, mid, right, c);
+            c.esci();
         }
     }
 
-    private void merge(int[] arr, int left, int mid, int right) {
+    private void merge(int[] arr, int left, int mid, int right, SortCounter c) {
         // Dimensioni dei sub-array
         int n1 = mid - left + 1;
         int n2 = right - mid;
@@ -415,7 +363,7 @@ public class AlgoritmiOrdinamentoDemo {
         int i = 0, j = 0, k = left;
         
         while (i < n1 && j < n2) {
-            if (leftArr[i] <= rightArr[j]) {
+            if (c.confronta(leftArr[i], rightArr[j]) <= 0) {
                 arr[k] = leftArr[i];
                 i++;
             } else {
@@ -437,33 +385,9 @@ public class AlgoritmiOrdinamentoDemo {
             j++;
             k++;
         }
-    }
-
-    /**
-     * Merge Sort con visualizzazione
-     */
-    public void mergeSortVisualizzato(int[] arr) {
-        System.out.println("Array iniziale: " + Arrays.toString(arr));
-        contatorePassi = 0;
-        mergeSortVisualizzatoHelper(arr, 0, arr.length - 1, 0);
-    }
-
-    private void mergeSortVisualizzatoHelper(int[] arr, int left, int right, int depth) {
-        if (left < right) {
-            int mid = left + (right - left) / 2;
-            
-            String indent = "  ".repeat(depth);
-            System.out.println(indent + "Dividi [" + left + ".." + right + "] in " +
-                             "[" + left + ".." + mid + "] e [" + (mid+1) + ".." + right + "]");
-            
-            mergeSortVisualizzatoHelper(arr, left, mid, depth + 1);
-            mergeSortVisualizzatoHelper(arr, mid + 1, right, depth + 1);
-            
-            merge(arr, left, mid, right);
-            
-            System.out.println(indent + "Merge [" + left + ".." + right + "]: " +
-                             Arrays.toString(Arrays.copyOfRange(arr, left, right + 1)));
-        }
+        
+        // Copia negli array temporanei + riscrittura in arr
+        c.sposta(2L * (n1 + n2));
     }
 
     public void mergeSortDemo() {
@@ -472,8 +396,13 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Stabile: Sì\n");
         
         int[] arr = {38, 27, 43, 3, 9, 82, 10};
-        System.out.println("Merge Sort con visualizzazione:");
-        mergeSortVisualizzato(arr.clone());
+        int[] ordinato = arr.clone();
+        mergeSort(ordinato);
+        System.out.println("Array originale: " + Arrays.toString(arr));
+        System.out.println("Merge Sort: " + Arrays.toString(ordinato));
+        
+        System.out.println("\nMerge Sort strumentato (100.000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Merge Sort", arrayCasuale(100_000), this::mergeSort, 3));
         
         System.out.println();
     }
@@ -518,37 +447,53 @@ public class AlgoritmiOrdinamentoDemo {
      * Quick Sort con pivot mediano (mediana di tre)
      */
     public void quickSortMedianOfThree(int[] arr) {
-        quickSortMedianHelper(arr, 0, arr.length - 1);
+        quickSortMedianOfThree(arr, SortCounter.NESSUNO);
     }
 
-    private void quickSortMedianHelper(int[] arr, int low, int high) {
+    /**
+     * Quick Sort con mediana di tre strumentato
+     */
+    public void quickSortMedianOfThree(int[] arr, SortCounter c) {
+        quickSortMedianHelper(arr, 0, arr.length - 1, c);
+    }
+
+    private void quickSortMedianHelper(int[] arr, int low, int high, SortCounter c) {
         if (low < high) {
-            int pivotIndex = partitionMedian(arr, low, high);
+            c.entra();
+            int pivotIndex = partitionMedian(arr, low, high, c);
             
-            quickSortMedianHelper(arr, low, pivotIndex - 1);
-            quickSortMedianHelper(arr, pivotIndex + 1, high);
+            quickSortMedianHelper(arr, low, pivotIndex - 1, c);
+            quickSortMedianHelper(arr, pivotIndex + 1, high, c);
+            c.esci();
         }
     }
 
-    private int partitionMedian(int[] arr, int low, int high) {
+    /**
+     * Partizione con pivot mediana di tre, usata anche da Selection
+     */
+    static int partitionMedian(int[] arr, int low, int high) {
+        return partitionMedian(arr, low, high, SortCounter.NESSUNO);
+    }
+
+    private static int partitionMedian(int[] arr, int low, int high, SortCounter c) {
         // Median of three: first, middle, last
         int mid = low + (high - low) / 2;
         
-        if (arr[mid] < arr[low]) swap(arr, low, mid);
-        if (arr[high] < arr[low]) swap(arr, low, high);
-        if (arr[mid] < arr[high]) swap(arr, mid, high);
+        if (c.confronta(arr[mid], arr[low]) < 0) c.scambia(arr, low, mid);
+        if (c.confronta(arr[high], arr[low]) < 0) c.scambia(arr, low, high);
+        if (c.confronta(arr[mid], arr[high]) < 0) c.scambia(arr, mid, high);
         
         int pivot = arr[high];
         int i = low - 1;
         
         for (int j = low; j < high; j++) {
-            if (arr[j] < pivot) {
+            if (c.confronta(arr[j], pivot) < 0) {
                 i++;
-                swap(arr, i, j);
+                c.scambia(arr, i, j);
             }
         }
         
-        swap(arr, i + 1, high);
+        c.scambia(arr, i + 1, high);
         return i + 1;
     }
 
@@ -606,7 +551,7 @@ public class AlgoritmiOrdinamentoDemo {
         quickSort3WayHelper(arr, gt + 1, high);
     }
 
-    private void swap(int[] arr, int i, int j) {
+    static void swap(int[] arr, int i, int j) {
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
@@ -653,6 +598,9 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Quick Sort 3-way: " + time3Way + "ns");
         System.out.println("Speedup con 3-way: " + String.format("%.2fx", (double)timeStandard / time3Way));
         
+        System.out.println("\nQuick Sort (median of three) strumentato (100.000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Quick Sort", arrayCasuale(100_000), this::quickSortMedianOfThree, 3));
+        
         System.out.println();
     }
 
@@ -665,64 +613,49 @@ public class AlgoritmiOrdinamentoDemo {
      * Stabile: No
      */
     public void heapSort(int[] arr) {
+        heapSort(arr, SortCounter.NESSUNO);
+    }
+
+    /**
+     * Heap Sort strumentato
+     */
+    public void heapSort(int[] arr, SortCounter c) {
         int n = arr.length;
         
         // Costruisci max heap
         for (int i = n / 2 - 1; i >= 0; i--) {
-            heapify(arr, n, i);
+            heapify(arr, n, i, c);
         }
         
         // Estrai elementi uno ad uno dall'heap
         for (int i = n - 1; i > 0; i--) {
             // Sposta root corrente alla fine
-            swap(arr, 0, i);
+            c.scambia(arr, 0, i);
             
             // Heapify sulla heap ridotta
-            heapify(arr, i, 0);
+            heapify(arr, i, 0, c);
         }
     }
 
-    private void heapify(int[] arr, int n, int i) {
+    private void heapify(int[] arr, int n, int i, SortCounter c) {
+        c.entra();
         int largest = i;
         int left = 2 * i + 1;
         int right = 2 * i + 2;
         
-        if (left < n && arr[left] > arr[largest]) {
+        if (left < n && c.confronta(arr[left], arr[largest]) > 0) {
             largest = left;
         }
         
-        if (right < n && arr[right] > arr[largest]) {
+        if (right < n && c.confronta(arr[right], arr[largest]) > 0) {
             largest = right;
         }
         
         if (largest != i) {
-            swap(arr, i, largest);
-            heapify(arr, n, largest);
-        }
-    }
-
-    /**
-     * Heap Sort con visualizzazione
-     */
-    public void heapSortVisualizzato(int[] arr) {
-        int n = arr.length;
-        System.out.println("Array iniziale: " + Arrays.toString(arr));
-        
-        // Costruisci max heap
-        System.out.println("\nCostruzione Max Heap:");
-        for (int i = n / 2 - 1; i >= 0; i--) {
-            heapify(arr, n, i);
-            System.out.println("Dopo heapify indice " + i + ": " + Arrays.toString(arr));
-        }
-        
-        System.out.println("\nEstrazione elementi:");
-        // Estrai elementi
-        for (int i = n - 1; i > 0; i--) {
-            System.out.println("Scambio root (" + arr[0] + ") con ultimo (" + arr[i] + ")");
-            swap(arr, 0, i);
-            heapify(arr, i, 0);
-            System.out.println("Array: " + Arrays.toString(arr));
+            c.scambia(arr, i, largest);
+            heapify(arr, n, largest, c);
         }
+        c.esci();
     }
 
     public void heapSortDemo() {
@@ -731,8 +664,57 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("Stabile: No\n");
         
         int[] arr = {12, 11, 13, 5, 6, 7};
-        System.out.println("Heap Sort con visualizzazione:");
-        heapSortVisualizzato(arr.clone());
+        int[] ordinato = arr.clone();
+        heapSort(ordinato);
+        System.out.println("Array originale: " + Arrays.toString(arr));
+        System.out.println("Heap Sort: " + Arrays.toString(ordinato));
+        
+        System.out.println("\nHeap Sort strumentato (100.000 elementi casuali):");
+        stampaStatistiche(SortProfiler.misura("Heap Sort", arrayCasuale(100_000), this::heapSort, 3));
+        
+        System.out.println();
+    }
+
+    // ==================== PATTERN-DEFEATING SORT ====================
+
+    /**
+     * Confronto tra le varianti di Quick Sort e PatternDefeatingSort
+     * su input che fanno degenerare il Quick Sort senza limite di profondità.
+     */
+    public void patternDefeatingSortDemo() {
+        System.out.println("=== PATTERN-DEFEATING SORT (INTROSORT IBRIDO) ===");
+        System.out.println("Complessità: O(n) su input ordinato, O(n log n) nel caso peggiore");
+        System.out.println("Spazio: O(log n)");
+        System.out.println("Stabile: No\n");
+        
+        int[] arr = {10, 7, 8, 9, 1, 5, 3, 3, 3};
+        int[] arr1 = arr.clone();
+        PatternDefeatingSort.sort(arr1);
+        System.out.println("Array originale: " + Arrays.toString(arr));
+        System.out.println("PatternDefeatingSort: " + Arrays.toString(arr1));
+        
+        int size = 10_000;
+        int[] ordinato = new int[size];
+        int[] duplicati = new int[size];
+        Random rand = new Random(12345);
+        for (int i = 0; i < size; i++) {
+            ordinato[i] = i;
+            duplicati[i] = rand.nextInt(4);
+        }
+        
+        System.out.println("\nArray già ordinato (" + size + " elementi):");
+        System.out.println("  Quick Sort standard:      " + testAlgoritmo(ordinato.clone(), this::quickSort) / 1000 + " µs");
+        System.out.println("  Quick Sort 3-way:         " + testAlgoritmo(ordinato.clone(), this::quickSort3Way) / 1000 + " µs");
+        System.out.println("  PatternDefeatingSort:     " + testAlgoritmo(ordinato.clone(), PatternDefeatingSort::sort) / 1000 + " µs");
+        
+        System.out.println("\nArray con 4 valori distinti (" + size + " elementi):");
+        System.out.println("  Quick Sort median of 3:   " + testAlgoritmo(duplicati.clone(), this::quickSortMedianOfThree) / 1000 + " µs");
+        System.out.println("  PatternDefeatingSort:     " + testAlgoritmo(duplicati.clone(), PatternDefeatingSort::sort) / 1000 + " µs");
+        
+        System.out.println("\nDisponibile anche per long[] e double[] (NaN in fondo, come Arrays.sort)");
+        double[] decimali = {3.5, Double.NaN, -1.0, 0.0, -0.0, 2.25};
+        PatternDefeatingSort.sort(decimali);
+        System.out.println("  " + Arrays.toString(decimali));
         
         System.out.println();
     }
@@ -982,6 +964,40 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println();
     }
 
+    // ==================== ORDINAMENTO PARALLELO ====================
+
+    /**
+     * Merge Sort e Radix Sort paralleli (Fork/Join) a confronto con
+     * Arrays.parallelSort su un array grande con valori anche negativi.
+     */
+    public void parallelSortDemo() {
+        System.out.println("=== ORDINAMENTO PARALLELO (FORK/JOIN) ===");
+        System.out.println("Merge Sort: O(n log n), un solo buffer di appoggio, merge parallelo");
+        System.out.println("Radix Sort: LSD a 8 bit, istogrammi per blocco in parallelo");
+        System.out.println("Core disponibili: " + Runtime.getRuntime().availableProcessors() + "\n");
+        
+        int[] arr = {170, -45, 75, -90, 802, 24, -2, 66};
+        int[] arr1 = arr.clone();
+        ParallelSort.radixSort(arr1);
+        System.out.println("Array originale: " + Arrays.toString(arr));
+        System.out.println("Radix Sort parallelo (con negativi): " + Arrays.toString(arr1));
+        
+        int size = 2_000_000;
+        int[] original = new int[size];
+        Random rand = new Random(12345);
+        for (int i = 0; i < size; i++) {
+            original[i] = rand.nextInt();
+        }
+        
+        System.out.println("\nArray casuale di " + size + " elementi:");
+        System.out.println("  Merge Sort sequenziale:   " + testAlgoritmo(original.clone(), this::mergeSort) / 1_000_000 + " ms");
+        System.out.println("  Merge Sort parallelo:     " + testAlgoritmo(original.clone(), ParallelSort::mergeSort) / 1_000_000 + " ms");
+        System.out.println("  Radix Sort parallelo:     " + testAlgoritmo(original.clone(), ParallelSort::radixSort) / 1_000_000 + " ms");
+        System.out.println("  Arrays.parallelSort:      " + testAlgoritmo(original.clone(), Arrays::parallelSort) / 1_000_000 + " ms");
+        
+        System.out.println();
+    }
+
     // ==================== ANALISI COMPLESSITÀ ====================
 
     public void analisiComplessita() {
@@ -1000,6 +1016,7 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("│ Radix Sort      │ O(d(n + k))  │ O(d(n + k))  │ O(d(n + k))  │ O(n+k) │ Sì       │");
         System.out.println("│ Bucket Sort     │ O(n + k)     │ O(n + k)     │ O(n²)        │ O(n+k) │ Sì       │");
         System.out.println("│ Shell Sort      │ O(n log n)   │ O(n^1.3)     │ O(n²)        │ O(1)   │ No       │");
+        System.out.println("│ PDQ Sort        │ O(n)         │ O(n log n)   │ O(n log n)   │ O(log n)│ No      │");
         System.out.println("└─────────────────┴──────────────┴──────────────┴──────────────┴────────┴──────────┘");
         
         System.out.println("\nNote:");
@@ -1055,6 +1072,71 @@ public class AlgoritmiOrdinamentoDemo {
         return System.nanoTime() - start;
     }
 
+    // ==================== ORDINAMENTO STRUMENTATO ====================
+
+    /**
+     * Confronto tra algoritmi tramite contatori invece che solo col tempo:
+     * i numeri di confronti e scambi non dipendono dalla macchina
+     * e non sono falsati dalla stampa dei passi.
+     */
+    public void strumentazioneDemo() {
+        System.out.println("=== ORDINAMENTO STRUMENTATO (SortStats) ===\n");
+        
+        int size = 5000;
+        int esecuzioni = 5;
+        int[] casuale = arrayCasuale(size);
+        int[] ordinato = casuale.clone();
+        Arrays.sort(ordinato);
+        
+        Map<String, int[]> input = new LinkedHashMap<>();
+        input.put("casuale", casuale);
+        input.put("ordinato", ordinato);
+        
+        for (Map.Entry<String, int[]> e : input.entrySet()) {
+            System.out.println("Input " + e.getKey() + ", " + size + " elementi, media su " + esecuzioni + " esecuzioni:");
+            System.out.println(String.format("  %-15s %12s %12s %12s %5s %12s %10s",
+                "Algoritmo", "Confronti", "Scambi", "Spostamenti", "Prof.", "Byte", "µs"));
+            
+            List<SortStats> risultati = Arrays.asList(
+                SortProfiler.misura("Bubble Sort", e.getValue(), this::bubbleSortOttimizzato, esecuzioni),
+                SortProfiler.misura("Selection Sort", e.getValue(), this::selectionSort, esecuzioni),
+                SortProfiler.misura("Insertion Sort", e.getValue(), this::insertionSort, esecuzioni),
+                SortProfiler.misura("Merge Sort", e.getValue(), this::mergeSort, esecuzioni),
+                SortProfiler.misura("Quick Sort", e.getValue(), this::quickSortMedianOfThree, esecuzioni),
+                SortProfiler.misura("Heap Sort", e.getValue(), this::heapSort, esecuzioni));
+            
+            for (SortStats stats : risultati) {
+                System.out.println(String.format("  %-15s %12.0f %12.0f %12.0f %5d %12.0f %10.0f",
+                    stats.algoritmo(), stats.confrontiMedi(), stats.scambiMedi(), stats.spostamentiMedi(),
+                    stats.profonditaMassima(), stats.byteMedi(), stats.tempoMedioNanos() / 1000));
+            }
+            System.out.println();
+        }
+        
+        System.out.println("Note:");
+        System.out.println("- Quick Sort (median of three) su input ordinato resta O(n log n)");
+        System.out.println("- Merge Sort alloca O(n log n) byte in totale: un array temporaneo per ogni merge");
+        System.out.println("- Con una registrazione JFR attiva ogni esecuzione emette un evento com.corso.samples.Sort");
+        
+        System.out.println();
+    }
+
+    private void stampaStatistiche(SortStats stats) {
+        System.out.println(String.format("  Confronti: %.0f, scambi: %.0f, spostamenti: %.0f, profondità max: %d",
+            stats.confrontiMedi(), stats.scambiMedi(), stats.spostamentiMedi(), stats.profonditaMassima()));
+        System.out.println(String.format("  Byte allocati: %.0f, tempo: %.0f µs (media su %d esecuzioni)",
+            stats.byteMedi(), stats.tempoMedioNanos() / 1000, stats.esecuzioni()));
+    }
+
+    private static int[] arrayCasuale(int size) {
+        Random rand = new Random(12345);
+        int[] arr = new int[size];
+        for (int i = 0; i < size; i++) {
+            arr[i] = rand.nextInt(size * 10);
+        }
+        return arr;
+    }
+
     // ==================== ORDINAMENTO OGGETTI ====================
 
     public void ordinamentoOggetti() {
@@ -1105,6 +1187,68 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println();
     }
 
+    /**
+     * Sorter: ordinamento di oggetti con algoritmo a scelta.
+     * Con una chiave primitiva le chiavi vengono estratte una sola volta,
+     * invece di chiamare il getter (e fare boxing) ad ogni confronto.
+     */
+    public void sorterDemo() {
+        System.out.println("=== SORTER: API GENERICA DI ORDINAMENTO ===\n");
+        
+        Studente[] studenti = {
+            new Studente("Mario", 85, 22),
+            new Studente("Luigi", 92, 21),
+            new Studente("Peach", 88, 22),
+            new Studente("Bowser", 85, 23),
+            new Studente("Yoshi", 90, 21)
+        };
+        
+        // Chiave primitiva: stabile con qualunque algoritmo
+        Sorter<Studente> perVoto = Sorter.<Studente>comparingInt(Studente::getVoto)
+            .algoritmo(Sorter.Algoritmo.HEAP)
+            .decrescente();
+        Studente[] ordinati = studenti.clone();
+        perVoto.sort(ordinati);
+        
+        System.out.println("Per voto decrescente (Heap Sort, stabile: " + perVoto.isStabile() + "):");
+        for (Studente s : ordinati) {
+            System.out.println("  " + s);
+        }
+        
+        // Comparator: la stabilità dipende dall'algoritmo
+        for (Sorter.Algoritmo algoritmo : Sorter.Algoritmo.values()) {
+            Sorter<Studente> sorter = Sorter.<Studente>comparing(Comparator.comparing(Studente::getNome))
+                .algoritmo(algoritmo);
+            System.out.println(String.format("  %-22s con Comparator stabile: %s", algoritmo, sorter.isStabile()));
+        }
+        
+        // Ordini per importo: Comparator vs chiave estratta
+        int size = 500_000;
+        Random rand = new Random(12345);
+        StreamsDemo.Ordine[] ordini = new StreamsDemo.Ordine[size];
+        for (int i = 0; i < size; i++) {
+            ordini[i] = new StreamsDemo.Ordine("O" + i, "Cliente" + rand.nextInt(1000),
+                rand.nextInt(100_000) / 100.0, "Completato", List.of());
+        }
+        
+        StreamsDemo.Ordine[] test1 = ordini.clone();
+        long start = System.nanoTime();
+        Arrays.sort(test1, Comparator.comparing(StreamsDemo.Ordine::getImporto));
+        long timeComparator = System.nanoTime() - start;
+        
+        StreamsDemo.Ordine[] test2 = ordini.clone();
+        start = System.nanoTime();
+        Sorter.<StreamsDemo.Ordine>comparingDouble(StreamsDemo.Ordine::getImporto).sort(test2);
+        long timeChiave = System.nanoTime() - start;
+        
+        System.out.println("\n" + size + " ordini per importo:");
+        System.out.println("  Arrays.sort + Comparator.comparing (boxing): " + timeComparator / 1_000_000 + " ms");
+        System.out.println("  Sorter.comparingDouble (chiavi estratte):    " + timeChiave / 1_000_000 + " ms");
+        System.out.println("  Stesso risultato: " + Arrays.equals(test1, test2));
+        
+        System.out.println();
+    }
+
     private <T> void mergeSortOggetti(T[] arr, Comparator<T> comp) {
         if (arr.length < 2) return;
         mergeSortOggettiHelper(arr, 0, arr.length - 1, comp);
@@ -1159,6 +1303,55 @@ public class AlgoritmiOrdinamentoDemo {
         }
     }
 
+    // ==================== SELEZIONE PARZIALE ====================
+
+    public void selezioneDemo() {
+        System.out.println("=== SELEZIONE PARZIALE (QUICK SELECT / HEAP LIMITATO) ===");
+        System.out.println("nthElement: O(n) in media, partialSort: O(n + k log k), topK: O(n log k)\n");
+        
+        int[] arr = {64, 34, 25, 12, 22, 11, 90, 5, 77, 41, 3, 58, 19, 86, 47, 30, 72, 8, 95, 16};
+        System.out.println("Array originale: " + Arrays.toString(arr));
+        
+        int[] mediana = arr.clone();
+        Selection.nthElement(mediana, mediana.length / 2);
+        System.out.println("nthElement(" + mediana.length / 2 + "): " + mediana[mediana.length / 2]
+            + " -> " + Arrays.toString(mediana));
+        
+        int[] parziale = arr.clone();
+        Selection.partialSort(parziale, 3);
+        System.out.println("partialSort(3): " + Arrays.toString(parziale));
+        
+        System.out.println("topK(3): " + Arrays.toString(Selection.topK(arr, 3)));
+        
+        int size = 1_000_000;
+        int k = 100;
+        int[] grande = new int[size];
+        Random rand = new Random(12345);
+        for (int i = 0; i < size; i++) {
+            grande[i] = rand.nextInt();
+        }
+        
+        System.out.println("\nI " + k + " più grandi su " + size + " elementi:");
+        long start = System.nanoTime();
+        int[] ordinato = grande.clone();
+        Arrays.sort(ordinato);
+        System.out.println("  Arrays.sort completo:  " + (System.nanoTime() - start) / 1000 + " µs");
+        
+        start = System.nanoTime();
+        int[] parzialeGrande = grande.clone();
+        Selection.nthElement(parzialeGrande, size - k);
+        System.out.println("  nthElement:            " + (System.nanoTime() - start) / 1000 + " µs");
+        
+        start = System.nanoTime();
+        int[] top = Selection.topK(grande, k);
+        System.out.println("  topK (heap di " + k + "):    " + (System.nanoTime() - start) / 1000 + " µs");
+        
+        System.out.println("  Massimo: " + top[0] + " = " + ordinato[size - 1]
+            + ", " + k + "° più grande: " + top[k - 1] + " = " + parzialeGrande[size - k]);
+        
+        System.out.println();
+    }
+
     // ==================== CASI SPECIALI ====================
 
     public void casiSpeciali() {
@@ -1229,10 +1422,12 @@ public class AlgoritmiOrdinamentoDemo {
         System.out.println("   - Stabilità richiesta: Merge Sort");
         System.out.println("   - Spazio limitato: Heap Sort, Quick Sort");
         System.out.println("   - Interi in range limitato: Counting Sort, Radix Sort");
+        System.out.println("   - Servono solo i primi k: Quick Select o heap limitato (Selection, TopKCollector)");
         
         System.out.println("\n2. OTTIMIZZAZIONI:");
         System.out.println("   - Quick Sort: usa median-of-three o randomized pivot");
         System.out.println("   - Quick Sort: switch a Insertion Sort per piccoli sub-array");
+        System.out.println("   - Quick Sort: limite di profondità con fallback su Heap Sort (PatternDefeatingSort)");
         System.out.println("   - Merge Sort: usa Insertion Sort per piccoli sub-array");
         System.out.println("   - Bubble Sort: early termination se già ordinato");
         
@@ -199,6 +199,150 @@ public class ArrayDemo {
         System.out.println("Array jagged: " + Arrays.deepToString(jagged));
     }
 
+    /**
+     * Matrici in un unico array row-major (Matrix, IntMatrix) al posto di
+     * int[][] e double[][]: niente oggetto per riga, prodotto a blocchi
+     */
+    public void matriciPiatte() {
+        System.out.println("\n=== MATRICI IN UN ARRAY PIATTO ===");
+
+        int[][] matrice = {
+            {1, 2, 3},
+            {4, 5, 6},
+            {7, 8, 9}
+        };
+        IntMatrix m = IntMatrix.of(matrice);
+        System.out.println("IntMatrix: " + m);
+        System.out.println("Trasposta: " + m.transpose());
+        System.out.println("Prodotto m * m: " + m.multiply(m));
+        System.out.println("Somme per riga: " + Arrays.toString(m.rowSums()));
+        System.out.println("Somme per colonna: " + Arrays.toString(m.colSums()));
+        System.out.println("Ritorno a int[][] uguale: " + Arrays.deepEquals(m.toIntArray(), matrice));
+
+        // Prodotto di matrici grandi: cicli annidati su double[][] contro Matrix
+        int n = 512;
+        double[][] a = new double[n][n];
+        double[][] b = new double[n][n];
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = random.nextDouble();
+                b[i][j] = random.nextDouble();
+            }
+        }
+
+        long inizio = System.nanoTime();
+        double[][] c = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double somma = 0;
+                for (int k = 0; k < n; k++) {
+                    somma += a[i][k] * b[k][j];  // b[k][j]: una riga diversa a ogni passo
+                }
+                c[i][j] = somma;
+            }
+        }
+        long tempoJagged = System.nanoTime() - inizio;
+
+        Matrix ma = Matrix.of(a);
+        Matrix mb = Matrix.of(b);
+        inizio = System.nanoTime();
+        Matrix mc = ma.multiply(mb);
+        long tempoMatrix = System.nanoTime() - inizio;
+
+        System.out.printf("Prodotto %dx%d: double[][] %d ms, Matrix %d ms, stesso risultato: %b%n",
+            n, n, tempoJagged / 1_000_000, tempoMatrix / 1_000_000, Arrays.deepEquals(mc.toArray2D(), c));
+
+        // Memoria (stima: intestazione array 16 byte, riferimenti compressi da 4,
+        // oggetti allineati a 8). Su righe lunghe la differenza è piccola;
+        // con tante righe corte l'intestazione di ogni riga pesa quanto i dati
+        System.out.printf("Memoria %dx%d double: double[][] ~%d KB (%d oggetti), Matrix ~%d KB (1 array)%n",
+            n, n, stimaJagged(n, n, 8) / 1024, n + 1, stimaPiatta(n, n, 8) / 1024);
+        int punteggi = 1_000_000;
+        System.out.printf("Memoria %dx4 int: int[][] ~%d MB (%d oggetti), IntMatrix ~%d MB (1 array)%n",
+            punteggi, stimaJagged(punteggi, 4, 4) >> 20, punteggi + 1, stimaPiatta(punteggi, 4, 4) >> 20);
+    }
+
+    private static long allinea(long byteOggetto) {
+        return (byteOggetto + 7) & ~7L;
+    }
+
+    private static long stimaJagged(int righe, int colonne, int byteElemento) {
+        return allinea(16 + 4L * righe) + righe * allinea(16 + (long) byteElemento * colonne);
+    }
+
+    private static long stimaPiatta(int righe, int colonne, int byteElemento) {
+        return allinea(16 + (long) byteElemento * righe * colonne);
+    }
+
+    /**
+     * Gli stessi calcoli su array grandi con ArrayKernels: istruzioni SIMD
+     * (Vector API) quando disponibili, altrimenti cicli scalari
+     */
+    public void kernelSuArray() {
+        System.out.println("\n=== KERNEL SU ARRAY GRANDI ===");
+        System.out.println("Implementazione: " + ArrayKernels.implementazione());
+
+        int n = 2_000_000;
+        int[] interi = new int[n];
+        double[] prezzi = new double[n];
+        double[] quantita = new double[n];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < n; i++) {
+            interi[i] = random.nextInt(1_000);
+            prezzi[i] = random.nextInt(10_000) / 100.0;
+            quantita[i] = random.nextInt(10);
+        }
+
+        // Stessi risultati dei metodi con i cicli
+        System.out.println("Somma: " + sommaArray(interi) + " / " + ArrayKernels.sum(interi));
+        System.out.println("Massimo: " + trovaMax(interi) + " / " + ArrayKernels.max(interi)
+            + " (primo all'indice " + ArrayKernels.argMax(interi) + ")");
+        System.out.println("Minimo: " + trovaMin(interi) + " / " + ArrayKernels.min(interi));
+        System.out.println("Maggiori di 900: "
+            + ArrayKernels.count(interi, ArrayKernels.Confronto.MAGGIORE, 900));
+
+        int[] invertito = interi.clone();
+        int[] atteso = interi.clone();
+        ArrayKernels.reverse(invertito);
+        invertiArray(atteso);
+        System.out.println("Inversione uguale al ciclo: " + (ArrayKernels.mismatch(invertito, atteso) == -1));
+
+        int[] cumulati = new int[n];
+        ArrayKernels.prefixSum(interi, cumulati);
+        System.out.println("Ultima somma prefissa = somma: " + (cumulati[n - 1] == ArrayKernels.sum(interi)));
+
+        // Totale fattura: prodotto scalare prezzi · quantità.
+        // Le prime 50 ripetizioni sono di riscaldamento: finché il JIT non la
+        // compila, la Vector API crea un oggetto per vettore ed è lentissima
+        double cicloTotale = 0;
+        double kernelTotale = 0;
+        long tempoCiclo = 0;
+        long tempoKernel = 0;
+        for (int ripetizione = 0; ripetizione < 100; ripetizione++) {
+            boolean misura = ripetizione >= 50;
+            long inizio = System.nanoTime();
+            double totale = 0;
+            for (int i = 0; i < n; i++) {
+                totale += prezzi[i] * quantita[i];
+            }
+            if (misura) {
+                tempoCiclo += System.nanoTime() - inizio;
+            }
+            cicloTotale = totale;
+
+            inizio = System.nanoTime();
+            kernelTotale = ArrayKernels.dot(prezzi, quantita);
+            if (misura) {
+                tempoKernel += System.nanoTime() - inizio;
+            }
+        }
+        // Ordine delle somme diverso: possono cambiare gli ultimi decimali
+        System.out.printf("Totale fattura: ciclo %.2f, kernel %.2f%n", cicloTotale, kernelTotale);
+        System.out.printf("Tempo (50 ripetizioni): ciclo %d ms, kernel %d ms%n",
+            tempoCiclo / 1_000_000, tempoKernel / 1_000_000);
+    }
+
     /**
      * Calcola la somma degli elementi
      */
@@ -279,6 +423,7 @@ public class ArrayDemo {
         demo.operazioniComuni();
         demo.metodiArrays();
         demo.arrayMultidimensionali();
+        demo.matriciPiatte();
         
         // Esempi con metodi di utilità
         System.out.println("\n=== METODI DI UTILITÀ ===");
@@ -291,6 +436,8 @@ public class ArrayDemo {
         
         demo.invertiArray(numeri);
         System.out.println("Dopo inversione: " + Arrays.toString(numeri));
+
+        demo.kernelSuArray();
     }
 }
 
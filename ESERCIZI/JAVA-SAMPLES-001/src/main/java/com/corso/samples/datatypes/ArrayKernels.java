@@ -0,0 +1,597 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Kernel su array primitivi (int[], long[], double[]): riduzioni, prodotto
+ * scalare, somme prefisse, inversione e conteggi, al posto dei cicli scalari
+ * di ArrayDemo (sommaArray, trovaMax, invertiArray) e delle riduzioni con
+ * Arrays.stream().
+ * Due implementazioni con lo stesso risultato:
+ * - VectorKernels: Vector API (jdk.incubator.vector), un'istruzione SIMD per
+ *   8/16 int o 4/8 double alla volta (AVX2/AVX-512, NEON su ARM)
+ * - scalare: cicli semplici, usata quando la Vector API non c'è
+ * La scelta avviene una volta sola, al caricamento della classe. La versione
+ * vettoriale si compila con il profilo Maven vector (mvn -Pvector ...) e si usa
+ * avviando la JVM con --add-modules jdk.incubator.vector; senza uno dei due i
+ * metodi restano disponibili con l'implementazione scalare.
+ * Su double la somma, il prodotto scalare e le somme prefisse vettoriali
+ * sommano in un ordine diverso dal ciclo sequenziale: il risultato può
+ * differire negli ultimi bit (come DoubleStream.sum, che compensa l'errore).
+ * Le operazioni int/long sono esatte (con il normale overflow di int e long,
+ * tranne dot su int[] che accumula in long).
+ * fill, mismatch e compare delegano ad Arrays: il JIT le compila già con
+ * istruzioni vettoriali (intrinsics).
+ */
+public final class ArrayKernels {
+
+    /**
+     * Confronto con un valore fisso, per count
+     */
+    public enum Confronto {
+        MINORE, MINORE_UGUALE, MAGGIORE, MAGGIORE_UGUALE, UGUALE, DIVERSO;
+
+        boolean test(long a, long b) {
+            return switch (this) {
+                case MINORE -> a < b;
+                case MINORE_UGUALE -> a <= b;
+                case MAGGIORE -> a > b;
+                case MAGGIORE_UGUALE -> a >= b;
+                case UGUALE -> a == b;
+                case DIVERSO -> a != b;
+            };
+        }
+
+        boolean test(double a, double b) {
+            return switch (this) {
+                case MINORE -> a < b;
+                case MINORE_UGUALE -> a <= b;
+                case MAGGIORE -> a > b;
+                case MAGGIORE_UGUALE -> a >= b;
+                case UGUALE -> a == b;
+                case DIVERSO -> a != b;
+            };
+        }
+    }
+
+    /**
+     * Operazioni fornite da ciascuna implementazione. Gli array sono già
+     * controllati (non vuoti dove serve, lunghezze uguali)
+     */
+    interface Kernels {
+        int sum(int[] a);
+        long sum(long[] a);
+        double sum(double[] a);
+
+        int min(int[] a);
+        long min(long[] a);
+        double min(double[] a);
+
+        int max(int[] a);
+        long max(long[] a);
+        double max(double[] a);
+
+        int argMax(int[] a);
+        int argMax(long[] a);
+        int argMax(double[] a);
+
+        long dot(int[] a, int[] b);
+        long dot(long[] a, long[] b);
+        double dot(double[] a, double[] b);
+
+        void prefixSum(int[] a, int[] risultato);
+        void prefixSum(long[] a, long[] risultato);
+        void prefixSum(double[] a, double[] risultato);
+
+        void reverse(int[] a);
+        void reverse(long[] a);
+        void reverse(double[] a);
+
+        int count(int[] a, Confronto confronto, int valore);
+        int count(long[] a, Confronto confronto, long valore);
+        int count(double[] a, Confronto confronto, double valore);
+
+        String descrizione();
+    }
+
+    static final Kernels SCALARI = new Scalari();
+    private static final Kernels KERNELS = carica();
+
+    private ArrayKernels() {
+    }
+
+    private static Kernels carica() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernels) Class.forName("com.corso.samples.datatypes.VectorKernels")
+                    .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Classe non compilata (build senza profilo vector): si resta sullo scalare
+            }
+        }
+        return SCALARI;
+    }
+
+    /**
+     * Implementazione in uso, es. "Vector API (512 bit, 16 int per istruzione)" o "scalare"
+     */
+    public static String implementazione() {
+        return KERNELS.descrizione();
+    }
+
+    // ==================== RIDUZIONI ====================
+
+    /**
+     * Somma con l'overflow di int, come IntStream.sum()
+     */
+    public static int sum(int[] a) {
+        return KERNELS.sum(a);
+    }
+
+    public static long sum(long[] a) {
+        return KERNELS.sum(a);
+    }
+
+    public static double sum(double[] a) {
+        return KERNELS.sum(a);
+    }
+
+    public static int min(int[] a) {
+        nonVuoto(a.length);
+        return KERNELS.min(a);
+    }
+
+    public static long min(long[] a) {
+        nonVuoto(a.length);
+        return KERNELS.min(a);
+    }
+
+    /**
+     * Come Math.min: NaN se l'array contiene NaN
+     */
+    public static double min(double[] a) {
+        nonVuoto(a.length);
+        return KERNELS.min(a);
+    }
+
+    public static int max(int[] a) {
+        nonVuoto(a.length);
+        return KERNELS.max(a);
+    }
+
+    public static long max(long[] a) {
+        nonVuoto(a.length);
+        return KERNELS.max(a);
+    }
+
+    /**
+     * Come Math.max: NaN se l'array contiene NaN
+     */
+    public static double max(double[] a) {
+        nonVuoto(a.length);
+        return KERNELS.max(a);
+    }
+
+    /**
+     * Indice del primo massimo
+     */
+    public static int argMax(int[] a) {
+        nonVuoto(a.length);
+        return KERNELS.argMax(a);
+    }
+
+    public static int argMax(long[] a) {
+        nonVuoto(a.length);
+        return KERNELS.argMax(a);
+    }
+
+    /**
+     * Indice del primo elemento uguale a max(a) (il primo NaN, se ce ne sono)
+     */
+    public static int argMax(double[] a) {
+        nonVuoto(a.length);
+        return KERNELS.argMax(a);
+    }
+
+    private static void nonVuoto(int lunghezza) {
+        if (lunghezza == 0) {
+            throw new IllegalArgumentException("Array vuoto");
+        }
+    }
+
+    // ==================== PRODOTTO SCALARE ====================
+
+    /**
+     * Somma dei prodotti a[i] * b[i], accumulata in long: non trabocca con array di int
+     */
+    public static long dot(int[] a, int[] b) {
+        stessaLunghezza(a.length, b.length);
+        return KERNELS.dot(a, b);
+    }
+
+    public static long dot(long[] a, long[] b) {
+        stessaLunghezza(a.length, b.length);
+        return KERNELS.dot(a, b);
+    }
+
+    public static double dot(double[] a, double[] b) {
+        stessaLunghezza(a.length, b.length);
+        return KERNELS.dot(a, b);
+    }
+
+    private static void stessaLunghezza(int lunghezza, int altraLunghezza) {
+        if (lunghezza != altraLunghezza) {
+            throw new IllegalArgumentException("Lunghezze diverse: " + lunghezza + " e " + altraLunghezza);
+        }
+    }
+
+    // ==================== SOMME PREFISSE ====================
+
+    /**
+     * risultato[i] = a[0] + ... + a[i]; risultato può essere a stesso
+     */
+    public static void prefixSum(int[] a, int[] risultato) {
+        stessaLunghezza(a.length, risultato.length);
+        KERNELS.prefixSum(a, risultato);
+    }
+
+    public static void prefixSum(long[] a, long[] risultato) {
+        stessaLunghezza(a.length, risultato.length);
+        KERNELS.prefixSum(a, risultato);
+    }
+
+    public static void prefixSum(double[] a, double[] risultato) {
+        stessaLunghezza(a.length, risultato.length);
+        KERNELS.prefixSum(a, risultato);
+    }
+
+    // ==================== INVERSIONE E RIEMPIMENTO ====================
+
+    public static void reverse(int[] a) {
+        KERNELS.reverse(a);
+    }
+
+    public static void reverse(long[] a) {
+        KERNELS.reverse(a);
+    }
+
+    public static void reverse(double[] a) {
+        KERNELS.reverse(a);
+    }
+
+    public static void fill(int[] a, int valore) {
+        Arrays.fill(a, valore);
+    }
+
+    public static void fill(long[] a, long valore) {
+        Arrays.fill(a, valore);
+    }
+
+    public static void fill(double[] a, double valore) {
+        Arrays.fill(a, valore);
+    }
+
+    // ==================== CONFRONTI TRA ARRAY ====================
+
+    /**
+     * Primo indice in cui a e b differiscono, -1 se uguali
+     */
+    public static int mismatch(int[] a, int[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int mismatch(long[] a, long[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    public static int mismatch(double[] a, double[] b) {
+        return Arrays.mismatch(a, b);
+    }
+
+    /**
+     * Confronto lessicografico
+     */
+    public static int compare(int[] a, int[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    public static int compare(long[] a, long[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    public static int compare(double[] a, double[] b) {
+        return Arrays.compare(a, b);
+    }
+
+    // ==================== CONTEGGI ====================
+
+    /**
+     * Quanti elementi soddisfano a[i] confronto valore, es. count(a, MAGGIORE, 0)
+     */
+    public static int count(int[] a, Confronto confronto, int valore) {
+        return KERNELS.count(a, confronto, valore);
+    }
+
+    public static int count(long[] a, Confronto confronto, long valore) {
+        return KERNELS.count(a, confronto, valore);
+    }
+
+    public static int count(double[] a, Confronto confronto, double valore) {
+        return KERNELS.count(a, confronto, valore);
+    }
+
+    /**
+     * Predicato qualsiasi: sempre scalare (una lambda non si traduce in istruzioni SIMD)
+     */
+    public static int count(int[] a, IntPredicate predicato) {
+        int n = 0;
+        for (int v : a) {
+            if (predicato.test(v)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public static int count(long[] a, LongPredicate predicato) {
+        int n = 0;
+        for (long v : a) {
+            if (predicato.test(v)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public static int count(double[] a, DoublePredicate predicato) {
+        int n = 0;
+        for (double v : a) {
+            if (predicato.test(v)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // ==================== IMPLEMENTAZIONE SCALARE ====================
+
+    private static final class Scalari implements Kernels {
+
+        @Override
+        public int sum(int[] a) {
+            int s = 0;
+            for (int v : a) {
+                s += v;
+            }
+            return s;
+        }
+
+        @Override
+        public long sum(long[] a) {
+            long s = 0;
+            for (long v : a) {
+                s += v;
+            }
+            return s;
+        }
+
+        @Override
+        public double sum(double[] a) {
+            double s = 0;
+            for (double v : a) {
+                s += v;
+            }
+            return s;
+        }
+
+        @Override
+        public int min(int[] a) {
+            int m = a[0];
+            for (int v : a) {
+                m = Math.min(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public long min(long[] a) {
+            long m = a[0];
+            for (long v : a) {
+                m = Math.min(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public double min(double[] a) {
+            double m = a[0];
+            for (double v : a) {
+                m = Math.min(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public int max(int[] a) {
+            int m = a[0];
+            for (int v : a) {
+                m = Math.max(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public long max(long[] a) {
+            long m = a[0];
+            for (long v : a) {
+                m = Math.max(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public double max(double[] a) {
+            double m = a[0];
+            for (double v : a) {
+                m = Math.max(m, v);
+            }
+            return m;
+        }
+
+        @Override
+        public int argMax(int[] a) {
+            int indice = 0;
+            for (int i = 1; i < a.length; i++) {
+                if (a[i] > a[indice]) {
+                    indice = i;
+                }
+            }
+            return indice;
+        }
+
+        @Override
+        public int argMax(long[] a) {
+            int indice = 0;
+            for (int i = 1; i < a.length; i++) {
+                if (a[i] > a[indice]) {
+                    indice = i;
+                }
+            }
+            return indice;
+        }
+
+        @Override
+        public int argMax(double[] a) {
+            double m = max(a);
+            boolean nan = Double.isNaN(m);
+            for (int i = 0; i < a.length; i++) {
+                if (nan ? Double.isNaN(a[i]) : a[i] == m) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public long dot(int[] a, int[] b) {
+            long s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += (long) a[i] * b[i];
+            }
+            return s;
+        }
+
+        @Override
+        public long dot(long[] a, long[] b) {
+            long s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += a[i] * b[i];
+            }
+            return s;
+        }
+
+        @Override
+        public double dot(double[] a, double[] b) {
+            double s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += a[i] * b[i];
+            }
+            return s;
+        }
+
+        @Override
+        public void prefixSum(int[] a, int[] risultato) {
+            int s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += a[i];
+                risultato[i] = s;
+            }
+        }
+
+        @Override
+        public void prefixSum(long[] a, long[] risultato) {
+            long s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += a[i];
+                risultato[i] = s;
+            }
+        }
+
+        @Override
+        public void prefixSum(double[] a, double[] risultato) {
+            double s = 0;
+            for (int i = 0; i < a.length; i++) {
+                s += a[i];
+                risultato[i] = s;
+            }
+        }
+
+        @Override
+        public void reverse(int[] a) {
+            for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+                int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+
+        @Override
+        public void reverse(long[] a) {
+            for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+                long t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+
+        @Override
+        public void reverse(double[] a) {
+            for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+                double t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+
+        @Override
+        public int count(int[] a, Confronto confronto, int valore) {
+            int n = 0;
+            for (int v : a) {
+                if (confronto.test(v, valore)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public int count(long[] a, Confronto confronto, long valore) {
+            int n = 0;
+            for (long v : a) {
+                if (confronto.test(v, valore)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public int count(double[] a, Confronto confronto, double valore) {
+            int n = 0;
+            for (double v : a) {
+                if (confronto.test(v, valore)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public String descrizione() {
+            return "scalare";
+        }
+    }
+}
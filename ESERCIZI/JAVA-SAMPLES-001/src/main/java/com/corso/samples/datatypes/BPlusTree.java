@@ -0,0 +1,477 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Indice ordinato a B+tree per chiavi Comparable (o con un Comparator),
+ * con la stessa struttura di LongBPlusTree:
+ * - nodi da ORDINE chiavi in array, foglie collegate in entrambe le direzioni
+ * - inserimento e rimozione O(log n), scansioni per intervallo lungo le foglie
+ * - floorKey/ceilingKey con la semantica di NavigableMap (null se non esiste)
+ * Rispetto a TreeMap ci sono molti meno oggetti (un nodo ogni 128 voci invece
+ * di un Entry per voce) e la ricerca dentro il nodo scorre un array contiguo.
+ * Le chiavi null non sono ammesse, i valori null sì.
+ * La rimozione non ribilancia (vedi LongBPlusTree). Non è thread-safe.
+ */
+public final class BPlusTree<K, V> {
+
+    private static final int ORDINE = LongBPlusTree.ORDINE;
+    private static final int RIEMPIMENTO = ORDINE * 3 / 4;
+
+    private abstract static class Nodo {
+        int n;
+    }
+
+    private static final class Foglia extends Nodo {
+        final Object[] chiavi = new Object[ORDINE + 1];
+        final Object[] valori = new Object[ORDINE + 1];
+        Foglia precedente;
+        Foglia successiva;
+    }
+
+    private static final class Interno extends Nodo {
+        final Object[] chiavi = new Object[ORDINE];
+        final Nodo[] figli = new Nodo[ORDINE + 1];
+    }
+
+    private final Comparator<? super K> comparatore;
+    private Nodo radice = new Foglia();
+    private int size;
+
+    // Risultati secondari della ricorsione di inserimento
+    private Object separatore;
+    private Object precedenteValore;
+    private boolean inserita;
+
+    /**
+     * Ordine naturale delle chiavi
+     */
+    @SuppressWarnings("unchecked")
+    public BPlusTree() {
+        this((Comparator<? super K>) Comparator.naturalOrder());
+    }
+
+    public BPlusTree(Comparator<? super K> comparatore) {
+        this.comparatore = Objects.requireNonNull(comparatore, "comparatore");
+    }
+
+    // ==================== CARICAMENTO ORDINATO ====================
+
+    /**
+     * Costruisce l'albero dal basso in O(n) da chiavi strettamente crescenti
+     * secondo il comparatore (vedi LongBPlusTree.daOrdinati)
+     */
+    public static <K, V> BPlusTree<K, V> daOrdinati(List<? extends K> chiavi, List<? extends V> valori,
+                                                    Comparator<? super K> comparatore) {
+        if (chiavi.size() != valori.size()) {
+            throw new IllegalArgumentException("Lunghezze diverse: " + chiavi.size() + ", " + valori.size());
+        }
+        Object[] k = chiavi.toArray();
+        Object[] v = valori.toArray();
+        BPlusTree<K, V> albero = new BPlusTree<>(comparatore);
+        for (int i = 0; i < k.length; i++) {
+            Objects.requireNonNull(k[i], "chiave");
+            if (i > 0 && albero.confronta(k[i - 1], k[i]) >= 0) {
+                throw new IllegalArgumentException("Chiavi non strettamente crescenti all'indice " + i);
+            }
+        }
+        if (k.length == 0) {
+            return albero;
+        }
+        List<Nodo> livello = new ArrayList<>();
+        List<Object> minimi = new ArrayList<>();
+        Foglia precedente = null;
+        for (int da = 0; da < k.length; da += RIEMPIMENTO) {
+            Foglia foglia = new Foglia();
+            foglia.n = Math.min(RIEMPIMENTO, k.length - da);
+            System.arraycopy(k, da, foglia.chiavi, 0, foglia.n);
+            System.arraycopy(v, da, foglia.valori, 0, foglia.n);
+            foglia.precedente = precedente;
+            if (precedente != null) {
+                precedente.successiva = foglia;
+            }
+            precedente = foglia;
+            livello.add(foglia);
+            minimi.add(k[da]);
+        }
+        while (livello.size() > 1) {
+            List<Nodo> superiore = new ArrayList<>();
+            List<Object> minimiSuperiori = new ArrayList<>();
+            for (int da = 0; da < livello.size(); da += RIEMPIMENTO) {
+                Interno interno = new Interno();
+                int figli = Math.min(RIEMPIMENTO, livello.size() - da);
+                for (int j = 0; j < figli; j++) {
+                    interno.figli[j] = livello.get(da + j);
+                    if (j > 0) {
+                        interno.chiavi[j - 1] = minimi.get(da + j);
+                    }
+                }
+                interno.n = figli - 1;
+                superiore.add(interno);
+                minimiSuperiori.add(minimi.get(da));
+            }
+            livello = superiore;
+            minimi = minimiSuperiori;
+        }
+        albero.radice = livello.get(0);
+        albero.size = k.length;
+        return albero;
+    }
+
+    public static <K extends Comparable<? super K>, V> BPlusTree<K, V> daOrdinati(List<? extends K> chiavi,
+                                                                                List<? extends V> valori) {
+        return daOrdinati(chiavi, valori, Comparator.naturalOrder());
+    }
+
+    // ==================== RICERCA ====================
+
+    @SuppressWarnings("unchecked")
+    private int confronta(Object a, Object b) {
+        return comparatore.compare((K) a, (K) b);
+    }
+
+    private int lowerBound(Object[] chiavi, int n, Object k) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (confronta(chiavi[mid], k) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(Object[] chiavi, int n, Object k) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (confronta(chiavi[mid], k) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private Foglia foglia(Object k) {
+        Nodo nodo = radice;
+        while (nodo instanceof Interno interno) {
+            nodo = interno.figli[upperBound(interno.chiavi, interno.n, k)];
+        }
+        return (Foglia) nodo;
+    }
+
+    /**
+     * Il valore della chiave, null se assente
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K chiave) {
+        Foglia foglia = foglia(Objects.requireNonNull(chiave, "chiave"));
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        return i < foglia.n && confronta(foglia.chiavi[i], chiave) == 0 ? (V) foglia.valori[i] : null;
+    }
+
+    public boolean containsKey(K chiave) {
+        Foglia foglia = foglia(Objects.requireNonNull(chiave, "chiave"));
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        return i < foglia.n && confronta(foglia.chiavi[i], chiave) == 0;
+    }
+
+    /**
+     * La chiave più grande <= chiave, null se non esiste
+     */
+    @SuppressWarnings("unchecked")
+    public K floorKey(K chiave) {
+        Foglia foglia = foglia(Objects.requireNonNull(chiave, "chiave"));
+        int i = upperBound(foglia.chiavi, foglia.n, chiave) - 1;
+        if (i >= 0) {
+            return (K) foglia.chiavi[i];
+        }
+        for (Foglia f = foglia.precedente; f != null; f = f.precedente) {
+            if (f.n > 0) {
+                return (K) f.chiavi[f.n - 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * La chiave più piccola >= chiave, null se non esiste
+     */
+    @SuppressWarnings("unchecked")
+    public K ceilingKey(K chiave) {
+        Foglia foglia = foglia(Objects.requireNonNull(chiave, "chiave"));
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        if (i < foglia.n) {
+            return (K) foglia.chiavi[i];
+        }
+        for (Foglia f = foglia.successiva; f != null; f = f.successiva) {
+            if (f.n > 0) {
+                return (K) f.chiavi[0];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return (K) primaFoglia().chiavi[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        Nodo nodo = radice;
+        while (nodo instanceof Interno interno) {
+            nodo = interno.figli[interno.n];
+        }
+        return (K) ((Foglia) nodo).chiavi[nodo.n - 1];
+    }
+
+    /**
+     * Visita in ordine le voci con da <= chiave < a
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRange(K da, K a, BiConsumer<? super K, ? super V> azione) {
+        if (confronta(da, a) >= 0) {
+            return;
+        }
+        Foglia foglia = foglia(da);
+        int i = lowerBound(foglia.chiavi, foglia.n, da);
+        for (; foglia != null; foglia = foglia.successiva, i = 0) {
+            for (; i < foglia.n; i++) {
+                if (confronta(foglia.chiavi[i], a) >= 0) {
+                    return;
+                }
+                azione.accept((K) foglia.chiavi[i], (V) foglia.valori[i]);
+            }
+        }
+    }
+
+    /**
+     * Numero di voci con da <= chiave < a
+     */
+    public int countInRange(K da, K a) {
+        if (confronta(da, a) >= 0) {
+            return 0;
+        }
+        Foglia foglia = foglia(da);
+        int i = lowerBound(foglia.chiavi, foglia.n, da);
+        int conteggio = 0;
+        for (; foglia != null; foglia = foglia.successiva, i = 0) {
+            if (foglia.n > 0 && confronta(foglia.chiavi[foglia.n - 1], a) >= 0) {
+                return conteggio + lowerBound(foglia.chiavi, foglia.n, a) - i;
+            }
+            conteggio += foglia.n - i;
+        }
+        return conteggio;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> azione) {
+        for (Foglia foglia = primaFoglia(); foglia != null; foglia = foglia.successiva) {
+            for (int i = 0; i < foglia.n; i++) {
+                azione.accept((K) foglia.chiavi[i], (V) foglia.valori[i]);
+            }
+        }
+    }
+
+    private Foglia primaFoglia() {
+        Nodo nodo = radice;
+        while (nodo instanceof Interno interno) {
+            nodo = interno.figli[0];
+        }
+        return (Foglia) nodo;
+    }
+
+    // ==================== INSERIMENTO ====================
+
+    /**
+     * Inserisce o sostituisce; restituisce il valore precedente, null se la chiave è nuova
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K chiave, V valore) {
+        Objects.requireNonNull(chiave, "chiave");
+        inserita = false;
+        precedenteValore = null;
+        Nodo destro = inserisci(radice, chiave, valore);
+        if (destro != null) {
+            Interno nuovaRadice = new Interno();
+            nuovaRadice.n = 1;
+            nuovaRadice.chiavi[0] = separatore;
+            nuovaRadice.figli[0] = radice;
+            nuovaRadice.figli[1] = destro;
+            radice = nuovaRadice;
+        }
+        if (inserita) {
+            size++;
+        }
+        V precedente = (V) precedenteValore;
+        precedenteValore = null;
+        separatore = null;
+        return precedente;
+    }
+
+    private Nodo inserisci(Nodo nodo, Object k, Object v) {
+        if (nodo instanceof Foglia foglia) {
+            int i = lowerBound(foglia.chiavi, foglia.n, k);
+            if (i < foglia.n && confronta(foglia.chiavi[i], k) == 0) {
+                precedenteValore = foglia.valori[i];
+                foglia.valori[i] = v;
+                return null;
+            }
+            System.arraycopy(foglia.chiavi, i, foglia.chiavi, i + 1, foglia.n - i);
+            System.arraycopy(foglia.valori, i, foglia.valori, i + 1, foglia.n - i);
+            foglia.chiavi[i] = k;
+            foglia.valori[i] = v;
+            foglia.n++;
+            inserita = true;
+            return foglia.n > ORDINE ? dividi(foglia) : null;
+        }
+        Interno interno = (Interno) nodo;
+        int c = upperBound(interno.chiavi, interno.n, k);
+        Nodo destro = inserisci(interno.figli[c], k, v);
+        if (destro == null) {
+            return null;
+        }
+        System.arraycopy(interno.chiavi, c, interno.chiavi, c + 1, interno.n - c);
+        System.arraycopy(interno.figli, c + 1, interno.figli, c + 2, interno.n - c);
+        interno.chiavi[c] = separatore;
+        interno.figli[c + 1] = destro;
+        interno.n++;
+        return interno.n == ORDINE ? dividi(interno) : null;
+    }
+
+    private Foglia dividi(Foglia foglia) {
+        Foglia destra = new Foglia();
+        int meta = foglia.n / 2;
+        destra.n = foglia.n - meta;
+        System.arraycopy(foglia.chiavi, meta, destra.chiavi, 0, destra.n);
+        System.arraycopy(foglia.valori, meta, destra.valori, 0, destra.n);
+        // Niente riferimenti residui: chiavi e valori spostati non devono restare raggiungibili
+        Arrays.fill(foglia.chiavi, meta, foglia.n, null);
+        Arrays.fill(foglia.valori, meta, foglia.n, null);
+        foglia.n = meta;
+        destra.successiva = foglia.successiva;
+        destra.precedente = foglia;
+        if (foglia.successiva != null) {
+            foglia.successiva.precedente = destra;
+        }
+        foglia.successiva = destra;
+        separatore = destra.chiavi[0];
+        return destra;
+    }
+
+    private Interno dividi(Interno interno) {
+        Interno destro = new Interno();
+        int meta = interno.n / 2;
+        separatore = interno.chiavi[meta];
+        destro.n = interno.n - meta - 1;
+        System.arraycopy(interno.chiavi, meta + 1, destro.chiavi, 0, destro.n);
+        System.arraycopy(interno.figli, meta + 1, destro.figli, 0, destro.n + 1);
+        Arrays.fill(interno.chiavi, meta, interno.n, null);
+        Arrays.fill(interno.figli, meta + 1, interno.n + 1, null);
+        interno.n = meta;
+        return destro;
+    }
+
+    // ==================== RIMOZIONE ====================
+
+    /**
+     * Rimuove la chiave; restituisce il valore rimosso, null se era assente
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        precedenteValore = null;
+        if (rimuovi(radice, chiave) && radice instanceof Interno) {
+            radice = new Foglia();
+        }
+        while (radice instanceof Interno interno && interno.n == 0) {
+            radice = interno.figli[0];
+        }
+        V rimosso = (V) precedenteValore;
+        precedenteValore = null;
+        return rimosso;
+    }
+
+    private boolean rimuovi(Nodo nodo, Object k) {
+        if (nodo instanceof Foglia foglia) {
+            int i = lowerBound(foglia.chiavi, foglia.n, k);
+            if (i == foglia.n || confronta(foglia.chiavi[i], k) != 0) {
+                return false;
+            }
+            precedenteValore = foglia.valori[i];
+            System.arraycopy(foglia.chiavi, i + 1, foglia.chiavi, i, foglia.n - i - 1);
+            System.arraycopy(foglia.valori, i + 1, foglia.valori, i, foglia.n - i - 1);
+            foglia.n--;
+            foglia.chiavi[foglia.n] = null;
+            foglia.valori[foglia.n] = null;
+            size--;
+            if (foglia.n > 0) {
+                return false;
+            }
+            if (foglia.precedente != null) {
+                foglia.precedente.successiva = foglia.successiva;
+            }
+            if (foglia.successiva != null) {
+                foglia.successiva.precedente = foglia.precedente;
+            }
+            foglia.precedente = null;
+            foglia.successiva = null;
+            return true;
+        }
+        Interno interno = (Interno) nodo;
+        int c = upperBound(interno.chiavi, interno.n, k);
+        if (!rimuovi(interno.figli[c], k)) {
+            return false;
+        }
+        if (interno.n == 0) {
+            return true;
+        }
+        int chiave = c > 0 ? c - 1 : 0;
+        System.arraycopy(interno.chiavi, chiave + 1, interno.chiavi, chiave, interno.n - chiave - 1);
+        System.arraycopy(interno.figli, c + 1, interno.figli, c, interno.n - c);
+        interno.chiavi[interno.n - 1] = null;
+        interno.figli[interno.n] = null;
+        interno.n--;
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        radice = new Foglia();
+        size = 0;
+    }
+
+    public int altezza() {
+        int altezza = 1;
+        for (Nodo nodo = radice; nodo instanceof Interno interno; nodo = interno.figli[0]) {
+            altezza++;
+        }
+        return altezza;
+    }
+}
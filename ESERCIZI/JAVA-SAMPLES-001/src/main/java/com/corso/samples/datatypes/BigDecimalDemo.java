@@ -2,6 +2,7 @@ package com.corso.samples.datatypes;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Random;
 
 public class BigDecimalDemo {
 
@@ -167,6 +168,86 @@ public class BigDecimalDemo {
         System.out.println("- Applicazioni bancarie");
         System.out.println("- Calcoli scientifici che richiedono precisione arbitraria");
         System.out.println("- Quando la precisione decimale è critica");
+
+        // 10. ALTERNATIVA A VIRGOLA FISSA: DECIMAL64
+        System.out.println("\n10. ALTERNATIVA A VIRGOLA FISSA: DECIMAL64");
+        System.out.println("-------------------------------------------");
+
+        // Stesso calcolo della sezione 6: un long e una scala invece di BigInteger e oggetti intermedi
+        Decimal64 prezzoBase64 = Decimal64.of("100.00");
+        Decimal64 importoIva64 = prezzoBase64.multiply(Decimal64.of("0.22"), 2, RoundingMode.HALF_UP);
+        Decimal64 prezzoTotale64 = prezzoBase64.add(importoIva64);
+        Decimal64 importoSconto64 = prezzoTotale64.multiply(Decimal64.of("0.15"), 2, RoundingMode.HALF_UP);
+        System.out.println("IVA: €" + importoIva64 + ", totale: €" + prezzoTotale64
+            + ", finale: €" + prezzoTotale64.subtract(importoSconto64));
+        System.out.println("Uguale a BigDecimal: "
+            + prezzoTotale64.subtract(importoSconto64).toBigDecimal().equals(prezzoScontato));
+        try {
+            Decimal64.valueOf(Long.MAX_VALUE, 2).add(Decimal64.of("0.01"));
+        } catch (ArithmeticException e) {
+            System.out.println("Overflow rilevato: " + e.getMessage());
+        }
+
+        fatturaMassiva();
+    }
+
+    /**
+     * Fattura con molte righe: imponibile = prezzo * quantità, IVA 22% arrotondata
+     * per riga, totale IVA. Stesso risultato con BigDecimal, Decimal64, accumulatore
+     * e colonne long[]
+     */
+    private static void fatturaMassiva() {
+        int righe = 1_000_000;
+        Random rand = new Random(42);
+        long[] prezzi = new long[righe]; // centesimi
+        int[] quantita = new int[righe];
+        for (int i = 0; i < righe; i++) {
+            prezzi[i] = 100 + rand.nextInt(100_000);
+            quantita[i] = 1 + rand.nextInt(20);
+        }
+        BigDecimal aliquota = new BigDecimal("0.22");
+        Decimal64 aliquota64 = Decimal64.of("0.22");
+
+        long start = System.nanoTime();
+        BigDecimal totale = BigDecimal.ZERO.setScale(2);
+        for (int i = 0; i < righe; i++) {
+            BigDecimal imponibile = BigDecimal.valueOf(prezzi[i], 2).multiply(BigDecimal.valueOf(quantita[i]));
+            totale = totale.add(imponibile.multiply(aliquota).setScale(2, RoundingMode.HALF_UP));
+        }
+        long tempoBig = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Decimal64 totale64 = Decimal64.valueOf(0, 2);
+        for (int i = 0; i < righe; i++) {
+            Decimal64 imponibile = Decimal64.valueOf(prezzi[i], 2).multiply(quantita[i]);
+            totale64 = totale64.add(imponibile.multiply(aliquota64, 2, RoundingMode.HALF_UP));
+        }
+        long tempo64 = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Decimal64.Accumulator accumulatore = Decimal64.accumulator(2);
+        for (int i = 0; i < righe; i++) {
+            accumulatore.addProduct(Decimal64.valueOf(prezzi[i] * quantita[i], 2), aliquota64, RoundingMode.HALF_UP);
+        }
+        long tempoAccumulatore = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long[] imponibili = new long[righe];
+        for (int i = 0; i < righe; i++) {
+            imponibili[i] = Math.multiplyExact(prezzi[i], quantita[i]);
+        }
+        long[] iva = new long[righe];
+        Decimal64.multiply(imponibili, 2, aliquota64, RoundingMode.HALF_UP, iva);
+        Decimal64 totaleColonne = Decimal64.sum(iva, 2);
+        long tempoColonne = System.nanoTime() - start;
+
+        System.out.println("\nIVA su " + righe + " righe di fattura:");
+        System.out.println("  BigDecimal:              " + tempoBig / 1_000_000 + " ms  €" + totale);
+        System.out.println("  Decimal64:               " + tempo64 / 1_000_000 + " ms  €" + totale64);
+        System.out.println("  Decimal64.Accumulator:   " + tempoAccumulatore / 1_000_000 + " ms  €" + accumulatore);
+        System.out.println("  colonne long[]:          " + tempoColonne / 1_000_000 + " ms  €" + totaleColonne);
+        System.out.println("  Stessi risultati: " + (totale64.toBigDecimal().equals(totale)
+            && accumulatore.value().equals(totale64) && totaleColonne.equals(totale64)));
     }
 
 
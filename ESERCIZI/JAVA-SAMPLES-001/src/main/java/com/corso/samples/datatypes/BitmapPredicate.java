@@ -0,0 +1,50 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Filtro su un indice bitmap (CategoryIndex, RangeIndex): evaluate() restituisce
+ * le righe che lo soddisfano. I predicati si combinano con and/or/andNot prima di
+ * essere valutati; and valuta il lato destro solo sulle righe del sinistro
+ * (e per niente se è vuoto), quindi conviene mettere a sinistra il filtro più
+ * selettivo.
+ * La negazione serve l'insieme di tutte le righe: è in PersonaBitmapIndex.not
+ * e OrdineBitmapIndex.not.
+ */
+@FunctionalInterface
+public interface BitmapPredicate {
+
+    RoaringBitmap evaluate();
+
+    /**
+     * Righe di candidati che soddisfano il predicato. and e andNot passano qui
+     * il risultato del lato sinistro: RangeIndex, se i candidati sono pochi,
+     * controlla solo quelle righe sulla colonna invece di calcolare l'intervallo
+     */
+    default RoaringBitmap evaluate(RoaringBitmap candidati) {
+        return candidati.and(evaluate());
+    }
+
+    default BitmapPredicate and(BitmapPredicate altro) {
+        return () -> {
+            RoaringBitmap sinistra = evaluate();
+            return sinistra.isEmpty() ? sinistra : altro.evaluate(sinistra);
+        };
+    }
+
+    default BitmapPredicate or(BitmapPredicate altro) {
+        return () -> evaluate().or(altro.evaluate());
+    }
+
+    /**
+     * Righe di questo predicato che non soddisfano altro
+     */
+    default BitmapPredicate andNot(BitmapPredicate altro) {
+        return () -> {
+            RoaringBitmap sinistra = evaluate();
+            return sinistra.isEmpty() ? sinistra : sinistra.andNot(altro.evaluate(sinistra));
+        };
+    }
+
+    static BitmapPredicate of(RoaringBitmap righe) {
+        return () -> righe;
+    }
+}
@@ -0,0 +1,210 @@
+package com.corso.samples.datatypes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stringa immutabile Latin-1 (ISO-8859-1): un byte per carattere, caratteri da
+ * U+0000 a U+00FF. Per i campi quasi sempre ASCII (codici, stati, città, SKU).
+ * Dal JDK 9 anche String usa un byte per carattere Latin-1 (compact strings):
+ * il guadagno di ByteString non è sul singolo valore ma su come si maneggia:
+ * - una ByteString è una fetta (array, inizio, lunghezza): subSequence e i valori
+ *   ricavati da un buffer letto con wrap() condividono l'array, senza copie
+ * - writeTo/readFrom su ByteBuffer copiano i byte così come sono, senza
+ *   passare da un CharsetEncoder/Decoder
+ * - hashCode è lo stesso di String.hashCode sullo stesso testo e
+ *   contentEquals confronta con una String senza crearne una
+ * L'array condiviso non va modificato dopo wrap(): la ByteString assume di
+ * esserne l'unica lettrice. compareTo ordina come String.compareTo.
+ */
+public final class ByteString implements CharSequence, Comparable<ByteString> {
+
+    public static final ByteString EMPTY = new ByteString(new byte[0], 0, 0);
+
+    private final byte[] byti;
+    private final int inizio;
+    private final int lunghezza;
+    // 0 = non ancora calcolato, come in String
+    private int hash;
+
+    private ByteString(byte[] byti, int inizio, int lunghezza) {
+        this.byti = byti;
+        this.inizio = inizio;
+        this.lunghezza = lunghezza;
+    }
+
+    /**
+     * @throws IllegalArgumentException se il testo contiene caratteri oltre U+00FF
+     */
+    public static ByteString of(String testo) {
+        if (!isLatin1(testo)) {
+            throw new IllegalArgumentException("Testo non Latin-1: " + testo);
+        }
+        byte[] byti = testo.getBytes(StandardCharsets.ISO_8859_1);
+        return byti.length == 0 ? EMPTY : new ByteString(byti, 0, byti.length);
+    }
+
+    public static boolean isLatin1(CharSequence testo) {
+        for (int i = 0; i < testo.length(); i++) {
+            if (testo.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copia dei byte indicati
+     */
+    public static ByteString copyOf(byte[] byti, int inizio, int lunghezza) {
+        return new ByteString(Arrays.copyOfRange(byti, inizio, inizio + lunghezza), 0, lunghezza);
+    }
+
+    /**
+     * Fetta senza copia: l'array non deve più cambiare
+     */
+    public static ByteString wrap(byte[] byti, int inizio, int lunghezza) {
+        if (inizio < 0 || lunghezza < 0 || inizio + lunghezza > byti.length) {
+            throw new IndexOutOfBoundsException("Intervallo [" + inizio + ", " + (inizio + lunghezza)
+                + ") su " + byti.length + " byte");
+        }
+        return new ByteString(byti, inizio, lunghezza);
+    }
+
+    /**
+     * Legge lunghezza byte dalla posizione corrente del buffer (copiandoli)
+     */
+    public static ByteString readFrom(ByteBuffer buffer, int lunghezza) {
+        byte[] byti = new byte[lunghezza];
+        buffer.get(byti);
+        return new ByteString(byti, 0, lunghezza);
+    }
+
+    // ==================== CHARSEQUENCE ====================
+
+    @Override
+    public int length() {
+        return lunghezza;
+    }
+
+    @Override
+    public char charAt(int indice) {
+        return (char) byteAt(indice);
+    }
+
+    /**
+     * Byte senza segno (0-255) in posizione indice
+     */
+    public int byteAt(int indice) {
+        if (indice < 0 || indice >= lunghezza) {
+            throw new IndexOutOfBoundsException("Indice " + indice + " su " + lunghezza);
+        }
+        return byti[inizio + indice] & 0xFF;
+    }
+
+    /**
+     * Fetta che condivide l'array, senza copia
+     */
+    @Override
+    public ByteString subSequence(int da, int a) {
+        if (da < 0 || a > lunghezza || da > a) {
+            throw new IndexOutOfBoundsException("Intervallo [" + da + ", " + a + ") su " + lunghezza);
+        }
+        return da == 0 && a == lunghezza ? this : new ByteString(byti, inizio + da, a - da);
+    }
+
+    /**
+     * Prima posizione del carattere a partire da da, -1 se non c'è
+     */
+    public int indexOf(int carattere, int da) {
+        for (int i = Math.max(da, 0); i < lunghezza; i++) {
+            if ((byti[inizio + i] & 0xFF) == carattere) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean startsWith(ByteString prefisso) {
+        return prefisso.lunghezza <= lunghezza
+            && Arrays.equals(byti, inizio, inizio + prefisso.lunghezza,
+                prefisso.byti, prefisso.inizio, prefisso.inizio + prefisso.lunghezza);
+    }
+
+    // ==================== CONVERSIONI ====================
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(byti, inizio, lunghezza);
+    }
+
+    public void copyTo(byte[] destinazione, int posizione) {
+        System.arraycopy(byti, inizio, destinazione, posizione, lunghezza);
+    }
+
+    /**
+     * Copia compatta: utile per conservare una piccola fetta di un buffer grande
+     * senza tenere in vita tutto l'array
+     */
+    public ByteString compact() {
+        return inizio == 0 && lunghezza == byti.length ? this : copyOf(byti, inizio, lunghezza);
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(byti, inizio, inizio + lunghezza);
+    }
+
+    @Override
+    public String toString() {
+        return new String(byti, inizio, lunghezza, StandardCharsets.ISO_8859_1);
+    }
+
+    // ==================== CONFRONTI ====================
+
+    /**
+     * Stesso testo della CharSequence, senza convertire
+     */
+    public boolean contentEquals(CharSequence testo) {
+        if (testo.length() != lunghezza) {
+            return false;
+        }
+        for (int i = 0; i < lunghezza; i++) {
+            if (testo.charAt(i) != (char) (byti[inizio + i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ByteString altra) || altra.lunghezza != lunghezza) {
+            return false;
+        }
+        return Arrays.equals(byti, inizio, inizio + lunghezza, altra.byti, altra.inizio, altra.inizio + lunghezza);
+    }
+
+    /**
+     * Uguale a toString().hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int i = 0; i < lunghezza; i++) {
+                h = 31 * h + (byti[inizio + i] & 0xFF);
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public int compareTo(ByteString altra) {
+        return Arrays.compareUnsigned(byti, inizio, inizio + lunghezza,
+            altra.byti, altra.inizio, altra.inizio + altra.lunghezza);
+    }
+}
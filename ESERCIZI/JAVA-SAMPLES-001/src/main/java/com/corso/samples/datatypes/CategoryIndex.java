@@ -0,0 +1,77 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Indice bitmap di una colonna codificata con StringDictionary: una
+ * RoaringBitmap di righe per ogni valore distinto. Un filtro di uguaglianza
+ * è la bitmap già pronta, senza scorrere la colonna.
+ * Adatto a colonne con pochi valori distinti (città, stato, dipartimento):
+ * con un valore diverso per riga ogni bitmap avrebbe un solo elemento.
+ */
+public final class CategoryIndex {
+
+    private final StringDictionary dizionario;
+    private final RoaringBitmap[] bitmap;
+
+    /**
+     * @param codici la colonna: codici del dizionario, uno per riga
+     */
+    CategoryIndex(int[] codici, StringDictionary dizionario) {
+        this.dizionario = dizionario;
+        int valori = dizionario.dimensione();
+        // Counting sort delle righe per codice: ogni gruppo resta in ordine di riga
+        int[] inizio = new int[valori + 1];
+        for (int codice : codici) {
+            inizio[codice + 1]++;
+        }
+        for (int c = 0; c < valori; c++) {
+            inizio[c + 1] += inizio[c];
+        }
+        int[] righe = new int[codici.length];
+        int[] pos = inizio.clone();
+        for (int r = 0; r < codici.length; r++) {
+            righe[pos[codici[r]]++] = r;
+        }
+        bitmap = new RoaringBitmap[valori];
+        for (int c = 0; c < valori; c++) {
+            bitmap[c] = RoaringBitmap.fromSorted(righe, inizio[c], inizio[c + 1]);
+        }
+    }
+
+    /**
+     * Righe con il valore indicato, vuota se il valore non compare nella colonna
+     */
+    public RoaringBitmap bitmap(String valore) {
+        int codice = dizionario.codice(valore);
+        return codice < 0 ? RoaringBitmap.EMPTY : bitmap[codice];
+    }
+
+    public BitmapPredicate eq(String valore) {
+        RoaringBitmap righe = bitmap(valore);
+        return () -> righe;
+    }
+
+    /**
+     * Righe con uno qualsiasi dei valori
+     */
+    public BitmapPredicate in(String... valori) {
+        return () -> {
+            RoaringBitmap risultato = RoaringBitmap.EMPTY;
+            for (String valore : valori) {
+                risultato = risultato.or(bitmap(valore));
+            }
+            return risultato;
+        };
+    }
+
+    public int valoriDistinti() {
+        return bitmap.length;
+    }
+
+    public long sizeInBytes() {
+        long totale = 0;
+        for (RoaringBitmap b : bitmap) {
+            totale += b.sizeInBytes();
+        }
+        return totale;
+    }
+}
@@ -1,5 +1,7 @@
 package com.corso.samples.datatypes;
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,12 +20,14 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.function.Supplier;
 
 /**
  * Dimostrazione completa delle Collection in Java
@@ -305,6 +309,112 @@ public class CollectionDemo {
         System.out.println("Dopo compute: " + map);
     }
 
+    /**
+     * COLLEZIONI PRIMITIVE - tabelle hash a indirizzamento aperto su array primitivi
+     * Implementazioni: IntIntHashMap, IntHashSet, LongObjectHashMap, ObjectIntCounter
+     * Nessun boxing e nessun nodo Entry: meno memoria e quasi niente lavoro per il GC
+     */
+    public void demoCollezioniPrimitive() {
+        System.out.println("\n=== COLLEZIONI PRIMITIVE ===");
+
+        // IntHashSet - stesse operazioni insiemistiche di HashSet<Integer>
+        System.out.println("\n--- IntHashSet ---");
+        IntHashSet set1 = IntHashSet.of(1, 2, 3, 4, 5);
+        IntHashSet set2 = IntHashSet.of(4, 5, 6, 7, 8);
+        System.out.println("Unione: " + IntHashSet.of(set1.toArray()).addAll(set2));
+        System.out.println("Intersezione: " + IntHashSet.of(set1.toArray()).retainAll(set2));
+        System.out.println("Differenza: " + IntHashSet.of(set1.toArray()).removeAll(set2));
+
+        // IntIntHashMap - istogramma per valore senza Integer
+        System.out.println("\n--- IntIntHashMap ---");
+        IntIntHashMap perEta = new IntIntHashMap();
+        for (int eta : new int[]{25, 30, 25, 40, 30, 25}) {
+            perEta.addTo(eta, 1);
+        }
+        System.out.println("Conteggio per età: " + perEta);
+        System.out.println("Età 25: " + perEta.getOrDefault(25, 0) + ", età 50: " + perEta.getOrDefault(50, 0));
+        perEta.remove(40);
+        System.out.println("Dopo remove(40): " + perEta);
+
+        // LongObjectHashMap - indice per id numerico senza Long boxed
+        System.out.println("\n--- LongObjectHashMap ---");
+        LongObjectHashMap<String> perId = new LongObjectHashMap<>();
+        perId.put(1_000_000_001L, "Alice");
+        perId.put(1_000_000_002L, "Bob");
+        perId.computeIfAbsent(1_000_000_003L, id -> "Cliente-" + id);
+        System.out.println("Id 1000000002: " + perId.get(1_000_000_002L));
+        System.out.println("Id 1000000003: " + perId.get(1_000_000_003L));
+
+        // ObjectIntCounter - frequenze in un solo passaggio
+        System.out.println("\n--- ObjectIntCounter ---");
+        ObjectIntCounter<String> parole = ObjectIntCounter.of(
+            Arrays.asList("il gatto è sul tetto il cane è nel giardino il gatto".split(" ")));
+        System.out.println("Frequenze: " + parole);
+        System.out.println("Le 2 più frequenti: " + parole.piuFrequenti(2));
+
+        // Confronto su un testo sintetico: stessi conteggi, memoria e GC molto diversi
+        System.out.println("\n--- Frequenze su 10M token: HashMap vs ObjectIntCounter ---");
+        String[] vocabolario = new String[50_000];
+        for (int i = 0; i < vocabolario.length; i++) {
+            vocabolario[i] = "parola" + i;
+        }
+        Random random = new Random(42);
+        String[] token = new String[10_000_000];
+        for (int i = 0; i < token.length; i++) {
+            // Distribuzione sbilanciata: poche parole molto frequenti, come in un testo vero
+            double u = random.nextDouble();
+            token[i] = vocabolario[(int) (u * u * u * vocabolario.length)];
+        }
+
+        Map<String, Integer> conBoxing = misuraConteggio("HashMap.merge", () -> {
+            Map<String, Integer> mappa = new HashMap<>();
+            for (String t : token) {
+                mappa.merge(t, 1, Integer::sum);
+            }
+            return mappa;
+        });
+        ObjectIntCounter<String> senzaBoxing = misuraConteggio("ObjectIntCounter", () -> {
+            ObjectIntCounter<String> contatore = new ObjectIntCounter<>();
+            for (String t : token) {
+                contatore.increment(t);
+            }
+            return contatore;
+        });
+        System.out.println("Stessi conteggi: " + senzaBoxing.toMap().equals(conBoxing)
+            + " (" + senzaBoxing.size() + " parole distinte)");
+    }
+
+    /**
+     * Esegue il conteggio e stampa tempo, byte allocati dal thread e attività del GC
+     */
+    private static <T> T misuraConteggio(String nome, Supplier<T> conteggio) {
+        com.sun.management.ThreadMXBean thread =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long byteInizio = thread.getCurrentThreadAllocatedBytes();
+        long[] gcInizio = attivitaGc();
+        long start = System.nanoTime();
+        T risultato = conteggio.get();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        long[] gcFine = attivitaGc();
+        long mb = (thread.getCurrentThreadAllocatedBytes() - byteInizio) / (1024 * 1024);
+        System.out.printf("%-18s %5d ms  %6d MB allocati  GC: %d raccolte, %d ms%n",
+            nome, ms, mb, gcFine[0] - gcInizio[0], gcFine[1] - gcInizio[1]);
+        return risultato;
+    }
+
+    /**
+     * Numero di raccolte e tempo totale di GC di tutti i collector
+     */
+    private static long[] attivitaGc() {
+        long raccolte = 0;
+        long tempo = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            raccolte += Math.max(0, gc.getCollectionCount());
+            tempo += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{raccolte, tempo};
+    }
+
     /**
      * ITERAZIONE - modi diversi di iterare sulle collezioni
      */
@@ -461,6 +571,7 @@ public class CollectionDemo {
         demo.demoQueue();
         demo.demoDeque();
         demo.demoMap();
+        demo.demoCollezioniPrimitive();
         demo.demoIterazione();
         demo.demoCollectionsUtility();
         demo.demoComparazione();
@@ -471,6 +582,7 @@ public class CollectionDemo {
         System.out.println("QUEUE: LinkedList, PriorityQueue");
         System.out.println("DEQUE: ArrayDeque, LinkedList");
         System.out.println("MAP: HashMap, LinkedHashMap, TreeMap, Hashtable");
+        System.out.println("PRIMITIVE: IntIntHashMap, IntHashSet, LongObjectHashMap, ObjectIntCounter");
     }
 }
 
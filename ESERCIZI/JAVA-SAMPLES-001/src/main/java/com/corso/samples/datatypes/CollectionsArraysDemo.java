@@ -1,5 +1,6 @@
 package com.corso.samples.datatypes;
 
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,6 +11,7 @@ import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -19,6 +21,9 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * Esempio completo e avanzato sull'uso di java.util.Collections e java.util.Arrays
@@ -27,6 +32,8 @@ import java.util.TreeSet;
  * - Tutti i metodi principali di Arrays
  * - Operazioni di ordinamento, ricerca, manipolazione
  * - Collection immutabili e sincronizzate
+ * - Cache concorrente limitata (ConcurrentCache) al posto di synchronizedMap
+ * - Indici ordinati a B+tree (LongBPlusTree, BPlusTree) al posto di binarySearch + add(indice)
  * - Operazioni bulk
  * - Pattern avanzati e best practices
  */
@@ -69,6 +76,8 @@ public class CollectionsArraysDemo {
         
         // Casi d'uso avanzati
         demo.casiUsoAvanzati();
+        demo.cacheConcorrente();
+        demo.indiciOrdinati();
         demo.performanceComparison();
         demo.bestPractices();
     }
@@ -254,25 +263,14 @@ public class CollectionsArraysDemo {
         int freqB = Collections.frequency(lista, "B");
         System.out.println("frequency('B'): " + freqB);
 
-        // Trova elemento più frequente
-        Set<String> unique = new HashSet<>(lista);
-        String mostFrequent = null;
-        int maxFreq = 0;
-        
-        for (String elem : unique) {
-            int freq = Collections.frequency(lista, elem);
-            if (freq > maxFreq) {
-                maxFreq = freq;
-                mostFrequent = elem;
-            }
-        }
-        System.out.println("Elemento più frequente: " + mostFrequent + " (" + maxFreq + " volte)");
+        // frequency() scorre tutta la lista: chiamarlo per ogni elemento distinto
+        // costa O(n x distinti). Per contare tutto basta un passaggio solo
+        ObjectIntCounter<String> frequenze = ObjectIntCounter.of(lista);
+        String mostFrequent = frequenze.piuFrequenti(1).get(0);
+        System.out.println("Elemento più frequente: " + mostFrequent + " (" + frequenze.get(mostFrequent) + " volte)");
 
         // Crea mappa di frequenze
-        Map<String, Integer> frequencyMap = new HashMap<>();
-        for (String elem : unique) {
-            frequencyMap.put(elem, Collections.frequency(lista, elem));
-        }
+        Map<String, Integer> frequencyMap = frequenze.toMap();
         System.out.println("Mappa frequenze: " + frequencyMap);
 
         System.out.println();
@@ -489,6 +487,14 @@ public class CollectionsArraysDemo {
         map.put("A", 1);
         Map<String, Integer> mapSynchr = Collections.synchronizedMap(map);
         System.out.println("Map sincronizzata: " + mapSynchr);
+        // Un solo lock per tutte le operazioni e nessun limite di dimensione:
+        // per le mappe condivise usate come cache meglio una vista ConcurrentMap limitata
+        Map<String, Integer> mapConcorrente = ConcurrentCache.<String, Integer>builder()
+            .maximumSize(1000)
+            .build()
+            .asMap();
+        mapConcorrente.putAll(map);
+        System.out.println("Alternativa concorrente (ConcurrentCache.asMap): " + mapConcorrente);
 
         // synchronizedCollection()
         Collection<String> collection = new ArrayList<>(Arrays.asList("X", "Y"));
@@ -926,6 +932,11 @@ public class CollectionsArraysDemo {
         int sumRange = Arrays.stream(numeri, 2, 7).sum();
         System.out.println("stream con range [2,7): " + sumRange);
 
+        // Stesse riduzioni senza pipeline: ArrayKernels (SIMD se disponibile)
+        System.out.println("ArrayKernels sum/max/pari>5: " + ArrayKernels.sum(numeri)
+            + " / " + ArrayKernels.max(numeri)
+            + " / " + ArrayKernels.count(numeri, n -> n % 2 == 0 && n > 5));
+
         // stream() per oggetti
         String[] nomi = {"Alice", "Bob", "Charlie", "David"};
         List<String> maiuscoli = Arrays.stream(nomi)
@@ -1039,6 +1050,13 @@ public class CollectionsArraysDemo {
         System.out.println("deepHashCode(matrix2): " + hash2);
         System.out.println("Hash uguali: " + (hash1 == hash2));
 
+        // Le stesse matrici come IntMatrix (un solo int[] row-major): equals e hashCode sul contenuto
+        IntMatrix piatta1 = IntMatrix.of(matrix1);
+        IntMatrix piatta3 = IntMatrix.of(matrix3);
+        System.out.println("IntMatrix equals(matrix1, matrix2): " + piatta1.equals(IntMatrix.of(matrix2)));
+        System.out.println("IntMatrix equals(matrix1, matrix3): " + piatta1.equals(piatta3));
+        System.out.println("IntMatrix.toString(): " + piatta1);
+
         // Array 3D
         int[][][] cube = {
             {{1, 2}, {3, 4}},
@@ -1103,8 +1121,12 @@ public class CollectionsArraysDemo {
     public void casiUsoAvanzati() {
         System.out.println("=== CASI D'USO AVANZATI ===");
 
-        // 1. Implementare cache con Collections.synchronizedMap
-        Map<String, String> cache = Collections.synchronizedMap(new HashMap<>());
+        // 1. Cache thread-safe limitata, con scadenza (vedi cacheConcorrente)
+        Map<String, String> cache = ConcurrentCache.<String, String>builder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build()
+            .asMap();
         cache.put("key1", "value1");
         cache.put("key2", "value2");
         System.out.println("Cache thread-safe: " + cache);
@@ -1123,6 +1145,15 @@ public class CollectionsArraysDemo {
             sortedList.add(insertIndex, newValue);
         }
         System.out.println("Lista dopo inserimento ordinato: " + sortedList);
+        // add(indice) sposta tutti gli elementi successivi: O(n) per inserimento.
+        // Con molti inserimenti conviene un indice ordinato (vedi indiciOrdinati())
+        LongBPlusTree indice = new LongBPlusTree();
+        for (long v : new long[]{1, 3, 5, 7, 9, 6}) {
+            indice.put(v, v);
+        }
+        List<Long> ordinati = new ArrayList<>();
+        indice.forEach((k, v) -> ordinati.add(k));
+        System.out.println("Stesso inserimento con LongBPlusTree: " + ordinati);
 
         // 4. Rotazione di buffer circolare
         List<String> buffer = new ArrayList<>(Arrays.asList("A", "B", "C", "D", "E"));
@@ -1132,10 +1163,7 @@ public class CollectionsArraysDemo {
         // 5. Frequenza per analisi testo
         String testo = "il gatto è sul tetto il cane è nel giardino il gatto";
         List<String> parole = Arrays.asList(testo.split(" "));
-        Map<String, Integer> frequenze = new HashMap<>();
-        for (String parola : new HashSet<>(parole)) {
-            frequenze.put(parola, Collections.frequency(parole, parola));
-        }
+        ObjectIntCounter<String> frequenze = ObjectIntCounter.of(parole);
         System.out.println("Frequenze parole: " + frequenze);
 
         // 6. Min/Max con comparator custom per trovare outliers
@@ -1165,6 +1193,225 @@ public class CollectionsArraysDemo {
         System.out.println();
     }
 
+    // ==================== CACHE CONCORRENTE ====================
+
+    public void cacheConcorrente() {
+        System.out.println("=== CACHE CONCORRENTE (W-TinyLFU) ===");
+
+        // Traccia di accessi con distribuzione Zipf: poche chiavi molto richieste, una lunga coda
+        int capacita = 2_000;
+        long[] traccia = tracciaZipf(1_000_000, 100_000, 0.9, 42);
+
+        ConcurrentCache<Long, String> cache = ConcurrentCache.<Long, String>builder()
+            .maximumSize(capacita)
+            .build();
+        Map<Long, String> lru = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > capacita;
+            }
+        });
+        long hitLru = 0;
+        for (long chiave : traccia) {
+            cache.get(chiave, k -> "valore" + k);
+            if (lru.get(chiave) != null) {
+                hitLru++;
+            } else {
+                lru.put(chiave, "valore" + chiave);
+            }
+        }
+        System.out.println("Traccia Zipf: " + traccia.length + " accessi su 100000 chiavi, capacità " + capacita);
+        System.out.println(String.format("  Hit rate LRU (synchronizedMap + LinkedHashMap): %.1f%%",
+            100.0 * hitLru / traccia.length));
+        System.out.println(String.format("  Hit rate ConcurrentCache (W-TinyLFU):          %.1f%%",
+            100.0 * cache.statistiche().hitRate()));
+        System.out.println("  " + cache.statistiche());
+
+        // Resistenza alle scansioni: chiavi usate una sola volta non scacciano quelle frequenti
+        ConcurrentCache<Integer, Integer> calde = ConcurrentCache.<Integer, Integer>builder()
+            .maximumSize(1_000)
+            .build();
+        for (int giro = 0; giro < 10; giro++) {
+            for (int k = 0; k < 500; k++) {
+                calde.get(k, x -> x);
+            }
+        }
+        for (int k = 1_000_000; k < 1_100_000; k++) {
+            calde.get(k, x -> x);
+        }
+        long sopravvissute = IntStream.range(0, 500).filter(k -> calde.asMap().containsKey(k)).count();
+        System.out.println("\nDopo una scansione di 100000 chiavi nuove restano " + sopravvissute
+            + " delle 500 chiavi frequenti (con LRU: 0)");
+
+        // TTL e refresh con un orologio manuale
+        AtomicLong orologio = new AtomicLong();
+        AtomicInteger versione = new AtomicInteger();
+        ConcurrentCache<String, String> config = ConcurrentCache.<String, String>builder()
+            .maximumSize(100)
+            .refreshAfterWrite(Duration.ofSeconds(30))
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .loader(k -> k + " v" + versione.incrementAndGet())
+            .executor(Runnable::run) // ricarica nel thread chiamante, per un output deterministico
+            .ticker(orologio::get)
+            .build();
+        System.out.println("\nRefresh e scadenza:");
+        System.out.println("  t=0s    " + config.get("timeout"));
+        orologio.addAndGet(Duration.ofSeconds(10).toNanos());
+        System.out.println("  t=10s   " + config.get("timeout") + " (ancora fresco)");
+        orologio.addAndGet(Duration.ofSeconds(30).toNanos());
+        System.out.println("  t=40s   " + config.get("timeout") + " (ricaricato dopo refreshAfterWrite)");
+        orologio.addAndGet(Duration.ofMinutes(10).toNanos());
+        System.out.println("  t=10m   " + config.getIfPresent("timeout") + " (scaduto)");
+        System.out.println("  " + config.statistiche());
+
+        // Contesa: letture da più thread, un lock globale contro letture senza lock
+        int threads = 4;
+        int letturePerThread = 1_000_000;
+        Map<Long, String> sincronizzata = Collections.synchronizedMap(new HashMap<>());
+        for (long k = 0; k < capacita; k++) {
+            sincronizzata.put(k, "valore" + k);
+        }
+        long tempoSync = lettureParallele(sincronizzata, traccia, threads, letturePerThread);
+        long tempoCache = lettureParallele(cache.asMap(), traccia, threads, letturePerThread);
+        // Con pochi core la contesa sul lock unico si vede poco: il divario cresce con i thread in parallelo
+        System.out.println("\n" + threads + " thread x " + letturePerThread + " letture ("
+            + Runtime.getRuntime().availableProcessors() + " core):");
+        System.out.println("  Collections.synchronizedMap: " + tempoSync / 1_000_000 + " ms");
+        System.out.println("  ConcurrentCache.asMap():     " + tempoCache / 1_000_000 + " ms");
+
+        System.out.println();
+    }
+
+    private static long[] tracciaZipf(int accessi, int chiavi, double esponente, long seme) {
+        double[] cumulata = new double[chiavi];
+        double somma = 0;
+        for (int i = 0; i < chiavi; i++) {
+            somma += 1 / Math.pow(i + 1, esponente);
+            cumulata[i] = somma;
+        }
+        Random random = new Random(seme);
+        long[] traccia = new long[accessi];
+        for (int i = 0; i < accessi; i++) {
+            int k = Arrays.binarySearch(cumulata, random.nextDouble() * somma);
+            traccia[i] = k < 0 ? -k - 1 : k;
+        }
+        return traccia;
+    }
+
+    private static long lettureParallele(Map<Long, String> mappa, long[] traccia, int threads, int letture) {
+        Thread[] lavoratori = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int inizio = t * 1_000;
+            lavoratori[t] = new Thread(() -> {
+                for (int i = 0; i < letture; i++) {
+                    mappa.get(traccia[(inizio + i) % traccia.length]);
+                }
+            });
+            lavoratori[t].start();
+        }
+        for (Thread lavoratore : lavoratori) {
+            try {
+                lavoratore.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    // ==================== INDICI ORDINATI (B+TREE) ====================
+
+    public void indiciOrdinati() {
+        System.out.println("=== INDICI ORDINATI (LongBPlusTree, BPlusTree) ===");
+
+        // Stesse operazioni di navigazione di TreeMap
+        BPlusTree<String, Integer> eta = new BPlusTree<>();
+        eta.put("Charlie", 35);
+        eta.put("Alice", 25);
+        eta.put("Eve", 28);
+        eta.put("Bob", 30);
+        System.out.println("floorKey(\"Carlo\"): " + eta.floorKey("Carlo"));
+        System.out.println("ceilingKey(\"Carlo\"): " + eta.ceilingKey("Carlo"));
+        StringBuilder intervallo = new StringBuilder();
+        eta.forEachInRange("B", "E", (nome, anni) -> intervallo.append(nome).append('=').append(anni).append(' '));
+        System.out.println("Intervallo [B, E): " + intervallo.toString().trim());
+
+        // Inserimenti alternati a query per intervallo, come una tabella di lookup viva
+        int inserimenti = 200_000;
+        Random random = new Random(42);
+        long[] chiavi = random.longs(inserimenti, 0, 1_000_000_000L).toArray();
+
+        long start = System.nanoTime();
+        List<Long> lista = new ArrayList<>();
+        long trovatiLista = 0;
+        for (int i = 0; i < inserimenti; i++) {
+            int pos = Collections.binarySearch(lista, chiavi[i]);
+            if (pos < 0) {
+                lista.add(-pos - 1, chiavi[i]);
+            }
+            if (i % 10 == 0) {
+                trovatiLista += primoNonMinore(lista, chiavi[i] + 10_000_000L) - primoNonMinore(lista, chiavi[i]);
+            }
+        }
+        long tempoLista = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        TreeMap<Long, Long> treeMap = new TreeMap<>();
+        long trovatiTreeMap = 0;
+        for (int i = 0; i < inserimenti; i++) {
+            treeMap.put(chiavi[i], (long) i);
+            if (i % 10 == 0) {
+                trovatiTreeMap += treeMap.subMap(chiavi[i], chiavi[i] + 10_000_000L).size();
+            }
+        }
+        long tempoTreeMap = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        LongBPlusTree albero = new LongBPlusTree();
+        long trovatiAlbero = 0;
+        for (int i = 0; i < inserimenti; i++) {
+            albero.put(chiavi[i], i);
+            if (i % 10 == 0) {
+                trovatiAlbero += albero.countInRange(chiavi[i], chiavi[i] + 10_000_000L);
+            }
+        }
+        long tempoAlbero = System.nanoTime() - start;
+
+        System.out.println("\n" + inserimenti + " inserimenti con una query per intervallo ogni 10:");
+        System.out.println("  ArrayList + binarySearch + add(indice): " + tempoLista / 1_000_000 + " ms");
+        System.out.println("  TreeMap.put + subMap().size():          " + tempoTreeMap / 1_000_000 + " ms");
+        System.out.println("  LongBPlusTree.put + countInRange:       " + tempoAlbero / 1_000_000 + " ms");
+        System.out.println("  Stessi risultati: " + (trovatiLista == trovatiAlbero && trovatiTreeMap == trovatiAlbero)
+            + ", altezza dell'albero: " + albero.altezza());
+
+        // Caricamento da input ordinato e persistenza su file mappato
+        long[] ordinate = treeMap.keySet().stream().mapToLong(Long::longValue).toArray();
+        long[] valori = treeMap.values().stream().mapToLong(Long::longValue).toArray();
+        LongBPlusTree caricato = LongBPlusTree.daOrdinati(ordinate, valori);
+        try {
+            java.nio.file.Path file = java.nio.file.Files.createTempFile("indice", ".bpt");
+            caricato.salva(file);
+            LongBPlusTree riletto = LongBPlusTree.carica(file);
+            System.out.println("Salvato e riletto da " + java.nio.file.Files.size(file) / 1024 + " KB: "
+                + riletto.size() + " voci, prima chiave " + riletto.firstKey().getAsLong()
+                + ", uguale all'originale: " + (riletto.get(ordinate[123], -1) == valori[123]));
+            java.nio.file.Files.delete(file);
+        } catch (java.io.IOException e) {
+            System.out.println("Persistenza non riuscita: " + e.getMessage());
+        }
+
+        System.out.println();
+    }
+
+    /**
+     * Indice del primo elemento >= chiave in una lista ordinata senza duplicati
+     */
+    private static int primoNonMinore(List<Long> lista, long chiave) {
+        int pos = Collections.binarySearch(lista, chiave);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
     // ==================== PERFORMANCE COMPARISON ====================
 
     public void performanceComparison() {
@@ -1242,9 +1489,10 @@ public class CollectionsArraysDemo {
         List<String> external = Collections.unmodifiableList(internal);
         System.out.println("   Public API: " + external.getClass().getSimpleName());
 
-        System.out.println("\n5. Usa synchronized per thread-safety");
+        System.out.println("\n5. Usa synchronized per thread-safety, ma non per le cache condivise");
         List<String> threadSafe = Collections.synchronizedList(new ArrayList<>());
         System.out.println("   Thread-safe: " + threadSafe.getClass().getName());
+        System.out.println("   Cache: ConcurrentCache (letture senza lock, dimensione massima, TTL)");
 
         System.out.println("\n6. Preferisci Arrays.stream() per operazioni funzionali");
         int sum = Arrays.stream(new int[]{1, 2, 3, 4, 5}).sum();
@@ -1257,7 +1505,7 @@ public class CollectionsArraysDemo {
         int[][] matrix = {{1, 2}, {3, 4}};
         System.out.println("   " + Arrays.deepToString(matrix));
 
-        System.out.println("\n9. Usa Collections.frequency per statistiche");
+        System.out.println("\n9. Usa Collections.frequency per un elemento, ObjectIntCounter per tutti");
         List<Integer> data = Arrays.asList(1, 2, 2, 3, 3, 3);
         System.out.println("   Freq di 3: " + Collections.frequency(data, 3));
 
@@ -0,0 +1,426 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregazioni su colonne primitive (double[], int[]) per PersonaTable e OrdineTable.
+ * Ogni aggregazione è un RecursiveTask che divide l'intervallo di righe a metà
+ * fino a SOGLIA righe: le foglie sono cicli su array senza boxing né allocazioni,
+ * i risultati parziali vengono combinati risalendo l'albero.
+ * I risultati usano i tipi del JDK (DoubleSummaryStatistics, IntSummaryStatistics),
+ * gli stessi di Collectors.summarizingDouble/summarizingInt. Le somme di double
+ * sono compensate (Kahan) come in DoubleSummaryStatistics, nelle foglie e nella
+ * combinazione: con 50 milioni di righe la somma ingenua perde cifre significative.
+ */
+public final class ColumnAggregates {
+
+    // Righe per foglia: sotto questa dimensione il fork costa più del ciclo
+    private static final int SOGLIA = 1 << 16;
+    // Percentile: cifre da 11 bit, 2048 contatori int (8 KB) per foglia
+    private static final int BIT_CIFRA = 11;
+
+    private ColumnAggregates() {
+    }
+
+    // ==================== RIEPILOGO ====================
+
+    /**
+     * count, sum, min, max e media della colonna in un solo passaggio
+     */
+    public static DoubleSummaryStatistics riepilogo(double[] colonna) {
+        if (colonna.length == 0) {
+            return new DoubleSummaryStatistics();
+        }
+        return ForkJoinPool.commonPool().invoke(new RiepilogoDoubleTask(colonna, 0, colonna.length));
+    }
+
+    public static IntSummaryStatistics riepilogo(int[] colonna) {
+        if (colonna.length == 0) {
+            return new IntSummaryStatistics();
+        }
+        return ForkJoinPool.commonPool().invoke(new RiepilogoIntTask(colonna, 0, colonna.length));
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RiepilogoDoubleTask extends RecursiveTask<DoubleSummaryStatistics> {
+        private final double[] colonna;
+        private final int from;
+        private final int to;
+
+        RiepilogoDoubleTask(double[] colonna, int from, int to) {
+            this.colonna = colonna;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected DoubleSummaryStatistics compute() {
+            if (to - from <= SOGLIA) {
+                double somma = 0;
+                double compensazione = 0;
+                double sommaSemplice = 0;
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double v = colonna[i];
+                    double y = v - compensazione;
+                    double t = somma + y;
+                    compensazione = (t - somma) - y;
+                    somma = t;
+                    sommaSemplice += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                // combine() di DoubleSummaryStatistics è già compensata
+                return new DoubleSummaryStatistics(to - from, min, max, sommaKahan(somma, compensazione, sommaSemplice));
+            }
+            int mid = (from + to) >>> 1;
+            RiepilogoDoubleTask sinistra = new RiepilogoDoubleTask(colonna, from, mid);
+            sinistra.fork();
+            DoubleSummaryStatistics destra = new RiepilogoDoubleTask(colonna, mid, to).compute();
+            DoubleSummaryStatistics risultato = sinistra.join();
+            risultato.combine(destra);
+            return risultato;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RiepilogoIntTask extends RecursiveTask<IntSummaryStatistics> {
+        private final int[] colonna;
+        private final int from;
+        private final int to;
+
+        RiepilogoIntTask(int[] colonna, int from, int to) {
+            this.colonna = colonna;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntSummaryStatistics compute() {
+            if (to - from <= SOGLIA) {
+                long somma = 0;
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for (int i = from; i < to; i++) {
+                    int v = colonna[i];
+                    somma += v;
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                return new IntSummaryStatistics(to - from, min, max, somma);
+            }
+            int mid = (from + to) >>> 1;
+            RiepilogoIntTask sinistra = new RiepilogoIntTask(colonna, from, mid);
+            sinistra.fork();
+            IntSummaryStatistics destra = new RiepilogoIntTask(colonna, mid, to).compute();
+            IntSummaryStatistics risultato = sinistra.join();
+            risultato.combine(destra);
+            return risultato;
+        }
+    }
+
+    /**
+     * Risultato di una somma di Kahan, come DoubleSummaryStatistics.getSum: con
+     * valori infiniti la compensazione diventa NaN e vale la somma semplice
+     */
+    private static double sommaKahan(double somma, double compensazione, double sommaSemplice) {
+        double risultato = somma - compensazione;
+        return Double.isNaN(risultato) && Double.isInfinite(sommaSemplice) ? sommaSemplice : risultato;
+    }
+
+    // ==================== PERCENTILE ====================
+
+    /**
+     * Percentile con il metodo nearest-rank (p tra 0 e 100), senza copiare né
+     * ordinare la colonna: selezione radix parallela sui bit del double.
+     * Ogni passata è un RecursiveTask che conta, tra i valori con il prefisso già
+     * fissato, quanti cadono in ognuna delle 2^11 cifre successive: la cifra che
+     * contiene il rango cercato allunga il prefisso. Quando i valori con quel
+     * prefisso sono al massimo SOGLIA vengono raccolti (anche questo in parallelo)
+     * e il rango si trova con Quick Select su di loro. Di solito bastano 2 o 3
+     * letture parallele della colonna, contro la copia e il Quick Select
+     * sequenziale di tutta la colonna (400 MB con 50 milioni di righe).
+     * Sotto SOGLIA righe resta il Quick Select su una copia.
+     * La colonna non deve contenere NaN.
+     */
+    public static double percentile(double[] colonna, double p) {
+        if (p < 0 || p > 100) {
+            throw new IllegalArgumentException("Percentile fuori da [0, 100]: " + p);
+        }
+        if (colonna.length == 0) {
+            throw new IllegalArgumentException("Colonna vuota");
+        }
+        int k = Math.max(0, (int) Math.ceil(p / 100 * colonna.length) - 1);
+        if (colonna.length <= SOGLIA) {
+            double[] copia = colonna.clone();
+            Selection.nthElement(copia, k);
+            return copia[k];
+        }
+
+        long prefisso = 0;
+        int bitPrefisso = 0;
+        int rango = k;
+        while (bitPrefisso < Long.SIZE) {
+            int larghezza = Math.min(BIT_CIFRA, Long.SIZE - bitPrefisso);
+            int[] conteggi = ForkJoinPool.commonPool().invoke(
+                new IstogrammaTask(colonna, 0, colonna.length, prefisso, bitPrefisso, larghezza));
+            int cifra = 0;
+            while (rango >= conteggi[cifra]) {
+                rango -= conteggi[cifra];
+                cifra++;
+            }
+            prefisso = (prefisso << larghezza) | cifra;
+            bitPrefisso += larghezza;
+            if (conteggi[cifra] <= SOGLIA && bitPrefisso < Long.SIZE) {
+                double[] candidati = ForkJoinPool.commonPool().invoke(
+                    new RaccoltaTask(colonna, 0, colonna.length, prefisso, bitPrefisso));
+                Selection.nthElement(candidati, rango);
+                return candidati[rango];
+            }
+        }
+        // Tutti i 64 bit fissati: il prefisso è il valore
+        return valore(prefisso);
+    }
+
+    /**
+     * I bit del double come long che, confrontato senza segno, segue l'ordine dei
+     * valori: per i positivi si accende il bit di segno, per i negativi si invertono tutti
+     */
+    private static long chiave(double v) {
+        long bit = Double.doubleToRawLongBits(v);
+        return bit ^ ((bit >> 63) | Long.MIN_VALUE);
+    }
+
+    private static double valore(long chiave) {
+        return Double.longBitsToDouble(chiave < 0 ? chiave ^ Long.MIN_VALUE : ~chiave);
+    }
+
+    private static boolean haPrefisso(long chiave, long prefisso, int bitPrefisso) {
+        return bitPrefisso == 0 || chiave >>> (Long.SIZE - bitPrefisso) == prefisso;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class IstogrammaTask extends RecursiveTask<int[]> {
+        private final double[] colonna;
+        private final int from;
+        private final int to;
+        private final long prefisso;
+        private final int bitPrefisso;
+        private final int larghezza;
+
+        IstogrammaTask(double[] colonna, int from, int to, long prefisso, int bitPrefisso, int larghezza) {
+            this.colonna = colonna;
+            this.from = from;
+            this.to = to;
+            this.prefisso = prefisso;
+            this.bitPrefisso = bitPrefisso;
+            this.larghezza = larghezza;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SOGLIA) {
+                int[] conteggi = new int[1 << larghezza];
+                int shift = Long.SIZE - bitPrefisso - larghezza;
+                int maschera = (1 << larghezza) - 1;
+                for (int i = from; i < to; i++) {
+                    long c = chiave(colonna[i]);
+                    if (haPrefisso(c, prefisso, bitPrefisso)) {
+                        conteggi[(int) (c >>> shift) & maschera]++;
+                    }
+                }
+                return conteggi;
+            }
+            int mid = (from + to) >>> 1;
+            IstogrammaTask sinistra = new IstogrammaTask(colonna, from, mid, prefisso, bitPrefisso, larghezza);
+            sinistra.fork();
+            int[] destra = new IstogrammaTask(colonna, mid, to, prefisso, bitPrefisso, larghezza).compute();
+            int[] risultato = sinistra.join();
+            for (int d = 0; d < risultato.length; d++) {
+                risultato[d] += destra[d];
+            }
+            return risultato;
+        }
+    }
+
+    /**
+     * I valori con il prefisso dato, al massimo SOGLIA in tutto
+     */
+    @SuppressWarnings("serial")
+    private static final class RaccoltaTask extends RecursiveTask<double[]> {
+        private final double[] colonna;
+        private final int from;
+        private final int to;
+        private final long prefisso;
+        private final int bitPrefisso;
+
+        RaccoltaTask(double[] colonna, int from, int to, long prefisso, int bitPrefisso) {
+            this.colonna = colonna;
+            this.from = from;
+            this.to = to;
+            this.prefisso = prefisso;
+            this.bitPrefisso = bitPrefisso;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= SOGLIA) {
+                double[] trovati = new double[16];
+                int n = 0;
+                for (int i = from; i < to; i++) {
+                    double v = colonna[i];
+                    if (haPrefisso(chiave(v), prefisso, bitPrefisso)) {
+                        if (n == trovati.length) {
+                            trovati = Arrays.copyOf(trovati, n * 2);
+                        }
+                        trovati[n++] = v;
+                    }
+                }
+                return Arrays.copyOf(trovati, n);
+            }
+            int mid = (from + to) >>> 1;
+            RaccoltaTask sinistra = new RaccoltaTask(colonna, from, mid, prefisso, bitPrefisso);
+            sinistra.fork();
+            double[] destra = new RaccoltaTask(colonna, mid, to, prefisso, bitPrefisso).compute();
+            double[] risultato = sinistra.join();
+            double[] unione = Arrays.copyOf(risultato, risultato.length + destra.length);
+            System.arraycopy(destra, 0, unione, risultato.length, destra.length);
+            return unione;
+        }
+    }
+
+    // ==================== GROUP BY ====================
+
+    /**
+     * Statistiche di valori raggruppate per codice: il risultato ha una cella per
+     * ogni codice da 0 a numeroGruppi - 1 (i codici di uno StringDictionary).
+     * Ogni foglia accumula in array indicizzati per codice, senza HashMap.
+     */
+    public static DoubleSummaryStatistics[] perGruppo(int[] codici, int numeroGruppi, double[] valori) {
+        if (codici.length != valori.length) {
+            throw new IllegalArgumentException("Colonne di lunghezza diversa: " + codici.length + ", " + valori.length);
+        }
+        // Con molti gruppi le foglie devono essere più grandi, altrimenti gli array parziali costano più del ciclo
+        int soglia = Math.max(SOGLIA, numeroGruppi * 8);
+        Parziale parziale = codici.length == 0
+            ? new Parziale(numeroGruppi)
+            : ForkJoinPool.commonPool().invoke(new GruppoTask(codici, numeroGruppi, valori, 0, codici.length, soglia));
+
+        DoubleSummaryStatistics[] risultato = new DoubleSummaryStatistics[numeroGruppi];
+        for (int g = 0; g < numeroGruppi; g++) {
+            risultato[g] = parziale.conteggi[g] == 0
+                ? new DoubleSummaryStatistics()
+                : new DoubleSummaryStatistics(parziale.conteggi[g], parziale.minimi[g], parziale.massimi[g],
+                    sommaKahan(parziale.somme[g], parziale.compensazioni[g], parziale.sommeSemplici[g]));
+        }
+        return risultato;
+    }
+
+    /**
+     * Group-by su una colonna codificata con il suo dizionario: la mappa segue
+     * l'ordine dei codici (ordine di prima comparsa) e contiene solo i gruppi presenti
+     */
+    public static Map<String, DoubleSummaryStatistics> perGruppo(int[] codici, StringDictionary dizionario,
+                                                                 double[] valori) {
+        DoubleSummaryStatistics[] gruppi = perGruppo(codici, dizionario.dimensione(), valori);
+        Map<String, DoubleSummaryStatistics> risultato = new LinkedHashMap<>();
+        for (int codice = 0; codice < gruppi.length; codice++) {
+            if (gruppi[codice].getCount() > 0) {
+                risultato.put(dizionario.decodifica(codice), gruppi[codice]);
+            }
+        }
+        return risultato;
+    }
+
+    private static final class Parziale {
+        final long[] conteggi;
+        final double[] somme;
+        final double[] compensazioni;
+        final double[] sommeSemplici;
+        final double[] minimi;
+        final double[] massimi;
+
+        Parziale(int numeroGruppi) {
+            conteggi = new long[numeroGruppi];
+            somme = new double[numeroGruppi];
+            compensazioni = new double[numeroGruppi];
+            sommeSemplici = new double[numeroGruppi];
+            minimi = new double[numeroGruppi];
+            massimi = new double[numeroGruppi];
+            Arrays.fill(minimi, Double.POSITIVE_INFINITY);
+            Arrays.fill(massimi, Double.NEGATIVE_INFINITY);
+        }
+
+        /**
+         * Somma compensata di v nel gruppo g
+         */
+        void aggiungi(int g, double v) {
+            double y = v - compensazioni[g];
+            double t = somme[g] + y;
+            compensazioni[g] = (t - somme[g]) - y;
+            somme[g] = t;
+            sommeSemplici[g] += v;
+        }
+
+        Parziale combina(Parziale altro) {
+            for (int g = 0; g < conteggi.length; g++) {
+                conteggi[g] += altro.conteggi[g];
+                // Come DoubleSummaryStatistics.combine: si aggiungono somma e compensazione dell'altro
+                double semplice = sommeSemplici[g] + altro.sommeSemplici[g];
+                aggiungi(g, altro.somme[g]);
+                aggiungi(g, -altro.compensazioni[g]);
+                sommeSemplici[g] = semplice;
+                minimi[g] = Math.min(minimi[g], altro.minimi[g]);
+                massimi[g] = Math.max(massimi[g], altro.massimi[g]);
+            }
+            return this;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class GruppoTask extends RecursiveTask<Parziale> {
+        private final int[] codici;
+        private final int numeroGruppi;
+        private final double[] valori;
+        private final int from;
+        private final int to;
+        private final int soglia;
+
+        GruppoTask(int[] codici, int numeroGruppi, double[] valori, int from, int to, int soglia) {
+            this.codici = codici;
+            this.numeroGruppi = numeroGruppi;
+            this.valori = valori;
+            this.from = from;
+            this.to = to;
+            this.soglia = soglia;
+        }
+
+        @Override
+        protected Parziale compute() {
+            if (to - from <= soglia) {
+                Parziale p = new Parziale(numeroGruppi);
+                for (int i = from; i < to; i++) {
+                    int g = codici[i];
+                    double v = valori[i];
+                    p.conteggi[g]++;
+                    p.aggiungi(g, v);
+                    p.minimi[g] = Math.min(p.minimi[g], v);
+                    p.massimi[g] = Math.max(p.massimi[g], v);
+                }
+                return p;
+            }
+            int mid = (from + to) >>> 1;
+            GruppoTask sinistra = new GruppoTask(codici, numeroGruppi, valori, from, mid, soglia);
+            sinistra.fork();
+            Parziale destra = new GruppoTask(codici, numeroGruppi, valori, mid, to, soglia).compute();
+            return sinistra.join().combina(destra);
+        }
+    }
+}
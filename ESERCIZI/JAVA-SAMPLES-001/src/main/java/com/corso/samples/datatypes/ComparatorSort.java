@@ -0,0 +1,327 @@
+package com.corso.samples.datatypes;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Algoritmi di Sorter che confrontano direttamente gli oggetti con un Comparator.
+ * MERGE e TIM sono stabili (a parità si prende sempre l'elemento di sinistra),
+ * HEAP e le varianti di Quick Sort no.
+ */
+final class ComparatorSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private ComparatorSort() {
+    }
+
+    static <T> void sort(T[] arr, Comparator<? super T> comp, Sorter.Algoritmo algoritmo) {
+        int n = arr.length;
+        switch (algoritmo) {
+            case MERGE:
+                mergeSort(arr, comp, new Object[n], 0, n);
+                break;
+            case TIM:
+                timSort(arr, comp);
+                break;
+            case HEAP:
+                heapSort(arr, comp, 0, n);
+                break;
+            case QUICK:
+            case QUICK_MEDIAN_OF_THREE:
+            case QUICK_RANDOMIZED:
+                quickSort(arr, comp, 0, n - 1, algoritmo, KeyIndexSort.limiteProfondita(n));
+                break;
+            case QUICK_3WAY:
+                quickSort3Way(arr, comp, 0, n - 1, KeyIndexSort.limiteProfondita(n));
+                break;
+            default:
+                throw new IllegalArgumentException("Algoritmo non supportato: " + algoritmo);
+        }
+    }
+
+    private static <T> void swap(T[] arr, int i, int j) {
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Insertion Sort stabile su [low, high)
+     */
+    private static <T> void insertionSort(T[] arr, Comparator<? super T> comp, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            T key = arr[i];
+            int j = i - 1;
+            while (j >= low && comp.compare(arr[j], key) > 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    // ==================== MERGE SORT ====================
+
+    private static <T> void mergeSort(T[] arr, Comparator<? super T> comp, Object[] tmp, int low, int high) {
+        if (high - low <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, comp, low, high);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSort(arr, comp, tmp, low, mid);
+        mergeSort(arr, comp, tmp, mid, high);
+
+        if (comp.compare(arr[mid - 1], arr[mid]) <= 0) {
+            return;
+        }
+        merge(arr, comp, tmp, low, mid, high);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void merge(T[] arr, Comparator<? super T> comp, Object[] tmp, int low, int mid, int high) {
+        int n1 = mid - low;
+        System.arraycopy(arr, low, tmp, 0, n1);
+
+        int i = 0;
+        int j = mid;
+        int k = low;
+        while (i < n1 && j < high) {
+            // A parità vince la sinistra: stabile
+            if (comp.compare(arr[j], (T) tmp[i]) < 0) {
+                arr[k++] = arr[j++];
+            } else {
+                arr[k++] = (T) tmp[i++];
+            }
+        }
+        System.arraycopy(tmp, i, arr, k, n1 - i);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void mergeHigh(T[] arr, Comparator<? super T> comp, Object[] tmp, int low, int mid, int high) {
+        int n2 = high - mid;
+        System.arraycopy(arr, mid, tmp, 0, n2);
+
+        int i = mid - 1;
+        int j = n2 - 1;
+        int k = high - 1;
+        while (i >= low && j >= 0) {
+            // Da destra: a parità vince la destra, così l'elemento di sinistra resta prima
+            if (comp.compare((T) tmp[j], arr[i]) < 0) {
+                arr[k--] = arr[i--];
+            } else {
+                arr[k--] = (T) tmp[j--];
+            }
+        }
+        System.arraycopy(tmp, 0, arr, low, j + 1);
+    }
+
+    // ==================== TIM SORT ====================
+
+    /**
+     * Stesso schema di KeyIndexSort.timSort: le run decrescenti sono solo
+     * quelle strettamente decrescenti, altrimenti l'inversione romperebbe la stabilità.
+     */
+    private static <T> void timSort(T[] arr, Comparator<? super T> comp) {
+        int n = arr.length;
+        int minRun = KeyIndexSort.minRunLength(n);
+        Object[] tmp = new Object[n / 2 + 1];
+        int[] runBase = new int[49];
+        int[] runLen = new int[49];
+        int stackSize = 0;
+
+        int low = 0;
+        while (low < n) {
+            int runEnd = low + 1;
+            if (runEnd < n) {
+                if (comp.compare(arr[runEnd], arr[low]) < 0) {
+                    while (runEnd < n && comp.compare(arr[runEnd], arr[runEnd - 1]) < 0) {
+                        runEnd++;
+                    }
+                    reverse(arr, low, runEnd - 1);
+                } else {
+                    while (runEnd < n && comp.compare(arr[runEnd], arr[runEnd - 1]) >= 0) {
+                        runEnd++;
+                    }
+                }
+            }
+
+            if (runEnd - low < minRun) {
+                int forced = Math.min(n, low + minRun);
+                insertionSort(arr, comp, low, forced);
+                runEnd = forced;
+            }
+
+            runBase[stackSize] = low;
+            runLen[stackSize] = runEnd - low;
+            stackSize++;
+            stackSize = mergeCollapse(arr, comp, tmp, runBase, runLen, stackSize, false);
+
+            low = runEnd;
+        }
+        mergeCollapse(arr, comp, tmp, runBase, runLen, stackSize, true);
+    }
+
+    private static <T> int mergeCollapse(T[] arr, Comparator<? super T> comp, Object[] tmp,
+                                         int[] runBase, int[] runLen, int stackSize, boolean forza) {
+        while (stackSize > 1) {
+            int m = stackSize - 2;
+            if (!forza) {
+                boolean violaA = m > 0 && runLen[m - 1] <= runLen[m] + runLen[m + 1];
+                boolean violaB = m > 1 && runLen[m - 2] <= runLen[m - 1] + runLen[m];
+                if (violaA || violaB) {
+                    if (runLen[m - 1] < runLen[m + 1]) {
+                        m--;
+                    }
+                } else if (runLen[m] > runLen[m + 1]) {
+                    break;
+                }
+            } else if (m > 0 && runLen[m - 1] < runLen[m + 1]) {
+                m--;
+            }
+
+            int base = runBase[m];
+            int mid = base + runLen[m];
+            int high = mid + runLen[m + 1];
+            // Se le due run sono già in ordine non serve il merge
+            if (comp.compare(arr[mid], arr[mid - 1]) < 0) {
+                if (mid - base <= high - mid) {
+                    merge(arr, comp, tmp, base, mid, high);
+                } else {
+                    mergeHigh(arr, comp, tmp, base, mid, high);
+                }
+            }
+
+            runLen[m] += runLen[m + 1];
+            for (int r = m + 1; r < stackSize - 1; r++) {
+                runBase[r] = runBase[r + 1];
+                runLen[r] = runLen[r + 1];
+            }
+            stackSize--;
+        }
+        return stackSize;
+    }
+
+    private static <T> void reverse(T[] arr, int low, int high) {
+        while (low < high) {
+            swap(arr, low++, high--);
+        }
+    }
+
+    // ==================== HEAP SORT ====================
+
+    private static <T> void heapSort(T[] arr, Comparator<? super T> comp, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, comp, low, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, comp, low, i, 0);
+        }
+    }
+
+    private static <T> void siftDown(T[] arr, Comparator<? super T> comp, int base, int n, int i) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < n && comp.compare(arr[base + left], arr[base + largest]) > 0) {
+                largest = left;
+            }
+            if (right < n && comp.compare(arr[base + right], arr[base + largest]) > 0) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(arr, base + i, base + largest);
+            i = largest;
+        }
+    }
+
+    // ==================== QUICK SORT ====================
+
+    /**
+     * Come in KeyIndexSort: oltre KeyIndexSort.limiteProfondita partizioni si passa a Heap Sort
+     */
+    private static <T> void quickSort(T[] arr, Comparator<? super T> comp, int low, int high, Sorter.Algoritmo variante, int profondita) {
+        while (low < high) {
+            if (high - low < INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, comp, low, high + 1);
+                return;
+            }
+            if (--profondita < 0) {
+                heapSort(arr, comp, low, high + 1);
+                return;
+            }
+            scegliPivot(arr, comp, low, high, variante);
+            int p = partition(arr, comp, low, high);
+            if (p - low < high - p) {
+                quickSort(arr, comp, low, p - 1, variante, profondita);
+                low = p + 1;
+            } else {
+                quickSort(arr, comp, p + 1, high, variante, profondita);
+                high = p - 1;
+            }
+        }
+    }
+
+    private static <T> void scegliPivot(T[] arr, Comparator<? super T> comp, int low, int high, Sorter.Algoritmo variante) {
+        if (variante == Sorter.Algoritmo.QUICK_MEDIAN_OF_THREE) {
+            int mid = low + (high - low) / 2;
+            if (comp.compare(arr[mid], arr[low]) < 0) swap(arr, low, mid);
+            if (comp.compare(arr[high], arr[low]) < 0) swap(arr, low, high);
+            if (comp.compare(arr[mid], arr[high]) < 0) swap(arr, mid, high);
+        } else if (variante == Sorter.Algoritmo.QUICK_RANDOMIZED) {
+            swap(arr, low + ThreadLocalRandom.current().nextInt(high - low + 1), high);
+        }
+    }
+
+    private static <T> int partition(T[] arr, Comparator<? super T> comp, int low, int high) {
+        T pivot = arr[high];
+        int i = low - 1;
+        for (int j = low; j < high; j++) {
+            if (comp.compare(arr[j], pivot) < 0) {
+                swap(arr, ++i, j);
+            }
+        }
+        swap(arr, i + 1, high);
+        return i + 1;
+    }
+
+    private static <T> void quickSort3Way(T[] arr, Comparator<? super T> comp, int low, int high, int profondita) {
+        while (low < high) {
+            if (high - low < INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, comp, low, high + 1);
+                return;
+            }
+            if (--profondita < 0) {
+                heapSort(arr, comp, low, high + 1);
+                return;
+            }
+            int lt = low;
+            int gt = high;
+            T pivot = arr[low + (high - low) / 2];
+            int i = low;
+            while (i <= gt) {
+                int cmp = comp.compare(arr[i], pivot);
+                if (cmp < 0) {
+                    swap(arr, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(arr, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort3Way(arr, comp, low, lt - 1, profondita);
+                low = gt + 1;
+            } else {
+                quickSort3Way(arr, comp, gt + 1, high, profondita);
+                high = lt - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,983 @@
+package com.corso.samples.datatypes;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache concorrente con dimensione massima, al posto di
+ * Collections.synchronizedMap(new HashMap<>()) usata come cache:
+ * - letture senza lock: i valori stanno in una ConcurrentHashMap
+ * - eviction W-TinyLFU: una piccola finestra LRU (1%) per i nuovi arrivi e una
+ *   parte principale segmented-LRU (prova 20% + protetta 80%); quando la cache è
+ *   piena il candidato uscito dalla finestra entra solo se la sua frequenza stimata
+ *   (count-min sketch a 4 bit) supera quella della vittima. Una scansione di chiavi
+ *   usate una sola volta non svuota quindi le chiavi frequenti
+ * - le strutture LRU sono protette da un solo lock, ma letture e scritture non lo
+ *   aspettano: registrano l'evento in un buffer e chi ottiene il lock li applica
+ *   tutti (i buffer delle letture sono a perdita, quelli delle scritture no)
+ * - expireAfterWrite (TTL) e refreshAfterWrite: dopo il refresh la prima lettura
+ *   restituisce il valore vecchio e ricarica in background con il loader
+ * - contatori di hit, miss, evizioni, scadenze e caricamenti
+ * - asMap(): vista ConcurrentMap che sostituisce direttamente i wrapper synchronized
+ * Chiavi e valori null non sono ammessi.
+ * Esempio:
+ *   ConcurrentCache<String, Cliente> clienti = ConcurrentCache.<String, Cliente>builder()
+ *       .maximumSize(10_000)
+ *       .expireAfterWrite(Duration.ofMinutes(10))
+ *       .build();
+ *   Cliente c = clienti.get(id, repository::carica);
+ */
+public final class ConcurrentCache<K, V> {
+
+    // Eventi di lettura per stripe prima di tentare di applicarli
+    private static final int DIMENSIONE_BUFFER_LETTURE = 16;
+
+    private static final byte NESSUNA = 0;
+    private static final byte FINESTRA = 1;
+    private static final byte PROVA = 2;
+    private static final byte PROTETTA = 3;
+
+    // Eventi di scrittura da applicare alla politica
+    private static final byte AGGIUNTA = 0;
+    private static final byte ACCESSO = 1;
+    private static final byte RIMOZIONE = 2;
+
+    private final ConcurrentHashMap<K, Nodo<K, V>> mappa;
+    private final long dimensioneMassima;
+    private final long scadenzaNanos;
+    private final long refreshNanos;
+    private final Function<? super K, ? extends V> loader;
+    private final Executor executor;
+    private final LongSupplier ticker;
+
+    // Politica di eviction: accessibile solo con lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Lista<K, V> finestra = new Lista<>();
+    private final Lista<K, V> prova = new Lista<>();
+    private final Lista<K, V> protetta = new Lista<>();
+    private final long massimoFinestra;
+    private final long massimoProtetta;
+    private final FrequencySketch sketch;
+
+    private final AtomicReferenceArray<Nodo<K, V>>[] bufferLetture;
+    private final AtomicInteger[] scrittiLetture;
+    private final Queue<Evento<K, V>> bufferScritture = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hit = new LongAdder();
+    private final LongAdder miss = new LongAdder();
+    private final LongAdder evizioni = new LongAdder();
+    private final LongAdder scadenze = new LongAdder();
+    private final LongAdder caricamenti = new LongAdder();
+    private final LongAdder ricariche = new LongAdder();
+
+    private Vista vista;
+
+    private ConcurrentCache(Builder<K, V> builder) {
+        this.dimensioneMassima = builder.dimensioneMassima;
+        this.scadenzaNanos = builder.scadenzaNanos;
+        this.refreshNanos = builder.refreshNanos;
+        this.loader = builder.loader;
+        this.executor = builder.executor;
+        this.ticker = builder.ticker;
+        this.mappa = new ConcurrentHashMap<>((int) Math.min(dimensioneMassima, 1 << 16));
+
+        this.massimoFinestra = Math.max(1, dimensioneMassima / 100);
+        this.massimoProtetta = (dimensioneMassima - massimoFinestra) * 80 / 100;
+        this.sketch = new FrequencySketch(dimensioneMassima);
+
+        int stripe = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        AtomicReferenceArray<Nodo<K, V>>[] buffer = new AtomicReferenceArray[stripe];
+        this.bufferLetture = buffer;
+        this.scrittiLetture = new AtomicInteger[stripe];
+        for (int i = 0; i < stripe; i++) {
+            bufferLetture[i] = new AtomicReferenceArray<>(DIMENSIONE_BUFFER_LETTURE);
+            scrittiLetture[i] = new AtomicInteger();
+        }
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    // ==================== LETTURA ====================
+
+    /**
+     * Il valore della chiave, o null se assente o scaduto
+     */
+    public V getIfPresent(K chiave) {
+        Nodo<K, V> nodo = mappa.get(chiave);
+        if (nodo == null) {
+            miss.increment();
+            return null;
+        }
+        long ora = orologio();
+        if (scaduto(nodo, ora)) {
+            miss.increment();
+            rimuoviScaduto(nodo, ora);
+            return null;
+        }
+        hit.increment();
+        registraLettura(nodo);
+        if (refreshNanos > 0 && ora - nodo.scritto >= refreshNanos) {
+            ricarica(nodo);
+        }
+        return nodo.valore;
+    }
+
+    /**
+     * Il valore della chiave; se manca lo calcola con la funzione, una sola volta
+     * anche con più thread in attesa sulla stessa chiave (come computeIfAbsent).
+     * La funzione non deve modificare la cache.
+     */
+    public V get(K chiave, Function<? super K, ? extends V> funzione) {
+        Objects.requireNonNull(funzione, "funzione");
+        V valore = getIfPresent(chiave);
+        if (valore != null) {
+            return valore;
+        }
+        long ora = orologio();
+        Esito<K, V> esito = new Esito<>();
+        Nodo<K, V> nodo = mappa.compute(chiave, (k, esistente) -> {
+            if (esistente != null && !scaduto(esistente, ora)) {
+                return esistente;
+            }
+            V caricato = funzione.apply(k);
+            caricamenti.increment();
+            if (esistente != null) {
+                segnaRimosso(esistente);
+                esito.rimosso = esistente;
+            }
+            if (caricato == null) {
+                return null;
+            }
+            esito.creato = true;
+            return new Nodo<>(k, caricato, ora);
+        });
+        if (esito.rimosso != null) {
+            scadenze.increment();
+            dopoScrittura(RIMOZIONE, esito.rimosso);
+        }
+        if (nodo == null) {
+            return null;
+        }
+        if (esito.creato) {
+            dopoScrittura(AGGIUNTA, nodo);
+        }
+        return nodo.valore;
+    }
+
+    /**
+     * Come get(chiave, funzione) con il loader configurato nel builder
+     */
+    public V get(K chiave) {
+        if (loader == null) {
+            throw new IllegalStateException("nessun loader configurato");
+        }
+        return get(chiave, loader);
+    }
+
+    // ==================== SCRITTURA ====================
+
+    /**
+     * Inserisce o sostituisce il valore; restituisce il precedente (null se assente o scaduto)
+     */
+    public V put(K chiave, V valore) {
+        return scrivi(chiave, valore, false);
+    }
+
+    public V putIfAbsent(K chiave, V valore) {
+        return scrivi(chiave, valore, true);
+    }
+
+    /**
+     * Chiave nuova: un solo putIfAbsent. Chiave presente: aggiornamento sul posto
+     * con il lock del nodo, che resta nella stessa posizione della politica.
+     * Le rimozioni segnano il nodo come rimosso con lo stesso lock, quindi un
+     * aggiornamento non finisce mai su un nodo già uscito dalla mappa.
+     */
+    private V scrivi(K chiave, V valore, boolean soloSeAssente) {
+        Objects.requireNonNull(chiave, "chiave");
+        Objects.requireNonNull(valore, "valore");
+        long ora = orologio();
+        Nodo<K, V> nuovo = null;
+        while (true) {
+            Nodo<K, V> esistente = mappa.get(chiave);
+            if (esistente == null) {
+                if (nuovo == null) {
+                    nuovo = new Nodo<>(chiave, valore, ora);
+                }
+                esistente = mappa.putIfAbsent(chiave, nuovo);
+                if (esistente == null) {
+                    dopoScrittura(AGGIUNTA, nuovo);
+                    return null;
+                }
+            }
+            V precedente;
+            synchronized (esistente) {
+                if (esistente.rimosso) {
+                    // Sta uscendo dalla mappa proprio ora: si riprova
+                    Thread.onSpinWait();
+                    continue;
+                }
+                precedente = scaduto(esistente, ora) ? null : esistente.valore;
+                if (precedente != null && soloSeAssente) {
+                    return precedente;
+                }
+                esistente.valore = valore;
+                esistente.scritto = ora;
+            }
+            dopoScrittura(ACCESSO, esistente);
+            return precedente;
+        }
+    }
+
+    /**
+     * Sostituzioni condizionali atomiche, con la semantica di ConcurrentMap
+     */
+    public V replace(K chiave, V valore) {
+        Objects.requireNonNull(valore, "valore");
+        return sostituisci(chiave, null, valore);
+    }
+
+    public boolean replace(K chiave, V atteso, V valore) {
+        Objects.requireNonNull(atteso, "atteso");
+        Objects.requireNonNull(valore, "valore");
+        return sostituisci(chiave, atteso, valore) != null;
+    }
+
+    private V sostituisci(K chiave, V atteso, V valore) {
+        Nodo<K, V> nodo = mappa.get(chiave);
+        if (nodo == null) {
+            return null;
+        }
+        long ora = orologio();
+        V precedente;
+        synchronized (nodo) {
+            if (nodo.rimosso || scaduto(nodo, ora) || (atteso != null && !atteso.equals(nodo.valore))) {
+                return null;
+            }
+            precedente = nodo.valore;
+            nodo.valore = valore;
+            nodo.scritto = ora;
+        }
+        dopoScrittura(ACCESSO, nodo);
+        return precedente;
+    }
+
+    /**
+     * Rimuove la chiave e restituisce il valore rimosso (null se assente o scaduto)
+     */
+    public V invalidate(Object chiave) {
+        return rimuovi(chiave, null);
+    }
+
+    public boolean remove(Object chiave, Object valore) {
+        return valore != null && rimuovi(chiave, valore) != null;
+    }
+
+    private V rimuovi(Object chiave, Object atteso) {
+        if (chiave == null) {
+            return null;
+        }
+        long ora = orologio();
+        Esito<K, V> esito = new Esito<>();
+        @SuppressWarnings("unchecked")
+        K k = (K) chiave;
+        mappa.computeIfPresent(k, (c, esistente) -> {
+            synchronized (esistente) {
+                boolean vivo = !scaduto(esistente, ora);
+                if (vivo && atteso != null && !atteso.equals(esistente.valore)) {
+                    return esistente;
+                }
+                if (vivo) {
+                    esito.precedente = esistente.valore;
+                }
+                esistente.rimosso = true;
+            }
+            esito.rimosso = esistente;
+            return null;
+        });
+        if (esito.rimosso != null) {
+            dopoScrittura(RIMOZIONE, esito.rimosso);
+        }
+        return esito.precedente;
+    }
+
+    public void invalidateAll() {
+        for (K chiave : mappa.keySet()) {
+            invalidate(chiave);
+        }
+    }
+
+    /**
+     * Rimuove subito tutte le voci scadute (altrimenti vengono rimosse quando lette
+     * o quando escono dalla politica di eviction)
+     */
+    public void cleanUp() {
+        long ora = orologio();
+        for (Nodo<K, V> nodo : mappa.values()) {
+            if (scaduto(nodo, ora)) {
+                rimuoviScaduto(nodo, ora);
+            }
+        }
+        manutenzione();
+    }
+
+    // ==================== INFORMAZIONI ====================
+
+    /**
+     * Numero di voci: può includere per poco le voci scadute e superare
+     * dimensioneMassima finché le scritture in sospeso non sono applicate
+     */
+    public long estimatedSize() {
+        return mappa.size();
+    }
+
+    public long maximumSize() {
+        return dimensioneMassima;
+    }
+
+    public Statistiche statistiche() {
+        return new Statistiche(hit.sum(), miss.sum(), evizioni.sum(), scadenze.sum(),
+            caricamenti.sum(), ricariche.sum());
+    }
+
+    /**
+     * Contatori della cache dalla sua creazione
+     */
+    public record Statistiche(long hit, long miss, long evizioni, long scadenze,
+            long caricamenti, long ricariche) {
+
+        public double hitRate() {
+            long richieste = hit + miss;
+            return richieste == 0 ? 1.0 : (double) hit / richieste;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hit=%d, miss=%d (hit rate %.1f%%), evizioni=%d, scadenze=%d, caricamenti=%d, ricariche=%d",
+                hit, miss, hitRate() * 100, evizioni, scadenze, caricamenti, ricariche);
+        }
+    }
+
+    /**
+     * Vista ConcurrentMap sulla cache: letture e scritture passano dalla cache
+     * (contatori, eviction, scadenza). Gli iteratori sono debolmente consistenti
+     * come quelli di ConcurrentHashMap e saltano le voci scadute.
+     */
+    public ConcurrentMap<K, V> asMap() {
+        Vista v = vista;
+        if (v == null) {
+            vista = v = new Vista();
+        }
+        return v;
+    }
+
+    // ==================== SCADENZA E REFRESH ====================
+
+    /**
+     * Senza scadenza né refresh l'orologio non serve e non viene letto
+     */
+    private long orologio() {
+        return scadenzaNanos > 0 || refreshNanos > 0 ? ticker.getAsLong() : 0;
+    }
+
+    private boolean scaduto(Nodo<K, V> nodo, long ora) {
+        return scadenzaNanos > 0 && ora - nodo.scritto >= scadenzaNanos;
+    }
+
+    private void rimuoviScaduto(Nodo<K, V> nodo, long ora) {
+        // Rimuove solo se è ancora lo stesso nodo e nel frattempo non è stato riscritto
+        Esito<K, V> esito = new Esito<>();
+        mappa.computeIfPresent(nodo.chiave, (k, esistente) -> {
+            synchronized (esistente) {
+                if (esistente != nodo || !scaduto(esistente, ora)) {
+                    return esistente;
+                }
+                esistente.rimosso = true;
+            }
+            esito.rimosso = esistente;
+            return null;
+        });
+        if (esito.rimosso != null) {
+            scadenze.increment();
+            dopoScrittura(RIMOZIONE, nodo);
+        }
+    }
+
+    private void ricarica(Nodo<K, V> nodo) {
+        long versione;
+        synchronized (nodo) {
+            if (loader == null || nodo.inRicarica) {
+                return;
+            }
+            nodo.inRicarica = true;
+            versione = nodo.scritto;
+        }
+        CompletableFuture.supplyAsync(() -> loader.apply(nodo.chiave), executor)
+            .whenComplete((nuovo, errore) -> {
+                ricariche.increment();
+                synchronized (nodo) {
+                    // Se nel frattempo è stato scritto un altro valore vince quello
+                    if (errore == null && nuovo != null && !nodo.rimosso && nodo.scritto == versione) {
+                        nodo.valore = nuovo;
+                        nodo.scritto = ticker.getAsLong();
+                    }
+                    nodo.inRicarica = false;
+                }
+            });
+    }
+
+    // ==================== BUFFER E MANUTENZIONE ====================
+
+    /**
+     * Accoda la lettura nel buffer del thread; se il buffer è pieno prova ad applicarlo.
+     * Con il buffer pieno e il lock occupato la lettura va persa: per la politica
+     * LRU/LFU è solo un'informazione statistica in meno.
+     */
+    private void registraLettura(Nodo<K, V> nodo) {
+        int stripe = (int) Thread.currentThread().threadId() & (bufferLetture.length - 1);
+        int i = scrittiLetture[stripe].getAndIncrement();
+        if (i < DIMENSIONE_BUFFER_LETTURE) {
+            bufferLetture[stripe].lazySet(i, nodo);
+        } else if (lock.tryLock()) {
+            try {
+                applicaEventi();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Le scritture non si possono perdere: se il lock è libero l'evento viene
+     * applicato subito (dopo quelli già in coda), altrimenti resta in coda finché
+     * un thread con il lock non lo applica
+     */
+    private void dopoScrittura(byte tipo, Nodo<K, V> nodo) {
+        if (lock.tryLock()) {
+            try {
+                applicaEventi();
+                applica(tipo, nodo);
+            } finally {
+                lock.unlock();
+            }
+            if (!bufferScritture.isEmpty()) {
+                manutenzione();
+            }
+        } else {
+            bufferScritture.add(new Evento<>(tipo, nodo));
+            manutenzione();
+        }
+    }
+
+    private void manutenzione() {
+        // Chi trova il lock occupato se ne va: il proprietario, prima di uscire,
+        // ricontrolla la coda e applica anche gli eventi arrivati nel frattempo
+        do {
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                applicaEventi();
+            } finally {
+                lock.unlock();
+            }
+        } while (!bufferScritture.isEmpty());
+    }
+
+    private void applicaEventi() {
+        for (int s = 0; s < bufferLetture.length; s++) {
+            int scritti = Math.min(scrittiLetture[s].get(), DIMENSIONE_BUFFER_LETTURE);
+            if (scritti == 0) {
+                continue;
+            }
+            AtomicReferenceArray<Nodo<K, V>> buffer = bufferLetture[s];
+            for (int i = 0; i < scritti; i++) {
+                Nodo<K, V> nodo = buffer.getAndSet(i, null);
+                if (nodo != null) {
+                    suAccesso(nodo);
+                }
+            }
+            scrittiLetture[s].set(0);
+        }
+        Evento<K, V> evento;
+        while ((evento = bufferScritture.poll()) != null) {
+            applica(evento.tipo, evento.nodo);
+        }
+    }
+
+    private void applica(byte tipo, Nodo<K, V> nodo) {
+        switch (tipo) {
+            case AGGIUNTA -> suAggiunta(nodo);
+            case ACCESSO -> suAccesso(nodo);
+            default -> scollega(nodo);
+        }
+    }
+
+    // ==================== POLITICA W-TINYLFU (con lock) ====================
+
+    private void suAggiunta(Nodo<K, V> nodo) {
+        sketch.incrementa(nodo.hash);
+        if (nodo.rimosso || nodo.regione != NESSUNA) {
+            return;
+        }
+        nodo.regione = FINESTRA;
+        finestra.aggiungiInCoda(nodo);
+        // La finestra troppo piena passa i suoi LRU in prova, come candidati
+        while (finestra.size > massimoFinestra) {
+            Nodo<K, V> candidato = finestra.testa;
+            finestra.rimuovi(candidato);
+            candidato.regione = PROVA;
+            prova.aggiungiInCoda(candidato);
+        }
+        while (finestra.size + prova.size + protetta.size > dimensioneMassima) {
+            evict();
+        }
+    }
+
+    /**
+     * Sceglie tra il candidato (l'ultimo arrivato in prova) e la vittima
+     * (l'LRU di prova, o di protetta se prova contiene solo il candidato):
+     * resta quello con frequenza stimata più alta, a parità resta la vittima
+     */
+    private void evict() {
+        Nodo<K, V> candidato = prova.coda;
+        Nodo<K, V> vittima = prova.testa != candidato ? prova.testa : protetta.testa;
+        if (candidato == null) {
+            candidato = finestra.testa;
+        }
+        Nodo<K, V> esce;
+        if (vittima == null) {
+            esce = candidato;
+        } else if (scadutoOra(candidato)) {
+            esce = candidato;
+        } else if (scadutoOra(vittima)) {
+            esce = vittima;
+        } else {
+            esce = sketch.frequenza(candidato.hash) > sketch.frequenza(vittima.hash) ? vittima : candidato;
+        }
+        scollega(esce);
+        Esito<K, V> esito = new Esito<>();
+        mappa.computeIfPresent(esce.chiave, (k, esistente) -> {
+            if (esistente != esce) {
+                return esistente;
+            }
+            segnaRimosso(esistente);
+            esito.rimosso = esistente;
+            return null;
+        });
+        if (esito.rimosso != null) {
+            evizioni.increment();
+        }
+    }
+
+    private boolean scadutoOra(Nodo<K, V> nodo) {
+        return scadenzaNanos > 0 && scaduto(nodo, ticker.getAsLong());
+    }
+
+    private void suAccesso(Nodo<K, V> nodo) {
+        sketch.incrementa(nodo.hash);
+        switch (nodo.regione) {
+            case FINESTRA -> finestra.spostaInCoda(nodo);
+            case PROVA -> {
+                // Secondo accesso in prova: promosso in protetta
+                prova.rimuovi(nodo);
+                nodo.regione = PROTETTA;
+                protetta.aggiungiInCoda(nodo);
+                while (protetta.size > massimoProtetta) {
+                    Nodo<K, V> retrocesso = protetta.testa;
+                    protetta.rimuovi(retrocesso);
+                    retrocesso.regione = PROVA;
+                    prova.aggiungiInCoda(retrocesso);
+                }
+            }
+            case PROTETTA -> protetta.spostaInCoda(nodo);
+            default -> {
+                // Nodo già rimosso o non ancora aggiunto: niente da fare
+            }
+        }
+    }
+
+    private void scollega(Nodo<K, V> nodo) {
+        switch (nodo.regione) {
+            case FINESTRA -> finestra.rimuovi(nodo);
+            case PROVA -> prova.rimuovi(nodo);
+            case PROTETTA -> protetta.rimuovi(nodo);
+            default -> {
+                return;
+            }
+        }
+        nodo.regione = NESSUNA;
+    }
+
+    // ==================== STRUTTURE INTERNE ====================
+
+    private static final class Nodo<K, V> {
+        final K chiave;
+        final int hash;
+        volatile V valore;
+        volatile long scritto;
+        // Scritti con il lock del nodo
+        volatile boolean rimosso;
+        boolean inRicarica;
+
+        // Campi della politica, usati solo con il lock
+        Nodo<K, V> precedente;
+        Nodo<K, V> successivo;
+        byte regione = NESSUNA;
+
+        Nodo(K chiave, V valore, long scritto) {
+            this.chiave = chiave;
+            this.hash = chiave.hashCode();
+            this.valore = valore;
+            this.scritto = scritto;
+        }
+    }
+
+    /**
+     * Lista doppiamente concatenata intrusiva: testa = LRU, coda = MRU
+     */
+    private static final class Lista<K, V> {
+        Nodo<K, V> testa;
+        Nodo<K, V> coda;
+        long size;
+
+        void aggiungiInCoda(Nodo<K, V> nodo) {
+            nodo.precedente = coda;
+            nodo.successivo = null;
+            if (coda == null) {
+                testa = nodo;
+            } else {
+                coda.successivo = nodo;
+            }
+            coda = nodo;
+            size++;
+        }
+
+        void rimuovi(Nodo<K, V> nodo) {
+            if (nodo.precedente == null) {
+                testa = nodo.successivo;
+            } else {
+                nodo.precedente.successivo = nodo.successivo;
+            }
+            if (nodo.successivo == null) {
+                coda = nodo.precedente;
+            } else {
+                nodo.successivo.precedente = nodo.precedente;
+            }
+            nodo.precedente = null;
+            nodo.successivo = null;
+            size--;
+        }
+
+        void spostaInCoda(Nodo<K, V> nodo) {
+            if (nodo != coda) {
+                rimuovi(nodo);
+                aggiungiInCoda(nodo);
+            }
+        }
+    }
+
+    private static void segnaRimosso(Nodo<?, ?> nodo) {
+        synchronized (nodo) {
+            nodo.rimosso = true;
+        }
+    }
+
+    /**
+     * Esito di una compute: cosa è cambiato, da registrare fuori dal lock della mappa
+     */
+    private static final class Esito<K, V> {
+        boolean creato;
+        V precedente;
+        Nodo<K, V> rimosso;
+    }
+
+    /**
+     * Scrittura in attesa del lock della politica
+     */
+    private static final class Evento<K, V> {
+        final byte tipo;
+        final Nodo<K, V> nodo;
+
+        Evento(byte tipo, Nodo<K, V> nodo) {
+            this.tipo = tipo;
+            this.nodo = nodo;
+        }
+    }
+
+    /**
+     * Count-min sketch con contatori a 4 bit (16 per long, 4 righe):
+     * la frequenza stimata è il minimo dei 4 contatori della chiave.
+     * Ogni 10 x dimensioneMassima incrementi tutti i contatori vengono dimezzati,
+     * così le chiavi popolari in passato perdono peso.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEMI = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long MASCHERA_DIMEZZA = 0x7777777777777777L;
+
+        private final long[] tabella;
+        private final int campione;
+        private int incrementi;
+
+        FrequencySketch(long dimensioneMassima) {
+            int capacita = (int) Math.min(dimensioneMassima, 1 << 30);
+            this.tabella = new long[Math.max(16, Integer.highestOneBit(capacita - 1) << 1)];
+            this.campione = (int) Math.min(10L * capacita, Integer.MAX_VALUE);
+        }
+
+        int frequenza(int hash) {
+            int minimo = 15;
+            for (int riga = 0; riga < 4; riga++) {
+                minimo = Math.min(minimo, (int) (tabella[indice(hash, riga)] >>> offset(hash, riga)) & 0xF);
+            }
+            return minimo;
+        }
+
+        void incrementa(int hash) {
+            boolean incrementato = false;
+            for (int riga = 0; riga < 4; riga++) {
+                int i = indice(hash, riga);
+                int offset = offset(hash, riga);
+                if (((tabella[i] >>> offset) & 0xF) != 0xF) {
+                    tabella[i] += 1L << offset;
+                    incrementato = true;
+                }
+            }
+            if (incrementato && ++incrementi == campione) {
+                for (int i = 0; i < tabella.length; i++) {
+                    tabella[i] = (tabella[i] >>> 1) & MASCHERA_DIMEZZA;
+                }
+                incrementi /= 2;
+            }
+        }
+
+        private int indice(int hash, int riga) {
+            long h = (hash + SEMI[riga]) * SEMI[riga];
+            h += h >>> 32;
+            return (int) h & (tabella.length - 1);
+        }
+
+        /**
+         * Quale dei 16 contatori del long: 4 bit dell'hash diversi per ogni riga
+         */
+        private static int offset(int hash, int riga) {
+            return ((hash >>> (riga << 3)) & 0xF) << 2;
+        }
+    }
+
+    // ==================== VISTA MAP ====================
+
+    private final class Vista extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object chiave) {
+            return chiave == null ? null : getIfPresent((K) chiave);
+        }
+
+        @Override
+        public boolean containsKey(Object chiave) {
+            Nodo<K, V> nodo = chiave == null ? null : mappa.get(chiave);
+            return nodo != null && !scaduto(nodo, orologio());
+        }
+
+        @Override
+        public V put(K chiave, V valore) {
+            return ConcurrentCache.this.put(chiave, valore);
+        }
+
+        @Override
+        public V putIfAbsent(K chiave, V valore) {
+            return ConcurrentCache.this.putIfAbsent(chiave, valore);
+        }
+
+        @Override
+        public V remove(Object chiave) {
+            return invalidate(chiave);
+        }
+
+        @Override
+        public boolean remove(Object chiave, Object valore) {
+            return ConcurrentCache.this.remove(chiave, valore);
+        }
+
+        @Override
+        public V replace(K chiave, V valore) {
+            return ConcurrentCache.this.replace(chiave, valore);
+        }
+
+        @Override
+        public boolean replace(K chiave, V atteso, V valore) {
+            return ConcurrentCache.this.replace(chiave, atteso, valore);
+        }
+
+        @Override
+        public void clear() {
+            invalidateAll();
+        }
+
+        @Override
+        public int size() {
+            return mappa.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return mappa.isEmpty();
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new IteratoreVoci();
+                }
+
+                @Override
+                public int size() {
+                    return mappa.size();
+                }
+
+                @Override
+                public void clear() {
+                    invalidateAll();
+                }
+            };
+        }
+    }
+
+    private final class IteratoreVoci implements Iterator<Map.Entry<K, V>> {
+        private final Iterator<Nodo<K, V>> nodi = mappa.values().iterator();
+        private final long ora = orologio();
+        private Nodo<K, V> prossimo;
+        private K ultimaChiave;
+
+        @Override
+        public boolean hasNext() {
+            while (prossimo == null && nodi.hasNext()) {
+                Nodo<K, V> nodo = nodi.next();
+                if (!scaduto(nodo, ora)) {
+                    prossimo = nodo;
+                }
+            }
+            return prossimo != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Nodo<K, V> nodo = prossimo;
+            prossimo = null;
+            ultimaChiave = nodo.chiave;
+            return new AbstractMap.SimpleImmutableEntry<>(nodo.chiave, nodo.valore);
+        }
+
+        @Override
+        public void remove() {
+            if (ultimaChiave == null) {
+                throw new IllegalStateException();
+            }
+            invalidate(ultimaChiave);
+            ultimaChiave = null;
+        }
+    }
+
+    // ==================== BUILDER ====================
+
+    public static final class Builder<K, V> {
+        private long dimensioneMassima = -1;
+        private long scadenzaNanos;
+        private long refreshNanos;
+        private Function<? super K, ? extends V> loader;
+        private Executor executor = ForkJoinPool.commonPool();
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        public Builder<K, V> maximumSize(long dimensioneMassima) {
+            if (dimensioneMassima <= 0) {
+                throw new IllegalArgumentException("dimensioneMassima deve essere positiva: " + dimensioneMassima);
+            }
+            this.dimensioneMassima = dimensioneMassima;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration durata) {
+            this.scadenzaNanos = durataPositiva(durata);
+            return this;
+        }
+
+        /**
+         * Richiede loader: la prima lettura dopo durata avvia la ricarica in background
+         */
+        public Builder<K, V> refreshAfterWrite(Duration durata) {
+            this.refreshNanos = durataPositiva(durata);
+            return this;
+        }
+
+        public Builder<K, V> loader(Function<? super K, ? extends V> loader) {
+            this.loader = Objects.requireNonNull(loader, "loader");
+            return this;
+        }
+
+        /**
+         * Executor delle ricariche (predefinito: ForkJoinPool.commonPool())
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        /**
+         * Sorgente del tempo in nanosecondi (predefinita: System.nanoTime), utile nei test
+         */
+        public Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        public ConcurrentCache<K, V> build() {
+            if (dimensioneMassima < 0) {
+                throw new IllegalStateException("maximumSize è obbligatorio");
+            }
+            if (refreshNanos > 0 && loader == null) {
+                throw new IllegalStateException("refreshAfterWrite richiede un loader");
+            }
+            return new ConcurrentCache<>(this);
+        }
+
+        private static long durataPositiva(Duration durata) {
+            if (durata.isNegative() || durata.isZero()) {
+                throw new IllegalArgumentException("durata deve essere positiva: " + durata);
+            }
+            return durata.toNanos();
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.corso.samples.datatypes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Numero decimale a virgola fissa su un long: valore = unscaled / 10^scala,
+ * con scala da 0 a 18. Per importi e aliquote al posto di BigDecimal quando
+ * le cifre stanno in un long (fino a circa 9.2 * 10^18 unità della scala:
+ * 92 milioni di miliardi con 2 decimali).
+ * Stessa semantica di BigDecimal con valore non scalato long e scala >= 0:
+ * - add/subtract: scala = max delle scale; multiply: scala = somma delle scale
+ * - setScale, multiply e divide con scala e RoundingMode arrotondano come
+ *   BigDecimal (tutte le modalità, UNNECESSARY compresa): stesso risultato,
+ *   cifra per cifra e con la stessa scala
+ * - equals confronta valore e scala (2.0 != 2.00), compareTo solo il valore
+ * - toString come BigDecimal.toPlainString()
+ * Un risultato che non sta in un long lancia ArithmeticException invece di
+ * traboccare. I calcoli intermedi che escono dal long (prodotto prima
+ * dell'arrotondamento, dividendo scalato) passano da BigDecimal: stesso
+ * risultato, solo più lento.
+ * Per le somme senza allocazioni c'è Accumulator; per colonne di importi
+ * (long[] non scalati con la stessa scala) i metodi statici sum/multiply/add.
+ */
+public final class Decimal64 implements Comparable<Decimal64> {
+
+    public static final int MAX_SCALA = 18;
+
+    private static final long[] POTENZE_10 = new long[MAX_SCALA + 1];
+
+    static {
+        POTENZE_10[0] = 1;
+        for (int i = 1; i <= MAX_SCALA; i++) {
+            POTENZE_10[i] = POTENZE_10[i - 1] * 10;
+        }
+    }
+
+    public static final Decimal64 ZERO = new Decimal64(0, 0);
+    public static final Decimal64 ONE = new Decimal64(1, 0);
+
+    private final long unscaled;
+    private final int scala;
+
+    private Decimal64(long unscaled, int scala) {
+        this.unscaled = unscaled;
+        this.scala = scala;
+    }
+
+    // ==================== CREAZIONE ====================
+
+    /**
+     * unscaled / 10^scala: valueOf(12345, 2) = 123.45
+     */
+    public static Decimal64 valueOf(long unscaled, int scala) {
+        return new Decimal64(unscaled, controllaScala(scala));
+    }
+
+    public static Decimal64 valueOf(long intero) {
+        return new Decimal64(intero, 0);
+    }
+
+    /**
+     * Da testo come new BigDecimal(testo): la scala è il numero di decimali scritti
+     * @throws NumberFormatException se il testo non è un numero
+     * @throws ArithmeticException se il numero non sta in un Decimal64
+     */
+    public static Decimal64 of(String testo) {
+        int n = testo.length();
+        int i = 0;
+        boolean negativo = false;
+        if (n > 0 && (testo.charAt(0) == '-' || testo.charAt(0) == '+')) {
+            negativo = testo.charAt(0) == '-';
+            i++;
+        }
+        long valore = 0;
+        int scala = -1;
+        int cifre = 0;
+        for (; i < n; i++) {
+            char c = testo.charAt(i);
+            if (c == '.' && scala < 0) {
+                scala = 0;
+            } else if (c >= '0' && c <= '9') {
+                // Accumula in negativo: Long.MIN_VALUE è rappresentabile
+                valore = Math.subtractExact(Math.multiplyExact(valore, 10), c - '0');
+                cifre++;
+                if (scala >= 0) {
+                    scala++;
+                }
+            } else if (c == 'e' || c == 'E') {
+                // Notazione esponenziale: la gestisce BigDecimal
+                return of(new BigDecimal(testo));
+            } else {
+                throw new NumberFormatException("Numero non valido: " + testo);
+            }
+        }
+        if (cifre == 0) {
+            throw new NumberFormatException("Numero non valido: " + testo);
+        }
+        scala = Math.max(scala, 0);
+        return new Decimal64(negativo ? valore : Math.negateExact(valore), controllaScala(scala));
+    }
+
+    /**
+     * Conversione esatta: una scala negativa viene portata a 0
+     * @throws ArithmeticException se il valore non sta in un Decimal64
+     */
+    public static Decimal64 of(BigDecimal valore) {
+        BigDecimal v = valore.scale() < 0 ? valore.setScale(0) : valore;
+        if (v.scale() > MAX_SCALA) {
+            throw new ArithmeticException("Scala oltre " + MAX_SCALA + ": " + valore);
+        }
+        return new Decimal64(v.unscaledValue().longValueExact(), v.scale());
+    }
+
+    private static int controllaScala(int scala) {
+        if (scala < 0 || scala > MAX_SCALA) {
+            throw new ArithmeticException("Scala fuori da 0.." + MAX_SCALA + ": " + scala);
+        }
+        return scala;
+    }
+
+    // ==================== ACCESSO ====================
+
+    public long unscaledValue() {
+        return unscaled;
+    }
+
+    public int scale() {
+        return scala;
+    }
+
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scala);
+    }
+
+    public double doubleValue() {
+        return scala == 0 ? unscaled : (double) unscaled / POTENZE_10[scala];
+    }
+
+    // ==================== ARITMETICA ====================
+
+    public Decimal64 add(Decimal64 altro) {
+        if (scala == altro.scala) {
+            return new Decimal64(Math.addExact(unscaled, altro.unscaled), scala);
+        }
+        int s = Math.max(scala, altro.scala);
+        if (trabocca(unscaled, POTENZE_10[s - scala]) || trabocca(altro.unscaled, POTENZE_10[s - altro.scala])) {
+            // L'allineamento esce dal long, la somma potrebbe non uscirne
+            return of(toBigDecimal().add(altro.toBigDecimal()));
+        }
+        return new Decimal64(Math.addExact(allinea(unscaled, s - scala), allinea(altro.unscaled, s - altro.scala)), s);
+    }
+
+    public Decimal64 subtract(Decimal64 altro) {
+        if (scala == altro.scala) {
+            return new Decimal64(Math.subtractExact(unscaled, altro.unscaled), scala);
+        }
+        int s = Math.max(scala, altro.scala);
+        if (trabocca(unscaled, POTENZE_10[s - scala]) || trabocca(altro.unscaled, POTENZE_10[s - altro.scala])) {
+            return of(toBigDecimal().subtract(altro.toBigDecimal()));
+        }
+        return new Decimal64(Math.subtractExact(allinea(unscaled, s - scala), allinea(altro.unscaled, s - altro.scala)), s);
+    }
+
+    /**
+     * Prodotto esatto, con scala = somma delle scale
+     */
+    public Decimal64 multiply(Decimal64 altro) {
+        return new Decimal64(Math.multiplyExact(unscaled, altro.unscaled), controllaScala(scala + altro.scala));
+    }
+
+    public Decimal64 multiply(long fattore) {
+        return new Decimal64(Math.multiplyExact(unscaled, fattore), scala);
+    }
+
+    /**
+     * Come multiply(altro).setScale(scala, arrotondamento), senza il risultato intermedio
+     */
+    public Decimal64 multiply(Decimal64 altro, int scala, RoundingMode arrotondamento) {
+        controllaScala(scala);
+        return new Decimal64(moltiplica(unscaled, this.scala, altro.unscaled, altro.scala, scala, arrotondamento), scala);
+    }
+
+    /**
+     * Come BigDecimal.divide(divisore, scala, arrotondamento)
+     */
+    public Decimal64 divide(Decimal64 divisore, int scala, RoundingMode arrotondamento) {
+        controllaScala(scala);
+        if (divisore.unscaled == 0) {
+            throw new ArithmeticException("Divisione per zero");
+        }
+        // q = unscaled * 10^e / divisore.unscaled, con e = scala - this.scala + divisore.scala
+        int e = scala - this.scala + divisore.scala;
+        long dividendo = unscaled;
+        long divisoreScalato = divisore.unscaled;
+        boolean veloce;
+        if (e >= 0) {
+            veloce = e <= MAX_SCALA && !trabocca(dividendo, POTENZE_10[e]);
+            if (veloce) {
+                dividendo *= POTENZE_10[e];
+            }
+        } else {
+            veloce = -e <= MAX_SCALA && !trabocca(divisoreScalato, POTENZE_10[-e]);
+            if (veloce) {
+                divisoreScalato *= POTENZE_10[-e];
+            }
+        }
+        if (veloce && divisoreScalato != Long.MIN_VALUE && dividendo != Long.MIN_VALUE) {
+            if (divisoreScalato < 0) {
+                divisoreScalato = -divisoreScalato;
+                dividendo = -dividendo;
+            }
+            return new Decimal64(dividi(dividendo, divisoreScalato, arrotondamento), scala);
+        }
+        return of(toBigDecimal().divide(divisore.toBigDecimal(), scala, arrotondamento));
+    }
+
+    public Decimal64 setScale(int nuovaScala, RoundingMode arrotondamento) {
+        return new Decimal64(riscala(unscaled, scala, controllaScala(nuovaScala), arrotondamento), nuovaScala);
+    }
+
+    public Decimal64 negate() {
+        return new Decimal64(Math.negateExact(unscaled), scala);
+    }
+
+    public Decimal64 abs() {
+        return unscaled < 0 ? negate() : this;
+    }
+
+    // ==================== CONFRONTI ====================
+
+    @Override
+    public int compareTo(Decimal64 altro) {
+        if (scala == altro.scala) {
+            return Long.compare(unscaled, altro.unscaled);
+        }
+        int s = Math.max(scala, altro.scala);
+        long a = unscaled;
+        long b = altro.unscaled;
+        // Se l'allineamento trabocca, quel valore supera in modulo qualsiasi long
+        if (trabocca(a, POTENZE_10[s - scala])) {
+            return Long.signum(a);
+        }
+        if (trabocca(b, POTENZE_10[s - altro.scala])) {
+            return -Long.signum(b);
+        }
+        return Long.compare(a * POTENZE_10[s - scala], b * POTENZE_10[s - altro.scala]);
+    }
+
+    public Decimal64 min(Decimal64 altro) {
+        return compareTo(altro) <= 0 ? this : altro;
+    }
+
+    public Decimal64 max(Decimal64 altro) {
+        return compareTo(altro) >= 0 ? this : altro;
+    }
+
+    /**
+     * Come BigDecimal.equals: stesso valore e stessa scala
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Decimal64 d && d.unscaled == unscaled && d.scala == scala;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaled) + scala;
+    }
+
+    /**
+     * Come BigDecimal.toPlainString()
+     */
+    @Override
+    public String toString() {
+        if (scala == 0) {
+            return Long.toString(unscaled);
+        }
+        String cifre = Long.toString(Math.abs(unscaled));
+        if (unscaled == Long.MIN_VALUE) {
+            cifre = cifre.substring(1);
+        }
+        StringBuilder sb = new StringBuilder(cifre.length() + scala + 3);
+        if (unscaled < 0) {
+            sb.append('-');
+        }
+        int intere = cifre.length() - scala;
+        if (intere > 0) {
+            sb.append(cifre, 0, intere).append('.').append(cifre, intere, cifre.length());
+        } else {
+            sb.append("0.").append("0".repeat(-intere)).append(cifre);
+        }
+        return sb.toString();
+    }
+
+    // ==================== ACCUMULATORE ====================
+
+    /**
+     * Somma mutabile a scala fissa: add non crea oggetti. Non è thread-safe.
+     */
+    public static Accumulator accumulator(int scala) {
+        return new Accumulator(controllaScala(scala));
+    }
+
+    public static final class Accumulator {
+        private final int scala;
+        private long unscaled;
+
+        private Accumulator(int scala) {
+            this.scala = scala;
+        }
+
+        /**
+         * @throws ArithmeticException se il valore ha decimali non nulli oltre la scala dell'accumulatore
+         */
+        public Accumulator add(Decimal64 valore) {
+            if (valore.scala > scala) {
+                // Solo se i decimali in più sono zeri
+                unscaled = Math.addExact(unscaled, riscala(valore.unscaled, valore.scala, scala, RoundingMode.UNNECESSARY));
+            } else if (trabocca(valore.unscaled, POTENZE_10[scala - valore.scala])) {
+                unscaled = of(value().toBigDecimal().add(valore.toBigDecimal())).unscaled;
+            } else {
+                unscaled = Math.addExact(unscaled, valore.unscaled * POTENZE_10[scala - valore.scala]);
+            }
+            return this;
+        }
+
+        /**
+         * Valore non scalato già nella scala dell'accumulatore
+         */
+        public Accumulator addUnscaled(long valore) {
+            unscaled = Math.addExact(unscaled, valore);
+            return this;
+        }
+
+        /**
+         * Aggiunge a * b arrotondato alla scala dell'accumulatore, come
+         * totale.add(a.multiply(b).setScale(scala, arrotondamento))
+         */
+        public Accumulator addProduct(Decimal64 a, Decimal64 b, RoundingMode arrotondamento) {
+            unscaled = Math.addExact(unscaled, moltiplica(a.unscaled, a.scala, b.unscaled, b.scala, scala, arrotondamento));
+            return this;
+        }
+
+        public long unscaledValue() {
+            return unscaled;
+        }
+
+        public Decimal64 value() {
+            return new Decimal64(unscaled, scala);
+        }
+
+        public void reset() {
+            unscaled = 0;
+        }
+
+        @Override
+        public String toString() {
+            return value().toString();
+        }
+    }
+
+    // ==================== COLONNE DI IMPORTI ====================
+    // long[] di valori non scalati con la stessa scala: nessun oggetto per riga
+
+    /**
+     * Somma esatta della colonna: lancia ArithmeticException solo se il totale
+     * non sta in un long, anche quando una somma parziale ne esce
+     */
+    public static Decimal64 sum(long[] valori, int scala) {
+        long somma = 0;
+        // Traboccamenti delle somme parziali: il totale esatto è somma + riporto * 2^64
+        long riporto = 0;
+        for (long v : valori) {
+            long s = somma + v;
+            if (((somma ^ s) & (v ^ s)) < 0) {
+                riporto += v < 0 ? -1 : 1;
+            }
+            somma = s;
+        }
+        if (riporto != 0) {
+            throw new ArithmeticException("Somma della colonna fuori dal long");
+        }
+        return valueOf(somma, scala);
+    }
+
+    /**
+     * destinazione[i] = valori[i] * fattore arrotondato alla stessa scala dei valori,
+     * come valore.multiply(fattore).setScale(scala, arrotondamento) per ogni riga
+     */
+    public static void multiply(long[] valori, int scala, Decimal64 fattore, RoundingMode arrotondamento,
+                                long[] destinazione) {
+        controllaScala(scala);
+        int riduzione = fattore.scala;
+        long f = fattore.unscaled;
+        if (riduzione == 0) {
+            for (int i = 0; i < valori.length; i++) {
+                destinazione[i] = Math.multiplyExact(valori[i], f);
+            }
+            return;
+        }
+        long divisore = POTENZE_10[riduzione];
+        for (int i = 0; i < valori.length; i++) {
+            long v = valori[i];
+            long prodotto = v * f;
+            if (Math.multiplyHigh(v, f) == (prodotto >> 63)) {
+                destinazione[i] = dividi(prodotto, divisore, arrotondamento);
+            } else {
+                destinazione[i] = moltiplica(v, scala, f, riduzione, scala, arrotondamento);
+            }
+        }
+    }
+
+    /**
+     * destinazione[i] = a[i] + b[i], con a e b nella stessa scala
+     */
+    public static void add(long[] a, long[] b, long[] destinazione) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Colonne di lunghezza diversa: " + a.length + " e " + b.length);
+        }
+        for (int i = 0; i < a.length; i++) {
+            destinazione[i] = Math.addExact(a[i], b[i]);
+        }
+    }
+
+    // ==================== ARROTONDAMENTO ====================
+
+    /**
+     * Valore non scalato di a * b (scale sa e sb) portato alla scala indicata
+     */
+    private static long moltiplica(long a, int sa, long b, int sb, int scala, RoundingMode arrotondamento) {
+        long prodotto = a * b;
+        int scalaProdotto = sa + sb;
+        if (Math.multiplyHigh(a, b) == (prodotto >> 63)) {
+            if (scalaProdotto < scala) {
+                return Math.multiplyExact(prodotto, POTENZE_10[scala - scalaProdotto]);
+            }
+            if (scalaProdotto - scala <= MAX_SCALA) {
+                return dividi(prodotto, POTENZE_10[scalaProdotto - scala], arrotondamento);
+            }
+        }
+        // Prodotto oltre i 64 bit: lo calcola BigDecimal, il risultato deve comunque stare in un long
+        return BigDecimal.valueOf(a, sa).multiply(BigDecimal.valueOf(b, sb))
+            .setScale(scala, arrotondamento).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Valore non scalato portato da una scala all'altra
+     */
+    private static long riscala(long valore, int da, int a, RoundingMode arrotondamento) {
+        if (a >= da) {
+            return allinea(valore, a - da);
+        }
+        return dividi(valore, POTENZE_10[da - a], arrotondamento);
+    }
+
+    private static long allinea(long valore, int cifre) {
+        return cifre == 0 ? valore : Math.multiplyExact(valore, POTENZE_10[cifre]);
+    }
+
+    private static boolean trabocca(long a, long b) {
+        return Math.multiplyHigh(a, b) != ((a * b) >> 63);
+    }
+
+    /**
+     * Quoziente di n / d (d > 0) arrotondato come RoundingMode
+     */
+    static long dividi(long n, long d, RoundingMode arrotondamento) {
+        long q = n / d;
+        long r = n % d;
+        if (r == 0) {
+            return q;
+        }
+        int segno = n < 0 ? -1 : 1;
+        long resto = Math.abs(r);
+        boolean allontana = switch (arrotondamento) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> segno > 0;
+            case FLOOR -> segno < 0;
+            case HALF_UP -> resto >= d - resto;
+            case HALF_DOWN -> resto > d - resto;
+            case HALF_EVEN -> resto > d - resto || (resto == d - resto && (q & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Arrotondamento necessario");
+        };
+        return allontana ? q + segno : q;
+    }
+}
@@ -0,0 +1,536 @@
+package com.corso.samples.datatypes;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ordinamento esterno (External Merge Sort) per file più grandi dell'heap.
+ * Fasi:
+ * 1. Lettura dell'input a blocchi della dimensione della memoria configurata,
+ *    ordinamento di ogni blocco in memoria e scrittura su file temporaneo
+ *    (run ordinata) tramite FileChannel e ByteBuffer
+ * 2. Merge k-way delle run con un loser tree (albero dei perdenti):
+ *    ogni elemento in uscita costa log2(k) confronti. Se le run sono più
+ *    del fan-in si fanno più passate intermedie.
+ * Formati supportati:
+ * - Binario: sequenza di int a 32 bit big-endian (come DataOutputStream.writeInt)
+ * - Testo: righe UTF-8 lette come BufferedReader.readLine (terminate da '\n',
+ *   '\r' o "\r\n") e scritte in uscita separate da '\n'
+ * Complessità: O(n log n) confronti, O(n * passate) I/O
+ * Memoria: circa memoriaByte, indipendente dalla dimensione del file
+ */
+public class ExternalSorter {
+
+    /**
+     * Algoritmo usato per ordinare ogni blocco di int in memoria
+     */
+    public enum AlgoritmoRun {
+        /** AlgoritmiOrdinamentoDemo.mergeSort: stabile, usa memoria aggiuntiva O(n) */
+        MERGE_SORT,
+        /** AlgoritmiOrdinamentoDemo.quickSort3Way: in place, ottimo con molti duplicati */
+        QUICK_SORT_3WAY,
+        /** PatternDefeatingSort: in place, O(n log n) garantito anche su input già ordinato */
+        PATTERN_DEFEATING
+    }
+
+    public static final long MEMORIA_DEFAULT = 64L << 20;
+    public static final int FAN_IN_DEFAULT = 64;
+
+    // Buffer di I/O per ogni run durante il merge (min/max)
+    private static final int MIN_IO_BUFFER = 8 << 10;
+    private static final int MAX_IO_BUFFER = 1 << 20;
+
+    // Stima dell'occupazione in heap di una String oltre ai suoi caratteri
+    private static final int OVERHEAD_STRINGA = 64;
+
+    private final long memoriaByte;
+    private final int fanIn;
+    private final AlgoritmoRun algoritmo;
+    private final Path directoryTemporanea;
+    private final AlgoritmiOrdinamentoDemo algoritmi = new AlgoritmiOrdinamentoDemo();
+
+    public ExternalSorter() {
+        this(MEMORIA_DEFAULT, FAN_IN_DEFAULT);
+    }
+
+    public ExternalSorter(long memoriaByte, int fanIn) {
+        this(memoriaByte, fanIn, AlgoritmoRun.MERGE_SORT, null);
+    }
+
+    private ExternalSorter(long memoriaByte, int fanIn, AlgoritmoRun algoritmo, Path directoryTemporanea) {
+        if (memoriaByte < 1024) {
+            throw new IllegalArgumentException("Memoria troppo piccola: " + memoriaByte);
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Il fan-in deve essere almeno 2: " + fanIn);
+        }
+        this.memoriaByte = memoriaByte;
+        this.fanIn = fanIn;
+        this.algoritmo = algoritmo;
+        this.directoryTemporanea = directoryTemporanea;
+    }
+
+    public ExternalSorter algoritmo(AlgoritmoRun algoritmo) {
+        return new ExternalSorter(memoriaByte, fanIn, algoritmo, directoryTemporanea);
+    }
+
+    /**
+     * Directory per le run temporanee (default: directory temporanea di sistema)
+     */
+    public ExternalSorter directoryTemporanea(Path directory) {
+        return new ExternalSorter(memoriaByte, fanIn, algoritmo, directory);
+    }
+
+    // ==================== INT BINARI ====================
+
+    /**
+     * Ordina un file di int a 32 bit big-endian.
+     * Restituisce il numero di valori ordinati; IOException se la lunghezza del
+     * file non è un multiplo di 4 (l'ultimo valore sarebbe troncato).
+     */
+    public long sortInteri(Path input, Path output) throws IOException {
+        // Merge Sort alloca array temporanei grandi quanto il blocco: metà memoria a testa
+        long divisore = algoritmo == AlgoritmoRun.MERGE_SORT ? 2L * Integer.BYTES : Integer.BYTES;
+        int maxElementi = (int) Math.min(Integer.MAX_VALUE - 8, memoriaByte / divisore);
+
+        Path dir = creaDirectoryLavoro();
+        List<Path> runs = new ArrayList<>();
+        long totale = 0;
+        try {
+            try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+                if (in.size() % Integer.BYTES != 0) {
+                    throw new IOException("Lunghezza di " + input + " non multipla di " + Integer.BYTES
+                        + " byte: " + in.size());
+                }
+                long restanti = in.size() / Integer.BYTES;
+                int[] blocco = new int[(int) Math.min(maxElementi, Math.max(1, restanti))];
+                ByteBuffer buffer = ByteBuffer.allocate(dimensioneBufferIO(1));
+
+                while (restanti > 0) {
+                    int n = (int) Math.min(blocco.length, restanti);
+                    leggiInteri(in, buffer, blocco, n);
+                    int[] chunk = n == blocco.length ? blocco : Arrays.copyOf(blocco, n);
+                    ordinaBlocco(chunk);
+
+                    Path run = Files.createTempFile(dir, "run-", ".bin");
+                    scriviInteri(run, chunk, n, buffer);
+                    runs.add(run);
+                    restanti -= n;
+                    totale += n;
+                }
+            }
+
+            runs = passateIntermedie(runs, dir, this::mergeInteri);
+            mergeInteri(runs, output);
+            return totale;
+        } finally {
+            eliminaDirectoryLavoro(dir);
+        }
+    }
+
+    private void ordinaBlocco(int[] chunk) {
+        switch (algoritmo) {
+            case MERGE_SORT:
+                algoritmi.mergeSort(chunk);
+                break;
+            case QUICK_SORT_3WAY:
+                algoritmi.quickSort3Way(chunk);
+                break;
+            default:
+                PatternDefeatingSort.sort(chunk);
+        }
+    }
+
+    private static void leggiInteri(FileChannel in, ByteBuffer buffer, int[] dest, int n) throws IOException {
+        int letti = 0;
+        while (letti < n) {
+            buffer.clear();
+            buffer.limit(Math.min(buffer.capacity(), (n - letti) * Integer.BYTES));
+            while (buffer.hasRemaining()) {
+                if (in.read(buffer) < 0) {
+                    throw new IOException("Fine file inattesa");
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                dest[letti++] = buffer.getInt();
+            }
+        }
+    }
+
+    private static void scriviInteri(Path file, int[] valori, int n, ByteBuffer buffer) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.clear();
+            for (int i = 0; i < n; i++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    svuota(out, buffer);
+                }
+                buffer.putInt(valori[i]);
+            }
+            svuota(out, buffer);
+        }
+    }
+
+    private void mergeInteri(List<Path> runs, Path output) throws IOException {
+        int k = runs.size();
+        int dimensioneBuffer = dimensioneBufferIO(k + 1);
+        List<FileChannel> canali = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SorgenteInteri sorgente = new SorgenteInteri(k);
+            for (int i = 0; i < k; i++) {
+                FileChannel canale = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                canali.add(canale);
+                sorgente.apri(i, canale, ByteBuffer.allocate(dimensioneBuffer));
+            }
+
+            LoserTree albero = new LoserTree(sorgente);
+            ByteBuffer buffer = ByteBuffer.allocate(dimensioneBuffer);
+            int vincitore;
+            while ((vincitore = albero.vincitore()) >= 0) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    svuota(out, buffer);
+                }
+                buffer.putInt(sorgente.testa[vincitore]);
+                sorgente.avanza(vincitore);
+                albero.aggiorna(vincitore);
+            }
+            svuota(out, buffer);
+        } finally {
+            for (FileChannel canale : canali) {
+                canale.close();
+            }
+        }
+    }
+
+    /**
+     * Teste delle run di int: il confronto lavora su un int[] senza boxing
+     */
+    private static final class SorgenteInteri implements LoserTree.Sorgenti {
+        final int[] testa;
+        final boolean[] esaurita;
+        final FileChannel[] canali;
+        final ByteBuffer[] buffer;
+
+        SorgenteInteri(int k) {
+            testa = new int[k];
+            esaurita = new boolean[k];
+            canali = new FileChannel[k];
+            buffer = new ByteBuffer[k];
+        }
+
+        void apri(int i, FileChannel canale, ByteBuffer buf) throws IOException {
+            canali[i] = canale;
+            buffer[i] = buf;
+            buf.flip();
+            avanza(i);
+        }
+
+        void avanza(int i) throws IOException {
+            ByteBuffer buf = buffer[i];
+            if (buf.remaining() < Integer.BYTES) {
+                buf.compact();
+                while (buf.position() < Integer.BYTES && canali[i].read(buf) >= 0) {
+                    // continua a leggere finché c'è almeno un int
+                }
+                buf.flip();
+                if (buf.remaining() < Integer.BYTES) {
+                    esaurita[i] = true;
+                    return;
+                }
+            }
+            testa[i] = buf.getInt();
+        }
+
+        @Override
+        public int numero() {
+            return testa.length;
+        }
+
+        @Override
+        public boolean esaurita(int i) {
+            return esaurita[i];
+        }
+
+        @Override
+        public boolean minore(int a, int b) {
+            return testa[a] < testa[b] || (testa[a] == testa[b] && a < b);
+        }
+    }
+
+    // ==================== RIGHE DI TESTO ====================
+
+    /**
+     * Ordina le righe UTF-8 di un file in ordine naturale di String
+     */
+    public long sortRighe(Path input, Path output) throws IOException {
+        return sortRighe(input, output, Comparator.naturalOrder());
+    }
+
+    /**
+     * Ordina le righe UTF-8 di un file con il comparator dato.
+     * Le righe sono spezzate come BufferedReader.readLine: un file con terminatori
+     * '\r' o "\r\n" viene riscritto con '\n'.
+     * Ogni blocco è ordinato con Sorter (Tim Sort, stabile) e il merge
+     * a parità preferisce la run precedente: l'ordinamento complessivo è stabile.
+     */
+    public long sortRighe(Path input, Path output, Comparator<? super String> comparator) throws IOException {
+        Sorter<String> sorter = Sorter.<String>comparing(comparator).algoritmo(Sorter.Algoritmo.TIM);
+        Path dir = creaDirectoryLavoro();
+        List<Path> runs = new ArrayList<>();
+        long totale = 0;
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                List<String> blocco = new ArrayList<>();
+                long occupati = 0;
+                String riga;
+                while ((riga = reader.readLine()) != null) {
+                    blocco.add(riga);
+                    occupati += OVERHEAD_STRINGA + 2L * riga.length();
+                    if (occupati >= memoriaByte) {
+                        runs.add(spillRighe(dir, blocco, sorter));
+                        totale += blocco.size();
+                        blocco.clear();
+                        occupati = 0;
+                    }
+                }
+                if (!blocco.isEmpty()) {
+                    runs.add(spillRighe(dir, blocco, sorter));
+                    totale += blocco.size();
+                }
+            }
+
+            runs = passateIntermedie(runs, dir, (gruppo, out) -> mergeRighe(gruppo, out, comparator, false));
+            mergeRighe(runs, output, comparator, true);
+            return totale;
+        } finally {
+            eliminaDirectoryLavoro(dir);
+        }
+    }
+
+    /**
+     * Le run di testo sono scritte come lunghezza (int) + byte UTF-8
+     */
+    private Path spillRighe(Path dir, List<String> blocco, Sorter<String> sorter) throws IOException {
+        sorter.sort(blocco);
+        Path run = Files.createTempFile(dir, "run-", ".txt");
+        ByteBuffer buffer = ByteBuffer.allocate(dimensioneBufferIO(1));
+        try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String riga : blocco) {
+                buffer = scriviRiga(out, buffer, riga.getBytes(StandardCharsets.UTF_8));
+            }
+            svuota(out, buffer);
+        }
+        return run;
+    }
+
+    private static ByteBuffer scriviRiga(FileChannel out, ByteBuffer buffer, byte[] bytes) throws IOException {
+        int necessari = Integer.BYTES + bytes.length;
+        if (buffer.remaining() < necessari) {
+            svuota(out, buffer);
+            if (buffer.capacity() < necessari) {
+                buffer = ByteBuffer.allocate(necessari);
+            }
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    /**
+     * Merge di run di testo: verso un'altra run (formato binario) o,
+     * nell'ultima passata, verso il file di output a righe
+     */
+    private void mergeRighe(List<Path> runs, Path output, Comparator<? super String> comparator,
+                            boolean finale) throws IOException {
+        int k = runs.size();
+        int dimensioneBuffer = dimensioneBufferIO(k + 1);
+        List<FileChannel> canali = new ArrayList<>();
+        try {
+            SorgenteRighe sorgente = new SorgenteRighe(k, comparator);
+            for (int i = 0; i < k; i++) {
+                FileChannel canale = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                canali.add(canale);
+                sorgente.apri(i, canale, ByteBuffer.allocate(dimensioneBuffer));
+            }
+            LoserTree albero = new LoserTree(sorgente);
+
+            if (finale) {
+                try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    int vincitore;
+                    while ((vincitore = albero.vincitore()) >= 0) {
+                        writer.write(sorgente.testa[vincitore]);
+                        writer.write('\n');
+                        sorgente.avanza(vincitore);
+                        albero.aggiorna(vincitore);
+                    }
+                }
+            } else {
+                try (FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(dimensioneBuffer);
+                    int vincitore;
+                    while ((vincitore = albero.vincitore()) >= 0) {
+                        buffer = scriviRiga(out, buffer, sorgente.testa[vincitore].getBytes(StandardCharsets.UTF_8));
+                        sorgente.avanza(vincitore);
+                        albero.aggiorna(vincitore);
+                    }
+                    svuota(out, buffer);
+                }
+            }
+        } finally {
+            for (FileChannel canale : canali) {
+                canale.close();
+            }
+        }
+    }
+
+    private static final class SorgenteRighe implements LoserTree.Sorgenti {
+        final String[] testa;
+        final FileChannel[] canali;
+        final ByteBuffer[] buffer;
+        final Comparator<? super String> comparator;
+
+        SorgenteRighe(int k, Comparator<? super String> comparator) {
+            this.testa = new String[k];
+            this.canali = new FileChannel[k];
+            this.buffer = new ByteBuffer[k];
+            this.comparator = comparator;
+        }
+
+        void apri(int i, FileChannel canale, ByteBuffer buf) throws IOException {
+            canali[i] = canale;
+            buffer[i] = buf;
+            buf.flip();
+            avanza(i);
+        }
+
+        void avanza(int i) throws IOException {
+            if (!disponibili(i, Integer.BYTES)) {
+                testa[i] = null;
+                return;
+            }
+            int lunghezza = buffer[i].getInt();
+            if (!disponibili(i, lunghezza)) {
+                throw new IOException("Run troncata");
+            }
+            ByteBuffer buf = buffer[i];
+            testa[i] = new String(buf.array(), buf.arrayOffset() + buf.position(), lunghezza, StandardCharsets.UTF_8);
+            buf.position(buf.position() + lunghezza);
+        }
+
+        /**
+         * Garantisce almeno n byte leggibili nel buffer della run i,
+         * ingrandendolo se una riga è più lunga del buffer
+         */
+        private boolean disponibili(int i, int n) throws IOException {
+            ByteBuffer buf = buffer[i];
+            if (buf.remaining() >= n) {
+                return true;
+            }
+            if (buf.capacity() < n) {
+                ByteBuffer grande = ByteBuffer.allocate(n);
+                grande.put(buf);
+                buf = grande;
+                buffer[i] = buf;
+            } else {
+                buf.compact();
+            }
+            while (buf.position() < n && canali[i].read(buf) >= 0) {
+                // continua a leggere finché ci sono n byte
+            }
+            buf.flip();
+            return buf.remaining() >= n;
+        }
+
+        @Override
+        public int numero() {
+            return testa.length;
+        }
+
+        @Override
+        public boolean esaurita(int i) {
+            return testa[i] == null;
+        }
+
+        @Override
+        public boolean minore(int a, int b) {
+            int cmp = comparator.compare(testa[a], testa[b]);
+            return cmp < 0 || (cmp == 0 && a < b);
+        }
+    }
+
+    // ==================== SUPPORTO ====================
+
+    @FunctionalInterface
+    private interface Merge {
+        void merge(List<Path> runs, Path output) throws IOException;
+    }
+
+    /**
+     * Finché le run sono più del fan-in, le fonde a gruppi di fanIn
+     */
+    private List<Path> passateIntermedie(List<Path> runs, Path dir, Merge merge) throws IOException {
+        while (runs.size() > fanIn) {
+            List<Path> prossime = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> gruppo = runs.subList(i, Math.min(runs.size(), i + fanIn));
+                if (gruppo.size() == 1) {
+                    prossime.add(gruppo.get(0));
+                    continue;
+                }
+                Path run = Files.createTempFile(dir, "merge-", ".run");
+                merge.merge(gruppo, run);
+                for (Path usata : gruppo) {
+                    Files.deleteIfExists(usata);
+                }
+                prossime.add(run);
+            }
+            runs = prossime;
+        }
+        return runs;
+    }
+
+    /**
+     * Memoria divisa tra i buffer di input delle run e quello di output
+     */
+    private int dimensioneBufferIO(int buffers) {
+        long perBuffer = memoriaByte / buffers;
+        int dimensione = (int) Math.max(MIN_IO_BUFFER, Math.min(MAX_IO_BUFFER, perBuffer));
+        return dimensione - dimensione % Integer.BYTES;
+    }
+
+    private static void svuota(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Path creaDirectoryLavoro() throws IOException {
+        return directoryTemporanea == null
+            ? Files.createTempDirectory("external-sort-")
+            : Files.createTempDirectory(directoryTemporanea, "external-sort-");
+    }
+
+    private static void eliminaDirectoryLavoro(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
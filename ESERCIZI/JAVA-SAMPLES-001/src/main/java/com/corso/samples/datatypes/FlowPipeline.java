@@ -0,0 +1,662 @@
+package com.corso.samples.datatypes;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Pipeline push su java.util.concurrent.Flow: sorgente -> map/filter/limit/finestre -> sink.
+ * A differenza di Stream.iterate/generate + limit la sorgente può essere senza fine
+ * (un feed di eventi) e gli elementi arrivano mentre vengono prodotti:
+ * - backpressure request(n): ogni stadio chiede a monte al massimo "buffer" elementi
+ *   e ne richiede altri solo quando a valle si è liberato spazio
+ * - buffer limitati: la coda di ogni stadio non supera buffer elementi
+ *   (più le finestre chiuse da un solo evento)
+ * - finestre tumbling e sliding su tempo dell'evento con aggregati correnti per chiave
+ *   (DoubleSummaryStatistics): in memoria restano gli aggregati, non gli eventi
+ * - sink a micro-batch: il consumer riceve liste di al massimo dimensioneBatch elementi
+ * La pipeline è lazy e fredda: nulla si muove finché non si chiama subscribe/forEach,
+ * e ogni subscribe costruisce una nuova catena di stadi.
+ * Esempio:
+ *   FlowPipeline.from(publisher)
+ *       .filter(e -> !e.annullato())
+ *       .tumblingWindow(Duration.ofMinutes(1), Evento::timestamp, Evento::categoria, Evento::importo)
+ *       .forEach(System.out::println);
+ */
+public final class FlowPipeline<T> {
+
+    public static final int BUFFER_PREDEFINITO = Flow.defaultBufferSize();
+
+    private final Flow.Publisher<T> publisher;
+    private final int buffer;
+
+    private FlowPipeline(Flow.Publisher<T> publisher, int buffer) {
+        this.publisher = publisher;
+        this.buffer = buffer;
+    }
+
+    // ==================== SORGENTI ====================
+
+    /**
+     * Pipeline su un Publisher qualsiasi, ad esempio una SubmissionPublisher
+     * alimentata da un altro thread
+     */
+    public static <T> FlowPipeline<T> from(Flow.Publisher<T> sorgente) {
+        return from(sorgente, BUFFER_PREDEFINITO);
+    }
+
+    public static <T> FlowPipeline<T> from(Flow.Publisher<T> sorgente, int buffer) {
+        Objects.requireNonNull(sorgente, "sorgente");
+        if (buffer < 1) {
+            throw new IllegalArgumentException("buffer deve essere positivo: " + buffer);
+        }
+        return new FlowPipeline<>(sorgente, buffer);
+    }
+
+    /**
+     * Sorgente pull: next() viene chiamato solo per gli elementi richiesti a valle,
+     * quindi l'iteratore può essere infinito (es. Stream.generate(...).iterator()).
+     * La sorgente è sincrona: la pipeline gira nel thread che chiama subscribe,
+     * che ritorna quando la sorgente finisce o viene fermata (limit, errore).
+     * Si può sottoscrivere una sola volta.
+     */
+    public static <T> FlowPipeline<T> fromIterator(Iterator<? extends T> iteratore) {
+        Objects.requireNonNull(iteratore, "iteratore");
+        return from(new IteratorPublisher<>(iteratore));
+    }
+
+    // ==================== OPERATORI ====================
+
+    public <R> FlowPipeline<R> map(Function<? super T, ? extends R> funzione) {
+        Objects.requireNonNull(funzione, "funzione");
+        return connetti(valle -> new Stage<T, R>(valle, buffer) {
+            @Override
+            void elabora(T elemento) {
+                emetti(funzione.apply(elemento));
+            }
+        });
+    }
+
+    /**
+     * Gli elementi scartati non occupano la coda: lo spazio viene richiesto di nuovo a monte
+     */
+    public FlowPipeline<T> filter(Predicate<? super T> predicato) {
+        Objects.requireNonNull(predicato, "predicato");
+        return connetti(valle -> new Stage<T, T>(valle, buffer) {
+            @Override
+            void elabora(T elemento) {
+                if (predicato.test(elemento)) {
+                    emetti(elemento);
+                }
+            }
+        });
+    }
+
+    /**
+     * I primi n elementi, poi cancella la sottoscrizione a monte: come Stream.limit
+     * ferma una sorgente infinita
+     */
+    public FlowPipeline<T> limit(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n negativo: " + n);
+        }
+        return connetti(valle -> new Stage<T, T>(valle, (int) Math.max(1, Math.min(buffer, n))) {
+            private long rimasti = n;
+
+            @Override
+            void onSubscribe() {
+                if (rimasti == 0) {
+                    completa();
+                }
+            }
+
+            @Override
+            void elabora(T elemento) {
+                if (rimasti > 0) {
+                    emetti(elemento);
+                    if (--rimasti == 0) {
+                        completa();
+                    }
+                }
+            }
+        });
+    }
+
+    // ==================== FINESTRE ====================
+
+    /**
+     * Finestre consecutive di durata fissa sul tempo dell'evento (millisecondi):
+     * per ogni chiave un DoubleSummaryStatistics dei valori
+     */
+    public <K> FlowPipeline<Finestra<K>> tumblingWindow(Duration durata, ToLongFunction<? super T> timestamp,
+            Function<? super T, ? extends K> chiave, ToDoubleFunction<? super T> valore) {
+        return slidingWindow(durata, durata, timestamp, chiave, valore);
+    }
+
+    /**
+     * Come tumblingWindow(durata, timestamp, chiave, valore), ma ogni elemento può
+     * contribuire a più chiavi (es. un ordine con prodotti di più categorie)
+     */
+    public <K> FlowPipeline<Finestra<K>> tumblingWindow(Duration durata, ToLongFunction<? super T> timestamp,
+            BiConsumer<? super T, ObjDoubleConsumer<K>> contributi) {
+        return slidingWindow(durata, durata, timestamp, contributi);
+    }
+
+    public <K> FlowPipeline<Finestra<K>> slidingWindow(Duration durata, Duration passo,
+            ToLongFunction<? super T> timestamp,
+            Function<? super T, ? extends K> chiave, ToDoubleFunction<? super T> valore) {
+        Objects.requireNonNull(chiave, "chiave");
+        Objects.requireNonNull(valore, "valore");
+        return slidingWindow(durata, passo, timestamp,
+            (T elemento, ObjDoubleConsumer<K> out) -> out.accept(chiave.apply(elemento), valore.applyAsDouble(elemento)));
+    }
+
+    /**
+     * Finestre di lunghezza durata che avanzano di passo (durata multipla di passo).
+     * Gli aggregati sono tenuti per "riquadri" lunghi passo: ogni finestra è la combinazione
+     * degli ultimi durata/passo riquadri, quindi la memoria è O(riquadri x chiavi)
+     * indipendentemente dal numero di eventi.
+     * I timestamp devono essere non decrescenti a livello di riquadro: un evento più vecchio
+     * del riquadro corrente arriva troppo tardi e viene scartato.
+     */
+    public <K> FlowPipeline<Finestra<K>> slidingWindow(Duration durata, Duration passo,
+            ToLongFunction<? super T> timestamp, BiConsumer<? super T, ObjDoubleConsumer<K>> contributi) {
+        long durataMillis = durata.toMillis();
+        long passoMillis = passo.toMillis();
+        if (passoMillis <= 0 || durataMillis < passoMillis || durataMillis % passoMillis != 0) {
+            throw new IllegalArgumentException("durata deve essere un multiplo positivo di passo: "
+                + durata + ", " + passo);
+        }
+        Objects.requireNonNull(timestamp, "timestamp");
+        Objects.requireNonNull(contributi, "contributi");
+        return connetti(valle -> new WindowStage<>(valle, buffer, durataMillis, passoMillis, timestamp, contributi));
+    }
+
+    /**
+     * Risultato di una finestra [inizio, fine) in millisecondi
+     */
+    public record Finestra<K>(long inizio, long fine, Map<K, DoubleSummaryStatistics> aggregati) {
+
+        /**
+         * Somma dei valori della chiave nella finestra (0 se assente)
+         */
+        public double totale(K chiave) {
+            DoubleSummaryStatistics stats = aggregati.get(chiave);
+            return stats != null ? stats.getSum() : 0.0;
+        }
+    }
+
+    // ==================== SINK ====================
+
+    /**
+     * Sottoscrive la pipeline consegnando gli elementi a micro-batch: si chiedono
+     * dimensioneBatch elementi, si passa la lista al consumer e solo dopo si chiede
+     * il batch successivo. L'ultimo batch può essere più corto.
+     * Il future si completa alla fine della sorgente o con l'errore; cancellarlo
+     * cancella la sottoscrizione.
+     */
+    public CompletableFuture<Void> subscribe(Consumer<? super List<T>> consumer, int dimensioneBatch) {
+        Objects.requireNonNull(consumer, "consumer");
+        if (dimensioneBatch < 1) {
+            throw new IllegalArgumentException("dimensioneBatch deve essere positiva: " + dimensioneBatch);
+        }
+        BatchSubscriber<T> sink = new BatchSubscriber<>(consumer, dimensioneBatch);
+        publisher.subscribe(sink);
+        return sink.risultato;
+    }
+
+    public CompletableFuture<Void> forEach(Consumer<? super T> azione) {
+        Objects.requireNonNull(azione, "azione");
+        return subscribe(batch -> batch.forEach(azione), 1);
+    }
+
+    /**
+     * La pipeline come Publisher, per collegarla a un Subscriber qualsiasi
+     */
+    public Flow.Publisher<T> toPublisher() {
+        return publisher;
+    }
+
+    private <R> FlowPipeline<R> connetti(Function<Flow.Subscriber<? super R>, Stage<T, R>> stadio) {
+        return new FlowPipeline<>(valle -> publisher.subscribe(stadio.apply(valle)), buffer);
+    }
+
+    // ==================== IMPLEMENTAZIONE ====================
+
+    /**
+     * Stadio intermedio: Subscriber verso monte e Subscription verso valle.
+     * onNext/onComplete arrivano in serie (regola di Flow), quindi elabora() può
+     * tenere stato senza sincronizzazione; i risultati passano da una coda e vengono
+     * consegnati dal ciclo drain(), eseguito da un solo thread alla volta (contatore wip).
+     * drain() è anche ciò che rende la pipeline non ricorsiva quando la sorgente è
+     * sincrona: request() dentro onNext incrementa wip e ritorna.
+     */
+    private abstract static class Stage<I, O> implements Flow.Subscriber<I>, Flow.Subscription {
+        private final Flow.Subscriber<? super O> valle;
+        private final int buffer;
+        private final Queue<O> coda = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inCoda = new AtomicInteger();
+        // Richiesti a monte e non ancora arrivati
+        private final AtomicLong inVolo = new AtomicLong();
+        private final AtomicLong domanda = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private Flow.Subscription monte;
+        private volatile boolean terminato;
+        private volatile boolean cancellato;
+        private volatile Throwable errore;
+        private boolean consegnato;
+        // monte.cancel() va chiamata solo da drain(): mai in parallelo con monte.request()
+        // (regola 2.7 di Reactive Streams). Gli altri thread impostano annullaMonte
+        private volatile boolean annullaMonte;
+        private boolean monteAnnullato;
+
+        Stage(Flow.Subscriber<? super O> valle, int buffer) {
+            this.valle = valle;
+            this.buffer = buffer;
+        }
+
+        abstract void elabora(I elemento);
+
+        /**
+         * Chiamato dopo onSubscribe a valle
+         */
+        void onSubscribe() {
+        }
+
+        /**
+         * Fine della sorgente: l'occasione per emettere ciò che è ancora aperto
+         */
+        void fine() {
+        }
+
+        final void emetti(O risultato) {
+            coda.offer(risultato);
+            inCoda.incrementAndGet();
+        }
+
+        /**
+         * Fine anticipata decisa dallo stadio (es. limit): cancella a monte e completa a valle
+         */
+        final void completa() {
+            if (!terminato) {
+                terminato = true;
+                annullaMonte = true;
+            }
+        }
+
+        @Override
+        public final void onSubscribe(Flow.Subscription subscription) {
+            if (monte != null) {
+                subscription.cancel();
+                return;
+            }
+            monte = subscription;
+            valle.onSubscribe(this);
+            onSubscribe();
+            drain();
+        }
+
+        @Override
+        public final void onNext(I elemento) {
+            inVolo.decrementAndGet();
+            if (terminato || cancellato) {
+                return;
+            }
+            try {
+                elabora(elemento);
+            } catch (RuntimeException e) {
+                errore = e;
+                terminato = true;
+                annullaMonte = true;
+            }
+            drain();
+        }
+
+        @Override
+        public final void onError(Throwable throwable) {
+            if (!terminato) {
+                errore = throwable;
+                terminato = true;
+            }
+            drain();
+        }
+
+        @Override
+        public final void onComplete() {
+            if (!terminato) {
+                try {
+                    fine();
+                } catch (RuntimeException e) {
+                    errore = e;
+                }
+                terminato = true;
+            }
+            drain();
+        }
+
+        @Override
+        public final void request(long n) {
+            if (n <= 0) {
+                cancel();
+                valle.onError(new IllegalArgumentException("request deve essere positiva: " + n));
+                return;
+            }
+            // Somma con saturazione a Long.MAX_VALUE (domanda illimitata)
+            domanda.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            drain();
+        }
+
+        @Override
+        public final void cancel() {
+            if (!cancellato) {
+                cancellato = true;
+                annullaMonte = true;
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int mancati = 1;
+            do {
+                if (annullaMonte && !monteAnnullato) {
+                    monteAnnullato = true;
+                    monte.cancel();
+                }
+                long richiesti = domanda.get();
+                long emessi = 0;
+                while (emessi != richiesti && !cancellato) {
+                    O risultato = coda.poll();
+                    if (risultato == null) {
+                        break;
+                    }
+                    inCoda.decrementAndGet();
+                    valle.onNext(risultato);
+                    emessi++;
+                }
+                if (emessi > 0 && richiesti != Long.MAX_VALUE) {
+                    domanda.addAndGet(-emessi);
+                }
+                if (cancellato) {
+                    coda.clear();
+                } else if (terminato) {
+                    // Errore o fine normale vengono consegnati dopo gli elementi già in coda
+                    if (coda.isEmpty() && !consegnato) {
+                        consegnato = true;
+                        if (errore != null) {
+                            valle.onError(errore);
+                        } else {
+                            valle.onComplete();
+                        }
+                    }
+                } else {
+                    richiediAMonte();
+                }
+                mancati = wip.addAndGet(-mancati);
+            } while (mancati != 0);
+        }
+
+        /**
+         * Chiede a monte lo spazio libero del buffer, a blocchi di almeno metà buffer
+         * per non fare una request per ogni elemento
+         */
+        private void richiediAMonte() {
+            long spazio = buffer - inCoda.get() - inVolo.get();
+            if (spazio > 0 && spazio >= Math.max(1, buffer / 2)) {
+                inVolo.addAndGet(spazio);
+                monte.request(spazio);
+            }
+        }
+    }
+
+    /**
+     * Aggregati di un riquadro lungo passo: per ogni chiave un DoubleSummaryStatistics
+     */
+    private static final class Riquadro<K> implements ObjDoubleConsumer<K> {
+        final long inizio;
+        final Map<K, DoubleSummaryStatistics> aggregati = new HashMap<>();
+
+        Riquadro(long inizio) {
+            this.inizio = inizio;
+        }
+
+        @Override
+        public void accept(K chiave, double valore) {
+            aggregati.computeIfAbsent(chiave, k -> new DoubleSummaryStatistics()).accept(valore);
+        }
+    }
+
+    private static final class WindowStage<T, K> extends Stage<T, Finestra<K>> {
+        private final long durata;
+        private final long passo;
+        private final ToLongFunction<? super T> timestamp;
+        private final BiConsumer<? super T, ObjDoubleConsumer<K>> contributi;
+        // Riquadri ancora utili a qualche finestra aperta, il più recente in coda
+        private final ArrayDeque<Riquadro<K>> riquadri = new ArrayDeque<>();
+
+        WindowStage(Flow.Subscriber<? super Finestra<K>> valle, int buffer, long durata, long passo,
+                ToLongFunction<? super T> timestamp, BiConsumer<? super T, ObjDoubleConsumer<K>> contributi) {
+            super(valle, buffer);
+            this.durata = durata;
+            this.passo = passo;
+            this.timestamp = timestamp;
+            this.contributi = contributi;
+        }
+
+        @Override
+        void elabora(T elemento) {
+            long inizio = Math.floorDiv(timestamp.applyAsLong(elemento), passo) * passo;
+            Riquadro<K> corrente = riquadri.peekLast();
+            if (corrente == null || inizio > corrente.inizio) {
+                if (corrente != null) {
+                    chiudiFino(corrente.inizio, inizio);
+                }
+                corrente = new Riquadro<>(inizio);
+                riquadri.addLast(corrente);
+            } else if (inizio < corrente.inizio) {
+                // Evento in ritardo: le finestre che lo contenevano possono essere già uscite
+                return;
+            }
+            contributi.accept(elemento, corrente);
+        }
+
+        @Override
+        void fine() {
+            Riquadro<K> ultimo = riquadri.peekLast();
+            if (ultimo != null) {
+                chiudiFino(ultimo.inizio, Long.MAX_VALUE);
+                riquadri.clear();
+            }
+        }
+
+        /**
+         * Il riquadro corrente inizia a ultimo e il prossimo a prossimo: si chiudono
+         * le finestre che finiscono in (ultimo, prossimo] e contengono almeno
+         * il riquadro ultimo, poi si eliminano i riquadri che nessuna finestra futura usa
+         */
+        private void chiudiFino(long ultimo, long prossimo) {
+            for (long fine = ultimo + passo; fine <= prossimo && fine <= ultimo + durata; fine += passo) {
+                Map<K, DoubleSummaryStatistics> aggregati = combina(fine - durata, fine);
+                if (!aggregati.isEmpty()) {
+                    emetti(new Finestra<>(fine - durata, fine, aggregati));
+                }
+            }
+            long primoUtile = prossimo == Long.MAX_VALUE ? Long.MAX_VALUE : prossimo + passo - durata;
+            while (!riquadri.isEmpty() && riquadri.peekFirst().inizio < primoUtile) {
+                riquadri.pollFirst();
+            }
+        }
+
+        private Map<K, DoubleSummaryStatistics> combina(long inizio, long fine) {
+            Map<K, DoubleSummaryStatistics> risultato = new HashMap<>();
+            for (Riquadro<K> riquadro : riquadri) {
+                if (riquadro.inizio >= inizio && riquadro.inizio < fine) {
+                    riquadro.aggregati.forEach((chiave, stats) ->
+                        risultato.computeIfAbsent(chiave, k -> new DoubleSummaryStatistics()).combine(stats));
+                }
+            }
+            return risultato;
+        }
+    }
+
+    /**
+     * Sorgente su un Iterator: emette solo quanto richiesto, con lo stesso ciclo
+     * drain degli stadi per non ricorrere quando la request arriva da onNext
+     */
+    private static final class IteratorPublisher<T> implements Flow.Publisher<T> {
+        private final Iterator<? extends T> iteratore;
+        private final AtomicInteger sottoscrizioni = new AtomicInteger();
+
+        IteratorPublisher(Iterator<? extends T> iteratore) {
+            this.iteratore = iteratore;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            if (sottoscrizioni.getAndIncrement() > 0) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("sorgente già sottoscritta"));
+                return;
+            }
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private final AtomicLong domanda = new AtomicLong();
+                private final AtomicInteger wip = new AtomicInteger();
+                private volatile boolean cancellato;
+
+                @Override
+                public void request(long n) {
+                    if (n <= 0) {
+                        cancellato = true;
+                        subscriber.onError(new IllegalArgumentException("request deve essere positiva: " + n));
+                        return;
+                    }
+                    domanda.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    int mancati = 1;
+                    do {
+                        long emessi = 0;
+                        long richiesti = domanda.get();
+                        while (emessi != richiesti && !cancellato) {
+                            T elemento;
+                            try {
+                                if (!iteratore.hasNext()) {
+                                    cancellato = true;
+                                    subscriber.onComplete();
+                                    return;
+                                }
+                                elemento = iteratore.next();
+                            } catch (RuntimeException e) {
+                                cancellato = true;
+                                subscriber.onError(e);
+                                return;
+                            }
+                            subscriber.onNext(elemento);
+                            emessi++;
+                        }
+                        if (emessi > 0 && richiesti != Long.MAX_VALUE) {
+                            domanda.addAndGet(-emessi);
+                        }
+                        mancati = wip.addAndGet(-mancati);
+                    } while (mancati != 0);
+                }
+
+                @Override
+                public void cancel() {
+                    cancellato = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * Sink a micro-batch: chiede dimensioneBatch elementi alla volta
+     */
+    private static final class BatchSubscriber<T> implements Flow.Subscriber<T> {
+        private final Consumer<? super List<T>> consumer;
+        private final int dimensioneBatch;
+        private final CompletableFuture<Void> risultato = new CompletableFuture<>();
+        private List<T> batch;
+        private Flow.Subscription subscription;
+
+        BatchSubscriber(Consumer<? super List<T>> consumer, int dimensioneBatch) {
+            this.consumer = consumer;
+            this.dimensioneBatch = dimensioneBatch;
+            this.batch = new ArrayList<>(dimensioneBatch);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            // Future cancellato o completato dall'esterno: si smette di ricevere
+            risultato.whenComplete((v, e) -> subscription.cancel());
+            subscription.request(dimensioneBatch);
+        }
+
+        @Override
+        public void onNext(T elemento) {
+            if (risultato.isDone()) {
+                return;
+            }
+            batch.add(elemento);
+            if (batch.size() == dimensioneBatch && consegna()) {
+                subscription.request(dimensioneBatch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            risultato.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (!batch.isEmpty() && !consegna()) {
+                return;
+            }
+            risultato.complete(null);
+        }
+
+        private boolean consegna() {
+            List<T> pieno = batch;
+            batch = new ArrayList<>(dimensioneBatch);
+            try {
+                consumer.accept(pieno);
+                return true;
+            } catch (RuntimeException e) {
+                risultato.completeExceptionally(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * Insieme di int a indirizzamento aperto (linear probing) in un solo int[].
+ * Rispetto a HashSet<Integer> (una HashMap con un nodo e un Integer per elemento)
+ * occupa circa 8 byte per elemento invece di circa 50 e non crea oggetti per add/contains.
+ * Lo slot libero è indicato dal valore 0; lo 0 vero è tenuto a parte.
+ * Non è thread-safe.
+ */
+public final class IntHashSet {
+
+    private static final int CAPACITA_MINIMA = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 30;
+    private static final int LIBERO = 0;
+
+    private int[] elementi;
+    private int size;
+    private int maschera;
+    private boolean haZero;
+
+    public IntHashSet() {
+        this(CAPACITA_MINIMA);
+    }
+
+    /**
+     * Capacità attesa: fino a questo numero di elementi non serve rehash
+     */
+    public IntHashSet(int capacitaAttesa) {
+        int capacita = (int) Math.min(CAPACITA_MASSIMA,
+                Long.highestOneBit(Math.max(CAPACITA_MINIMA, capacitaAttesa * 2L - 1)) << 1);
+        elementi = new int[capacita];
+        maschera = capacita - 1;
+    }
+
+    public static IntHashSet of(int... valori) {
+        IntHashSet set = new IntHashSet(valori.length);
+        for (int valore : valori) {
+            set.add(valore);
+        }
+        return set;
+    }
+
+    private static int slot(int valore, int maschera) {
+        int h = valore * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maschera;
+    }
+
+    /**
+     * Aggiunge il valore; restituisce false se era già presente
+     */
+    public boolean add(int valore) {
+        if (valore == LIBERO) {
+            if (haZero) {
+                return false;
+            }
+            haZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(valore, maschera);
+        int e;
+        while ((e = elementi[i]) != LIBERO) {
+            if (e == valore) {
+                return false;
+            }
+            i = (i + 1) & maschera;
+        }
+        elementi[i] = valore;
+        if (++size * 2 > elementi.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(int valore) {
+        if (valore == LIBERO) {
+            return haZero;
+        }
+        int i = slot(valore, maschera);
+        int e;
+        while ((e = elementi[i]) != LIBERO) {
+            if (e == valore) {
+                return true;
+            }
+            i = (i + 1) & maschera;
+        }
+        return false;
+    }
+
+    /**
+     * Rimuove il valore con backward shift (vedi IntIntHashMap.remove)
+     */
+    public boolean remove(int valore) {
+        if (valore == LIBERO) {
+            if (!haZero) {
+                return false;
+            }
+            haZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(valore, maschera);
+        while (elementi[i] != valore) {
+            if (elementi[i] == LIBERO) {
+                return false;
+            }
+            i = (i + 1) & maschera;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & maschera;
+            int e = elementi[j];
+            if (e == LIBERO) {
+                break;
+            }
+            if (((j - slot(e, maschera)) & maschera) >= ((j - i) & maschera)) {
+                elementi[i] = e;
+                i = j;
+            }
+        }
+        elementi[i] = LIBERO;
+        size--;
+        return true;
+    }
+
+    private void rehash() {
+        int[] vecchi = elementi;
+        elementi = new int[vecchi.length * 2];
+        maschera = elementi.length - 1;
+        for (int e : vecchi) {
+            if (e != LIBERO) {
+                int i = slot(e, maschera);
+                while (elementi[i] != LIBERO) {
+                    i = (i + 1) & maschera;
+                }
+                elementi[i] = e;
+            }
+        }
+    }
+
+    // ==================== OPERAZIONI INSIEMISTICHE ====================
+
+    /**
+     * Unione: aggiunge tutti gli elementi di altro
+     */
+    public IntHashSet addAll(IntHashSet altro) {
+        altro.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Intersezione: tiene solo gli elementi presenti anche in altro
+     */
+    public IntHashSet retainAll(IntHashSet altro) {
+        return filtra(altro, true);
+    }
+
+    /**
+     * Differenza: toglie gli elementi presenti in altro
+     */
+    public IntHashSet removeAll(IntHashSet altro) {
+        return filtra(altro, false);
+    }
+
+    /**
+     * Ricostruisce la tabella con gli elementi da tenere: più semplice e veloce
+     * di tante rimozioni con backward shift
+     */
+    private IntHashSet filtra(IntHashSet altro, boolean presenti) {
+        if (altro == this) {
+            // Il ciclo sotto interroga altro mentre svuota elementi: con se stesso
+            // retainAll svuoterebbe l'insieme e removeAll non toglierebbe nulla
+            if (!presenti) {
+                clear();
+            }
+            return this;
+        }
+        int[] vecchi = elementi;
+        boolean vecchioZero = haZero;
+        elementi = new int[vecchi.length];
+        size = 0;
+        haZero = false;
+        if (vecchioZero && altro.contains(0) == presenti) {
+            add(0);
+        }
+        for (int e : vecchi) {
+            if (e != LIBERO && altro.contains(e) == presenti) {
+                add(e);
+            }
+        }
+        return this;
+    }
+
+    public void forEach(IntConsumer azione) {
+        if (haZero) {
+            azione.accept(0);
+        }
+        for (int e : elementi) {
+            if (e != LIBERO) {
+                azione.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Elementi in ordine non specificato
+     */
+    public int[] toArray() {
+        int[] risultato = new int[size];
+        int n = 0;
+        if (haZero) {
+            risultato[n++] = 0;
+        }
+        for (int e : elementi) {
+            if (e != LIBERO) {
+                risultato[n++] = e;
+            }
+        }
+        return risultato;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(elementi, LIBERO);
+        haZero = false;
+        size = 0;
+    }
+
+    /**
+     * Elementi in ordine crescente, per un output leggibile
+     */
+    @Override
+    public String toString() {
+        int[] ordinati = toArray();
+        Arrays.sort(ordinati);
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int e : ordinati) {
+            joiner.add(Integer.toString(e));
+        }
+        return joiner.toString();
+    }
+}
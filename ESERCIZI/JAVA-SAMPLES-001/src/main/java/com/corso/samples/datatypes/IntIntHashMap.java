@@ -0,0 +1,246 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Mappa int -> int a indirizzamento aperto (linear probing):
+ * chiavi e valori in due int[] paralleli.
+ * Rispetto a HashMap<Integer, Integer>:
+ * - nessun nodo Entry e nessun Integer per chiave o valore
+ * - circa 16 byte per voce (fattore di carico 0.5) invece di circa 50
+ * - addTo somma sul posto: è il contatore tipico (es. istogrammi per valore)
+ * Lo slot libero è indicato dalla chiave 0; la chiave 0 vera è tenuta a parte.
+ * La rimozione sposta indietro le voci successive (backward shift), senza
+ * lasciare marcatori di slot cancellati. Non è thread-safe.
+ */
+public final class IntIntHashMap {
+
+    private static final int CAPACITA_MINIMA = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 30;
+    private static final int LIBERO = 0;
+
+    private int[] chiavi;
+    private int[] valori;
+    private int size;
+    private int maschera;
+    private boolean haZero;
+    private int valoreZero;
+
+    /**
+     * Consumer di una coppia chiave-valore primitiva
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int chiave, int valore);
+    }
+
+    public IntIntHashMap() {
+        this(CAPACITA_MINIMA);
+    }
+
+    /**
+     * Capacità attesa: fino a questo numero di chiavi non serve rehash
+     */
+    public IntIntHashMap(int capacitaAttesa) {
+        // Fattore di carico massimo 0.5: con linear probing le sequenze restano corte
+        // In long: capacitaAttesa * 2 andrebbe in overflow oltre 2^30 elementi
+        int capacita = (int) Math.min(CAPACITA_MASSIMA,
+                Long.highestOneBit(Math.max(CAPACITA_MINIMA, capacitaAttesa * 2L - 1)) << 1);
+        chiavi = new int[capacita];
+        valori = new int[capacita];
+        maschera = capacita - 1;
+    }
+
+    private static int slot(int chiave, int maschera) {
+        int h = chiave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maschera;
+    }
+
+    /**
+     * Indice della chiave (diversa da 0), o -1 se assente
+     */
+    private int indice(int chiave) {
+        int i = slot(chiave, maschera);
+        int k;
+        while ((k = chiavi[i]) != LIBERO) {
+            if (k == chiave) {
+                return i;
+            }
+            i = (i + 1) & maschera;
+        }
+        return -1;
+    }
+
+    public int getOrDefault(int chiave, int predefinito) {
+        if (chiave == LIBERO) {
+            return haZero ? valoreZero : predefinito;
+        }
+        int i = indice(chiave);
+        return i >= 0 ? valori[i] : predefinito;
+    }
+
+    public boolean containsKey(int chiave) {
+        return chiave == LIBERO ? haZero : indice(chiave) >= 0;
+    }
+
+    public void put(int chiave, int valore) {
+        if (chiave == LIBERO) {
+            if (!haZero) {
+                haZero = true;
+                size++;
+            }
+            valoreZero = valore;
+            return;
+        }
+        int i = slot(chiave, maschera);
+        int k;
+        while ((k = chiavi[i]) != LIBERO) {
+            if (k == chiave) {
+                valori[i] = valore;
+                return;
+            }
+            i = (i + 1) & maschera;
+        }
+        inserisci(i, chiave, valore);
+    }
+
+    /**
+     * Somma delta al valore della chiave (0 se assente) e restituisce il nuovo valore
+     */
+    public int addTo(int chiave, int delta) {
+        if (chiave == LIBERO) {
+            if (!haZero) {
+                haZero = true;
+                size++;
+            }
+            return valoreZero += delta;
+        }
+        int i = slot(chiave, maschera);
+        int k;
+        while ((k = chiavi[i]) != LIBERO) {
+            if (k == chiave) {
+                return valori[i] += delta;
+            }
+            i = (i + 1) & maschera;
+        }
+        inserisci(i, chiave, delta);
+        return delta;
+    }
+
+    private void inserisci(int i, int chiave, int valore) {
+        chiavi[i] = chiave;
+        valori[i] = valore;
+        if (++size * 2 > chiavi.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Rimuove la chiave; restituisce true se era presente
+     */
+    public boolean remove(int chiave) {
+        if (chiave == LIBERO) {
+            if (!haZero) {
+                return false;
+            }
+            haZero = false;
+            valoreZero = 0;
+            size--;
+            return true;
+        }
+        int i = indice(chiave);
+        if (i < 0) {
+            return false;
+        }
+        // Backward shift: le voci della stessa sequenza che potevano stare in i
+        // vengono spostate indietro, così la ricerca non si ferma su un buco
+        int j = i;
+        while (true) {
+            j = (j + 1) & maschera;
+            int k = chiavi[j];
+            if (k == LIBERO) {
+                break;
+            }
+            int ideale = slot(k, maschera);
+            if (((j - ideale) & maschera) >= ((j - i) & maschera)) {
+                chiavi[i] = k;
+                valori[i] = valori[j];
+                i = j;
+            }
+        }
+        chiavi[i] = LIBERO;
+        valori[i] = 0;
+        size--;
+        return true;
+    }
+
+    private void rehash() {
+        int[] vecchieChiavi = chiavi;
+        int[] vecchiValori = valori;
+        chiavi = new int[vecchieChiavi.length * 2];
+        valori = new int[vecchieChiavi.length * 2];
+        maschera = chiavi.length - 1;
+        for (int j = 0; j < vecchieChiavi.length; j++) {
+            int k = vecchieChiavi[j];
+            if (k != LIBERO) {
+                int i = slot(k, maschera);
+                while (chiavi[i] != LIBERO) {
+                    i = (i + 1) & maschera;
+                }
+                chiavi[i] = k;
+                valori[i] = vecchiValori[j];
+            }
+        }
+    }
+
+    public void forEach(IntIntConsumer azione) {
+        if (haZero) {
+            azione.accept(0, valoreZero);
+        }
+        for (int i = 0; i < chiavi.length; i++) {
+            if (chiavi[i] != LIBERO) {
+                azione.accept(chiavi[i], valori[i]);
+            }
+        }
+    }
+
+    /**
+     * Chiavi in ordine non specificato
+     */
+    public int[] keys() {
+        int[] risultato = new int[size];
+        int n = 0;
+        if (haZero) {
+            risultato[n++] = 0;
+        }
+        for (int k : chiavi) {
+            if (k != LIBERO) {
+                risultato[n++] = k;
+            }
+        }
+        return risultato;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chiavi, LIBERO);
+        haZero = false;
+        valoreZero = 0;
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,363 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Matrice di int in un unico array row-major, al posto di int[][]:
+ * stessa organizzazione di Matrix (blocchi, fork-join per blocchi di righe),
+ * metà memoria di una Matrix di double.
+ * L'aritmetica è quella di int, con overflow silenzioso come nei cicli su
+ * int[][]; le somme per riga e colonna si accumulano in long.
+ */
+public final class IntMatrix {
+
+    private final int righe;
+    private final int colonne;
+    private final int[] dati;
+
+    public IntMatrix(int righe, int colonne) {
+        this(righe, colonne, new int[Matrix.dimensione(righe, colonne)]);
+    }
+
+    private IntMatrix(int righe, int colonne, int[] dati) {
+        this.righe = righe;
+        this.colonne = colonne;
+        this.dati = dati;
+    }
+
+    // ==================== CREAZIONE E CONVERSIONE ====================
+
+    /**
+     * Copia di un int[][] rettangolare
+     */
+    public static IntMatrix of(int[][] valori) {
+        int colonne = valori.length == 0 ? 0 : valori[0].length;
+        IntMatrix m = new IntMatrix(valori.length, colonne);
+        for (int r = 0; r < valori.length; r++) {
+            Matrix.controllaRiga(valori[r].length, colonne, r);
+            System.arraycopy(valori[r], 0, m.dati, r * colonne, colonne);
+        }
+        return m;
+    }
+
+    /**
+     * Usa l'array row-major senza copiarlo
+     */
+    public static IntMatrix wrap(int righe, int colonne, int[] dati) {
+        if (dati.length != Matrix.dimensione(righe, colonne)) {
+            throw new IllegalArgumentException("Attesi " + righe * colonne + " elementi, trovati " + dati.length);
+        }
+        return new IntMatrix(righe, colonne, dati);
+    }
+
+    public static IntMatrix identity(int n) {
+        IntMatrix m = new IntMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            m.dati[i * n + i] = 1;
+        }
+        return m;
+    }
+
+    public int[][] toIntArray() {
+        int[][] risultato = new int[righe][];
+        for (int r = 0; r < righe; r++) {
+            risultato[r] = Arrays.copyOfRange(dati, r * colonne, (r + 1) * colonne);
+        }
+        return risultato;
+    }
+
+    /**
+     * Copia dell'array row-major
+     */
+    public int[] toArray() {
+        return dati.clone();
+    }
+
+    public Matrix toMatrix() {
+        double[] valori = new double[dati.length];
+        for (int i = 0; i < dati.length; i++) {
+            valori[i] = dati[i];
+        }
+        return Matrix.wrap(righe, colonne, valori);
+    }
+
+    // ==================== ACCESSO ====================
+
+    public int rows() {
+        return righe;
+    }
+
+    public int cols() {
+        return colonne;
+    }
+
+    public int get(int riga, int colonna) {
+        return dati[indice(riga, colonna)];
+    }
+
+    public void set(int riga, int colonna, int valore) {
+        dati[indice(riga, colonna)] = valore;
+    }
+
+    private int indice(int riga, int colonna) {
+        if (riga < 0 || riga >= righe || colonna < 0 || colonna >= colonne) {
+            throw new IndexOutOfBoundsException("(" + riga + ", " + colonna + ") fuori da " + righe + "x" + colonne);
+        }
+        return riga * colonne + colonna;
+    }
+
+    public int[] row(int riga) {
+        Objects.checkIndex(riga, righe);
+        return Arrays.copyOfRange(dati, riga * colonne, (riga + 1) * colonne);
+    }
+
+    public int[] column(int colonna) {
+        Objects.checkIndex(colonna, colonne);
+        int[] risultato = new int[righe];
+        for (int r = 0; r < righe; r++) {
+            risultato[r] = dati[r * colonne + colonna];
+        }
+        return risultato;
+    }
+
+    // ==================== PRODOTTO E TRASPOSTA ====================
+
+    /**
+     * Prodotto righe per colonne, a blocchi come Matrix.multiply
+     */
+    public IntMatrix multiply(IntMatrix altra) {
+        if (colonne != altra.righe) {
+            throw new IllegalArgumentException("Dimensioni incompatibili: " + righe + "x" + colonne
+                + " * " + altra.righe + "x" + altra.colonne);
+        }
+        IntMatrix risultato = new IntMatrix(righe, altra.colonne);
+        long costoRiga = (long) colonne * altra.colonne;
+        Matrix.perBlocchiDiRighe(righe, costoRiga, Matrix.BLOCCO, (da, a) -> moltiplica(this, altra, risultato, da, a));
+        return risultato;
+    }
+
+    private static void moltiplica(IntMatrix sinistra, IntMatrix destra, IntMatrix risultato, int da, int a) {
+        int[] x = sinistra.dati;
+        int[] y = destra.dati;
+        int[] z = risultato.dati;
+        int n = sinistra.colonne;
+        int m = destra.colonne;
+        int larghezza = Math.min(Matrix.BLOCCO_COLONNE, m);
+        // Blocco di C e pannello di B in array per riga, usati a offset 0
+        int[][] blocco = new int[Matrix.BLOCCO][larghezza];
+        int[][] pannello = new int[Matrix.BLOCCO][larghezza];
+        for (int ii = da; ii < a; ii += Matrix.BLOCCO) {
+            int iFine = Math.min(ii + Matrix.BLOCCO, a);
+            for (int jj = 0; jj < m; jj += Matrix.BLOCCO_COLONNE) {
+                int colonneBlocco = Math.min(jj + Matrix.BLOCCO_COLONNE, m) - jj;
+                for (int i = ii; i < iFine; i++) {
+                    Arrays.fill(blocco[i - ii], 0, colonneBlocco, 0);
+                }
+                for (int kk = 0; kk < n; kk += Matrix.BLOCCO) {
+                    int kFine = Math.min(kk + Matrix.BLOCCO, n);
+                    for (int k = kk; k < kFine; k++) {
+                        System.arraycopy(y, k * m + jj, pannello[k - kk], 0, colonneBlocco);
+                    }
+                    for (int i = ii; i < iFine; i++) {
+                        int[] rigaC = blocco[i - ii];
+                        int baseX = i * n;
+                        for (int k = kk; k < kFine; k++) {
+                            int xik = x[baseX + k];
+                            int[] rigaB = pannello[k - kk];
+                            for (int j = 0; j < colonneBlocco; j++) {
+                                rigaC[j] += xik * rigaB[j];
+                            }
+                        }
+                    }
+                }
+                for (int i = ii; i < iFine; i++) {
+                    System.arraycopy(blocco[i - ii], 0, z, i * m + jj, colonneBlocco);
+                }
+            }
+        }
+    }
+
+    public IntMatrix transpose() {
+        IntMatrix risultato = new IntMatrix(colonne, righe);
+        Matrix.perBlocchiDiRighe(colonne, righe, (da, a) -> {
+            for (int cc = da; cc < a; cc += Matrix.BLOCCO) {
+                int cFine = Math.min(cc + Matrix.BLOCCO, a);
+                for (int rr = 0; rr < righe; rr += Matrix.BLOCCO) {
+                    int rFine = Math.min(rr + Matrix.BLOCCO, righe);
+                    for (int c = cc; c < cFine; c++) {
+                        int base = c * righe;
+                        for (int r = rr; r < rFine; r++) {
+                            risultato.dati[base + r] = dati[r * colonne + c];
+                        }
+                    }
+                }
+            }
+        });
+        return risultato;
+    }
+
+    // ==================== RIDUZIONI ====================
+
+    public long[] rowSums() {
+        long[] somme = new long[righe];
+        Matrix.perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                long s = 0;
+                int base = r * colonne;
+                for (int c = 0; c < colonne; c++) {
+                    s += dati[base + c];
+                }
+                somme[r] = s;
+            }
+        });
+        return somme;
+    }
+
+    public long[] colSums() {
+        long[] somme = new long[colonne];
+        for (int r = 0; r < righe; r++) {
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                somme[c] += dati[base + c];
+            }
+        }
+        return somme;
+    }
+
+    /**
+     * @throws IllegalArgumentException se la matrice non ha colonne
+     */
+    public int[] rowMax() {
+        Matrix.nonVuota(colonne);
+        int[] massimi = new int[righe];
+        Matrix.perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                int base = r * colonne;
+                int max = dati[base];
+                for (int c = 1; c < colonne; c++) {
+                    max = Math.max(max, dati[base + c]);
+                }
+                massimi[r] = max;
+            }
+        });
+        return massimi;
+    }
+
+    public int[] colMax() {
+        Matrix.nonVuota(righe);
+        int[] massimi = Arrays.copyOf(dati, colonne);
+        for (int r = 1; r < righe; r++) {
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                massimi[c] = Math.max(massimi[c], dati[base + c]);
+            }
+        }
+        return massimi;
+    }
+
+    /**
+     * Colonna del primo massimo di ogni riga
+     */
+    public int[] rowArgMax() {
+        Matrix.nonVuota(colonne);
+        int[] indici = new int[righe];
+        Matrix.perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                int base = r * colonne;
+                int migliore = 0;
+                for (int c = 1; c < colonne; c++) {
+                    if (dati[base + c] > dati[base + migliore]) {
+                        migliore = c;
+                    }
+                }
+                indici[r] = migliore;
+            }
+        });
+        return indici;
+    }
+
+    public long sum() {
+        long s = 0;
+        for (long v : rowSums()) {
+            s += v;
+        }
+        return s;
+    }
+
+    // ==================== OPERAZIONI ELEMENTO PER ELEMENTO ====================
+
+    public IntMatrix add(IntMatrix altra) {
+        return combine(altra, Integer::sum);
+    }
+
+    public IntMatrix subtract(IntMatrix altra) {
+        return combine(altra, (a, b) -> a - b);
+    }
+
+    /**
+     * Prodotto elemento per elemento (di Hadamard), non righe per colonne
+     */
+    public IntMatrix multiplyElements(IntMatrix altra) {
+        return combine(altra, (a, b) -> a * b);
+    }
+
+    public IntMatrix scale(int fattore) {
+        return map(v -> v * fattore);
+    }
+
+    public IntMatrix map(IntUnaryOperator funzione) {
+        int[] risultato = new int[dati.length];
+        Matrix.perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int i = da * colonne, fine = a * colonne; i < fine; i++) {
+                risultato[i] = funzione.applyAsInt(dati[i]);
+            }
+        });
+        return new IntMatrix(righe, colonne, risultato);
+    }
+
+    public IntMatrix combine(IntMatrix altra, IntBinaryOperator funzione) {
+        if (righe != altra.righe || colonne != altra.colonne) {
+            throw new IllegalArgumentException("Dimensioni diverse: " + righe + "x" + colonne
+                + " e " + altra.righe + "x" + altra.colonne);
+        }
+        int[] risultato = new int[dati.length];
+        Matrix.perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int i = da * colonne, fine = a * colonne; i < fine; i++) {
+                risultato[i] = funzione.applyAsInt(dati[i], altra.dati[i]);
+            }
+        });
+        return new IntMatrix(righe, colonne, risultato);
+    }
+
+    // ==================== OBJECT ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntMatrix altra)) {
+            return false;
+        }
+        return righe == altra.righe && colonne == altra.colonne && Arrays.equals(dati, altra.dati);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * righe + colonne) + Arrays.hashCode(dati);
+    }
+
+    /**
+     * Contenuto per matrici piccole (come Arrays.deepToString), solo le dimensioni oltre 100 elementi
+     */
+    @Override
+    public String toString() {
+        if (dati.length > 100) {
+            return "IntMatrix[" + righe + "x" + colonne + "]";
+        }
+        return Arrays.deepToString(toIntArray());
+    }
+}
@@ -0,0 +1,384 @@
+package com.corso.samples.datatypes;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Algoritmi di Sorter sulle coppie (keys[i], idx[i]).
+ * Ordine: prima la chiave, a parità di chiave l'indice originale. Gli indici
+ * sono tutti distinti, quindi l'ordine è totale e il risultato è lo stesso
+ * (stabile) qualunque sia l'algoritmo.
+ * Il ciclo di confronto lavora solo su long[] e int[]: niente getter,
+ * niente boxing, niente chiamate virtuali.
+ */
+final class KeyIndexSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private KeyIndexSort() {
+    }
+
+    static void sort(long[] keys, int[] idx, Sorter.Algoritmo algoritmo) {
+        int n = keys.length;
+        switch (algoritmo) {
+            case MERGE:
+                mergeSort(keys, idx, new long[n], new int[n], 0, n);
+                break;
+            case TIM:
+                timSort(keys, idx);
+                break;
+            case HEAP:
+                heapSort(keys, idx, 0, n);
+                break;
+            case QUICK:
+            case QUICK_MEDIAN_OF_THREE:
+            case QUICK_RANDOMIZED:
+                quickSort(keys, idx, 0, n - 1, algoritmo, limiteProfondita(n));
+                break;
+            case QUICK_3WAY:
+                quickSort3Way(keys, idx, 0, n - 1, limiteProfondita(n));
+                break;
+            default:
+                throw new IllegalArgumentException("Algoritmo non supportato: " + algoritmo);
+        }
+    }
+
+    private static boolean less(long[] keys, int[] idx, int i, int j) {
+        return keys[i] < keys[j] || (keys[i] == keys[j] && idx[i] < idx[j]);
+    }
+
+    private static void swap(long[] keys, int[] idx, int i, int j) {
+        long k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int x = idx[i];
+        idx[i] = idx[j];
+        idx[j] = x;
+    }
+
+    private static void insertionSort(long[] keys, int[] idx, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            long k = keys[i];
+            int x = idx[i];
+            int j = i - 1;
+            while (j >= low && (keys[j] > k || (keys[j] == k && idx[j] > x))) {
+                keys[j + 1] = keys[j];
+                idx[j + 1] = idx[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            idx[j + 1] = x;
+        }
+    }
+
+    // ==================== MERGE SORT ====================
+
+    /**
+     * Merge Sort top-down su [low, high) con buffer allocati una volta sola
+     */
+    private static void mergeSort(long[] keys, int[] idx, long[] tmpKeys, int[] tmpIdx, int low, int high) {
+        if (high - low <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, idx, low, high);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSort(keys, idx, tmpKeys, tmpIdx, low, mid);
+        mergeSort(keys, idx, tmpKeys, tmpIdx, mid, high);
+
+        // Metà già in ordine: niente merge
+        if (less(keys, idx, mid - 1, mid)) {
+            return;
+        }
+        merge(keys, idx, tmpKeys, tmpIdx, low, mid, high);
+    }
+
+    /**
+     * Fonde [low, mid) e [mid, high) copiando solo la metà sinistra nel buffer
+     */
+    private static void merge(long[] keys, int[] idx, long[] tmpKeys, int[] tmpIdx, int low, int mid, int high) {
+        int n1 = mid - low;
+        System.arraycopy(keys, low, tmpKeys, 0, n1);
+        System.arraycopy(idx, low, tmpIdx, 0, n1);
+
+        int i = 0;
+        int j = mid;
+        int k = low;
+        while (i < n1 && j < high) {
+            if (keys[j] < tmpKeys[i] || (keys[j] == tmpKeys[i] && idx[j] < tmpIdx[i])) {
+                keys[k] = keys[j];
+                idx[k++] = idx[j++];
+            } else {
+                keys[k] = tmpKeys[i];
+                idx[k++] = tmpIdx[i++];
+            }
+        }
+        System.arraycopy(tmpKeys, i, keys, k, n1 - i);
+        System.arraycopy(tmpIdx, i, idx, k, n1 - i);
+    }
+
+    // ==================== TIM SORT ====================
+
+    /**
+     * Tim Sort semplificato: individua le run naturali (invertendo quelle
+     * decrescenti), allunga quelle corte fino a minRun con Insertion Sort
+     * e le fonde mantenendo gli invarianti dello stack di TimSort.
+     */
+    private static void timSort(long[] keys, int[] idx) {
+        int n = keys.length;
+        int minRun = minRunLength(n);
+        long[] tmpKeys = new long[n / 2 + 1];
+        int[] tmpIdx = new int[n / 2 + 1];
+        int[] runBase = new int[49];
+        int[] runLen = new int[49];
+        int stackSize = 0;
+
+        int low = 0;
+        while (low < n) {
+            int runEnd = low + 1;
+            if (runEnd < n) {
+                if (less(keys, idx, runEnd, low)) {
+                    while (runEnd < n && less(keys, idx, runEnd, runEnd - 1)) {
+                        runEnd++;
+                    }
+                    reverse(keys, idx, low, runEnd - 1);
+                } else {
+                    while (runEnd < n && !less(keys, idx, runEnd, runEnd - 1)) {
+                        runEnd++;
+                    }
+                }
+            }
+
+            if (runEnd - low < minRun) {
+                int forced = Math.min(n, low + minRun);
+                insertionSort(keys, idx, low, forced);
+                runEnd = forced;
+            }
+
+            runBase[stackSize] = low;
+            runLen[stackSize] = runEnd - low;
+            stackSize++;
+            stackSize = mergeCollapse(keys, idx, tmpKeys, tmpIdx, runBase, runLen, stackSize, false);
+
+            low = runEnd;
+        }
+        mergeCollapse(keys, idx, tmpKeys, tmpIdx, runBase, runLen, stackSize, true);
+    }
+
+    private static int mergeCollapse(long[] keys, int[] idx, long[] tmpKeys, int[] tmpIdx,
+                                     int[] runBase, int[] runLen, int stackSize, boolean forza) {
+        while (stackSize > 1) {
+            int m = stackSize - 2;
+            if (!forza) {
+                boolean violaA = m > 0 && runLen[m - 1] <= runLen[m] + runLen[m + 1];
+                boolean violaB = m > 1 && runLen[m - 2] <= runLen[m - 1] + runLen[m];
+                if (violaA || violaB) {
+                    if (runLen[m - 1] < runLen[m + 1]) {
+                        m--;
+                    }
+                } else if (runLen[m] > runLen[m + 1]) {
+                    break;
+                }
+            } else if (m > 0 && runLen[m - 1] < runLen[m + 1]) {
+                m--;
+            }
+
+            int base = runBase[m];
+            int mid = base + runLen[m];
+            int high = mid + runLen[m + 1];
+            // Se le due run sono già in ordine non serve il merge
+            if (less(keys, idx, mid, mid - 1)) {
+                if (mid - base <= high - mid) {
+                    merge(keys, idx, tmpKeys, tmpIdx, base, mid, high);
+                } else {
+                    mergeHigh(keys, idx, tmpKeys, tmpIdx, base, mid, high);
+                }
+            }
+
+            runLen[m] += runLen[m + 1];
+            for (int r = m + 1; r < stackSize - 1; r++) {
+                runBase[r] = runBase[r + 1];
+                runLen[r] = runLen[r + 1];
+            }
+            stackSize--;
+        }
+        return stackSize;
+    }
+
+    /**
+     * Come merge, ma copia nel buffer la metà destra (più corta) e fonde da destra
+     */
+    private static void mergeHigh(long[] keys, int[] idx, long[] tmpKeys, int[] tmpIdx, int low, int mid, int high) {
+        int n2 = high - mid;
+        System.arraycopy(keys, mid, tmpKeys, 0, n2);
+        System.arraycopy(idx, mid, tmpIdx, 0, n2);
+
+        int i = mid - 1;
+        int j = n2 - 1;
+        int k = high - 1;
+        while (i >= low && j >= 0) {
+            if (tmpKeys[j] < keys[i] || (tmpKeys[j] == keys[i] && tmpIdx[j] < idx[i])) {
+                keys[k] = keys[i];
+                idx[k--] = idx[i--];
+            } else {
+                keys[k] = tmpKeys[j];
+                idx[k--] = tmpIdx[j--];
+            }
+        }
+        System.arraycopy(tmpKeys, 0, keys, low, j + 1);
+        System.arraycopy(tmpIdx, 0, idx, low, j + 1);
+    }
+
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= 32) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private static void reverse(long[] keys, int[] idx, int low, int high) {
+        while (low < high) {
+            swap(keys, idx, low++, high--);
+        }
+    }
+
+    // ==================== HEAP SORT ====================
+
+    private static void heapSort(long[] keys, int[] idx, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, idx, low, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(keys, idx, low, low + i);
+            siftDown(keys, idx, low, i, 0);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] idx, int base, int n, int i) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < n && less(keys, idx, base + largest, base + left)) {
+                largest = left;
+            }
+            if (right < n && less(keys, idx, base + largest, base + right)) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(keys, idx, base + i, base + largest);
+            i = largest;
+        }
+    }
+
+    // ==================== QUICK SORT ====================
+
+    /**
+     * Partizioni consentite prima del fallback su Heap Sort, come in Introsort: 2 * log2(n).
+     * Con input già ordinato il pivot ultimo sbilancia ogni partizione e
+     * senza limite il tempo degenera in O(n²)
+     */
+    static int limiteProfondita(int n) {
+        return 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(n));
+    }
+
+    /**
+     * Le tre varianti 2-way di AlgoritmiOrdinamentoDemo (pivot ultimo,
+     * mediana di tre, casuale). Ricorsione sulla parte più piccola e
+     * iterazione sulla più grande: lo stack resta O(log n); oltre
+     * limiteProfondita partizioni si passa a Heap Sort, quindi O(n log n).
+     */
+    private static void quickSort(long[] keys, int[] idx, int low, int high, Sorter.Algoritmo variante, int profondita) {
+        while (low < high) {
+            if (high - low < INSERTION_SORT_THRESHOLD) {
+                insertionSort(keys, idx, low, high + 1);
+                return;
+            }
+            if (--profondita < 0) {
+                heapSort(keys, idx, low, high + 1);
+                return;
+            }
+            scegliPivot(keys, idx, low, high, variante);
+            int p = partition(keys, idx, low, high);
+            if (p - low < high - p) {
+                quickSort(keys, idx, low, p - 1, variante, profondita);
+                low = p + 1;
+            } else {
+                quickSort(keys, idx, p + 1, high, variante, profondita);
+                high = p - 1;
+            }
+        }
+    }
+
+    /**
+     * Porta il pivot scelto dalla variante in posizione high
+     */
+    private static void scegliPivot(long[] keys, int[] idx, int low, int high, Sorter.Algoritmo variante) {
+        if (variante == Sorter.Algoritmo.QUICK_MEDIAN_OF_THREE) {
+            int mid = low + (high - low) / 2;
+            if (less(keys, idx, mid, low)) swap(keys, idx, low, mid);
+            if (less(keys, idx, high, low)) swap(keys, idx, low, high);
+            if (less(keys, idx, mid, high)) swap(keys, idx, mid, high);
+        } else if (variante == Sorter.Algoritmo.QUICK_RANDOMIZED) {
+            swap(keys, idx, low + ThreadLocalRandom.current().nextInt(high - low + 1), high);
+        }
+    }
+
+    private static int partition(long[] keys, int[] idx, int low, int high) {
+        long pivotKey = keys[high];
+        int pivotIdx = idx[high];
+        int i = low - 1;
+        for (int j = low; j < high; j++) {
+            if (keys[j] < pivotKey || (keys[j] == pivotKey && idx[j] < pivotIdx)) {
+                swap(keys, idx, ++i, j);
+            }
+        }
+        swap(keys, idx, i + 1, high);
+        return i + 1;
+    }
+
+    /**
+     * Quick Sort 3-way: raggruppa le chiavi uguali e le ordina tra loro per
+     * indice con Insertion Sort o ricorsione, poi prosegue sulle parti < e >.
+     */
+    private static void quickSort3Way(long[] keys, int[] idx, int low, int high, int profondita) {
+        while (low < high) {
+            if (high - low < INSERTION_SORT_THRESHOLD) {
+                insertionSort(keys, idx, low, high + 1);
+                return;
+            }
+            if (--profondita < 0) {
+                heapSort(keys, idx, low, high + 1);
+                return;
+            }
+            int lt = low;
+            int gt = high;
+            long pivot = keys[low + (high - low) / 2];
+            int i = low;
+            while (i <= gt) {
+                if (keys[i] < pivot) {
+                    swap(keys, idx, lt++, i++);
+                } else if (keys[i] > pivot) {
+                    swap(keys, idx, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            // Chiavi uguali: l'ordine finale è per indice
+            if (gt > lt) {
+                PatternDefeatingSort.sort(idx, lt, gt + 1);
+            }
+
+            if (lt - low < high - gt) {
+                quickSort3Way(keys, idx, low, lt - 1, profondita);
+                low = gt + 1;
+            } else {
+                quickSort3Way(keys, idx, gt + 1, high, profondita);
+                high = lt - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.corso.samples.datatypes;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Indice ordinato long -> long a B+tree, per le tabelle di lookup che ricevono
+ * molti inserimenti alternati a ricerche per intervallo.
+ * Rispetto a un ArrayList ordinato con Collections.binarySearch + add(indice, x):
+ * - inserimento e rimozione O(log n) invece di O(n) (lo spostamento degli elementi)
+ * Rispetto a TreeMap<Long, Long>:
+ * - chiavi e valori in long[] dentro nodi da ORDINE elementi: niente boxing,
+ *   un nodo per 128 voci invece di un Entry per voce, ricerca binaria in memoria contigua
+ * - le foglie sono collegate in entrambe le direzioni: le scansioni per intervallo
+ *   e floor/ceiling scorrono gli array delle foglie senza risalire l'albero
+ * La rimozione non ribilancia: le foglie possono restare sotto la metà, quelle
+ * vuote vengono staccate. L'altezza cresce solo con gli split, quindi resta O(log n)
+ * degli inserimenti fatti.
+ * salva()/carica() scrivono e rileggono le coppie ordinate in un file mappato in memoria.
+ * Non è thread-safe.
+ */
+public final class LongBPlusTree {
+
+    // Voci per foglia e figli per nodo interno: 128 long = 1 KB, pochi cache miss per nodo
+    static final int ORDINE = 128;
+    // Riempimento delle foglie nel caricamento ordinato: lascia spazio agli inserimenti successivi
+    private static final int RIEMPIMENTO = ORDINE * 3 / 4;
+    private static final long MAGIC = 0x4C4F4E4742505431L;
+    private static final int BYTE_PER_FINESTRA = 1 << 26;
+
+    /**
+     * Consumer di una coppia chiave-valore primitiva
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long chiave, long valore);
+    }
+
+    private abstract static class Nodo {
+        // Numero di chiavi; un nodo interno ha n + 1 figli
+        int n;
+    }
+
+    private static final class Foglia extends Nodo {
+        // Un posto in più: si inserisce e poi si divide
+        final long[] chiavi = new long[ORDINE + 1];
+        final long[] valori = new long[ORDINE + 1];
+        Foglia precedente;
+        Foglia successiva;
+    }
+
+    private static final class Interno extends Nodo {
+        // chiavi[i] è la chiave minima del sottoalbero figli[i + 1]
+        final long[] chiavi = new long[ORDINE];
+        final Nodo[] figli = new Nodo[ORDINE + 1];
+    }
+
+    private Nodo radice = new Foglia();
+    private int size;
+
+    // Risultati secondari della ricorsione di inserimento
+    private long separatore;
+    private boolean inserita;
+
+    // ==================== CARICAMENTO ORDINATO ====================
+
+    /**
+     * Costruisce l'albero dal basso in O(n) da chiavi strettamente crescenti,
+     * senza split: foglie piene per 3/4, poi i livelli interni sopra di esse
+     */
+    public static LongBPlusTree daOrdinati(long[] chiavi, long[] valori) {
+        if (chiavi.length != valori.length) {
+            throw new IllegalArgumentException("Lunghezze diverse: " + chiavi.length + ", " + valori.length);
+        }
+        for (int i = 1; i < chiavi.length; i++) {
+            if (chiavi[i - 1] >= chiavi[i]) {
+                throw new IllegalArgumentException("Chiavi non strettamente crescenti all'indice " + i);
+            }
+        }
+        LongBPlusTree albero = new LongBPlusTree();
+        if (chiavi.length == 0) {
+            return albero;
+        }
+        List<Nodo> livello = new ArrayList<>();
+        List<Long> minimi = new ArrayList<>();
+        Foglia precedente = null;
+        for (int da = 0; da < chiavi.length; da += RIEMPIMENTO) {
+            Foglia foglia = new Foglia();
+            foglia.n = Math.min(RIEMPIMENTO, chiavi.length - da);
+            System.arraycopy(chiavi, da, foglia.chiavi, 0, foglia.n);
+            System.arraycopy(valori, da, foglia.valori, 0, foglia.n);
+            foglia.precedente = precedente;
+            if (precedente != null) {
+                precedente.successiva = foglia;
+            }
+            precedente = foglia;
+            livello.add(foglia);
+            minimi.add(chiavi[da]);
+        }
+        while (livello.size() > 1) {
+            List<Nodo> superiore = new ArrayList<>();
+            List<Long> minimiSuperiori = new ArrayList<>();
+            for (int da = 0; da < livello.size(); da += RIEMPIMENTO) {
+                Interno interno = new Interno();
+                int figli = Math.min(RIEMPIMENTO, livello.size() - da);
+                for (int j = 0; j < figli; j++) {
+                    interno.figli[j] = livello.get(da + j);
+                    if (j > 0) {
+                        interno.chiavi[j - 1] = minimi.get(da + j);
+                    }
+                }
+                interno.n = figli - 1;
+                superiore.add(interno);
+                minimiSuperiori.add(minimi.get(da));
+            }
+            livello = superiore;
+            minimi = minimiSuperiori;
+        }
+        albero.radice = livello.get(0);
+        albero.size = chiavi.length;
+        return albero;
+    }
+
+    // ==================== RICERCA ====================
+
+    /**
+     * Primo indice con chiavi[i] >= k
+     */
+    private static int lowerBound(long[] chiavi, int n, long k) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chiavi[mid] < k) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Primo indice con chiavi[i] > k: nei nodi interni è il figlio da seguire
+     */
+    private static int upperBound(long[] chiavi, int n, long k) {
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chiavi[mid] <= k) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private Foglia foglia(long k) {
+        Nodo nodo = radice;
+        while (nodo instanceof Interno interno) {
+            nodo = interno.figli[upperBound(interno.chiavi, interno.n, k)];
+        }
+        return (Foglia) nodo;
+    }
+
+    public long get(long chiave, long predefinito) {
+        Foglia foglia = foglia(chiave);
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        return i < foglia.n && foglia.chiavi[i] == chiave ? foglia.valori[i] : predefinito;
+    }
+
+    public boolean containsKey(long chiave) {
+        Foglia foglia = foglia(chiave);
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        return i < foglia.n && foglia.chiavi[i] == chiave;
+    }
+
+    /**
+     * La chiave più grande <= chiave
+     */
+    public OptionalLong floorKey(long chiave) {
+        Foglia foglia = foglia(chiave);
+        int i = upperBound(foglia.chiavi, foglia.n, chiave) - 1;
+        if (i >= 0) {
+            return OptionalLong.of(foglia.chiavi[i]);
+        }
+        for (Foglia f = foglia.precedente; f != null; f = f.precedente) {
+            if (f.n > 0) {
+                return OptionalLong.of(f.chiavi[f.n - 1]);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * La chiave più piccola >= chiave
+     */
+    public OptionalLong ceilingKey(long chiave) {
+        Foglia foglia = foglia(chiave);
+        int i = lowerBound(foglia.chiavi, foglia.n, chiave);
+        if (i < foglia.n) {
+            return OptionalLong.of(foglia.chiavi[i]);
+        }
+        for (Foglia f = foglia.successiva; f != null; f = f.successiva) {
+            if (f.n > 0) {
+                return OptionalLong.of(f.chiavi[0]);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    public OptionalLong firstKey() {
+        return size == 0 ? OptionalLong.empty() : ceilingKey(Long.MIN_VALUE);
+    }
+
+    public OptionalLong lastKey() {
+        return size == 0 ? OptionalLong.empty() : floorKey(Long.MAX_VALUE);
+    }
+
+    /**
+     * Visita in ordine le voci con da <= chiave < a
+     */
+    public void forEachInRange(long da, long a, LongLongConsumer azione) {
+        if (da >= a) {
+            return;
+        }
+        Foglia foglia = foglia(da);
+        int i = lowerBound(foglia.chiavi, foglia.n, da);
+        for (; foglia != null; foglia = foglia.successiva, i = 0) {
+            for (; i < foglia.n; i++) {
+                if (foglia.chiavi[i] >= a) {
+                    return;
+                }
+                azione.accept(foglia.chiavi[i], foglia.valori[i]);
+            }
+        }
+    }
+
+    /**
+     * Numero di voci con da <= chiave < a: conta per foglia, senza visitare le voci
+     */
+    public int countInRange(long da, long a) {
+        if (da >= a) {
+            return 0;
+        }
+        Foglia foglia = foglia(da);
+        int i = lowerBound(foglia.chiavi, foglia.n, da);
+        int conteggio = 0;
+        for (; foglia != null; foglia = foglia.successiva, i = 0) {
+            if (foglia.n > 0 && foglia.chiavi[foglia.n - 1] >= a) {
+                return conteggio + lowerBound(foglia.chiavi, foglia.n, a) - i;
+            }
+            conteggio += foglia.n - i;
+        }
+        return conteggio;
+    }
+
+    public void forEach(LongLongConsumer azione) {
+        forEachInRange(Long.MIN_VALUE, Long.MAX_VALUE, azione);
+        if (containsKey(Long.MAX_VALUE)) {
+            azione.accept(Long.MAX_VALUE, get(Long.MAX_VALUE, 0));
+        }
+    }
+
+    // ==================== INSERIMENTO ====================
+
+    /**
+     * Inserisce o sostituisce; restituisce true se la chiave è nuova
+     */
+    public boolean put(long chiave, long valore) {
+        inserita = false;
+        Nodo destro = inserisci(radice, chiave, valore);
+        if (destro != null) {
+            Interno nuovaRadice = new Interno();
+            nuovaRadice.n = 1;
+            nuovaRadice.chiavi[0] = separatore;
+            nuovaRadice.figli[0] = radice;
+            nuovaRadice.figli[1] = destro;
+            radice = nuovaRadice;
+        }
+        if (inserita) {
+            size++;
+        }
+        return inserita;
+    }
+
+    /**
+     * Inserisce nel sottoalbero; se il nodo si divide restituisce il nuovo
+     * fratello destro e lascia in separatore la sua chiave minima
+     */
+    private Nodo inserisci(Nodo nodo, long k, long v) {
+        if (nodo instanceof Foglia foglia) {
+            int i = lowerBound(foglia.chiavi, foglia.n, k);
+            if (i < foglia.n && foglia.chiavi[i] == k) {
+                foglia.valori[i] = v;
+                return null;
+            }
+            System.arraycopy(foglia.chiavi, i, foglia.chiavi, i + 1, foglia.n - i);
+            System.arraycopy(foglia.valori, i, foglia.valori, i + 1, foglia.n - i);
+            foglia.chiavi[i] = k;
+            foglia.valori[i] = v;
+            foglia.n++;
+            inserita = true;
+            return foglia.n > ORDINE ? dividi(foglia) : null;
+        }
+        Interno interno = (Interno) nodo;
+        int c = upperBound(interno.chiavi, interno.n, k);
+        Nodo destro = inserisci(interno.figli[c], k, v);
+        if (destro == null) {
+            return null;
+        }
+        System.arraycopy(interno.chiavi, c, interno.chiavi, c + 1, interno.n - c);
+        System.arraycopy(interno.figli, c + 1, interno.figli, c + 2, interno.n - c);
+        interno.chiavi[c] = separatore;
+        interno.figli[c + 1] = destro;
+        interno.n++;
+        return interno.n == ORDINE ? dividi(interno) : null;
+    }
+
+    private Foglia dividi(Foglia foglia) {
+        Foglia destra = new Foglia();
+        int meta = foglia.n / 2;
+        destra.n = foglia.n - meta;
+        System.arraycopy(foglia.chiavi, meta, destra.chiavi, 0, destra.n);
+        System.arraycopy(foglia.valori, meta, destra.valori, 0, destra.n);
+        foglia.n = meta;
+        destra.successiva = foglia.successiva;
+        destra.precedente = foglia;
+        if (foglia.successiva != null) {
+            foglia.successiva.precedente = destra;
+        }
+        foglia.successiva = destra;
+        separatore = destra.chiavi[0];
+        return destra;
+    }
+
+    private Interno dividi(Interno interno) {
+        // La chiave centrale sale al padre e non resta in nessuna delle due metà
+        Interno destro = new Interno();
+        int meta = interno.n / 2;
+        separatore = interno.chiavi[meta];
+        destro.n = interno.n - meta - 1;
+        System.arraycopy(interno.chiavi, meta + 1, destro.chiavi, 0, destro.n);
+        System.arraycopy(interno.figli, meta + 1, destro.figli, 0, destro.n + 1);
+        Arrays.fill(interno.figli, meta + 1, interno.n + 1, null);
+        interno.n = meta;
+        return destro;
+    }
+
+    // ==================== RIMOZIONE ====================
+
+    /**
+     * Rimuove la chiave; restituisce true se era presente
+     */
+    public boolean remove(long chiave) {
+        int prima = size;
+        if (rimuovi(radice, chiave) && radice instanceof Interno) {
+            // Radice senza più figli: l'albero è vuoto
+            radice = new Foglia();
+        }
+        while (radice instanceof Interno interno && interno.n == 0) {
+            radice = interno.figli[0];
+        }
+        return size < prima;
+    }
+
+    /**
+     * Rimuove nel sottoalbero; restituisce true se il nodo è rimasto vuoto
+     * e va staccato dal padre
+     */
+    private boolean rimuovi(Nodo nodo, long k) {
+        if (nodo instanceof Foglia foglia) {
+            int i = lowerBound(foglia.chiavi, foglia.n, k);
+            if (i == foglia.n || foglia.chiavi[i] != k) {
+                return false;
+            }
+            System.arraycopy(foglia.chiavi, i + 1, foglia.chiavi, i, foglia.n - i - 1);
+            System.arraycopy(foglia.valori, i + 1, foglia.valori, i, foglia.n - i - 1);
+            foglia.n--;
+            size--;
+            if (foglia.n > 0) {
+                return false;
+            }
+            // Foglia vuota: si stacca dalla lista delle foglie
+            if (foglia.precedente != null) {
+                foglia.precedente.successiva = foglia.successiva;
+            }
+            if (foglia.successiva != null) {
+                foglia.successiva.precedente = foglia.precedente;
+            }
+            foglia.precedente = null;
+            foglia.successiva = null;
+            return true;
+        }
+        Interno interno = (Interno) nodo;
+        int c = upperBound(interno.chiavi, interno.n, k);
+        if (!rimuovi(interno.figli[c], k)) {
+            return false;
+        }
+        if (interno.n == 0) {
+            return true;
+        }
+        // Si toglie il figlio c e il separatore alla sua sinistra (o a destra se c == 0)
+        int chiave = c > 0 ? c - 1 : 0;
+        System.arraycopy(interno.chiavi, chiave + 1, interno.chiavi, chiave, interno.n - chiave - 1);
+        System.arraycopy(interno.figli, c + 1, interno.figli, c, interno.n - c);
+        interno.figli[interno.n] = null;
+        interno.n--;
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        radice = new Foglia();
+        size = 0;
+    }
+
+    /**
+     * Altezza dell'albero: 1 se la radice è una foglia
+     */
+    public int altezza() {
+        int altezza = 1;
+        for (Nodo nodo = radice; nodo instanceof Interno interno; nodo = interno.figli[0]) {
+            altezza++;
+        }
+        return altezza;
+    }
+
+    // ==================== PERSISTENZA ====================
+
+    /**
+     * Scrive le voci in ordine in un file mappato in memoria:
+     * intestazione (MAGIC, size) e poi le coppie chiave-valore, a finestre di 64 MB.
+     * force() alla fine di ogni finestra: al ritorno i dati sono sul disco.
+     */
+    public void salva(Path file) throws IOException {
+        try (FileChannel canale = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long byteTotali = 16 + 16L * size;
+            Foglia foglia = primaFoglia();
+            int i = 0;
+            for (long inizio = 0; inizio < byteTotali; inizio += BYTE_PER_FINESTRA) {
+                MappedByteBuffer finestra = canale.map(FileChannel.MapMode.READ_WRITE, inizio,
+                    Math.min(BYTE_PER_FINESTRA, byteTotali - inizio));
+                LongBuffer valori = finestra.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                if (inizio == 0) {
+                    valori.put(MAGIC).put(size);
+                }
+                while (valori.hasRemaining()) {
+                    while (i == foglia.n) {
+                        foglia = foglia.successiva;
+                        i = 0;
+                    }
+                    valori.put(foglia.chiavi[i]).put(foglia.valori[i]);
+                    i++;
+                }
+                finestra.force();
+            }
+        }
+    }
+
+    /**
+     * Rilegge un file scritto da salva() e ricostruisce l'albero con daOrdinati()
+     */
+    public static LongBPlusTree carica(Path file) throws IOException {
+        try (FileChannel canale = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (canale.size() < 16) {
+                throw new IOException("File troppo corto: " + file);
+            }
+            LongBuffer intestazione = canale.map(FileChannel.MapMode.READ_ONLY, 0, 16)
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            if (intestazione.get(0) != MAGIC) {
+                throw new IOException("Non è un indice LongBPlusTree: " + file);
+            }
+            long voci = intestazione.get(1);
+            if (voci < 0 || voci > Integer.MAX_VALUE || canale.size() != 16 + 16 * voci) {
+                throw new IOException("Dimensione non valida (" + voci + " voci, "
+                    + canale.size() + " byte): " + file);
+            }
+            long[] chiavi = new long[(int) voci];
+            long[] valori = new long[(int) voci];
+            int letti = 0;
+            for (long inizio = 16; inizio < canale.size(); inizio += BYTE_PER_FINESTRA) {
+                LongBuffer finestra = canale.map(FileChannel.MapMode.READ_ONLY, inizio,
+                        Math.min(BYTE_PER_FINESTRA, canale.size() - inizio))
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                while (finestra.hasRemaining()) {
+                    chiavi[letti] = finestra.get();
+                    valori[letti++] = finestra.get();
+                }
+            }
+            return daOrdinati(chiavi, valori);
+        }
+    }
+
+    private Foglia primaFoglia() {
+        Nodo nodo = radice;
+        while (nodo instanceof Interno interno) {
+            nodo = interno.figli[0];
+        }
+        return (Foglia) nodo;
+    }
+}
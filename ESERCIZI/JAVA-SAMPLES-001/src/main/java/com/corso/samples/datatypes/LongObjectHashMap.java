@@ -0,0 +1,205 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.LongFunction;
+
+/**
+ * Mappa long -> oggetto a indirizzamento aperto (linear probing):
+ * chiavi in un long[], valori in un Object[] parallelo.
+ * Rispetto a HashMap<Long, V> non servono né il nodo Entry né il Long boxed
+ * della chiave (es. indici per id numerico di ordini o clienti).
+ * Lo slot libero è quello con valore null, quindi i valori null non sono ammessi
+ * e qualsiasi long, 0 compreso, può essere una chiave. Non è thread-safe.
+ */
+public final class LongObjectHashMap<V> {
+
+    private static final int CAPACITA_MINIMA = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 30;
+
+    private long[] chiavi;
+    private Object[] valori;
+    private int size;
+    private int maschera;
+
+    /**
+     * Consumer di una coppia chiave long - valore
+     */
+    @FunctionalInterface
+    public interface LongObjConsumer<V> {
+        void accept(long chiave, V valore);
+    }
+
+    public LongObjectHashMap() {
+        this(CAPACITA_MINIMA);
+    }
+
+    /**
+     * Capacità attesa: fino a questo numero di chiavi non serve rehash
+     */
+    public LongObjectHashMap(int capacitaAttesa) {
+        int capacita = (int) Math.min(CAPACITA_MASSIMA,
+                Long.highestOneBit(Math.max(CAPACITA_MINIMA, capacitaAttesa * 2L - 1)) << 1);
+        chiavi = new long[capacita];
+        valori = new Object[capacita];
+        maschera = capacita - 1;
+    }
+
+    private static int slot(long chiave, int maschera) {
+        long h = chiave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & maschera;
+    }
+
+    private int indice(long chiave) {
+        int i = slot(chiave, maschera);
+        while (valori[i] != null) {
+            if (chiavi[i] == chiave) {
+                return i;
+            }
+            i = (i + 1) & maschera;
+        }
+        return -1;
+    }
+
+    /**
+     * Il valore della chiave, o null se assente
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long chiave) {
+        int i = indice(chiave);
+        return i >= 0 ? (V) valori[i] : null;
+    }
+
+    public V getOrDefault(long chiave, V predefinito) {
+        V valore = get(chiave);
+        return valore != null ? valore : predefinito;
+    }
+
+    public boolean containsKey(long chiave) {
+        return indice(chiave) >= 0;
+    }
+
+    /**
+     * Inserisce o sostituisce; restituisce il valore precedente o null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long chiave, V valore) {
+        Objects.requireNonNull(valore, "valore");
+        int i = slot(chiave, maschera);
+        while (valori[i] != null) {
+            if (chiavi[i] == chiave) {
+                V precedente = (V) valori[i];
+                valori[i] = valore;
+                return precedente;
+            }
+            i = (i + 1) & maschera;
+        }
+        inserisci(i, chiave, valore);
+        return null;
+    }
+
+    /**
+     * Il valore della chiave; se manca lo calcola, lo inserisce e lo restituisce.
+     * Se la funzione restituisce null non viene inserito nulla.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long chiave, LongFunction<? extends V> funzione) {
+        int i = slot(chiave, maschera);
+        while (valori[i] != null) {
+            if (chiavi[i] == chiave) {
+                return (V) valori[i];
+            }
+            i = (i + 1) & maschera;
+        }
+        V valore = funzione.apply(chiave);
+        if (valore != null) {
+            inserisci(i, chiave, valore);
+        }
+        return valore;
+    }
+
+    private void inserisci(int i, long chiave, Object valore) {
+        chiavi[i] = chiave;
+        valori[i] = valore;
+        if (++size * 2 > chiavi.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Rimuove la chiave con backward shift (vedi IntIntHashMap.remove);
+     * restituisce il valore rimosso o null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long chiave) {
+        int i = indice(chiave);
+        if (i < 0) {
+            return null;
+        }
+        V rimosso = (V) valori[i];
+        int j = i;
+        while (true) {
+            j = (j + 1) & maschera;
+            if (valori[j] == null) {
+                break;
+            }
+            if (((j - slot(chiavi[j], maschera)) & maschera) >= ((j - i) & maschera)) {
+                chiavi[i] = chiavi[j];
+                valori[i] = valori[j];
+                i = j;
+            }
+        }
+        chiavi[i] = 0;
+        valori[i] = null;
+        size--;
+        return rimosso;
+    }
+
+    private void rehash() {
+        long[] vecchieChiavi = chiavi;
+        Object[] vecchiValori = valori;
+        chiavi = new long[vecchieChiavi.length * 2];
+        valori = new Object[vecchieChiavi.length * 2];
+        maschera = chiavi.length - 1;
+        for (int j = 0; j < vecchieChiavi.length; j++) {
+            if (vecchiValori[j] != null) {
+                int i = slot(vecchieChiavi[j], maschera);
+                while (valori[i] != null) {
+                    i = (i + 1) & maschera;
+                }
+                chiavi[i] = vecchieChiavi[j];
+                valori[i] = vecchiValori[j];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(LongObjConsumer<? super V> azione) {
+        for (int i = 0; i < valori.length; i++) {
+            if (valori[i] != null) {
+                azione.accept(chiavi[i], (V) valori[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(valori, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Albero dei perdenti (loser tree) per il merge k-way.
+ * Ogni nodo interno ricorda il perdente della sfida tra i suoi sottoalberi,
+ * la radice tree[0] il vincitore assoluto. Quando il vincitore avanza alla
+ * sua testa successiva si rigioca solo il percorso foglia-radice:
+ * log2(k) confronti per elemento, contro i ~2 log2(k) di un heap binario.
+ */
+final class LoserTree {
+
+    /**
+     * Le k sorgenti da fondere, identificate da un indice
+     */
+    interface Sorgenti {
+        int numero();
+
+        boolean esaurita(int i);
+
+        /**
+         * True se la testa di a precede quella di b
+         */
+        boolean minore(int a, int b);
+    }
+
+    private final Sorgenti sorgenti;
+    private final int k;
+    private final int[] tree;
+
+    LoserTree(Sorgenti sorgenti) {
+        this.sorgenti = sorgenti;
+        this.k = sorgenti.numero();
+        this.tree = new int[Math.max(1, k)];
+        if (k > 0) {
+            tree[0] = costruisci(1);
+        }
+    }
+
+    /**
+     * Indice della sorgente con la testa minima, -1 se sono tutte esaurite
+     */
+    int vincitore() {
+        if (k == 0 || sorgenti.esaurita(tree[0])) {
+            return -1;
+        }
+        return tree[0];
+    }
+
+    /**
+     * Da chiamare dopo aver fatto avanzare la sorgente vincitrice
+     */
+    void aggiorna(int sorgente) {
+        int vincitore = sorgente;
+        for (int nodo = (sorgente + k) >>> 1; nodo >= 1; nodo >>>= 1) {
+            if (batte(tree[nodo], vincitore)) {
+                int perdente = vincitore;
+                vincitore = tree[nodo];
+                tree[nodo] = perdente;
+            }
+        }
+        tree[0] = vincitore;
+    }
+
+    /**
+     * Foglie in posizione k..2k-1, nodi interni 1..k-1: restituisce il vincitore del sottoalbero
+     */
+    private int costruisci(int nodo) {
+        if (nodo >= k) {
+            return nodo - k;
+        }
+        int sinistro = costruisci(2 * nodo);
+        int destro = costruisci(2 * nodo + 1);
+        if (batte(sinistro, destro)) {
+            tree[nodo] = destro;
+            return sinistro;
+        }
+        tree[nodo] = sinistro;
+        return destro;
+    }
+
+    private boolean batte(int a, int b) {
+        if (sorgenti.esaurita(b)) {
+            return true;
+        }
+        return !sorgenti.esaurita(a) && sorgenti.minore(a, b);
+    }
+}
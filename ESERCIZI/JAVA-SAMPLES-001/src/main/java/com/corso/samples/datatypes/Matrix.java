@@ -0,0 +1,515 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Matrice di double in un unico array row-major: l'elemento (r, c) sta in
+ * dati[r * colonne + c].
+ * Rispetto a double[][] (un oggetto array per riga, ognuno con la sua
+ * intestazione e un puntatore da seguire) i dati sono contigui: le righe si
+ * leggono in sequenza e il prefetch della CPU lavora al meglio.
+ * - multiply: a blocchi (tiling) in ordine i-k-j, con pannelli di B copiati
+ *   come nelle librerie BLAS, così il ciclo interno è vettorizzato e i dati
+ *   riusati restano in cache
+ * - transpose: a riquadri BLOCCO x BLOCCO, per non saltare una riga a ogni lettura
+ * - riduzioni per riga/colonna e operazioni elemento per elemento
+ * Le operazioni grandi si dividono in blocchi di righe con fork-join
+ * (ForkJoinPool.commonPool()); sotto SOGLIA operazioni, o con una sola CPU,
+ * restano sequenziali. Le matrici sono mutabili (set); le operazioni
+ * restituiscono sempre una matrice nuova.
+ */
+public final class Matrix {
+
+    // Righe dei blocchi di multiply e lato dei riquadri di transpose
+    static final int BLOCCO = 64;
+    // Colonne dei riquadri di multiply: riquadro di C e pannello di B da 256 KB l'uno, in cache L2
+    static final int BLOCCO_COLONNE = 512;
+    // Operazioni (moltiplicazioni, elementi) per task: sotto, il fork costa più del calcolo
+    static final long SOGLIA = 1 << 18;
+
+    private final int righe;
+    private final int colonne;
+    private final double[] dati;
+
+    public Matrix(int righe, int colonne) {
+        this(righe, colonne, new double[dimensione(righe, colonne)]);
+    }
+
+    private Matrix(int righe, int colonne, double[] dati) {
+        this.righe = righe;
+        this.colonne = colonne;
+        this.dati = dati;
+    }
+
+    static int dimensione(int righe, int colonne) {
+        if (righe < 0 || colonne < 0) {
+            throw new IllegalArgumentException("Dimensioni negative: " + righe + "x" + colonne);
+        }
+        long elementi = (long) righe * colonne;
+        if (elementi > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matrice troppo grande: " + righe + "x" + colonne);
+        }
+        return (int) elementi;
+    }
+
+    // ==================== CREAZIONE E CONVERSIONE ====================
+
+    /**
+     * Copia di un double[][] rettangolare
+     */
+    public static Matrix of(double[][] valori) {
+        int colonne = valori.length == 0 ? 0 : valori[0].length;
+        Matrix m = new Matrix(valori.length, colonne);
+        for (int r = 0; r < valori.length; r++) {
+            controllaRiga(valori[r].length, colonne, r);
+            System.arraycopy(valori[r], 0, m.dati, r * colonne, colonne);
+        }
+        return m;
+    }
+
+    /**
+     * Copia di un int[][] rettangolare (ogni int è rappresentato esattamente da un double)
+     */
+    public static Matrix of(int[][] valori) {
+        int colonne = valori.length == 0 ? 0 : valori[0].length;
+        Matrix m = new Matrix(valori.length, colonne);
+        for (int r = 0; r < valori.length; r++) {
+            controllaRiga(valori[r].length, colonne, r);
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                m.dati[base + c] = valori[r][c];
+            }
+        }
+        return m;
+    }
+
+    static void controllaRiga(int lunghezza, int colonne, int riga) {
+        if (lunghezza != colonne) {
+            throw new IllegalArgumentException("Riga " + riga + " di lunghezza " + lunghezza
+                + ", attese " + colonne + " colonne");
+        }
+    }
+
+    /**
+     * Usa l'array row-major senza copiarlo
+     */
+    public static Matrix wrap(int righe, int colonne, double[] dati) {
+        if (dati.length != dimensione(righe, colonne)) {
+            throw new IllegalArgumentException("Attesi " + righe * colonne + " elementi, trovati " + dati.length);
+        }
+        return new Matrix(righe, colonne, dati);
+    }
+
+    public static Matrix identity(int n) {
+        Matrix m = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            m.dati[i * n + i] = 1;
+        }
+        return m;
+    }
+
+    public double[][] toArray2D() {
+        double[][] risultato = new double[righe][];
+        for (int r = 0; r < righe; r++) {
+            risultato[r] = Arrays.copyOfRange(dati, r * colonne, (r + 1) * colonne);
+        }
+        return risultato;
+    }
+
+    /**
+     * Conversione a int[][] con arrotondamento (Math.round)
+     *
+     * @throws ArithmeticException se un valore non sta in un int
+     */
+    public int[][] toIntArray() {
+        int[][] risultato = new int[righe][colonne];
+        for (int r = 0; r < righe; r++) {
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                double v = dati[base + c];
+                if (Double.isNaN(v) || v >= Integer.MAX_VALUE + 0.5 || v < Integer.MIN_VALUE - 0.5) {
+                    throw new ArithmeticException("Valore fuori dal range di int in (" + r + ", " + c + "): " + v);
+                }
+                risultato[r][c] = (int) Math.round(v);
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Copia dell'array row-major
+     */
+    public double[] toArray() {
+        return dati.clone();
+    }
+
+    public IntMatrix toIntMatrix() {
+        return IntMatrix.of(toIntArray());
+    }
+
+    // ==================== ACCESSO ====================
+
+    public int rows() {
+        return righe;
+    }
+
+    public int cols() {
+        return colonne;
+    }
+
+    public double get(int riga, int colonna) {
+        return dati[indice(riga, colonna)];
+    }
+
+    public void set(int riga, int colonna, double valore) {
+        dati[indice(riga, colonna)] = valore;
+    }
+
+    private int indice(int riga, int colonna) {
+        if (riga < 0 || riga >= righe || colonna < 0 || colonna >= colonne) {
+            throw new IndexOutOfBoundsException("(" + riga + ", " + colonna + ") fuori da " + righe + "x" + colonne);
+        }
+        return riga * colonne + colonna;
+    }
+
+    public double[] row(int riga) {
+        Objects.checkIndex(riga, righe);
+        return Arrays.copyOfRange(dati, riga * colonne, (riga + 1) * colonne);
+    }
+
+    public double[] column(int colonna) {
+        Objects.checkIndex(colonna, colonne);
+        double[] risultato = new double[righe];
+        for (int r = 0; r < righe; r++) {
+            risultato[r] = dati[r * colonne + colonna];
+        }
+        return risultato;
+    }
+
+    // ==================== PRODOTTO E TRASPOSTA ====================
+
+    /**
+     * Prodotto righe per colonne this (n x k) * altra (k x m).
+     * Ogni task calcola un blocco di righe di C, a riquadri BLOCCO x BLOCCO_COLONNE:
+     * per ogni fetta di BLOCCO righe di B se ne copia la parte utile in un
+     * pannello (come fanno le librerie BLAS) e la si riusa, già in cache, per
+     * tutte le righe del riquadro. Il ciclo interno somma riga del pannello
+     * su riga del riquadro, entrambe a partire da 0: il JIT lo vettorizza
+     * (con offset diversi sullo stesso array piatto non lo farebbe).
+     */
+    public Matrix multiply(Matrix altra) {
+        if (colonne != altra.righe) {
+            throw new IllegalArgumentException("Dimensioni incompatibili: " + righe + "x" + colonne
+                + " * " + altra.righe + "x" + altra.colonne);
+        }
+        Matrix risultato = new Matrix(righe, altra.colonne);
+        long costoRiga = (long) colonne * altra.colonne;
+        perBlocchiDiRighe(righe, costoRiga, BLOCCO, (da, a) -> moltiplica(this, altra, risultato, da, a));
+        return risultato;
+    }
+
+    private static void moltiplica(Matrix sinistra, Matrix destra, Matrix risultato, int da, int a) {
+        double[] x = sinistra.dati;
+        double[] y = destra.dati;
+        double[] z = risultato.dati;
+        int n = sinistra.colonne;
+        int m = destra.colonne;
+        int larghezza = Math.min(BLOCCO_COLONNE, m);
+        // Blocco di C e pannello di B in array per riga, usati a offset 0
+        double[][] blocco = new double[BLOCCO][larghezza];
+        double[][] pannello = new double[BLOCCO][larghezza];
+        for (int ii = da; ii < a; ii += BLOCCO) {
+            int iFine = Math.min(ii + BLOCCO, a);
+            for (int jj = 0; jj < m; jj += BLOCCO_COLONNE) {
+                int colonneBlocco = Math.min(jj + BLOCCO_COLONNE, m) - jj;
+                for (int i = ii; i < iFine; i++) {
+                    Arrays.fill(blocco[i - ii], 0, colonneBlocco, 0);
+                }
+                for (int kk = 0; kk < n; kk += BLOCCO) {
+                    int kFine = Math.min(kk + BLOCCO, n);
+                    for (int k = kk; k < kFine; k++) {
+                        System.arraycopy(y, k * m + jj, pannello[k - kk], 0, colonneBlocco);
+                    }
+                    for (int i = ii; i < iFine; i++) {
+                        double[] rigaC = blocco[i - ii];
+                        int baseX = i * n;
+                        for (int k = kk; k < kFine; k++) {
+                            double xik = x[baseX + k];
+                            double[] rigaB = pannello[k - kk];
+                            for (int j = 0; j < colonneBlocco; j++) {
+                                rigaC[j] += xik * rigaB[j];
+                            }
+                        }
+                    }
+                }
+                for (int i = ii; i < iFine; i++) {
+                    System.arraycopy(blocco[i - ii], 0, z, i * m + jj, colonneBlocco);
+                }
+            }
+        }
+    }
+
+    public Matrix transpose() {
+        Matrix risultato = new Matrix(colonne, righe);
+        // Blocchi di righe della trasposta = blocchi di colonne dell'originale
+        perBlocchiDiRighe(colonne, righe, (da, a) -> trasponi(dati, righe, colonne, risultato.dati, da, a));
+        return risultato;
+    }
+
+    private static void trasponi(double[] sorgente, int righe, int colonne, double[] destinazione, int da, int a) {
+        for (int cc = da; cc < a; cc += BLOCCO) {
+            int cFine = Math.min(cc + BLOCCO, a);
+            for (int rr = 0; rr < righe; rr += BLOCCO) {
+                int rFine = Math.min(rr + BLOCCO, righe);
+                for (int c = cc; c < cFine; c++) {
+                    int base = c * righe;
+                    for (int r = rr; r < rFine; r++) {
+                        destinazione[base + r] = sorgente[r * colonne + c];
+                    }
+                }
+            }
+        }
+    }
+
+    // ==================== RIDUZIONI ====================
+
+    public double[] rowSums() {
+        double[] somme = new double[righe];
+        perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                double s = 0;
+                int base = r * colonne;
+                for (int c = 0; c < colonne; c++) {
+                    s += dati[base + c];
+                }
+                somme[r] = s;
+            }
+        });
+        return somme;
+    }
+
+    /**
+     * Somme per colonna scorrendo le righe in ordine (accesso sequenziale)
+     */
+    public double[] colSums() {
+        double[] somme = new double[colonne];
+        for (int r = 0; r < righe; r++) {
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                somme[c] += dati[base + c];
+            }
+        }
+        return somme;
+    }
+
+    /**
+     * Massimo di ogni riga (come Math.max: NaN se la riga contiene NaN)
+     *
+     * @throws IllegalArgumentException se la matrice non ha colonne
+     */
+    public double[] rowMax() {
+        nonVuota(colonne);
+        double[] massimi = new double[righe];
+        perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                int base = r * colonne;
+                double max = dati[base];
+                for (int c = 1; c < colonne; c++) {
+                    max = Math.max(max, dati[base + c]);
+                }
+                massimi[r] = max;
+            }
+        });
+        return massimi;
+    }
+
+    public double[] colMax() {
+        nonVuota(righe);
+        double[] massimi = Arrays.copyOf(dati, colonne);
+        for (int r = 1; r < righe; r++) {
+            int base = r * colonne;
+            for (int c = 0; c < colonne; c++) {
+                massimi[c] = Math.max(massimi[c], dati[base + c]);
+            }
+        }
+        return massimi;
+    }
+
+    /**
+     * Colonna del primo massimo di ogni riga (es. la categoria col punteggio più alto)
+     */
+    public int[] rowArgMax() {
+        nonVuota(colonne);
+        int[] indici = new int[righe];
+        perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int r = da; r < a; r++) {
+                int base = r * colonne;
+                int migliore = 0;
+                for (int c = 1; c < colonne; c++) {
+                    if (dati[base + c] > dati[base + migliore]) {
+                        migliore = c;
+                    }
+                }
+                indici[r] = migliore;
+            }
+        });
+        return indici;
+    }
+
+    public double sum() {
+        double s = 0;
+        for (double v : rowSums()) {
+            s += v;
+        }
+        return s;
+    }
+
+    static void nonVuota(int dimensione) {
+        if (dimensione == 0) {
+            throw new IllegalArgumentException("Matrice vuota");
+        }
+    }
+
+    // ==================== OPERAZIONI ELEMENTO PER ELEMENTO ====================
+
+    public Matrix add(Matrix altra) {
+        return combine(altra, Double::sum);
+    }
+
+    public Matrix subtract(Matrix altra) {
+        return combine(altra, (a, b) -> a - b);
+    }
+
+    /**
+     * Prodotto elemento per elemento (di Hadamard), non righe per colonne
+     */
+    public Matrix multiplyElements(Matrix altra) {
+        return combine(altra, (a, b) -> a * b);
+    }
+
+    public Matrix scale(double fattore) {
+        return map(v -> v * fattore);
+    }
+
+    public Matrix map(DoubleUnaryOperator funzione) {
+        double[] risultato = new double[dati.length];
+        perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int i = da * colonne, fine = a * colonne; i < fine; i++) {
+                risultato[i] = funzione.applyAsDouble(dati[i]);
+            }
+        });
+        return new Matrix(righe, colonne, risultato);
+    }
+
+    public Matrix combine(Matrix altra, DoubleBinaryOperator funzione) {
+        if (righe != altra.righe || colonne != altra.colonne) {
+            throw new IllegalArgumentException("Dimensioni diverse: " + righe + "x" + colonne
+                + " e " + altra.righe + "x" + altra.colonne);
+        }
+        double[] risultato = new double[dati.length];
+        perBlocchiDiRighe(righe, colonne, (da, a) -> {
+            for (int i = da * colonne, fine = a * colonne; i < fine; i++) {
+                risultato[i] = funzione.applyAsDouble(dati[i], altra.dati[i]);
+            }
+        });
+        return new Matrix(righe, colonne, risultato);
+    }
+
+    // ==================== FORK-JOIN PER BLOCCHI DI RIGHE ====================
+
+    /**
+     * Calcolo su un intervallo di righe [da, a)
+     */
+    @FunctionalInterface
+    interface BloccoRighe {
+        void calcola(int da, int a);
+    }
+
+    /**
+     * Esegue il blocco su tutte le righe: sequenziale se il lavoro totale
+     * (righe * costoRiga) è sotto SOGLIA o c'è una sola CPU, altrimenti
+     * divide le righe a metà con fork-join fino a circa SOGLIA operazioni per task
+     */
+    static void perBlocchiDiRighe(int righe, long costoRiga, BloccoRighe blocco) {
+        perBlocchiDiRighe(righe, costoRiga, 1, blocco);
+    }
+
+    /**
+     * Come sopra, ma ogni task riceve un multiplo di granularita righe (l'ultimo
+     * il resto): multiply passa BLOCCO, altrimenti con righe lunghe ogni task
+     * avrebbe una sola riga e ricopierebbe tutta B nel pannello per quella
+     */
+    static void perBlocchiDiRighe(int righe, long costoRiga, int granularita, BloccoRighe blocco) {
+        long costo = Math.max(costoRiga, 1);
+        if (righe * costo <= SOGLIA || righe <= granularita || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            blocco.calcola(0, righe);
+            return;
+        }
+        long minimo = Math.max(1, SOGLIA / costo);
+        int righePerTask = (int) Math.min(righe, (minimo + granularita - 1) / granularita * granularita);
+        ForkJoinPool.commonPool().invoke(new RigheTask(blocco, 0, righe, righePerTask, granularita));
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RigheTask extends RecursiveAction {
+        private final BloccoRighe blocco;
+        private final int from;
+        private final int to;
+        private final int righePerTask;
+        private final int granularita;
+
+        RigheTask(BloccoRighe blocco, int from, int to, int righePerTask, int granularita) {
+            this.blocco = blocco;
+            this.from = from;
+            this.to = to;
+            this.righePerTask = righePerTask;
+            this.granularita = granularita;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= righePerTask || to - from < 2 * granularita) {
+                blocco.calcola(from, to);
+                return;
+            }
+            // Metà arrotondata a un multiplo di granularita, così ogni task inizia su un confine di blocco
+            int mid = from + Math.max(granularita, (to - from) / 2 / granularita * granularita);
+            invokeAll(new RigheTask(blocco, from, mid, righePerTask, granularita),
+                new RigheTask(blocco, mid, to, righePerTask, granularita));
+        }
+    }
+
+    // ==================== OBJECT ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Matrix altra)) {
+            return false;
+        }
+        return righe == altra.righe && colonne == altra.colonne && Arrays.equals(dati, altra.dati);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * righe + colonne) + Arrays.hashCode(dati);
+    }
+
+    /**
+     * Contenuto per matrici piccole (come Arrays.deepToString), solo le dimensioni oltre 100 elementi
+     */
+    @Override
+    public String toString() {
+        if (dati.length > 100) {
+            return "Matrix[" + righe + "x" + colonne + "]";
+        }
+        return Arrays.deepToString(toArray2D());
+    }
+}
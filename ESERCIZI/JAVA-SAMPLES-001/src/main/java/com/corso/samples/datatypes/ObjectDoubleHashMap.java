@@ -0,0 +1,163 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Mappa chiave -> double a indirizzamento aperto (linear probing):
+ * chiavi in un Object[], valori in un double[] parallelo.
+ * Rispetto a HashMap<K, Double>:
+ * - nessun nodo Entry e nessun Double per valore
+ * - addTo somma sul posto, senza merge() né boxing
+ * - il merge di due mappe (combiner dei Collector) è un ciclo su due array
+ * Le chiavi null non sono ammesse. Non è thread-safe.
+ */
+public final class ObjectDoubleHashMap<K> {
+
+    private static final int CAPACITA_MINIMA = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 30;
+
+    private Object[] chiavi;
+    private double[] valori;
+    private int size;
+    private int maschera;
+
+    public ObjectDoubleHashMap() {
+        this(CAPACITA_MINIMA);
+    }
+
+    /**
+     * Capacità attesa: fino a questo numero di chiavi non serve rehash
+     */
+    public ObjectDoubleHashMap(int capacitaAttesa) {
+        // Fattore di carico massimo 0.5: con linear probing le sequenze restano corte
+        int capacita = (int) Math.min(CAPACITA_MASSIMA,
+                Long.highestOneBit(Math.max(CAPACITA_MINIMA, capacitaAttesa * 2L - 1)) << 1);
+        chiavi = new Object[capacita];
+        valori = new double[capacita];
+        maschera = capacita - 1;
+    }
+
+    private static int slot(Object chiave, int maschera) {
+        int h = chiave.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maschera;
+    }
+
+    /**
+     * Somma delta al valore della chiave (0 se assente) e restituisce il nuovo valore
+     */
+    public double addTo(K chiave, double delta) {
+        Objects.requireNonNull(chiave, "chiave");
+        int i = slot(chiave, maschera);
+        while (chiavi[i] != null) {
+            if (chiavi[i].equals(chiave)) {
+                return valori[i] += delta;
+            }
+            i = (i + 1) & maschera;
+        }
+        chiavi[i] = chiave;
+        valori[i] = delta;
+        if (++size * 2 > chiavi.length) {
+            rehash();
+        }
+        return delta;
+    }
+
+    public void put(K chiave, double valore) {
+        Objects.requireNonNull(chiave, "chiave");
+        int i = indice(chiave);
+        if (i >= 0) {
+            valori[i] = valore;
+        } else {
+            addTo(chiave, valore);
+        }
+    }
+
+    public double getOrDefault(Object chiave, double predefinito) {
+        int i = indice(chiave);
+        return i >= 0 ? valori[i] : predefinito;
+    }
+
+    public boolean containsKey(Object chiave) {
+        return indice(chiave) >= 0;
+    }
+
+    private int indice(Object chiave) {
+        if (chiave == null) {
+            return -1;
+        }
+        int i = slot(chiave, maschera);
+        while (chiavi[i] != null) {
+            if (chiavi[i].equals(chiave)) {
+                return i;
+            }
+            i = (i + 1) & maschera;
+        }
+        return -1;
+    }
+
+    private void rehash() {
+        Object[] vecchieChiavi = chiavi;
+        double[] vecchiValori = valori;
+        chiavi = new Object[vecchieChiavi.length * 2];
+        valori = new double[vecchieChiavi.length * 2];
+        maschera = chiavi.length - 1;
+        for (int j = 0; j < vecchieChiavi.length; j++) {
+            if (vecchieChiavi[j] != null) {
+                int i = slot(vecchieChiavi[j], maschera);
+                while (chiavi[i] != null) {
+                    i = (i + 1) & maschera;
+                }
+                chiavi[i] = vecchieChiavi[j];
+                valori[i] = vecchiValori[j];
+            }
+        }
+    }
+
+    /**
+     * Somma in questa mappa tutti i valori di altra
+     */
+    public ObjectDoubleHashMap<K> addAll(ObjectDoubleHashMap<K> altra) {
+        altra.forEach(this::addTo);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjDoubleConsumer<? super K> azione) {
+        for (int i = 0; i < chiavi.length; i++) {
+            if (chiavi[i] != null) {
+                azione.accept((K) chiavi[i], valori[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chiavi, null);
+        size = 0;
+    }
+
+    /**
+     * Copia in una HashMap con i valori boxed, per il codice che si aspetta una Map
+     */
+    public Map<K, Double> toMap() {
+        Map<K, Double> mappa = new HashMap<>(size * 2);
+        forEach(mappa::put);
+        return mappa;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,204 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Contatore di occorrenze per chiave a indirizzamento aperto (linear probing):
+ * chiavi in un Object[], conteggi in un int[] parallelo.
+ * Sostituisce i due schemi tipici:
+ * - Collections.frequency per ogni elemento distinto: O(n x distinti)
+ * - HashMap<K, Integer>.merge(k, 1, Integer::sum): un passaggio solo, ma un
+ *   Integer nuovo per ogni conteggio oltre 127 e un nodo Entry per chiave
+ * Qui ogni incremento è un solo passaggio sulla tabella, senza allocazioni.
+ * I conteggi sono int. Le chiavi null non sono ammesse. Non è thread-safe
+ * (per gli stream paralleli vedi ParallelCollectors.countingByKey).
+ */
+public final class ObjectIntCounter<K> {
+
+    private static final int CAPACITA_MINIMA = 16;
+    private static final int CAPACITA_MASSIMA = 1 << 30;
+
+    private Object[] chiavi;
+    private int[] conteggi;
+    private int size;
+    private int maschera;
+
+    public ObjectIntCounter() {
+        this(CAPACITA_MINIMA);
+    }
+
+    /**
+     * Capacità attesa: fino a questo numero di chiavi distinte non serve rehash
+     */
+    public ObjectIntCounter(int capacitaAttesa) {
+        int capacita = (int) Math.min(CAPACITA_MASSIMA,
+                Long.highestOneBit(Math.max(CAPACITA_MINIMA, capacitaAttesa * 2L - 1)) << 1);
+        chiavi = new Object[capacita];
+        conteggi = new int[capacita];
+        maschera = capacita - 1;
+    }
+
+    /**
+     * Conta gli elementi in un solo passaggio
+     */
+    public static <K> ObjectIntCounter<K> of(Iterable<? extends K> elementi) {
+        ObjectIntCounter<K> contatore = new ObjectIntCounter<>();
+        for (K elemento : elementi) {
+            contatore.increment(elemento);
+        }
+        return contatore;
+    }
+
+    private static int slot(Object chiave, int maschera) {
+        int h = chiave.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maschera;
+    }
+
+    public int increment(K chiave) {
+        return addTo(chiave, 1);
+    }
+
+    /**
+     * Somma delta al conteggio della chiave (0 se assente) e restituisce il nuovo valore
+     */
+    public int addTo(K chiave, int delta) {
+        Objects.requireNonNull(chiave, "chiave");
+        int i = slot(chiave, maschera);
+        Object k;
+        while ((k = chiavi[i]) != null) {
+            if (k == chiave || k.equals(chiave)) {
+                return conteggi[i] += delta;
+            }
+            i = (i + 1) & maschera;
+        }
+        chiavi[i] = chiave;
+        conteggi[i] = delta;
+        if (++size * 2 > chiavi.length) {
+            rehash();
+        }
+        return delta;
+    }
+
+    /**
+     * Il conteggio della chiave, 0 se non è mai stata contata
+     */
+    public int get(Object chiave) {
+        int i = indice(chiave);
+        return i >= 0 ? conteggi[i] : 0;
+    }
+
+    public boolean containsKey(Object chiave) {
+        return indice(chiave) >= 0;
+    }
+
+    private int indice(Object chiave) {
+        if (chiave == null) {
+            return -1;
+        }
+        int i = slot(chiave, maschera);
+        Object k;
+        while ((k = chiavi[i]) != null) {
+            if (k == chiave || k.equals(chiave)) {
+                return i;
+            }
+            i = (i + 1) & maschera;
+        }
+        return -1;
+    }
+
+    private void rehash() {
+        Object[] vecchieChiavi = chiavi;
+        int[] vecchiConteggi = conteggi;
+        chiavi = new Object[vecchieChiavi.length * 2];
+        conteggi = new int[vecchieChiavi.length * 2];
+        maschera = chiavi.length - 1;
+        for (int j = 0; j < vecchieChiavi.length; j++) {
+            if (vecchieChiavi[j] != null) {
+                int i = slot(vecchieChiavi[j], maschera);
+                while (chiavi[i] != null) {
+                    i = (i + 1) & maschera;
+                }
+                chiavi[i] = vecchieChiavi[j];
+                conteggi[i] = vecchiConteggi[j];
+            }
+        }
+    }
+
+    /**
+     * Somma in questo contatore tutti i conteggi di altro (es. contatori parziali per thread)
+     */
+    public ObjectIntCounter<K> addAll(ObjectIntCounter<K> altro) {
+        altro.forEach(this::addTo);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super K> azione) {
+        for (int i = 0; i < chiavi.length; i++) {
+            if (chiavi[i] != null) {
+                azione.accept((K) chiavi[i], conteggi[i]);
+            }
+        }
+    }
+
+    /**
+     * Le k chiavi più frequenti in ordine decrescente di conteggio.
+     * Ordina solo gli indici degli slot occupati, senza creare Entry.
+     */
+    @SuppressWarnings("unchecked")
+    public List<K> piuFrequenti(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k negativo: " + k);
+        }
+        // Conteggio nei 32 bit alti e slot nei 32 bassi: un solo long[] da ordinare
+        long[] codificati = new long[size];
+        int n = 0;
+        for (int i = 0; i < chiavi.length; i++) {
+            if (chiavi[i] != null) {
+                codificati[n++] = ((long) conteggi[i] << 32) | i;
+            }
+        }
+        Arrays.sort(codificati);
+        List<K> risultato = new ArrayList<>(Math.min(k, n));
+        for (int j = n - 1; j >= 0 && risultato.size() < k; j--) {
+            risultato.add((K) chiavi[(int) codificati[j]]);
+        }
+        return risultato;
+    }
+
+    /**
+     * Numero di chiavi distinte
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chiavi, null);
+        size = 0;
+    }
+
+    /**
+     * Copia in una HashMap con i conteggi boxed, per il codice che si aspetta una Map
+     */
+    public Map<K, Integer> toMap() {
+        Map<K, Integer> mappa = new HashMap<>(size * 2);
+        forEach(mappa::put);
+        return mappa;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,270 @@
+package com.corso.samples.datatypes;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Colonna a larghezza fissa (1, 4 o 8 byte per valore) fuori dall'heap, in
+ * blocchi di ByteBuffer diretti da RIGHE_PER_BLOCCO valori ciascuno.
+ * - un ByteBuffer è indicizzato con int: i blocchi permettono colonne oltre i 2 GB
+ * - la riga r sta nel blocco r >>> SHIFT_BLOCCO alla posizione r & MASCHERA_BLOCCO:
+ *   colonne diverse con lo stesso indice di blocco sono allineate riga per riga
+ * - solo l'ultimo blocco può essere parziale; cresce raddoppiando fino alla
+ *   dimensione piena, così le tabelle piccole non riservano megabyte inutili
+ * Il GC vede solo i piccoli oggetti ByteBuffer: la memoria nativa viene liberata
+ * quando la colonna non è più raggiungibile, ed è limitata da -XX:MaxDirectMemorySize.
+ * Non è thread-safe in scrittura; dopo il riempimento si può leggere da più thread.
+ */
+final class OffHeapColumn {
+
+    static final int SHIFT_BLOCCO = 20;
+    static final int RIGHE_PER_BLOCCO = 1 << SHIFT_BLOCCO;
+    static final int MASCHERA_BLOCCO = RIGHE_PER_BLOCCO - 1;
+    private static final int RIGHE_MINIME = 1024;
+
+    private final int shiftLarghezza;
+    private ByteBuffer[] blocchi = new ByteBuffer[0];
+    private long capacita;
+
+    /**
+     * @param larghezza byte per valore: 1, 4 o 8
+     */
+    OffHeapColumn(int larghezza) {
+        this.shiftLarghezza = switch (larghezza) {
+            case 1 -> 0;
+            case 4 -> 2;
+            case 8 -> 3;
+            default -> throw new IllegalArgumentException("Larghezza non supportata: " + larghezza);
+        };
+    }
+
+    /**
+     * Alloca i blocchi necessari per almeno righe valori
+     */
+    void garantisci(long righe) {
+        while (capacita < righe) {
+            int ultimo = blocchi.length - 1;
+            int nelUltimo = ultimo >= 0 ? blocchi[ultimo].capacity() >> shiftLarghezza : RIGHE_PER_BLOCCO;
+            if (nelUltimo < RIGHE_PER_BLOCCO) {
+                // Ultimo blocco parziale: raddoppia e ricopia
+                long servono = righe - ((long) ultimo << SHIFT_BLOCCO);
+                int nuove = dimensioneBlocco(Math.max(servono, 2L * nelUltimo));
+                ByteBuffer nuovo = alloca(nuove);
+                nuovo.put(0, blocchi[ultimo], 0, nelUltimo << shiftLarghezza);
+                blocchi[ultimo] = nuovo;
+                capacita = ((long) ultimo << SHIFT_BLOCCO) + nuove;
+            } else {
+                int nuove = dimensioneBlocco(righe - ((long) blocchi.length << SHIFT_BLOCCO));
+                blocchi = Arrays.copyOf(blocchi, blocchi.length + 1);
+                blocchi[blocchi.length - 1] = alloca(nuove);
+                capacita += nuove;
+            }
+        }
+    }
+
+    private static int dimensioneBlocco(long righe) {
+        if (righe >= RIGHE_PER_BLOCCO) {
+            return RIGHE_PER_BLOCCO;
+        }
+        return Math.max(RIGHE_MINIME, Integer.highestOneBit((int) righe - 1) << 1);
+    }
+
+    private ByteBuffer alloca(int righe) {
+        return ByteBuffer.allocateDirect(righe << shiftLarghezza).order(ByteOrder.nativeOrder());
+    }
+
+    // ==================== ACCESSO PER RIGA ====================
+
+    int getInt(int riga) {
+        return blocchi[riga >>> SHIFT_BLOCCO].getInt((riga & MASCHERA_BLOCCO) << 2);
+    }
+
+    void putInt(int riga, int valore) {
+        blocchi[riga >>> SHIFT_BLOCCO].putInt((riga & MASCHERA_BLOCCO) << 2, valore);
+    }
+
+    long getLong(int riga) {
+        return blocchi[riga >>> SHIFT_BLOCCO].getLong((riga & MASCHERA_BLOCCO) << 3);
+    }
+
+    void putLong(int riga, long valore) {
+        blocchi[riga >>> SHIFT_BLOCCO].putLong((riga & MASCHERA_BLOCCO) << 3, valore);
+    }
+
+    double getDouble(int riga) {
+        return blocchi[riga >>> SHIFT_BLOCCO].getDouble((riga & MASCHERA_BLOCCO) << 3);
+    }
+
+    void putDouble(int riga, double valore) {
+        blocchi[riga >>> SHIFT_BLOCCO].putDouble((riga & MASCHERA_BLOCCO) << 3, valore);
+    }
+
+    // ==================== ACCESSO PER BYTE ====================
+
+    /**
+     * Copia lunghezza byte a partire dalla posizione (solo colonne da 1 byte)
+     */
+    void getBytes(long posizione, byte[] destinazione, int lunghezza) {
+        blocchi[(int) (posizione >>> SHIFT_BLOCCO)].get((int) (posizione & MASCHERA_BLOCCO), destinazione, 0, lunghezza);
+    }
+
+    void putBytes(long posizione, byte[] sorgente) {
+        blocchi[(int) (posizione >>> SHIFT_BLOCCO)].put((int) (posizione & MASCHERA_BLOCCO), sorgente);
+    }
+
+    /**
+     * Byte di memoria nativa riservati
+     */
+    long byteAllocati() {
+        return capacita << shiftLarghezza;
+    }
+
+    /**
+     * Numero di blocchi che contengono le prime righe valori
+     */
+    static int blocchiPer(int righe) {
+        return (int) (((long) righe + MASCHERA_BLOCCO) >>> SHIFT_BLOCCO);
+    }
+
+    private static int righeNelBlocco(int blocco, int righe) {
+        return Math.min(RIGHE_PER_BLOCCO, righe - (blocco << SHIFT_BLOCCO));
+    }
+
+    // ==================== AGGREGAZIONI ====================
+    // Scansioni sequenziali con i blocchi in parallelo. Ogni blocco viene letto a
+    // finestre di FINESTRA valori con una copia in blocco (get su DoubleBuffer/IntBuffer)
+    // in un array dell'heap: il ciclo interno è lo stesso di ColumnAggregates su un
+    // array, mentre un getDouble per riga pagherebbe i controlli del ByteBuffer a ogni lettura
+
+    private static final int FINESTRA = 4096;
+
+    /**
+     * count, sum, min, max e media delle prime righe di una colonna double
+     */
+    static DoubleSummaryStatistics riepilogoDouble(OffHeapColumn colonna, int righe) {
+        return IntStream.range(0, blocchiPer(righe)).parallel()
+            .mapToObj(b -> {
+                DoubleBuffer blocco = colonna.blocchi[b].asDoubleBuffer();
+                int n = righeNelBlocco(b, righe);
+                double[] finestra = new double[FINESTRA];
+                double somma = 0;
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int da = 0; da < n; da += FINESTRA) {
+                    int k = Math.min(FINESTRA, n - da);
+                    blocco.get(da, finestra, 0, k);
+                    for (int i = 0; i < k; i++) {
+                        double v = finestra[i];
+                        somma += v;
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+                return new DoubleSummaryStatistics(n, min, max, somma);
+            })
+            .collect(DoubleSummaryStatistics::new, DoubleSummaryStatistics::combine,
+                DoubleSummaryStatistics::combine);
+    }
+
+    static IntSummaryStatistics riepilogoInt(OffHeapColumn colonna, int righe) {
+        return IntStream.range(0, blocchiPer(righe)).parallel()
+            .mapToObj(b -> {
+                IntBuffer blocco = colonna.blocchi[b].asIntBuffer();
+                int n = righeNelBlocco(b, righe);
+                int[] finestra = new int[FINESTRA];
+                long somma = 0;
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for (int da = 0; da < n; da += FINESTRA) {
+                    int k = Math.min(FINESTRA, n - da);
+                    blocco.get(da, finestra, 0, k);
+                    for (int i = 0; i < k; i++) {
+                        int v = finestra[i];
+                        somma += v;
+                        min = Math.min(min, v);
+                        max = Math.max(max, v);
+                    }
+                }
+                return new IntSummaryStatistics(n, min, max, somma);
+            })
+            .collect(IntSummaryStatistics::new, IntSummaryStatistics::combine,
+                IntSummaryStatistics::combine);
+    }
+
+    /**
+     * Group-by su una colonna di codici di dizionario: per blocco conteggi, somme,
+     * minimi e massimi in array primitivi indicizzati dal codice, combinati alla fine.
+     * Come ColumnAggregates.perGruppo, i gruppi vuoti non compaiono nel risultato.
+     */
+    static Map<String, DoubleSummaryStatistics> perGruppo(OffHeapColumn codici, StringDictionary dizionario,
+                                                          OffHeapColumn valori, int righe) {
+        int gruppi = dizionario.dimensione();
+        Parziale totale = IntStream.range(0, blocchiPer(righe)).parallel()
+            .mapToObj(b -> {
+                IntBuffer bloccoCodici = codici.blocchi[b].asIntBuffer();
+                DoubleBuffer bloccoValori = valori.blocchi[b].asDoubleBuffer();
+                int n = righeNelBlocco(b, righe);
+                int[] finestraCodici = new int[FINESTRA];
+                double[] finestraValori = new double[FINESTRA];
+                Parziale parziale = new Parziale(gruppi);
+                for (int da = 0; da < n; da += FINESTRA) {
+                    int k = Math.min(FINESTRA, n - da);
+                    bloccoCodici.get(da, finestraCodici, 0, k);
+                    bloccoValori.get(da, finestraValori, 0, k);
+                    for (int i = 0; i < k; i++) {
+                        parziale.aggiungi(finestraCodici[i], finestraValori[i]);
+                    }
+                }
+                return parziale;
+            })
+            .collect(() -> new Parziale(gruppi), Parziale::combina, Parziale::combina);
+        Map<String, DoubleSummaryStatistics> risultato = new LinkedHashMap<>();
+        for (int g = 0; g < gruppi; g++) {
+            if (totale.conteggi[g] > 0) {
+                risultato.put(dizionario.decodifica(g), new DoubleSummaryStatistics(
+                    totale.conteggi[g], totale.minimi[g], totale.massimi[g], totale.somme[g]));
+            }
+        }
+        return risultato;
+    }
+
+    private static final class Parziale {
+        final long[] conteggi;
+        final double[] somme;
+        final double[] minimi;
+        final double[] massimi;
+
+        Parziale(int gruppi) {
+            conteggi = new long[gruppi];
+            somme = new double[gruppi];
+            minimi = new double[gruppi];
+            massimi = new double[gruppi];
+            Arrays.fill(minimi, Double.POSITIVE_INFINITY);
+            Arrays.fill(massimi, Double.NEGATIVE_INFINITY);
+        }
+
+        void aggiungi(int gruppo, double valore) {
+            conteggi[gruppo]++;
+            somme[gruppo] += valore;
+            minimi[gruppo] = Math.min(minimi[gruppo], valore);
+            massimi[gruppo] = Math.max(massimi[gruppo], valore);
+        }
+
+        void combina(Parziale altro) {
+            for (int g = 0; g < conteggi.length; g++) {
+                conteggi[g] += altro.conteggi[g];
+                somme[g] += altro.somme[g];
+                minimi[g] = Math.min(minimi[g], altro.minimi[g]);
+                massimi[g] = Math.max(massimi[g], altro.massimi[g]);
+            }
+        }
+    }
+}
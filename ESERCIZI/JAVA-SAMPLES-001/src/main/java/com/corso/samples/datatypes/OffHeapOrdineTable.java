@@ -0,0 +1,317 @@
+package com.corso.samples.datatypes;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * StreamsDemo.Ordine e i suoi Prodotto in colonne fuori dall'heap, con lo
+ * schema di OrdineTable più i prodotti:
+ * - id: OffHeapStrings (un valore diverso per ordine)
+ * - cliente, stato: codici da 4 byte di uno StringDictionary
+ * - importo: 8 byte
+ * - primoProdotto, numeroProdotti: 4 byte ciascuno, l'intervallo delle righe
+ *   dei prodotti dell'ordine nelle colonne dei prodotti
+ * - prodotti: nome e categoria codificati (cataloghi piccoli), prezzo 8 byte, quantità 4 byte
+ * Le viste estendono Ordine e Prodotto: getProdotti() è una lista di viste
+ * sulle righe dei prodotti, senza copiare nulla nell'heap.
+ * La tabella è immutabile dopo build().
+ */
+public final class OffHeapOrdineTable {
+
+    private final int size;
+    private final int sizeProdotti;
+    private final OffHeapStrings id;
+    private final OffHeapColumn clienti;
+    private final OffHeapColumn importi;
+    private final OffHeapColumn stati;
+    private final OffHeapColumn primoProdotto;
+    private final OffHeapColumn numeroProdotti;
+    private final OffHeapColumn nomiProdotto;
+    private final OffHeapColumn prezzi;
+    private final OffHeapColumn categorie;
+    private final OffHeapColumn quantita;
+    private final StringDictionary dizionarioClienti;
+    private final StringDictionary dizionarioStati;
+    private final StringDictionary dizionarioNomiProdotto;
+    private final StringDictionary dizionarioCategorie;
+
+    private OffHeapOrdineTable(Builder builder) {
+        this.size = builder.size;
+        this.sizeProdotti = builder.sizeProdotti;
+        this.id = builder.id;
+        this.clienti = builder.clienti;
+        this.importi = builder.importi;
+        this.stati = builder.stati;
+        this.primoProdotto = builder.primoProdotto;
+        this.numeroProdotti = builder.numeroProdotti;
+        this.nomiProdotto = builder.nomiProdotto;
+        this.prezzi = builder.prezzi;
+        this.categorie = builder.categorie;
+        this.quantita = builder.quantita;
+        this.dizionarioClienti = builder.dizionarioClienti;
+        this.dizionarioStati = builder.dizionarioStati;
+        this.dizionarioNomiProdotto = builder.dizionarioNomiProdotto;
+        this.dizionarioCategorie = builder.dizionarioCategorie;
+    }
+
+    public static Builder builder() {
+        return new Builder(0);
+    }
+
+    public static Builder builder(int capacita) {
+        return new Builder(capacita);
+    }
+
+    static OffHeapOrdineTable da(Collection<StreamsDemo.Ordine> ordini) {
+        Builder builder = new Builder(ordini.size());
+        for (StreamsDemo.Ordine o : ordini) {
+            builder.aggiungi(o.getId(), o.getCliente(), o.getImporto(), o.getStato(), o.getProdotti());
+        }
+        return builder.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private int sizeProdotti;
+        private boolean costruita;
+        private final OffHeapStrings id = new OffHeapStrings();
+        private final OffHeapColumn clienti = new OffHeapColumn(4);
+        private final OffHeapColumn importi = new OffHeapColumn(8);
+        private final OffHeapColumn stati = new OffHeapColumn(4);
+        private final OffHeapColumn primoProdotto = new OffHeapColumn(4);
+        private final OffHeapColumn numeroProdotti = new OffHeapColumn(4);
+        private final OffHeapColumn nomiProdotto = new OffHeapColumn(4);
+        private final OffHeapColumn prezzi = new OffHeapColumn(8);
+        private final OffHeapColumn categorie = new OffHeapColumn(4);
+        private final OffHeapColumn quantita = new OffHeapColumn(4);
+        private final StringDictionary dizionarioClienti = new StringDictionary();
+        private final StringDictionary dizionarioStati = new StringDictionary();
+        private final StringDictionary dizionarioNomiProdotto = new StringDictionary();
+        private final StringDictionary dizionarioCategorie = new StringDictionary();
+
+        private Builder(int capacita) {
+            if (capacita < 0) {
+                throw new IllegalArgumentException("Capacità negativa: " + capacita);
+            }
+            garantisci(capacita);
+        }
+
+        private void garantisci(long righe) {
+            clienti.garantisci(righe);
+            importi.garantisci(righe);
+            stati.garantisci(righe);
+            primoProdotto.garantisci(righe);
+            numeroProdotti.garantisci(righe);
+        }
+
+        public Builder aggiungi(String id, String cliente, double importo, String stato,
+                                List<StreamsDemo.Prodotto> prodotti) {
+            if (costruita) {
+                throw new IllegalStateException("Tabella già costruita: le colonne sono condivise");
+            }
+            if (size == Integer.MAX_VALUE || (long) sizeProdotti + prodotti.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Troppe righe");
+            }
+            garantisci(size + 1L);
+            this.id.aggiungi(size, id);
+            clienti.putInt(size, dizionarioClienti.codifica(cliente));
+            importi.putDouble(size, importo);
+            stati.putInt(size, dizionarioStati.codifica(stato));
+            primoProdotto.putInt(size, sizeProdotti);
+            numeroProdotti.putInt(size, prodotti.size());
+            for (StreamsDemo.Prodotto p : prodotti) {
+                aggiungiProdotto(p);
+            }
+            size++;
+            return this;
+        }
+
+        private void aggiungiProdotto(StreamsDemo.Prodotto p) {
+            long righe = sizeProdotti + 1L;
+            nomiProdotto.garantisci(righe);
+            prezzi.garantisci(righe);
+            categorie.garantisci(righe);
+            quantita.garantisci(righe);
+            nomiProdotto.putInt(sizeProdotti, dizionarioNomiProdotto.codifica(p.getNome()));
+            prezzi.putDouble(sizeProdotti, p.getPrezzo());
+            categorie.putInt(sizeProdotti, dizionarioCategorie.codifica(p.getCategoria()));
+            quantita.putInt(sizeProdotti, p.getQuantita());
+            sizeProdotti++;
+        }
+
+        public OffHeapOrdineTable build() {
+            costruita = true;
+            return new OffHeapOrdineTable(this);
+        }
+    }
+
+    // ==================== ACCESSO PER RIGA ====================
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Numero totale di prodotti di tutti gli ordini
+     */
+    public int sizeProdotti() {
+        return sizeProdotti;
+    }
+
+    public String getId(int riga) {
+        return id.get(controlla(riga));
+    }
+
+    public String getCliente(int riga) {
+        return dizionarioClienti.decodifica(clienti.getInt(controlla(riga)));
+    }
+
+    public double getImporto(int riga) {
+        return importi.getDouble(controlla(riga));
+    }
+
+    public String getStato(int riga) {
+        return dizionarioStati.decodifica(stati.getInt(controlla(riga)));
+    }
+
+    public int getNumeroProdotti(int riga) {
+        return numeroProdotti.getInt(controlla(riga));
+    }
+
+    private int controlla(int riga) {
+        if (riga < 0 || riga >= size) {
+            throw new IndexOutOfBoundsException("Riga " + riga + " su " + size);
+        }
+        return riga;
+    }
+
+    /**
+     * Byte fuori dall'heap riservati dalle colonne di ordini e prodotti
+     */
+    public long byteOffHeap() {
+        return id.byteAllocati() + clienti.byteAllocati() + importi.byteAllocati() + stati.byteAllocati()
+            + primoProdotto.byteAllocati() + numeroProdotti.byteAllocati() + nomiProdotto.byteAllocati()
+            + prezzi.byteAllocati() + categorie.byteAllocati() + quantita.byteAllocati();
+    }
+
+    // ==================== VISTE ====================
+
+    public StreamsDemo.Ordine get(int riga) {
+        return new VistaOrdine(controlla(riga));
+    }
+
+    public Stream<StreamsDemo.Ordine> stream() {
+        return IntStream.range(0, size).mapToObj(VistaOrdine::new);
+    }
+
+    /**
+     * Scansione con una sola vista riusata: l'azione non deve conservare il riferimento
+     */
+    public void forEach(Consumer<? super StreamsDemo.Ordine> azione) {
+        VistaOrdine vista = new VistaOrdine(0);
+        for (int i = 0; i < size; i++) {
+            vista.riga = i;
+            azione.accept(vista);
+        }
+    }
+
+    private final class VistaOrdine extends StreamsDemo.Ordine {
+        private int riga;
+
+        VistaOrdine(int riga) {
+            this.riga = riga;
+        }
+
+        @Override
+        public String getId() { return id.get(riga); }
+
+        @Override
+        public String getCliente() { return dizionarioClienti.decodifica(clienti.getInt(riga)); }
+
+        @Override
+        public double getImporto() { return importi.getDouble(riga); }
+
+        @Override
+        public String getStato() { return dizionarioStati.decodifica(stati.getInt(riga)); }
+
+        /**
+         * Lista di sola lettura sulle righe dei prodotti dell'ordine
+         */
+        @Override
+        public List<StreamsDemo.Prodotto> getProdotti() {
+            int primo = primoProdotto.getInt(riga);
+            int numero = numeroProdotti.getInt(riga);
+            return new AbstractList<>() {
+                @Override
+                public StreamsDemo.Prodotto get(int indice) {
+                    if (indice < 0 || indice >= numero) {
+                        throw new IndexOutOfBoundsException("Prodotto " + indice + " su " + numero);
+                    }
+                    return new VistaProdotto(primo + indice);
+                }
+
+                @Override
+                public int size() {
+                    return numero;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ordine[%s, %s, €%.2f, %s]", getId(), getCliente(), getImporto(), getStato());
+        }
+    }
+
+    private final class VistaProdotto extends StreamsDemo.Prodotto {
+        private final int riga;
+
+        VistaProdotto(int riga) {
+            this.riga = riga;
+        }
+
+        @Override
+        public String getNome() { return dizionarioNomiProdotto.decodifica(nomiProdotto.getInt(riga)); }
+
+        @Override
+        public double getPrezzo() { return prezzi.getDouble(riga); }
+
+        @Override
+        public String getCategoria() { return dizionarioCategorie.decodifica(categorie.getInt(riga)); }
+
+        @Override
+        public int getQuantita() { return quantita.getInt(riga); }
+
+        @Override
+        public String toString() {
+            return String.format("%s (€%.2f, %s, qty: %d)", getNome(), getPrezzo(), getCategoria(), getQuantita());
+        }
+    }
+
+    // ==================== AGGREGAZIONI ====================
+
+    public DoubleSummaryStatistics statisticheImporto() {
+        return OffHeapColumn.riepilogoDouble(importi, size);
+    }
+
+    public Map<String, DoubleSummaryStatistics> importoPerCliente() {
+        return OffHeapColumn.perGruppo(clienti, dizionarioClienti, importi, size);
+    }
+
+    public Map<String, DoubleSummaryStatistics> importoPerStato() {
+        return OffHeapColumn.perGruppo(stati, dizionarioStati, importi, size);
+    }
+
+    /**
+     * Prezzo dei prodotti per categoria, su tutte le righe dei prodotti
+     */
+    public Map<String, DoubleSummaryStatistics> prezzoPerCategoria() {
+        return OffHeapColumn.perGruppo(categorie, dizionarioCategorie, prezzi, sizeProdotti);
+    }
+}
@@ -0,0 +1,235 @@
+package com.corso.samples.datatypes;
+
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * StreamsDemo.Persona in colonne fuori dall'heap (ByteBuffer diretti), con lo
+ * stesso schema di PersonaTable:
+ * - eta: 4 byte, stipendio: 8 byte
+ * - citta, dipartimento: codici da 4 byte di uno StringDictionary (pochi valori distinti)
+ * - nome: OffHeapStrings, perché quasi ogni persona ha un nome diverso
+ * - gli hobby non sono rappresentati (getHobby() restituisce una lista vuota)
+ * Nell'heap restano solo i dizionari e pochi oggetti per blocco da 1M righe:
+ * decine di milioni di persone non pesano sul GC.
+ * get(riga), stream() e forEach() restituiscono viste flyweight che estendono
+ * Persona e leggono le colonne nei getter: il codice scritto per Stream<Persona>
+ * funziona senza modifiche. La tabella è immutabile dopo build().
+ */
+public final class OffHeapPersonaTable {
+
+    private final int size;
+    private final OffHeapStrings nomi;
+    private final OffHeapColumn eta;
+    private final OffHeapColumn citta;
+    private final OffHeapColumn stipendi;
+    private final OffHeapColumn dipartimenti;
+    private final StringDictionary dizionarioCitta;
+    private final StringDictionary dizionarioDipartimenti;
+
+    private OffHeapPersonaTable(Builder builder) {
+        this.size = builder.size;
+        this.nomi = builder.nomi;
+        this.eta = builder.eta;
+        this.citta = builder.citta;
+        this.stipendi = builder.stipendi;
+        this.dipartimenti = builder.dipartimenti;
+        this.dizionarioCitta = builder.dizionarioCitta;
+        this.dizionarioDipartimenti = builder.dizionarioDipartimenti;
+    }
+
+    public static Builder builder() {
+        return new Builder(0);
+    }
+
+    /**
+     * Con la capacità giusta le colonne vengono allocate una volta sola
+     */
+    public static Builder builder(int capacita) {
+        return new Builder(capacita);
+    }
+
+    static OffHeapPersonaTable da(Collection<StreamsDemo.Persona> persone) {
+        Builder builder = new Builder(persone.size());
+        for (StreamsDemo.Persona p : persone) {
+            builder.aggiungi(p.getNome(), p.getEta(), p.getCitta(), p.getStipendio(), p.getDipartimento());
+        }
+        return builder.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private boolean costruita;
+        private final OffHeapStrings nomi = new OffHeapStrings();
+        private final OffHeapColumn eta = new OffHeapColumn(4);
+        private final OffHeapColumn citta = new OffHeapColumn(4);
+        private final OffHeapColumn stipendi = new OffHeapColumn(8);
+        private final OffHeapColumn dipartimenti = new OffHeapColumn(4);
+        private final StringDictionary dizionarioCitta = new StringDictionary();
+        private final StringDictionary dizionarioDipartimenti = new StringDictionary();
+
+        private Builder(int capacita) {
+            if (capacita < 0) {
+                throw new IllegalArgumentException("Capacità negativa: " + capacita);
+            }
+            garantisci(capacita);
+        }
+
+        private void garantisci(long righe) {
+            eta.garantisci(righe);
+            citta.garantisci(righe);
+            stipendi.garantisci(righe);
+            dipartimenti.garantisci(righe);
+        }
+
+        public Builder aggiungi(String nome, int eta, String citta, double stipendio, String dipartimento) {
+            if (costruita) {
+                throw new IllegalStateException("Tabella già costruita: le colonne sono condivise");
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Troppe righe");
+            }
+            garantisci(size + 1L);
+            nomi.aggiungi(size, nome);
+            this.eta.putInt(size, eta);
+            this.citta.putInt(size, dizionarioCitta.codifica(citta));
+            stipendi.putDouble(size, stipendio);
+            dipartimenti.putInt(size, dizionarioDipartimenti.codifica(dipartimento));
+            size++;
+            return this;
+        }
+
+        public OffHeapPersonaTable build() {
+            costruita = true;
+            return new OffHeapPersonaTable(this);
+        }
+    }
+
+    // ==================== ACCESSO PER RIGA ====================
+
+    public int size() {
+        return size;
+    }
+
+    public String getNome(int riga) {
+        return nomi.get(controlla(riga));
+    }
+
+    public int getEta(int riga) {
+        return eta.getInt(controlla(riga));
+    }
+
+    public String getCitta(int riga) {
+        return dizionarioCitta.decodifica(citta.getInt(controlla(riga)));
+    }
+
+    public double getStipendio(int riga) {
+        return stipendi.getDouble(controlla(riga));
+    }
+
+    public String getDipartimento(int riga) {
+        return dizionarioDipartimenti.decodifica(dipartimenti.getInt(controlla(riga)));
+    }
+
+    /**
+     * Le colonne hanno capacità oltre size: senza controllo si leggerebbero righe mai scritte
+     */
+    private int controlla(int riga) {
+        if (riga < 0 || riga >= size) {
+            throw new IndexOutOfBoundsException("Riga " + riga + " su " + size);
+        }
+        return riga;
+    }
+
+    /**
+     * Byte fuori dall'heap riservati dalle colonne
+     */
+    public long byteOffHeap() {
+        return nomi.byteAllocati() + eta.byteAllocati() + citta.byteAllocati()
+            + stipendi.byteAllocati() + dipartimenti.byteAllocati();
+    }
+
+    // ==================== VISTE ====================
+
+    /**
+     * Vista della riga: un oggetto piccolo (tabella + indice), i valori restano fuori dall'heap
+     */
+    public StreamsDemo.Persona get(int riga) {
+        return new Vista(controlla(riga));
+    }
+
+    /**
+     * Stream di viste, una per riga; si può rendere parallelo con parallel()
+     */
+    public Stream<StreamsDemo.Persona> stream() {
+        return IntStream.range(0, size).mapToObj(Vista::new);
+    }
+
+    /**
+     * Scansione con una sola vista riusata per tutte le righe: zero allocazioni,
+     * ma l'azione non deve conservare il riferimento ricevuto
+     */
+    public void forEach(Consumer<? super StreamsDemo.Persona> azione) {
+        Vista vista = new Vista(0);
+        for (int i = 0; i < size; i++) {
+            vista.riga = i;
+            azione.accept(vista);
+        }
+    }
+
+    private final class Vista extends StreamsDemo.Persona {
+        private int riga;
+
+        Vista(int riga) {
+            this.riga = riga;
+        }
+
+        @Override
+        public String getNome() { return nomi.get(riga); }
+
+        @Override
+        public int getEta() { return eta.getInt(riga); }
+
+        @Override
+        public String getCitta() { return dizionarioCitta.decodifica(citta.getInt(riga)); }
+
+        @Override
+        public double getStipendio() { return stipendi.getDouble(riga); }
+
+        @Override
+        public String getDipartimento() { return dizionarioDipartimenti.decodifica(dipartimenti.getInt(riga)); }
+
+        @Override
+        public List<String> getHobby() { return List.of(); }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%d anni, %s, €%.0f, %s)",
+                getNome(), getEta(), getCitta(), getStipendio(), getDipartimento());
+        }
+    }
+
+    // ==================== AGGREGAZIONI ====================
+
+    public DoubleSummaryStatistics statisticheStipendio() {
+        return OffHeapColumn.riepilogoDouble(stipendi, size);
+    }
+
+    public IntSummaryStatistics statisticheEta() {
+        return OffHeapColumn.riepilogoInt(eta, size);
+    }
+
+    public Map<String, DoubleSummaryStatistics> stipendioPerDipartimento() {
+        return OffHeapColumn.perGruppo(dipartimenti, dizionarioDipartimenti, stipendi, size);
+    }
+
+    public Map<String, DoubleSummaryStatistics> stipendioPerCitta() {
+        return OffHeapColumn.perGruppo(citta, dizionarioCitta, stipendi, size);
+    }
+}
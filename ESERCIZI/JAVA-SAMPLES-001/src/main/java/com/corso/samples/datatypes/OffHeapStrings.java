@@ -0,0 +1,61 @@
+package com.corso.samples.datatypes;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Colonna di stringhe a lunghezza variabile fuori dall'heap, per i campi con
+ * un valore diverso per quasi ogni riga (id, nomi): un dizionario terrebbe
+ * comunque tutte le String nell'heap.
+ * - i byte UTF-8 delle stringhe sono accodati in una OffHeapColumn da 1 byte
+ * - per riga si tengono posizione (long) e lunghezza (int): 12 byte fissi
+ * - una stringa non attraversa mai due blocchi, quindi non può superare
+ *   OffHeapColumn.RIGHE_PER_BLOCCO byte (1 MB)
+ * La lettura crea una String nuova: per le scansioni conviene leggere le
+ * colonne numeriche e decodificare solo le righe che servono.
+ */
+final class OffHeapStrings {
+
+    private final OffHeapColumn byteUtf8 = new OffHeapColumn(1);
+    private final OffHeapColumn posizioni = new OffHeapColumn(8);
+    private final OffHeapColumn lunghezze = new OffHeapColumn(4);
+    private long scritti;
+
+    /**
+     * Scrive il valore della riga; le righe vanno aggiunte in ordine (0, 1, 2, ...)
+     */
+    void aggiungi(int riga, String valore) {
+        byte[] utf8 = valore.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > OffHeapColumn.RIGHE_PER_BLOCCO) {
+            throw new IllegalArgumentException("Stringa troppo lunga: " + utf8.length + " byte");
+        }
+        long posizione = scritti;
+        if ((posizione & OffHeapColumn.MASCHERA_BLOCCO) + utf8.length > OffHeapColumn.RIGHE_PER_BLOCCO) {
+            // Non ci sta nel blocco corrente: si ricomincia dal blocco successivo
+            posizione = (posizione | OffHeapColumn.MASCHERA_BLOCCO) + 1;
+        }
+        if (utf8.length > 0) {
+            byteUtf8.garantisci(posizione + utf8.length);
+            byteUtf8.putBytes(posizione, utf8);
+        }
+        scritti = posizione + utf8.length;
+
+        posizioni.garantisci(riga + 1L);
+        lunghezze.garantisci(riga + 1L);
+        posizioni.putLong(riga, posizione);
+        lunghezze.putInt(riga, utf8.length);
+    }
+
+    String get(int riga) {
+        int lunghezza = lunghezze.getInt(riga);
+        if (lunghezza == 0) {
+            return "";
+        }
+        byte[] utf8 = new byte[lunghezza];
+        byteUtf8.getBytes(posizioni.getLong(riga), utf8, lunghezza);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    long byteAllocati() {
+        return byteUtf8.byteAllocati() + posizioni.byteAllocati() + lunghezze.byteAllocati();
+    }
+}
@@ -0,0 +1,72 @@
+package com.corso.samples.datatypes;
+
+import java.util.stream.IntStream;
+
+/**
+ * Indici bitmap sulle colonne di una OrdineTable, come PersonaBitmapIndex:
+ * cliente e stato hanno un CategoryIndex, importo e numero di prodotti un
+ * RangeIndex. L'id non è indicizzato: ha un valore diverso per riga.
+ */
+public final class OrdineBitmapIndex {
+
+    private final OrdineTable tabella;
+    private final RoaringBitmap tutte;
+    private final CategoryIndex cliente;
+    private final CategoryIndex stato;
+    private final RangeIndex importo;
+    private final RangeIndex numeroProdotti;
+
+    OrdineBitmapIndex(OrdineTable tabella, CategoryIndex cliente, CategoryIndex stato,
+                      RangeIndex importo, RangeIndex numeroProdotti) {
+        this.tabella = tabella;
+        this.tutte = RoaringBitmap.range(0, tabella.size());
+        this.cliente = cliente;
+        this.stato = stato;
+        this.importo = importo;
+        this.numeroProdotti = numeroProdotti;
+    }
+
+    public OrdineTable tabella() {
+        return tabella;
+    }
+
+    public CategoryIndex cliente() {
+        return cliente;
+    }
+
+    public CategoryIndex stato() {
+        return stato;
+    }
+
+    public RangeIndex importo() {
+        return importo;
+    }
+
+    public RangeIndex numeroProdotti() {
+        return numeroProdotti;
+    }
+
+    public BitmapPredicate tutte() {
+        return () -> tutte;
+    }
+
+    public BitmapPredicate not(BitmapPredicate predicato) {
+        return () -> tutte.andNot(predicato.evaluate());
+    }
+
+    public int[] select(BitmapPredicate predicato) {
+        return predicato.evaluate().toArray();
+    }
+
+    public IntStream righe(BitmapPredicate predicato) {
+        return predicato.evaluate().stream();
+    }
+
+    public int count(BitmapPredicate predicato) {
+        return predicato.evaluate().cardinality();
+    }
+
+    public long sizeInBytes() {
+        return cliente.sizeInBytes() + stato.sizeInBytes() + importo.sizeInBytes() + numeroProdotti.sizeInBytes();
+    }
+}
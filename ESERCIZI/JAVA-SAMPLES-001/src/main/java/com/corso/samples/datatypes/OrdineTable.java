@@ -0,0 +1,155 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.Map;
+
+/**
+ * Rappresentazione colonnare di StreamsDemo.Ordine, con lo stesso schema di PersonaTable.
+ * - importo: double[]
+ * - cliente, stato: codici int[] di uno StringDictionary per colonna
+ * - id: String[], perché ogni ordine ha un id diverso e un dizionario non risparmierebbe nulla
+ * - dei prodotti si tiene solo il numero (int[])
+ */
+public final class OrdineTable {
+
+    private final int size;
+    private final String[] id;
+    private final int[] clienti;
+    private final double[] importi;
+    private final int[] stati;
+    private final int[] numeroProdotti;
+    private final StringDictionary dizionarioClienti;
+    private final StringDictionary dizionarioStati;
+
+    private OrdineTable(Builder builder) {
+        this.size = builder.size;
+        this.id = builder.id.length == size ? builder.id : Arrays.copyOf(builder.id, size);
+        this.clienti = builder.clienti.length == size ? builder.clienti : Arrays.copyOf(builder.clienti, size);
+        this.importi = builder.importi.length == size ? builder.importi : Arrays.copyOf(builder.importi, size);
+        this.stati = builder.stati.length == size ? builder.stati : Arrays.copyOf(builder.stati, size);
+        this.numeroProdotti = builder.numeroProdotti.length == size
+            ? builder.numeroProdotti
+            : Arrays.copyOf(builder.numeroProdotti, size);
+        this.dizionarioClienti = builder.dizionarioClienti.copia();
+        this.dizionarioStati = builder.dizionarioStati.copia();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int capacita) {
+        return new Builder(capacita);
+    }
+
+    static OrdineTable da(Collection<StreamsDemo.Ordine> ordini) {
+        Builder builder = new Builder(ordini.size());
+        for (StreamsDemo.Ordine o : ordini) {
+            builder.aggiungi(o.getId(), o.getCliente(), o.getImporto(), o.getStato(), o.getProdotti().size());
+        }
+        return builder.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private String[] id;
+        private int[] clienti;
+        private double[] importi;
+        private int[] stati;
+        private int[] numeroProdotti;
+        private final StringDictionary dizionarioClienti = new StringDictionary();
+        private final StringDictionary dizionarioStati = new StringDictionary();
+
+        private Builder(int capacita) {
+            if (capacita < 0) {
+                throw new IllegalArgumentException("Capacità negativa: " + capacita);
+            }
+            id = new String[capacita];
+            clienti = new int[capacita];
+            importi = new double[capacita];
+            stati = new int[capacita];
+            numeroProdotti = new int[capacita];
+        }
+
+        public Builder aggiungi(String id, String cliente, double importo, String stato, int numeroProdotti) {
+            if (size == importi.length) {
+                int capacita = Math.max(16, size + (size >> 1));
+                this.id = Arrays.copyOf(this.id, capacita);
+                clienti = Arrays.copyOf(clienti, capacita);
+                importi = Arrays.copyOf(importi, capacita);
+                stati = Arrays.copyOf(stati, capacita);
+                this.numeroProdotti = Arrays.copyOf(this.numeroProdotti, capacita);
+            }
+            this.id[size] = id;
+            clienti[size] = dizionarioClienti.codifica(cliente);
+            importi[size] = importo;
+            stati[size] = dizionarioStati.codifica(stato);
+            this.numeroProdotti[size] = numeroProdotti;
+            size++;
+            return this;
+        }
+
+        public OrdineTable build() {
+            return new OrdineTable(this);
+        }
+    }
+
+    // ==================== ACCESSO PER RIGA ====================
+
+    public int size() {
+        return size;
+    }
+
+    public String getId(int riga) {
+        return id[riga];
+    }
+
+    public String getCliente(int riga) {
+        return dizionarioClienti.decodifica(clienti[riga]);
+    }
+
+    public double getImporto(int riga) {
+        return importi[riga];
+    }
+
+    public String getStato(int riga) {
+        return dizionarioStati.decodifica(stati[riga]);
+    }
+
+    public int getNumeroProdotti(int riga) {
+        return numeroProdotti[riga];
+    }
+
+    // ==================== AGGREGAZIONI ====================
+
+    public DoubleSummaryStatistics statisticheImporto() {
+        return ColumnAggregates.riepilogo(importi);
+    }
+
+    public double percentileImporto(double p) {
+        return ColumnAggregates.percentile(importi, p);
+    }
+
+    public Map<String, DoubleSummaryStatistics> importoPerCliente() {
+        return ColumnAggregates.perGruppo(clienti, dizionarioClienti, importi);
+    }
+
+    public Map<String, DoubleSummaryStatistics> importoPerStato() {
+        return ColumnAggregates.perGruppo(stati, dizionarioStati, importi);
+    }
+
+    // ==================== INDICI ====================
+
+    /**
+     * Indici bitmap su cliente, stato, importo e numero di prodotti (vedi PersonaTable.indiceBitmap)
+     */
+    public OrdineBitmapIndex indiceBitmap() {
+        return new OrdineBitmapIndex(this,
+            new CategoryIndex(clienti, dizionarioClienti),
+            new CategoryIndex(stati, dizionarioStati),
+            RangeIndex.of(importi),
+            RangeIndex.of(numeroProdotti));
+    }
+}
@@ -0,0 +1,156 @@
+package com.corso.samples.datatypes;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collector pensati per gli stream paralleli, in alternativa a quelli di Collectors:
+ * - countingByKey: una sola ConcurrentHashMap condivisa con un LongAdder per chiave
+ *   (CONCURRENT | UNORDERED): niente mappe parziali da fondere nel combiner
+ * - summarizingDouble: come Collectors.summarizingDouble ma con un contenitore di
+ *   quattro campi primitivi, fuso con poche operazioni aritmetiche
+ * - summingDoubleByKey: group-by con somma in una ObjectDoubleHashMap, senza
+ *   Double boxed; il combiner versa la mappa più piccola nella più grande
+ * - approxDistinct: numero approssimato di valori distinti (HyperLogLog)
+ * - quantiles: quantili approssimati (TDigest)
+ * Solo countingByKey è CONCURRENT: gli altri contenitori non sono thread-safe,
+ * ogni thread ne riempie uno e il combiner li fonde senza lock.
+ */
+public final class ParallelCollectors {
+
+    private ParallelCollectors() {
+    }
+
+    // ==================== CONTEGGIO PER CHIAVE ====================
+
+    /**
+     * Conteggio per chiave su una ConcurrentHashMap<K, LongAdder> condivisa da tutti i thread.
+     * LongAdder distribuisce gli incrementi concorrenti sulla stessa chiave su celle
+     * diverse, quindi anche le chiavi molto frequenti non diventano un punto di contesa.
+     */
+    public static <T, K> Collector<T, ?, Map<K, Long>> countingByKey(Function<? super T, ? extends K> chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        return Collector.<T, ConcurrentHashMap<K, LongAdder>, Map<K, Long>>of(
+            ConcurrentHashMap::new,
+            (mappa, elemento) -> mappa.computeIfAbsent(chiave.apply(elemento), k -> new LongAdder()).increment(),
+            (a, b) -> {
+                b.forEach((k, adder) -> a.computeIfAbsent(k, x -> new LongAdder()).add(adder.sum()));
+                return a;
+            },
+            mappa -> {
+                Map<K, Long> risultato = new HashMap<>(mappa.size() * 2);
+                mappa.forEach((k, adder) -> risultato.put(k, adder.sum()));
+                return risultato;
+            },
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    // ==================== STATISTICHE ====================
+
+    /**
+     * Contenitore di summarizingDouble: count, somma, min e max in campi primitivi
+     */
+    private static final class Statistiche {
+        long count;
+        double somma;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void accept(double valore) {
+            count++;
+            somma += valore;
+            min = Math.min(min, valore);
+            max = Math.max(max, valore);
+        }
+
+        Statistiche combina(Statistiche altre) {
+            count += altre.count;
+            somma += altre.somma;
+            min = Math.min(min, altre.min);
+            max = Math.max(max, altre.max);
+            return this;
+        }
+
+        DoubleSummaryStatistics toSummary() {
+            return count == 0 ? new DoubleSummaryStatistics() : new DoubleSummaryStatistics(count, min, max, somma);
+        }
+    }
+
+    /**
+     * Stesso risultato di Collectors.summarizingDouble (DoubleSummaryStatistics).
+     * La somma è semplice, senza la compensazione di Kahan del JDK:
+     * più veloce, con l'errore di arrotondamento di un normale ciclo.
+     */
+    public static <T> Collector<T, ?, DoubleSummaryStatistics> summarizingDouble(ToDoubleFunction<? super T> valore) {
+        Objects.requireNonNull(valore, "valore");
+        return Collector.<T, Statistiche, DoubleSummaryStatistics>of(
+            Statistiche::new,
+            (s, elemento) -> s.accept(valore.applyAsDouble(elemento)),
+            Statistiche::combina,
+            Statistiche::toSummary,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    // ==================== GROUP BY PRIMITIVO ====================
+
+    /**
+     * Somma dei valori per chiave, in una ObjectDoubleHashMap
+     */
+    public static <T, K> Collector<T, ?, ObjectDoubleHashMap<K>> summingDoubleByKey(
+            Function<? super T, ? extends K> chiave, ToDoubleFunction<? super T> valore) {
+        Objects.requireNonNull(chiave, "chiave");
+        Objects.requireNonNull(valore, "valore");
+        return Collector.<T, ObjectDoubleHashMap<K>>of(
+            ObjectDoubleHashMap::new,
+            (mappa, elemento) -> mappa.addTo(chiave.apply(elemento), valore.applyAsDouble(elemento)),
+            (a, b) -> a.size() >= b.size() ? a.addAll(b) : b.addAll(a),
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    // ==================== SKETCH APPROSSIMATI ====================
+
+    /**
+     * Numero approssimato di chiavi distinte con memoria fissa di 2^precisione byte
+     */
+    public static <T> Collector<T, ?, Long> approxDistinct(Function<? super T, ?> chiave, int precisione) {
+        Objects.requireNonNull(chiave, "chiave");
+        HyperLogLog.verificaPrecisione(precisione);
+        return Collector.<T, HyperLogLog, Long>of(
+            () -> new HyperLogLog(precisione),
+            (hll, elemento) -> hll.add(chiave.apply(elemento)),
+            HyperLogLog::merge,
+            HyperLogLog::stima,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    public static <T> Collector<T, ?, Long> approxDistinct(Function<? super T, ?> chiave) {
+        return approxDistinct(chiave, HyperLogLog.PRECISIONE_PREDEFINITA);
+    }
+
+    /**
+     * TDigest dei valori, da interrogare con quantile(q)
+     */
+    public static <T> Collector<T, ?, TDigest> quantiles(ToDoubleFunction<? super T> valore, double compressione) {
+        Objects.requireNonNull(valore, "valore");
+        TDigest.verificaCompressione(compressione);
+        return Collector.<T, TDigest>of(
+            () -> new TDigest(compressione),
+            (digest, elemento) -> digest.add(valore.applyAsDouble(elemento)),
+            TDigest::merge,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public static <T> Collector<T, ?, TDigest> quantiles(ToDoubleFunction<? super T> valore) {
+        return quantiles(valore, TDigest.COMPRESSIONE_PREDEFINITA);
+    }
+}
@@ -0,0 +1,343 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Versioni parallele (Fork/Join) di Merge Sort e Radix Sort per int[].
+ * Rispetto a mergeSort e radixSort di AlgoritmiOrdinamentoDemo:
+ * - Merge Sort usa un unico buffer di appoggio allocato all'inizio
+ *   (alternando i ruoli di array e buffer ad ogni livello) e un merge
+ *   a sua volta parallelo, invece di allocare array temporanei ad ogni merge
+ * - Radix Sort è LSD su 8 bit per passata (4 passate per un int): gli
+ *   istogrammi per blocco sono calcolati in parallelo, le posizioni di
+ *   destinazione con somme prefisse e la distribuzione è parallela e stabile
+ * - Radix Sort gestisce i numeri negativi invertendo il bit di segno
+ *   nell'ultima cifra
+ * Sotto PARALLEL_THRESHOLD elementi si usa PatternDefeatingSort sequenziale.
+ */
+public final class ParallelSort {
+
+    // Sotto questa dimensione non conviene parallelizzare
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Dimensione delle foglie del Merge Sort parallelo
+    private static final int MERGE_SORT_LEAF = 1 << 14;
+
+    // Sotto questa dimensione il merge è sequenziale
+    private static final int MERGE_THRESHOLD = 1 << 14;
+
+    // Radix Sort: 8 bit per passata, 256 bucket
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+    private static final int RADIX_PASSES = Integer.SIZE / RADIX_BITS;
+
+    // Dimensione minima di un blocco del Radix Sort
+    private static final int RADIX_MIN_CHUNK = 1 << 15;
+
+    private ParallelSort() {
+    }
+
+    // ==================== MERGE SORT ====================
+
+    /**
+     * Merge Sort parallelo sul common pool.
+     * Complessità: O(n log n) lavoro, O(log³ n) span
+     * Spazio: O(n) (un solo buffer)
+     * Stabile: Sì
+     */
+    public static void mergeSort(int[] arr) {
+        mergeSort(arr, ForkJoinPool.commonPool());
+    }
+
+    public static void mergeSort(int[] arr, ForkJoinPool pool) {
+        if (arr.length < PARALLEL_THRESHOLD) {
+            PatternDefeatingSort.sort(arr);
+            return;
+        }
+        int[] scratch = new int[arr.length];
+        pool.invoke(new MergeSortTask(arr, scratch, arr, 0, arr.length));
+    }
+
+    /**
+     * Ordina src[low, high) e scrive il risultato in dst[low, high).
+     * I figli ordinano nell'array opposto (dst diventa il loro src), così
+     * ad ogni livello si alternano array originale e buffer senza copie.
+     * I dati di partenza stanno sempre in original: ogni foglia li legge da lì.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeSortTask extends RecursiveAction {
+        private final int[] original;
+        private final int[] src;
+        private final int[] dst;
+        private final int low;
+        private final int high;
+
+        MergeSortTask(int[] original, int[] src, int[] dst, int low, int high) {
+            this.original = original;
+            this.src = src;
+            this.dst = dst;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= MERGE_SORT_LEAF) {
+                if (dst != original) {
+                    System.arraycopy(original, low, dst, low, high - low);
+                }
+                PatternDefeatingSort.sort(dst, low, high);
+                return;
+            }
+
+            int mid = (low + high) >>> 1;
+            invokeAll(
+                new MergeSortTask(original, dst, src, low, mid),
+                new MergeSortTask(original, dst, src, mid, high));
+
+            new MergeTask(src, dst, low, mid, mid, high, low).compute();
+        }
+    }
+
+    /**
+     * Merge parallelo di src[low1, high1) e src[low2, high2) in dst a partire da out.
+     * Si divide la sequenza più lunga a metà e si cerca con ricerca binaria
+     * il punto di taglio nell'altra: le due metà si fondono in parallelo.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int low1;
+        private final int high1;
+        private final int low2;
+        private final int high2;
+        private final int out;
+
+        MergeTask(int[] src, int[] dst, int low1, int high1, int low2, int high2, int out) {
+            this.src = src;
+            this.dst = dst;
+            this.low1 = low1;
+            this.high1 = high1;
+            this.low2 = low2;
+            this.high2 = high2;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = high1 - low1;
+            int n2 = high2 - low2;
+
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                mergeSequenziale(src, dst, low1, high1, low2, high2, out);
+                return;
+            }
+
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                // Per la stabilità, gli uguali della prima sequenza vanno prima
+                split1 = (low1 + high1) >>> 1;
+                split2 = lowerBound(src, low2, high2, src[split1]);
+            } else {
+                split2 = (low2 + high2) >>> 1;
+                split1 = upperBound(src, low1, high1, src[split2]);
+            }
+
+            int outSplit = out + (split1 - low1) + (split2 - low2);
+            invokeAll(
+                new MergeTask(src, dst, low1, split1, low2, split2, out),
+                new MergeTask(src, dst, split1, high1, split2, high2, outSplit));
+        }
+    }
+
+    private static void mergeSequenziale(int[] src, int[] dst,
+                                         int i, int high1, int j, int high2, int k) {
+        while (i < high1 && j < high2) {
+            if (src[i] <= src[j]) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        if (i < high1) {
+            System.arraycopy(src, i, dst, k, high1 - i);
+        } else if (j < high2) {
+            System.arraycopy(src, j, dst, k, high2 - j);
+        }
+    }
+
+    /**
+     * Primo indice in [low, high) con arr[i] >= key
+     */
+    private static int lowerBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primo indice in [low, high) con arr[i] > key
+     */
+    private static int upperBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ==================== RADIX SORT ====================
+
+    /**
+     * Radix Sort LSD parallelo sul common pool.
+     * Complessità: O(4 * n) lavoro
+     * Spazio: O(n + blocchi * 256)
+     * Stabile: Sì
+     * Funziona anche con interi negativi
+     */
+    public static void radixSort(int[] arr) {
+        radixSort(arr, ForkJoinPool.commonPool());
+    }
+
+    public static void radixSort(int[] arr, ForkJoinPool pool) {
+        int n = arr.length;
+        if (n < PARALLEL_THRESHOLD) {
+            PatternDefeatingSort.sort(arr);
+            return;
+        }
+
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, n / RADIX_MIN_CHUNK));
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[] histograms = new int[chunks * RADIX];
+
+        int[] src = arr;
+        int[] dst = new int[n];
+
+        for (int pass = 0; pass < RADIX_PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            boolean segno = pass == RADIX_PASSES - 1;
+
+            Arrays.fill(histograms, 0);
+            pool.invoke(new RadixPassTask(src, dst, histograms, chunkSize, 0, chunks, shift, segno, false));
+
+            // Se tutti gli elementi hanno la stessa cifra la passata non cambia nulla
+            if (cifraUnica(histograms, chunks, n)) {
+                continue;
+            }
+
+            // Somme prefisse: per ogni cifra, prima tutti i blocchi precedenti
+            int offset = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int c = 0; c < chunks; c++) {
+                    int count = histograms[c * RADIX + digit];
+                    histograms[c * RADIX + digit] = offset;
+                    offset += count;
+                }
+            }
+
+            pool.invoke(new RadixPassTask(src, dst, histograms, chunkSize, 0, chunks, shift, segno, true));
+
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    private static boolean cifraUnica(int[] histograms, int chunks, int n) {
+        for (int digit = 0; digit < RADIX; digit++) {
+            int total = 0;
+            for (int c = 0; c < chunks; c++) {
+                total += histograms[c * RADIX + digit];
+            }
+            if (total == n) {
+                return true;
+            }
+            if (total > 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static int digit(int value, int shift, boolean segno) {
+        int d = (value >>> shift) & RADIX_MASK;
+        // Nell'ultima cifra il bit di segno invertito mette i negativi prima dei positivi
+        return segno ? d ^ (RADIX >>> 1) : d;
+    }
+
+    /**
+     * Una passata del Radix Sort sui blocchi [firstChunk, lastChunk):
+     * conteggio delle cifre per blocco oppure distribuzione in dst usando
+     * come posizioni di partenza le somme prefisse di histograms.
+     */
+    @SuppressWarnings("serial")
+    private static final class RadixPassTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int[] histograms;
+        private final int chunkSize;
+        private final int firstChunk;
+        private final int lastChunk;
+        private final int shift;
+        private final boolean segno;
+        private final boolean scatter;
+
+        RadixPassTask(int[] src, int[] dst, int[] histograms, int chunkSize,
+                      int firstChunk, int lastChunk, int shift, boolean segno, boolean scatter) {
+            this.src = src;
+            this.dst = dst;
+            this.histograms = histograms;
+            this.chunkSize = chunkSize;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+            this.shift = shift;
+            this.segno = segno;
+            this.scatter = scatter;
+        }
+
+        @Override
+        protected void compute() {
+            if (lastChunk - firstChunk > 1) {
+                int mid = (firstChunk + lastChunk) >>> 1;
+                invokeAll(
+                    new RadixPassTask(src, dst, histograms, chunkSize, firstChunk, mid, shift, segno, scatter),
+                    new RadixPassTask(src, dst, histograms, chunkSize, mid, lastChunk, shift, segno, scatter));
+                return;
+            }
+
+            int base = firstChunk * RADIX;
+            int from = firstChunk * chunkSize;
+            int to = Math.min(src.length, from + chunkSize);
+
+            if (!scatter) {
+                for (int i = from; i < to; i++) {
+                    histograms[base + digit(src[i], shift, segno)]++;
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    int value = src[i];
+                    dst[histograms[base + digit(value, shift, segno)]++] = value;
+                }
+            }
+        }
+    }
+}
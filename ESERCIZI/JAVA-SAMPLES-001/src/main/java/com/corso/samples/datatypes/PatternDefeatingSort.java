@@ -0,0 +1,940 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Motore di ordinamento ibrido (introsort / pattern-defeating quicksort)
+ * per array di primitivi int[], long[] e double[].
+ * Parte dalle varianti di Quick Sort di AlgoritmiOrdinamentoDemo e ne
+ * elimina i casi degeneri:
+ * - Insertion Sort sugli intervalli piccoli
+ * - Pivot con mediana di tre (ninther sugli intervalli grandi)
+ * - Partizionamento 3-way quando ci sono molti duplicati
+ * - Riconoscimento di run già ordinate (o invertite)
+ * - Fallback su Heap Sort oltre il limite di profondità
+ * Complessità: O(n) su input ordinato, O(n log n) nel caso peggiore
+ * Spazio: O(log n)
+ * Stabile: No
+ */
+public final class PatternDefeatingSort {
+
+    // Sotto questa soglia si usa Insertion Sort
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    // Sopra questa soglia il pivot è la mediana di mediane (ninther)
+    private static final int NINTHER_THRESHOLD = 128;
+
+    // Spostamenti massimi tentati da partialInsertionSort prima di rinunciare
+    private static final int PARTIAL_INSERTION_LIMIT = 8;
+
+    private PatternDefeatingSort() {
+    }
+
+    private static void checkRange(int length, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0 || toIndex > length) {
+            throw new ArrayIndexOutOfBoundsException(
+                "Intervallo [" + fromIndex + ", " + toIndex + ") fuori da [0, " + length + ")");
+        }
+    }
+
+    /**
+     * Numero di partizioni sbilanciate tollerate prima del fallback su Heap Sort: log2(n)
+     */
+    private static int limiteProfondita(int n) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(n);
+    }
+
+    // ==================== int[] ====================
+
+    /**
+     * Ordina in modo crescente l'intero array.
+     */
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Ordina in modo crescente l'intervallo [fromIndex, toIndex).
+     */
+    public static void sort(int[] arr, int fromIndex, int toIndex) {
+        checkRange(arr.length, fromIndex, toIndex);
+        sortRange(arr, fromIndex, toIndex);
+    }
+
+    private static void sortRange(int[] arr, int low, int high) {
+        if (high - low < 2) {
+            return;
+        }
+        if (trovaRunCompleta(arr, low, high)) {
+            return;
+        }
+        pdqSort(arr, low, high, limiteProfondita(high - low), true);
+    }
+
+    /**
+     * Se l'intervallo è già un'unica run crescente (o strettamente decrescente,
+     * che viene invertita) lo lascia ordinato e restituisce true.
+     * Su input casuale si ferma dopo pochi elementi.
+     */
+    private static boolean trovaRunCompleta(int[] arr, int low, int high) {
+        int i = low + 1;
+        if (arr[i - 1] <= arr[i]) {
+            while (i < high && arr[i - 1] <= arr[i]) {
+                i++;
+            }
+            return i == high;
+        }
+        while (i < high && arr[i - 1] > arr[i]) {
+            i++;
+        }
+        if (i == high) {
+            reverse(arr, low, high - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void pdqSort(int[] arr, int low, int high, int badAllowed, boolean leftmost) {
+        while (true) {
+            int size = high - low;
+
+            // Intervalli piccoli: Insertion Sort
+            if (size <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, low, high);
+                return;
+            }
+
+            // Scelta del pivot: mediana di tre o "ninther" (mediana di mediane) per intervalli grandi
+            int mid = low + size / 2;
+            if (size > NINTHER_THRESHOLD) {
+                sort3(arr, low, mid, high - 1);
+                sort3(arr, low + 1, mid - 1, high - 2);
+                sort3(arr, low + 2, mid + 1, high - 3);
+                sort3(arr, mid - 1, mid, mid + 1);
+                swap(arr, low, mid);
+            } else {
+                sort3(arr, mid, low, high - 1);
+            }
+
+            // Molti duplicati: se il pivot è uguale al predecessore (già al suo posto)
+            // gli elementi uguali sono il minimo dell'intervallo e vengono saltati
+            // con il partizionamento 3-way, come in quickSort3Way
+            if (!leftmost && arr[low - 1] == arr[low]) {
+                low = partition3Way(arr, low, high) + 1;
+                continue;
+            }
+
+            int pivotPos = partitionRight(arr, low, high);
+            boolean giaPartizionato = pivotPos < 0;
+            if (giaPartizionato) {
+                pivotPos = -pivotPos - 1;
+            }
+
+            int leftSize = pivotPos - low;
+            int rightSize = high - (pivotPos + 1);
+            boolean sbilanciato = leftSize < size / 8 || rightSize < size / 8;
+
+            if (sbilanciato) {
+                // Oltre il limite di profondità: Heap Sort garantisce O(n log n)
+                if (--badAllowed == 0) {
+                    heapSort(arr, low, high);
+                    return;
+                }
+                rompiPattern(arr, low, pivotPos, leftSize);
+                rompiPattern(arr, pivotPos + 1, high, rightSize);
+            } else if (giaPartizionato
+                    && partialInsertionSort(arr, low, pivotPos)
+                    && partialInsertionSort(arr, pivotPos + 1, high)) {
+                // Nessuno scambio e entrambe le metà quasi ordinate: run già ordinata
+                return;
+            }
+
+            // Ricorsione sulla parte più piccola, iterazione sulla più grande: stack O(log n)
+            if (leftSize < rightSize) {
+                pdqSort(arr, low, pivotPos, badAllowed, leftmost);
+                low = pivotPos + 1;
+                leftmost = false;
+            } else {
+                pdqSort(arr, pivotPos + 1, high, badAllowed, false);
+                high = pivotPos;
+            }
+        }
+    }
+
+    /**
+     * Partiziona attorno al pivot in arr[low]: a sinistra gli elementi minori,
+     * a destra quelli maggiori o uguali. Restituisce la posizione finale del
+     * pivot, codificata come (-pos - 1) se non è servito alcuno scambio.
+     */
+    private static int partitionRight(int[] arr, int low, int high) {
+        int pivot = arr[low];
+        int i = low + 1;
+        int j = high - 1;
+
+        while (i <= j && arr[i] < pivot) {
+            i++;
+        }
+        while (i <= j && arr[j] >= pivot) {
+            j--;
+        }
+        boolean giaPartizionato = i > j;
+
+        while (i < j) {
+            swap(arr, i++, j--);
+            while (arr[i] < pivot) {
+                i++;
+            }
+            while (arr[j] >= pivot) {
+                j--;
+            }
+        }
+
+        int pivotPos = i - 1;
+        arr[low] = arr[pivotPos];
+        arr[pivotPos] = pivot;
+        return giaPartizionato ? -pivotPos - 1 : pivotPos;
+    }
+
+    /**
+     * Partizionamento 3-way (Dijkstra) con pivot arr[low], sapendo che nessun
+     * elemento dell'intervallo è minore del pivot: raggruppa gli uguali a
+     * sinistra e restituisce l'indice dell'ultimo elemento uguale al pivot.
+     */
+    private static int partition3Way(int[] arr, int low, int high) {
+        int pivot = arr[low];
+        int lt = low;
+        int gt = high - 1;
+        int i = low + 1;
+
+        while (i <= gt) {
+            if (arr[i] < pivot) {
+                swap(arr, lt++, i++);
+            } else if (arr[i] > pivot) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return gt;
+    }
+
+    private static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Insertion Sort che rinuncia dopo PARTIAL_INSERTION_LIMIT spostamenti.
+     * Restituisce true se l'intervallo è stato ordinato completamente.
+     */
+    private static boolean partialInsertionSort(int[] arr, int low, int high) {
+        int spostamenti = 0;
+        for (int i = low + 1; i < high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            if (arr[j] > key) {
+                while (j >= low && arr[j] > key) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = key;
+                spostamenti += i - 1 - j;
+                if (spostamenti > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Heap Sort su un intervallo, stesso schema di heapSort/heapify
+     * ma con sift-down iterativo.
+     */
+    private static void heapSort(int[] arr, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, low, i, 0);
+        }
+    }
+
+    private static void siftDown(int[] arr, int base, int n, int i) {
+        int value = arr[base + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+        }
+        arr[base + i] = value;
+    }
+
+    /**
+     * Dopo una partizione sbilanciata scambia alcuni elementi in posizioni
+     * fisse per rompere i pattern che fanno scegliere sempre pivot cattivi.
+     */
+    private static void rompiPattern(int[] arr, int low, int high, int size) {
+        if (size >= INSERTION_SORT_THRESHOLD) {
+            swap(arr, low, low + size / 4);
+            swap(arr, high - 1, high - size / 4);
+            if (size > NINTHER_THRESHOLD) {
+                swap(arr, low + 1, low + size / 4 + 1);
+                swap(arr, low + 2, low + size / 4 + 2);
+                swap(arr, high - 2, high - size / 4 - 1);
+                swap(arr, high - 3, high - size / 4 - 2);
+            }
+        }
+    }
+
+    /**
+     * Ordina arr[a], arr[b], arr[c] così che arr[b] sia la mediana dei tre
+     */
+    private static void sort3(int[] arr, int a, int b, int c) {
+        if (arr[b] < arr[a]) swap(arr, a, b);
+        if (arr[c] < arr[b]) swap(arr, b, c);
+        if (arr[b] < arr[a]) swap(arr, a, b);
+    }
+
+    private static void reverse(int[] arr, int low, int high) {
+        while (low < high) {
+            swap(arr, low++, high--);
+        }
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // ==================== long[] ====================
+
+    /**
+     * Ordina in modo crescente l'intero array.
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Ordina in modo crescente l'intervallo [fromIndex, toIndex).
+     */
+    public static void sort(long[] arr, int fromIndex, int toIndex) {
+        checkRange(arr.length, fromIndex, toIndex);
+        sortRange(arr, fromIndex, toIndex);
+    }
+
+    private static void sortRange(long[] arr, int low, int high) {
+        if (high - low < 2) {
+            return;
+        }
+        if (trovaRunCompleta(arr, low, high)) {
+            return;
+        }
+        pdqSort(arr, low, high, limiteProfondita(high - low), true);
+    }
+
+    /**
+     * Se l'intervallo è già un'unica run crescente (o strettamente decrescente,
+     * che viene invertita) lo lascia ordinato e restituisce true.
+     * Su input casuale si ferma dopo pochi elementi.
+     */
+    private static boolean trovaRunCompleta(long[] arr, int low, int high) {
+        int i = low + 1;
+        if (arr[i - 1] <= arr[i]) {
+            while (i < high && arr[i - 1] <= arr[i]) {
+                i++;
+            }
+            return i == high;
+        }
+        while (i < high && arr[i - 1] > arr[i]) {
+            i++;
+        }
+        if (i == high) {
+            reverse(arr, low, high - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void pdqSort(long[] arr, int low, int high, int badAllowed, boolean leftmost) {
+        while (true) {
+            int size = high - low;
+
+            // Intervalli piccoli: Insertion Sort
+            if (size <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, low, high);
+                return;
+            }
+
+            // Scelta del pivot: mediana di tre o "ninther" (mediana di mediane) per intervalli grandi
+            int mid = low + size / 2;
+            if (size > NINTHER_THRESHOLD) {
+                sort3(arr, low, mid, high - 1);
+                sort3(arr, low + 1, mid - 1, high - 2);
+                sort3(arr, low + 2, mid + 1, high - 3);
+                sort3(arr, mid - 1, mid, mid + 1);
+                swap(arr, low, mid);
+            } else {
+                sort3(arr, mid, low, high - 1);
+            }
+
+            // Molti duplicati: se il pivot è uguale al predecessore (già al suo posto)
+            // gli elementi uguali sono il minimo dell'intervallo e vengono saltati
+            // con il partizionamento 3-way, come in quickSort3Way
+            if (!leftmost && arr[low - 1] == arr[low]) {
+                low = partition3Way(arr, low, high) + 1;
+                continue;
+            }
+
+            int pivotPos = partitionRight(arr, low, high);
+            boolean giaPartizionato = pivotPos < 0;
+            if (giaPartizionato) {
+                pivotPos = -pivotPos - 1;
+            }
+
+            int leftSize = pivotPos - low;
+            int rightSize = high - (pivotPos + 1);
+            boolean sbilanciato = leftSize < size / 8 || rightSize < size / 8;
+
+            if (sbilanciato) {
+                // Oltre il limite di profondità: Heap Sort garantisce O(n log n)
+                if (--badAllowed == 0) {
+                    heapSort(arr, low, high);
+                    return;
+                }
+                rompiPattern(arr, low, pivotPos, leftSize);
+                rompiPattern(arr, pivotPos + 1, high, rightSize);
+            } else if (giaPartizionato
+                    && partialInsertionSort(arr, low, pivotPos)
+                    && partialInsertionSort(arr, pivotPos + 1, high)) {
+                // Nessuno scambio e entrambe le metà quasi ordinate: run già ordinata
+                return;
+            }
+
+            // Ricorsione sulla parte più piccola, iterazione sulla più grande: stack O(log n)
+            if (leftSize < rightSize) {
+                pdqSort(arr, low, pivotPos, badAllowed, leftmost);
+                low = pivotPos + 1;
+                leftmost = false;
+            } else {
+                pdqSort(arr, pivotPos + 1, high, badAllowed, false);
+                high = pivotPos;
+            }
+        }
+    }
+
+    /**
+     * Partiziona attorno al pivot in arr[low]: a sinistra gli elementi minori,
+     * a destra quelli maggiori o uguali. Restituisce la posizione finale del
+     * pivot, codificata come (-pos - 1) se non è servito alcuno scambio.
+     */
+    private static int partitionRight(long[] arr, int low, int high) {
+        long pivot = arr[low];
+        int i = low + 1;
+        int j = high - 1;
+
+        while (i <= j && arr[i] < pivot) {
+            i++;
+        }
+        while (i <= j && arr[j] >= pivot) {
+            j--;
+        }
+        boolean giaPartizionato = i > j;
+
+        while (i < j) {
+            swap(arr, i++, j--);
+            while (arr[i] < pivot) {
+                i++;
+            }
+            while (arr[j] >= pivot) {
+                j--;
+            }
+        }
+
+        int pivotPos = i - 1;
+        arr[low] = arr[pivotPos];
+        arr[pivotPos] = pivot;
+        return giaPartizionato ? -pivotPos - 1 : pivotPos;
+    }
+
+    /**
+     * Partizionamento 3-way (Dijkstra) con pivot arr[low], sapendo che nessun
+     * elemento dell'intervallo è minore del pivot: raggruppa gli uguali a
+     * sinistra e restituisce l'indice dell'ultimo elemento uguale al pivot.
+     */
+    private static int partition3Way(long[] arr, int low, int high) {
+        long pivot = arr[low];
+        int lt = low;
+        int gt = high - 1;
+        int i = low + 1;
+
+        while (i <= gt) {
+            if (arr[i] < pivot) {
+                swap(arr, lt++, i++);
+            } else if (arr[i] > pivot) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return gt;
+    }
+
+    private static void insertionSort(long[] arr, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            long key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Insertion Sort che rinuncia dopo PARTIAL_INSERTION_LIMIT spostamenti.
+     * Restituisce true se l'intervallo è stato ordinato completamente.
+     */
+    private static boolean partialInsertionSort(long[] arr, int low, int high) {
+        int spostamenti = 0;
+        for (int i = low + 1; i < high; i++) {
+            long key = arr[i];
+            int j = i - 1;
+            if (arr[j] > key) {
+                while (j >= low && arr[j] > key) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = key;
+                spostamenti += i - 1 - j;
+                if (spostamenti > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Heap Sort su un intervallo, stesso schema di heapSort/heapify
+     * ma con sift-down iterativo.
+     */
+    private static void heapSort(long[] arr, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, low, i, 0);
+        }
+    }
+
+    private static void siftDown(long[] arr, int base, int n, int i) {
+        long value = arr[base + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+        }
+        arr[base + i] = value;
+    }
+
+    /**
+     * Dopo una partizione sbilanciata scambia alcuni elementi in posizioni
+     * fisse per rompere i pattern che fanno scegliere sempre pivot cattivi.
+     */
+    private static void rompiPattern(long[] arr, int low, int high, int size) {
+        if (size >= INSERTION_SORT_THRESHOLD) {
+            swap(arr, low, low + size / 4);
+            swap(arr, high - 1, high - size / 4);
+            if (size > NINTHER_THRESHOLD) {
+                swap(arr, low + 1, low + size / 4 + 1);
+                swap(arr, low + 2, low + size / 4 + 2);
+                swap(arr, high - 2, high - size / 4 - 1);
+                swap(arr, high - 3, high - size / 4 - 2);
+            }
+        }
+    }
+
+    /**
+     * Ordina arr[a], arr[b], arr[c] così che arr[b] sia la mediana dei tre
+     */
+    private static void sort3(long[] arr, int a, int b, int c) {
+        if (arr[b] < arr[a]) swap(arr, a, b);
+        if (arr[c] < arr[b]) swap(arr, b, c);
+        if (arr[b] < arr[a]) swap(arr, a, b);
+    }
+
+    private static void reverse(long[] arr, int low, int high) {
+        while (low < high) {
+            swap(arr, low++, high--);
+        }
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // ==================== double[] ====================
+
+    /**
+     * Ordina in modo crescente l'intero array.
+     */
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    /**
+     * Ordina in modo crescente l'intervallo [fromIndex, toIndex).
+     */
+    public static void sort(double[] arr, int fromIndex, int toIndex) {
+        checkRange(arr.length, fromIndex, toIndex);
+        // Come Arrays.sort: i NaN vanno in fondo e -0.0 precede 0.0
+        int high = spostaNaNInFondo(arr, fromIndex, toIndex);
+        sortRange(arr, fromIndex, high);
+        ordinaZeri(arr, fromIndex, high);
+    }
+
+    private static void sortRange(double[] arr, int low, int high) {
+        if (high - low < 2) {
+            return;
+        }
+        if (trovaRunCompleta(arr, low, high)) {
+            return;
+        }
+        pdqSort(arr, low, high, limiteProfondita(high - low), true);
+    }
+
+    /**
+     * Se l'intervallo è già un'unica run crescente (o strettamente decrescente,
+     * che viene invertita) lo lascia ordinato e restituisce true.
+     * Su input casuale si ferma dopo pochi elementi.
+     */
+    private static boolean trovaRunCompleta(double[] arr, int low, int high) {
+        int i = low + 1;
+        if (arr[i - 1] <= arr[i]) {
+            while (i < high && arr[i - 1] <= arr[i]) {
+                i++;
+            }
+            return i == high;
+        }
+        while (i < high && arr[i - 1] > arr[i]) {
+            i++;
+        }
+        if (i == high) {
+            reverse(arr, low, high - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void pdqSort(double[] arr, int low, int high, int badAllowed, boolean leftmost) {
+        while (true) {
+            int size = high - low;
+
+            // Intervalli piccoli: Insertion Sort
+            if (size <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, low, high);
+                return;
+            }
+
+            // Scelta del pivot: mediana di tre o "ninther" (mediana di mediane) per intervalli grandi
+            int mid = low + size / 2;
+            if (size > NINTHER_THRESHOLD) {
+                sort3(arr, low, mid, high - 1);
+                sort3(arr, low + 1, mid - 1, high - 2);
+                sort3(arr, low + 2, mid + 1, high - 3);
+                sort3(arr, mid - 1, mid, mid + 1);
+                swap(arr, low, mid);
+            } else {
+                sort3(arr, mid, low, high - 1);
+            }
+
+            // Molti duplicati: se il pivot è uguale al predecessore (già al suo posto)
+            // gli elementi uguali sono il minimo dell'intervallo e vengono saltati
+            // con il partizionamento 3-way, come in quickSort3Way
+            if (!leftmost && arr[low - 1] == arr[low]) {
+                low = partition3Way(arr, low, high) + 1;
+                continue;
+            }
+
+            int pivotPos = partitionRight(arr, low, high);
+            boolean giaPartizionato = pivotPos < 0;
+            if (giaPartizionato) {
+                pivotPos = -pivotPos - 1;
+            }
+
+            int leftSize = pivotPos - low;
+            int rightSize = high - (pivotPos + 1);
+            boolean sbilanciato = leftSize < size / 8 || rightSize < size / 8;
+
+            if (sbilanciato) {
+                // Oltre il limite di profondità: Heap Sort garantisce O(n log n)
+                if (--badAllowed == 0) {
+                    heapSort(arr, low, high);
+                    return;
+                }
+                rompiPattern(arr, low, pivotPos, leftSize);
+                rompiPattern(arr, pivotPos + 1, high, rightSize);
+            } else if (giaPartizionato
+                    && partialInsertionSort(arr, low, pivotPos)
+                    && partialInsertionSort(arr, pivotPos + 1, high)) {
+                // Nessuno scambio e entrambe le metà quasi ordinate: run già ordinata
+                return;
+            }
+
+            // Ricorsione sulla parte più piccola, iterazione sulla più grande: stack O(log n)
+            if (leftSize < rightSize) {
+                pdqSort(arr, low, pivotPos, badAllowed, leftmost);
+                low = pivotPos + 1;
+                leftmost = false;
+            } else {
+                pdqSort(arr, pivotPos + 1, high, badAllowed, false);
+                high = pivotPos;
+            }
+        }
+    }
+
+    /**
+     * Partiziona attorno al pivot in arr[low]: a sinistra gli elementi minori,
+     * a destra quelli maggiori o uguali. Restituisce la posizione finale del
+     * pivot, codificata come (-pos - 1) se non è servito alcuno scambio.
+     */
+    private static int partitionRight(double[] arr, int low, int high) {
+        double pivot = arr[low];
+        int i = low + 1;
+        int j = high - 1;
+
+        while (i <= j && arr[i] < pivot) {
+            i++;
+        }
+        while (i <= j && arr[j] >= pivot) {
+            j--;
+        }
+        boolean giaPartizionato = i > j;
+
+        while (i < j) {
+            swap(arr, i++, j--);
+            while (arr[i] < pivot) {
+                i++;
+            }
+            while (arr[j] >= pivot) {
+                j--;
+            }
+        }
+
+        int pivotPos = i - 1;
+        arr[low] = arr[pivotPos];
+        arr[pivotPos] = pivot;
+        return giaPartizionato ? -pivotPos - 1 : pivotPos;
+    }
+
+    /**
+     * Partizionamento 3-way (Dijkstra) con pivot arr[low], sapendo che nessun
+     * elemento dell'intervallo è minore del pivot: raggruppa gli uguali a
+     * sinistra e restituisce l'indice dell'ultimo elemento uguale al pivot.
+     */
+    private static int partition3Way(double[] arr, int low, int high) {
+        double pivot = arr[low];
+        int lt = low;
+        int gt = high - 1;
+        int i = low + 1;
+
+        while (i <= gt) {
+            if (arr[i] < pivot) {
+                swap(arr, lt++, i++);
+            } else if (arr[i] > pivot) {
+                swap(arr, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        return gt;
+    }
+
+    private static void insertionSort(double[] arr, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            double key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Insertion Sort che rinuncia dopo PARTIAL_INSERTION_LIMIT spostamenti.
+     * Restituisce true se l'intervallo è stato ordinato completamente.
+     */
+    private static boolean partialInsertionSort(double[] arr, int low, int high) {
+        int spostamenti = 0;
+        for (int i = low + 1; i < high; i++) {
+            double key = arr[i];
+            int j = i - 1;
+            if (arr[j] > key) {
+                while (j >= low && arr[j] > key) {
+                    arr[j + 1] = arr[j];
+                    j--;
+                }
+                arr[j + 1] = key;
+                spostamenti += i - 1 - j;
+                if (spostamenti > PARTIAL_INSERTION_LIMIT) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Heap Sort su un intervallo, stesso schema di heapSort/heapify
+     * ma con sift-down iterativo.
+     */
+    private static void heapSort(double[] arr, int low, int high) {
+        int n = high - low;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(arr, low, low + i);
+            siftDown(arr, low, i, 0);
+        }
+    }
+
+    private static void siftDown(double[] arr, int base, int n, int i) {
+        double value = arr[base + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && arr[base + child + 1] > arr[base + child]) {
+                child++;
+            }
+            if (arr[base + child] <= value) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            i = child;
+        }
+        arr[base + i] = value;
+    }
+
+    /**
+     * Dopo una partizione sbilanciata scambia alcuni elementi in posizioni
+     * fisse per rompere i pattern che fanno scegliere sempre pivot cattivi.
+     */
+    private static void rompiPattern(double[] arr, int low, int high, int size) {
+        if (size >= INSERTION_SORT_THRESHOLD) {
+            swap(arr, low, low + size / 4);
+            swap(arr, high - 1, high - size / 4);
+            if (size > NINTHER_THRESHOLD) {
+                swap(arr, low + 1, low + size / 4 + 1);
+                swap(arr, low + 2, low + size / 4 + 2);
+                swap(arr, high - 2, high - size / 4 - 1);
+                swap(arr, high - 3, high - size / 4 - 2);
+            }
+        }
+    }
+
+    /**
+     * Ordina arr[a], arr[b], arr[c] così che arr[b] sia la mediana dei tre
+     */
+    private static void sort3(double[] arr, int a, int b, int c) {
+        if (arr[b] < arr[a]) swap(arr, a, b);
+        if (arr[c] < arr[b]) swap(arr, b, c);
+        if (arr[b] < arr[a]) swap(arr, a, b);
+    }
+
+    private static void reverse(double[] arr, int low, int high) {
+        while (low < high) {
+            swap(arr, low++, high--);
+        }
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    private static int spostaNaNInFondo(double[] arr, int low, int high) {
+        while (low < high && Double.isNaN(arr[high - 1])) {
+            high--;
+        }
+        for (int i = high - 1; i >= low; i--) {
+            if (Double.isNaN(arr[i])) {
+                arr[i] = arr[--high];
+                arr[high] = Double.NaN;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Durante l'ordinamento -0.0 e 0.0 sono considerati uguali: qui si
+     * riscrive il blocco degli zeri mettendo prima tutti i -0.0.
+     */
+    private static void ordinaZeri(double[] arr, int low, int high) {
+        // Ricerca binaria del primo elemento >= 0.0 (che include -0.0)
+        int left = low;
+        int right = high;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (arr[mid] < 0.0d) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+
+        int fine = left;
+        int negativi = 0;
+        while (fine < high && arr[fine] == 0.0d) {
+            if (Double.doubleToRawLongBits(arr[fine]) != 0L) {
+                negativi++;
+            }
+            fine++;
+        }
+
+        for (int i = left; i < fine; i++) {
+            arr[i] = i < left + negativi ? -0.0d : 0.0d;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.corso.samples.datatypes;
+
+import java.util.stream.IntStream;
+
+/**
+ * Indici bitmap sulle colonne di una PersonaTable, per filtri ripetuti con
+ * molti predicati: città e dipartimento hanno un CategoryIndex, età e
+ * stipendio un RangeIndex. I predicati si combinano con and/or/andNot/not e
+ * il risultato sono le righe della tabella (getNome(riga), getEta(riga), ...).
+ * Si costruisce una volta con PersonaTable.indiceBitmap() (una passata per
+ * colonna più l'ordinamento dei valori numerici) e si riusa: ogni query
+ * combina bitmap già pronte invece di scorrere tutte le righe.
+ */
+public final class PersonaBitmapIndex {
+
+    private final PersonaTable tabella;
+    private final RoaringBitmap tutte;
+    private final CategoryIndex citta;
+    private final CategoryIndex dipartimento;
+    private final RangeIndex eta;
+    private final RangeIndex stipendio;
+
+    PersonaBitmapIndex(PersonaTable tabella, CategoryIndex citta, CategoryIndex dipartimento,
+                       RangeIndex eta, RangeIndex stipendio) {
+        this.tabella = tabella;
+        this.tutte = RoaringBitmap.range(0, tabella.size());
+        this.citta = citta;
+        this.dipartimento = dipartimento;
+        this.eta = eta;
+        this.stipendio = stipendio;
+    }
+
+    public PersonaTable tabella() {
+        return tabella;
+    }
+
+    public CategoryIndex citta() {
+        return citta;
+    }
+
+    public CategoryIndex dipartimento() {
+        return dipartimento;
+    }
+
+    public RangeIndex eta() {
+        return eta;
+    }
+
+    public RangeIndex stipendio() {
+        return stipendio;
+    }
+
+    public BitmapPredicate tutte() {
+        return () -> tutte;
+    }
+
+    /**
+     * Righe che non soddisfano il predicato
+     */
+    public BitmapPredicate not(BitmapPredicate predicato) {
+        return () -> tutte.andNot(predicato.evaluate());
+    }
+
+    /**
+     * Righe che soddisfano il predicato, in ordine crescente
+     */
+    public int[] select(BitmapPredicate predicato) {
+        return predicato.evaluate().toArray();
+    }
+
+    /**
+     * Come select, ma le righe sono prodotte man mano
+     */
+    public IntStream righe(BitmapPredicate predicato) {
+        return predicato.evaluate().stream();
+    }
+
+    public int count(BitmapPredicate predicato) {
+        return predicato.evaluate().cardinality();
+    }
+
+    public long sizeInBytes() {
+        return citta.sizeInBytes() + dipartimento.sizeInBytes()
+            + eta.sizeInBytes() + stipendio.sizeInBytes();
+    }
+}
@@ -0,0 +1,176 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.Map;
+
+/**
+ * Rappresentazione colonnare di StreamsDemo.Persona: un array primitivo per campo
+ * invece di un oggetto per riga.
+ * - eta: int[], stipendio: double[]
+ * - citta, dipartimento: codici int[] di uno StringDictionary per colonna
+ * - nome: String[], come l'id di OrdineTable: quasi ogni persona ha un nome
+ *   diverso e un dizionario aggiungerebbe solo codice e voce di hash per riga
+ * - gli hobby non sono rappresentati (lista di lunghezza variabile)
+ * Le aggregazioni (ColumnAggregates) scorrono gli array in parallelo con
+ * Fork/Join, senza boxing e senza creare oggetti per riga.
+ * La tabella è immutabile dopo build() e si può leggere da più thread.
+ */
+public final class PersonaTable {
+
+    private final int size;
+    private final String[] nomi;
+    private final int[] eta;
+    private final int[] citta;
+    private final double[] stipendi;
+    private final int[] dipartimenti;
+    private final StringDictionary dizionarioCitta;
+    private final StringDictionary dizionarioDipartimenti;
+
+    private PersonaTable(Builder builder) {
+        this.size = builder.size;
+        this.nomi = builder.nomi.length == size ? builder.nomi : Arrays.copyOf(builder.nomi, size);
+        this.eta = esatto(builder.eta, size);
+        this.citta = esatto(builder.citta, size);
+        this.stipendi = esatto(builder.stipendi, size);
+        this.dipartimenti = esatto(builder.dipartimenti, size);
+        this.dizionarioCitta = builder.dizionarioCitta.copia();
+        this.dizionarioDipartimenti = builder.dizionarioDipartimenti.copia();
+    }
+
+    private static int[] esatto(int[] colonna, int size) {
+        return colonna.length == size ? colonna : Arrays.copyOf(colonna, size);
+    }
+
+    private static double[] esatto(double[] colonna, int size) {
+        return colonna.length == size ? colonna : Arrays.copyOf(colonna, size);
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    /**
+     * Con la capacità giusta build() non deve ricopiare le colonne
+     */
+    public static Builder builder(int capacita) {
+        return new Builder(capacita);
+    }
+
+    static PersonaTable da(Collection<StreamsDemo.Persona> persone) {
+        Builder builder = new Builder(persone.size());
+        for (StreamsDemo.Persona p : persone) {
+            builder.aggiungi(p.getNome(), p.getEta(), p.getCitta(), p.getStipendio(), p.getDipartimento());
+        }
+        return builder.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private String[] nomi;
+        private int[] eta;
+        private int[] citta;
+        private double[] stipendi;
+        private int[] dipartimenti;
+        private final StringDictionary dizionarioCitta = new StringDictionary();
+        private final StringDictionary dizionarioDipartimenti = new StringDictionary();
+
+        private Builder(int capacita) {
+            if (capacita < 0) {
+                throw new IllegalArgumentException("Capacità negativa: " + capacita);
+            }
+            nomi = new String[capacita];
+            eta = new int[capacita];
+            citta = new int[capacita];
+            stipendi = new double[capacita];
+            dipartimenti = new int[capacita];
+        }
+
+        public Builder aggiungi(String nome, int eta, String citta, double stipendio, String dipartimento) {
+            if (size == this.eta.length) {
+                int capacita = Math.max(16, size + (size >> 1));
+                nomi = Arrays.copyOf(nomi, capacita);
+                this.eta = Arrays.copyOf(this.eta, capacita);
+                this.citta = Arrays.copyOf(this.citta, capacita);
+                stipendi = Arrays.copyOf(stipendi, capacita);
+                dipartimenti = Arrays.copyOf(dipartimenti, capacita);
+            }
+            nomi[size] = nome;
+            this.eta[size] = eta;
+            this.citta[size] = dizionarioCitta.codifica(citta);
+            stipendi[size] = stipendio;
+            dipartimenti[size] = dizionarioDipartimenti.codifica(dipartimento);
+            size++;
+            return this;
+        }
+
+        public PersonaTable build() {
+            return new PersonaTable(this);
+        }
+    }
+
+    // ==================== ACCESSO PER RIGA ====================
+
+    public int size() {
+        return size;
+    }
+
+    public String getNome(int riga) {
+        return nomi[riga];
+    }
+
+    public int getEta(int riga) {
+        return eta[riga];
+    }
+
+    public String getCitta(int riga) {
+        return dizionarioCitta.decodifica(citta[riga]);
+    }
+
+    public double getStipendio(int riga) {
+        return stipendi[riga];
+    }
+
+    public String getDipartimento(int riga) {
+        return dizionarioDipartimenti.decodifica(dipartimenti[riga]);
+    }
+
+    // ==================== AGGREGAZIONI ====================
+
+    public DoubleSummaryStatistics statisticheStipendio() {
+        return ColumnAggregates.riepilogo(stipendi);
+    }
+
+    public IntSummaryStatistics statisticheEta() {
+        return ColumnAggregates.riepilogo(eta);
+    }
+
+    public double percentileStipendio(double p) {
+        return ColumnAggregates.percentile(stipendi, p);
+    }
+
+    public Map<String, DoubleSummaryStatistics> stipendioPerDipartimento() {
+        return ColumnAggregates.perGruppo(dipartimenti, dizionarioDipartimenti, stipendi);
+    }
+
+    public Map<String, DoubleSummaryStatistics> stipendioPerCitta() {
+        return ColumnAggregates.perGruppo(citta, dizionarioCitta, stipendi);
+    }
+
+    // ==================== INDICI ====================
+
+    /**
+     * Indici bitmap su città, dipartimento, età e stipendio (non sul nome, quasi unico
+     * come l'id degli ordini): costruirli costa qualche passata sulla tabella,
+     * conviene farlo una volta e riusarli per molte query
+     */
+    public PersonaBitmapIndex indiceBitmap() {
+        return new PersonaBitmapIndex(this,
+            new CategoryIndex(citta, dizionarioCitta),
+            new CategoryIndex(dipartimenti, dizionarioDipartimenti),
+            RangeIndex.of(eta),
+            RangeIndex.of(stipendi));
+    }
+}
@@ -0,0 +1,254 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+
+/**
+ * Indice bitmap per filtri di intervallo su una colonna numerica.
+ * I valori sono divisi in classi equi-popolate (equi-depth: circa lo stesso
+ * numero di righe per classe, valori uguali sempre nella stessa classe) e
+ * l'indice tiene, per ogni classe b, la bitmap delle righe nelle classi 0..b
+ * (range encoding). Una query [da, a] è quindi
+ * - cumulativa[ultima classe interna] AND NOT cumulativa[prima classe interna - 1]
+ *   per le classi tutte dentro l'intervallo: due bitmap, nessun valore letto
+ * - più le righe delle al massimo due classi di bordo, filtrate su una copia
+ *   dei valori raggruppata per classe (righe e valori contigui, lettura sequenziale)
+ * Le righe con NaN non sono in nessuna classe e non soddisfano nessun filtro,
+ * come con i confronti su double.
+ */
+public final class RangeIndex {
+
+    static final int CLASSI_DEFAULT = 64;
+    // Sotto una riga su 1024 controllare i candidati sulla colonna (accesso sparso)
+    // costa meno che combinare le bitmap
+    private static final int SOGLIA_CANDIDATI = 1024;
+
+    private final double[] valori;
+    private final double[] minimi;
+    private final double[] massimi;
+    // Righe e valori raggruppati per classe: la classe c è in [inizio[c], inizio[c + 1])
+    private final int[] inizio;
+    private final int[] righe;
+    private final double[] valoriPerClasse;
+    private final RoaringBitmap[] cumulative;
+
+    private RangeIndex(double[] valori, int numeroClassi) {
+        if (numeroClassi < 1) {
+            throw new IllegalArgumentException("Numero di classi non valido: " + numeroClassi);
+        }
+        this.valori = valori;
+        double[] ordinati = Arrays.stream(valori).filter(v -> !Double.isNaN(v)).sorted().toArray();
+        int n = ordinati.length;
+        int perClasse = Math.max(1, (n + numeroClassi - 1) / numeroClassi);
+        double[] min = new double[numeroClassi];
+        double[] max = new double[numeroClassi];
+        int b = 0;
+        for (int i = 0; i < n; b++) {
+            int fine = Math.min(n, i + perClasse);
+            while (fine < n && ordinati[fine] == ordinati[fine - 1]) {
+                fine++;
+            }
+            min[b] = ordinati[i];
+            max[b] = ordinati[fine - 1];
+            i = fine;
+        }
+        minimi = Arrays.copyOf(min, b);
+        massimi = Arrays.copyOf(max, b);
+
+        // Counting sort delle righe per classe, come in CategoryIndex
+        int[] classeRiga = new int[valori.length];
+        inizio = new int[b + 1];
+        for (int r = 0; r < valori.length; r++) {
+            classeRiga[r] = Double.isNaN(valori[r]) ? -1 : classe(valori[r]);
+            if (classeRiga[r] >= 0) {
+                inizio[classeRiga[r] + 1]++;
+            }
+        }
+        for (int c = 0; c < b; c++) {
+            inizio[c + 1] += inizio[c];
+        }
+        righe = new int[n];
+        valoriPerClasse = new double[n];
+        int[] pos = inizio.clone();
+        for (int r = 0; r < valori.length; r++) {
+            if (classeRiga[r] >= 0) {
+                int i = pos[classeRiga[r]]++;
+                righe[i] = r;
+                valoriPerClasse[i] = valori[r];
+            }
+        }
+        cumulative = new RoaringBitmap[b];
+        for (int c = 0; c < b; c++) {
+            RoaringBitmap classe = RoaringBitmap.fromSorted(righe, inizio[c], inizio[c + 1]);
+            cumulative[c] = c == 0 ? classe : cumulative[c - 1].or(classe);
+        }
+    }
+
+    /**
+     * Indice sulla colonna, che viene letta ma non copiata: non va modificata dopo
+     */
+    public static RangeIndex of(double[] valori, int numeroClassi) {
+        return new RangeIndex(valori, numeroClassi);
+    }
+
+    public static RangeIndex of(double[] valori) {
+        return new RangeIndex(valori, CLASSI_DEFAULT);
+    }
+
+    /**
+     * Colonna int, copiata in double (conversione esatta)
+     */
+    public static RangeIndex of(int[] valori, int numeroClassi) {
+        return new RangeIndex(Arrays.stream(valori).asDoubleStream().toArray(), numeroClassi);
+    }
+
+    public static RangeIndex of(int[] valori) {
+        return of(valori, CLASSI_DEFAULT);
+    }
+
+    /**
+     * Ultima classe con minimo <= valore (0 se il valore è sotto tutti i minimi)
+     */
+    private int classe(double valore) {
+        int basso = 0;
+        int alto = minimi.length - 1;
+        while (basso < alto) {
+            int medio = (basso + alto + 1) >>> 1;
+            if (minimi[medio] <= valore) {
+                basso = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return basso;
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Righe con da <= valore <= a
+     */
+    public RoaringBitmap bitmap(double da, double a) {
+        if (!(da <= a) || minimi.length == 0) {
+            return RoaringBitmap.EMPTY;
+        }
+        // Classi che intersecano [da, a]: da primo a ultimo
+        int primo = 0;
+        while (primo < massimi.length && massimi[primo] < da) {
+            primo++;
+        }
+        int ultimo = classe(a);
+        if (primo > ultimo || minimi[ultimo] > a) {
+            return RoaringBitmap.EMPTY;
+        }
+        int primoInterno = minimi[primo] >= da ? primo : primo + 1;
+        int ultimoInterno = massimi[ultimo] <= a ? ultimo : ultimo - 1;
+        RoaringBitmap risultato = RoaringBitmap.EMPTY;
+        if (primoInterno <= ultimoInterno) {
+            risultato = primoInterno == 0
+                ? cumulative[ultimoInterno]
+                : cumulative[ultimoInterno].andNot(cumulative[primoInterno - 1]);
+        }
+        if (primoInterno > primo) {
+            risultato = risultato.or(filtra(primo, da, a));
+        }
+        // Se primo == ultimo la classe di bordo è una sola: già filtrata sopra
+        if (ultimoInterno < ultimo && (ultimo != primo || primoInterno == primo)) {
+            risultato = risultato.or(filtra(ultimo, da, a));
+        }
+        return risultato;
+    }
+
+    /**
+     * Righe della classe con il valore in [da, a]
+     */
+    private RoaringBitmap filtra(int classe, double da, double a) {
+        int[] trovate = new int[inizio[classe + 1] - inizio[classe]];
+        int n = 0;
+        for (int i = inizio[classe]; i < inizio[classe + 1]; i++) {
+            // Senza salti: nella classe i valori sono in ordine di riga, il confronto è imprevedibile
+            double v = valoriPerClasse[i];
+            trovate[n] = righe[i];
+            n += v >= da & v <= a ? 1 : 0;
+        }
+        return RoaringBitmap.fromSorted(trovate, 0, n);
+    }
+
+    public BitmapPredicate between(double da, double a) {
+        return new Intervallo(da, a);
+    }
+
+    /**
+     * Predicato [da, a]: da solo combina le bitmap delle classi, su pochi
+     * candidati (meno di una riga su SOGLIA_CANDIDATI) legge la colonna solo per quelli
+     */
+    private final class Intervallo implements BitmapPredicate {
+        private final double da;
+        private final double a;
+
+        Intervallo(double da, double a) {
+            this.da = da;
+            this.a = a;
+        }
+
+        @Override
+        public RoaringBitmap evaluate() {
+            return bitmap(da, a);
+        }
+
+        @Override
+        public RoaringBitmap evaluate(RoaringBitmap candidati) {
+            if ((long) candidati.cardinality() * SOGLIA_CANDIDATI > valori.length) {
+                return candidati.and(bitmap(da, a));
+            }
+            RoaringBitmap.Builder builder = RoaringBitmap.builder();
+            candidati.forEach(r -> {
+                double v = valori[r];
+                if (v >= da && v <= a) {
+                    builder.add(r);
+                }
+            });
+            return builder.build();
+        }
+    }
+
+    public BitmapPredicate eq(double valore) {
+        return between(valore, valore);
+    }
+
+    public BitmapPredicate greaterThan(double valore) {
+        if (valore == Double.POSITIVE_INFINITY) {
+            return () -> RoaringBitmap.EMPTY;
+        }
+        return between(Math.nextUp(valore), Double.POSITIVE_INFINITY);
+    }
+
+    public BitmapPredicate atLeast(double valore) {
+        return between(valore, Double.POSITIVE_INFINITY);
+    }
+
+    public BitmapPredicate lessThan(double valore) {
+        if (valore == Double.NEGATIVE_INFINITY) {
+            return () -> RoaringBitmap.EMPTY;
+        }
+        return between(Double.NEGATIVE_INFINITY, Math.nextDown(valore));
+    }
+
+    public BitmapPredicate atMost(double valore) {
+        return between(Double.NEGATIVE_INFINITY, valore);
+    }
+
+    public int numeroClassi() {
+        return cumulative.length;
+    }
+
+    /**
+     * Byte delle bitmap e della copia per classe (la colonna non è contata)
+     */
+    public long sizeInBytes() {
+        long totale = 12L * righe.length;
+        for (RoaringBitmap b : cumulative) {
+            totale += b.sizeInBytes();
+        }
+        return totale;
+    }
+}
@@ -0,0 +1,829 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Insieme compresso di int non negativi (id di riga) nello stile Roaring:
+ * i 16 bit alti del valore scelgono un contenitore, i 16 bit bassi sono
+ * salvati nel contenitore, che ha una di due forme
+ * - array: char[] ordinato, fino a 4096 valori (2 byte per valore)
+ * - bitmap: long[1024], 65536 bit fissi (8 KB), oltre 4096 valori
+ * Così un insieme sparso costa poco come una lista e uno denso come un BitSet,
+ * e AND/OR/AND NOT lavorano contenitore per contenitore: array con array per
+ * fusione, bitmap con bitmap a parole di 64 bit.
+ * Le istanze sono immutabili: le operazioni creano un nuovo insieme e
+ * condividono i contenitori che non cambiano, quindi si possono tenere negli
+ * indici e leggere da più thread. Si costruiscono con of, fromSorted, range
+ * o con un Builder.
+ */
+public final class RoaringBitmap {
+
+    // Oltre questa cardinalità un contenitore array occupa più di una bitmap (4096 * 2 byte = 8 KB)
+    static final int MAX_ARRAY = 4096;
+    private static final int PAROLE = 1024;
+
+    public static final RoaringBitmap EMPTY = new RoaringBitmap(new char[0], new Contenitore[0], 0, 0);
+
+    // Contenitore pieno (65536 valori), condiviso da tutti gli insiemi
+    private static final Bitmap PIENO = pieno();
+
+    private final char[] chiavi;
+    private final Contenitore[] contenitori;
+    private final int size;
+    private final int cardinalita;
+
+    private RoaringBitmap(char[] chiavi, Contenitore[] contenitori, int size, int cardinalita) {
+        this.chiavi = chiavi;
+        this.contenitori = contenitori;
+        this.size = size;
+        this.cardinalita = cardinalita;
+    }
+
+    private static Bitmap pieno() {
+        long[] parole = new long[PAROLE];
+        Arrays.fill(parole, -1L);
+        return new Bitmap(parole, 1 << 16);
+    }
+
+    // ==================== CREAZIONE ====================
+
+    public static RoaringBitmap of(int... valori) {
+        Builder builder = builder();
+        for (int v : valori) {
+            builder.add(v);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Da valori strettamente crescenti in valori[da, a), senza ordinare né copiare tutto
+     *
+     * @throws IllegalArgumentException se i valori non sono crescenti o sono negativi
+     */
+    public static RoaringBitmap fromSorted(int[] valori, int da, int a) {
+        if (da == a) {
+            return EMPTY;
+        }
+        controllaValore(valori[da]);
+        for (int i = da + 1; i < a; i++) {
+            if (valori[i] <= valori[i - 1]) {
+                throw new IllegalArgumentException("Valori non crescenti in posizione " + i);
+            }
+        }
+        return daOrdinati(valori, da, a);
+    }
+
+    /**
+     * Valori già controllati: crescenti e non negativi
+     */
+    private static RoaringBitmap daOrdinati(int[] valori, int da, int a) {
+        int contenitoriMassimi = (valori[a - 1] >>> 16) - (valori[da] >>> 16) + 1;
+        char[] chiavi = new char[Math.min(contenitoriMassimi, a - da)];
+        Contenitore[] contenitori = new Contenitore[chiavi.length];
+        int size = 0;
+        int i = da;
+        char[] bassi = new char[Math.min(a - da, 1 << 16)];
+        while (i < a) {
+            int chiave = valori[i] >>> 16;
+            int n = 0;
+            while (i < a && valori[i] >>> 16 == chiave) {
+                bassi[n++] = (char) valori[i++];
+            }
+            chiavi[size] = (char) chiave;
+            contenitori[size] = Contenitore.daOrdinati(bassi, n);
+            size++;
+        }
+        return new RoaringBitmap(chiavi, contenitori, size, a - da);
+    }
+
+    /**
+     * Tutti i valori in [da, a)
+     */
+    public static RoaringBitmap range(int da, int a) {
+        controllaValore(da);
+        if (a <= da) {
+            return EMPTY;
+        }
+        int primaChiave = da >>> 16;
+        int ultimaChiave = (a - 1) >>> 16;
+        int n = ultimaChiave - primaChiave + 1;
+        char[] chiavi = new char[n];
+        Contenitore[] contenitori = new Contenitore[n];
+        for (int k = 0; k < n; k++) {
+            int chiave = primaChiave + k;
+            int inizio = Math.max(da, chiave << 16) & 0xFFFF;
+            int fine = chiave == ultimaChiave ? ((a - 1) & 0xFFFF) + 1 : 1 << 16;
+            chiavi[k] = (char) chiave;
+            contenitori[k] = inizio == 0 && fine == 1 << 16 ? PIENO : Contenitore.intervallo(inizio, fine);
+        }
+        return new RoaringBitmap(chiavi, contenitori, n, a - da);
+    }
+
+    private static void controllaValore(int valore) {
+        if (valore < 0) {
+            throw new IllegalArgumentException("Valore negativo: " + valore);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Raccoglie valori in qualsiasi ordine (anche ripetuti); build() li ordina se serve
+     */
+    public static final class Builder {
+        private int[] valori = new int[16];
+        private int size;
+        private boolean ordinati = true;
+
+        private Builder() {
+        }
+
+        public Builder add(int valore) {
+            controllaValore(valore);
+            if (size == valori.length) {
+                valori = Arrays.copyOf(valori, size + (size >> 1));
+            }
+            if (size > 0 && valore <= valori[size - 1]) {
+                ordinati = false;
+            }
+            valori[size++] = valore;
+            return this;
+        }
+
+        public RoaringBitmap build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int[] copia = Arrays.copyOf(valori, size);
+            int n = size;
+            if (!ordinati) {
+                Arrays.sort(copia);
+                int distinti = 1;
+                for (int i = 1; i < n; i++) {
+                    if (copia[i] != copia[distinti - 1]) {
+                        copia[distinti++] = copia[i];
+                    }
+                }
+                n = distinti;
+            }
+            return daOrdinati(copia, 0, n);
+        }
+    }
+
+    // ==================== INTERROGAZIONE ====================
+
+    public int cardinality() {
+        return cardinalita;
+    }
+
+    public boolean isEmpty() {
+        return cardinalita == 0;
+    }
+
+    public boolean contains(int valore) {
+        if (valore < 0) {
+            return false;
+        }
+        int k = Arrays.binarySearch(chiavi, 0, size, (char) (valore >>> 16));
+        return k >= 0 && contenitori[k].contiene((char) valore);
+    }
+
+    /**
+     * Byte occupati dai contenitori (stima: intestazioni di oggetti e array incluse)
+     */
+    public long sizeInBytes() {
+        long totale = 16 + 16 + 2L * chiavi.length + 16 + 4L * contenitori.length;
+        for (int k = 0; k < size; k++) {
+            totale += contenitori[k].byteOccupati();
+        }
+        return totale;
+    }
+
+    /**
+     * Numero di contenitori array e bitmap, es. "12 array, 20 bitmap"
+     */
+    public String descrizioneContenitori() {
+        int array = 0;
+        for (int k = 0; k < size; k++) {
+            if (contenitori[k] instanceof Array) {
+                array++;
+            }
+        }
+        return array + " array, " + (size - array) + " bitmap";
+    }
+
+    // ==================== OPERAZIONI ====================
+
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return EMPTY;
+        }
+        int massimo = Math.min(a.size, b.size);
+        char[] chiavi = new char[massimo];
+        Contenitore[] contenitori = new Contenitore[massimo];
+        int n = 0;
+        int cardinalita = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            int confronto = Character.compare(a.chiavi[i], b.chiavi[j]);
+            if (confronto < 0) {
+                i++;
+            } else if (confronto > 0) {
+                j++;
+            } else {
+                Contenitore c = a.contenitori[i].and(b.contenitori[j]);
+                if (c != null) {
+                    chiavi[n] = a.chiavi[i];
+                    contenitori[n++] = c;
+                    cardinalita += c.cardinalita();
+                }
+                i++;
+                j++;
+            }
+        }
+        return n == 0 ? EMPTY : new RoaringBitmap(chiavi, contenitori, n, cardinalita);
+    }
+
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        if (a.isEmpty()) {
+            return b;
+        }
+        if (b.isEmpty()) {
+            return a;
+        }
+        int massimo = a.size + b.size;
+        char[] chiavi = new char[massimo];
+        Contenitore[] contenitori = new Contenitore[massimo];
+        int n = 0;
+        int cardinalita = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            int confronto = i == a.size ? 1 : j == b.size ? -1 : Character.compare(a.chiavi[i], b.chiavi[j]);
+            Contenitore c;
+            if (confronto < 0) {
+                chiavi[n] = a.chiavi[i];
+                c = a.contenitori[i++];
+            } else if (confronto > 0) {
+                chiavi[n] = b.chiavi[j];
+                c = b.contenitori[j++];
+            } else {
+                chiavi[n] = a.chiavi[i];
+                c = a.contenitori[i++].or(b.contenitori[j++]);
+            }
+            contenitori[n++] = c;
+            cardinalita += c.cardinalita();
+        }
+        return new RoaringBitmap(chiavi, contenitori, n, cardinalita);
+    }
+
+    /**
+     * Valori di a che non sono in b
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return a;
+        }
+        char[] chiavi = new char[a.size];
+        Contenitore[] contenitori = new Contenitore[a.size];
+        int n = 0;
+        int cardinalita = 0;
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.chiavi[j] < a.chiavi[i]) {
+                j++;
+            }
+            Contenitore c = a.contenitori[i];
+            if (j < b.size && b.chiavi[j] == a.chiavi[i]) {
+                c = c.andNot(b.contenitori[j]);
+            }
+            if (c != null) {
+                chiavi[n] = a.chiavi[i];
+                contenitori[n++] = c;
+                cardinalita += c.cardinalita();
+            }
+        }
+        return n == 0 ? EMPTY : new RoaringBitmap(chiavi, contenitori, n, cardinalita);
+    }
+
+    public RoaringBitmap and(RoaringBitmap altro) {
+        return and(this, altro);
+    }
+
+    public RoaringBitmap or(RoaringBitmap altro) {
+        return or(this, altro);
+    }
+
+    public RoaringBitmap andNot(RoaringBitmap altro) {
+        return andNot(this, altro);
+    }
+
+    // ==================== VISITA ====================
+
+    public void forEach(IntConsumer azione) {
+        for (int k = 0; k < size; k++) {
+            contenitori[k].perOgni(chiavi[k] << 16, azione);
+        }
+    }
+
+    public int[] toArray() {
+        int[] risultato = new int[cardinalita];
+        int pos = 0;
+        for (int k = 0; k < size; k++) {
+            pos = contenitori[k].copia(chiavi[k] << 16, risultato, pos);
+        }
+        return risultato;
+    }
+
+    /**
+     * Valori in ordine crescente, calcolati man mano (nessun array intermedio)
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int k;
+            private PrimitiveIterator.OfInt corrente = size == 0 ? null : contenitori[0].iteratore(chiavi[0] << 16);
+
+            @Override
+            public boolean hasNext() {
+                while (corrente != null && !corrente.hasNext()) {
+                    k++;
+                    corrente = k < size ? contenitori[k].iteratore(chiavi[k] << 16) : null;
+                }
+                return corrente != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return corrente.nextInt();
+            }
+        };
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), cardinalita,
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL
+                | Spliterator.IMMUTABLE), false);
+    }
+
+    // ==================== OBJECT ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoaringBitmap altro) || cardinalita != altro.cardinalita || size != altro.size) {
+            return false;
+        }
+        for (int k = 0; k < size; k++) {
+            if (chiavi[k] != altro.chiavi[k] || !contenitori[k].stessiValori(altro.contenitori[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int[] h = {1};
+        forEach(v -> h[0] = 31 * h[0] + v);
+        return h[0];
+    }
+
+    /**
+     * Valori per insiemi piccoli, altrimenti cardinalità e contenitori
+     */
+    @Override
+    public String toString() {
+        if (cardinalita > 20) {
+            return "RoaringBitmap[" + cardinalita + " valori, " + descrizioneContenitori() + "]";
+        }
+        return Arrays.toString(toArray());
+    }
+
+    // ==================== CONTENITORI ====================
+
+    /**
+     * I 16 bit bassi dei valori con la stessa chiave. Le operazioni
+     * restituiscono null se il risultato è vuoto, così il contenitore sparisce
+     */
+    private abstract static sealed class Contenitore permits Array, Bitmap {
+
+        abstract int cardinalita();
+
+        abstract boolean contiene(char valore);
+
+        abstract Contenitore and(Contenitore altro);
+
+        abstract Contenitore or(Contenitore altro);
+
+        abstract Contenitore andNot(Contenitore altro);
+
+        abstract void perOgni(int alto, IntConsumer azione);
+
+        abstract int copia(int alto, int[] destinazione, int pos);
+
+        abstract PrimitiveIterator.OfInt iteratore(int alto);
+
+        abstract long byteOccupati();
+
+        abstract char[] valori();
+
+        boolean stessiValori(Contenitore altro) {
+            return cardinalita() == altro.cardinalita() && Arrays.equals(valori(), altro.valori());
+        }
+
+        /**
+         * Contenitore per i primi n valori (crescenti) di bassi
+         */
+        static Contenitore daOrdinati(char[] bassi, int n) {
+            if (n <= MAX_ARRAY) {
+                return new Array(Arrays.copyOf(bassi, n));
+            }
+            long[] parole = new long[PAROLE];
+            for (int i = 0; i < n; i++) {
+                parole[bassi[i] >>> 6] |= 1L << bassi[i];
+            }
+            return new Bitmap(parole, n);
+        }
+
+        /**
+         * Valori in [da, a), con 0 <= da < a <= 65536
+         */
+        static Contenitore intervallo(int da, int a) {
+            int n = a - da;
+            if (n <= MAX_ARRAY) {
+                char[] valori = new char[n];
+                for (int i = 0; i < n; i++) {
+                    valori[i] = (char) (da + i);
+                }
+                return new Array(valori);
+            }
+            long[] parole = new long[PAROLE];
+            for (int v = da; v < a; v++) {
+                parole[v >>> 6] |= 1L << v;
+            }
+            return new Bitmap(parole, n);
+        }
+
+        /**
+         * Bitmap con almeno un valore: array se i valori sono pochi
+         */
+        static Contenitore compatta(long[] parole, int cardinalita) {
+            if (cardinalita == 0) {
+                return null;
+            }
+            if (cardinalita > MAX_ARRAY) {
+                return new Bitmap(parole, cardinalita);
+            }
+            char[] valori = new char[cardinalita];
+            int pos = 0;
+            for (int w = 0; w < PAROLE; w++) {
+                long parola = parole[w];
+                while (parola != 0) {
+                    valori[pos++] = (char) ((w << 6) + Long.numberOfTrailingZeros(parola));
+                    parola &= parola - 1;
+                }
+            }
+            return new Array(valori);
+        }
+    }
+
+    private static final class Array extends Contenitore {
+        private final char[] valori;
+
+        Array(char[] valori) {
+            this.valori = valori;
+        }
+
+        @Override
+        int cardinalita() {
+            return valori.length;
+        }
+
+        @Override
+        boolean contiene(char valore) {
+            return Arrays.binarySearch(valori, valore) >= 0;
+        }
+
+        @Override
+        Contenitore and(Contenitore altro) {
+            if (altro instanceof Bitmap bitmap) {
+                return bitmap.and(this);
+            }
+            char[] b = ((Array) altro).valori;
+            char[] risultato = new char[Math.min(valori.length, b.length)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < valori.length && j < b.length) {
+                if (valori[i] < b[j]) {
+                    i++;
+                } else if (valori[i] > b[j]) {
+                    j++;
+                } else {
+                    risultato[n++] = valori[i];
+                    i++;
+                    j++;
+                }
+            }
+            return n == 0 ? null : new Array(Arrays.copyOf(risultato, n));
+        }
+
+        @Override
+        Contenitore or(Contenitore altro) {
+            if (altro instanceof Bitmap bitmap) {
+                return bitmap.or(this);
+            }
+            char[] b = ((Array) altro).valori;
+            char[] risultato = new char[valori.length + b.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < valori.length || j < b.length) {
+                if (j == b.length || i < valori.length && valori[i] < b[j]) {
+                    risultato[n++] = valori[i++];
+                } else if (i == valori.length || b[j] < valori[i]) {
+                    risultato[n++] = b[j++];
+                } else {
+                    risultato[n++] = valori[i++];
+                    j++;
+                }
+            }
+            return daOrdinati(risultato, n);
+        }
+
+        @Override
+        Contenitore andNot(Contenitore altro) {
+            char[] risultato = new char[valori.length];
+            int n = 0;
+            if (altro instanceof Bitmap bitmap) {
+                for (char v : valori) {
+                    risultato[n] = v;
+                    n += (int) ~(bitmap.parole[v >>> 6] >>> v) & 1;
+                }
+            } else {
+                char[] b = ((Array) altro).valori;
+                int j = 0;
+                for (char v : valori) {
+                    while (j < b.length && b[j] < v) {
+                        j++;
+                    }
+                    if (j == b.length || b[j] != v) {
+                        risultato[n++] = v;
+                    }
+                }
+            }
+            return n == 0 ? null : n == valori.length ? this : new Array(Arrays.copyOf(risultato, n));
+        }
+
+        @Override
+        void perOgni(int alto, IntConsumer azione) {
+            for (char v : valori) {
+                azione.accept(alto | v);
+            }
+        }
+
+        @Override
+        int copia(int alto, int[] destinazione, int pos) {
+            for (char v : valori) {
+                destinazione[pos++] = alto | v;
+            }
+            return pos;
+        }
+
+        @Override
+        PrimitiveIterator.OfInt iteratore(int alto) {
+            return new PrimitiveIterator.OfInt() {
+                private int i;
+
+                @Override
+                public boolean hasNext() {
+                    return i < valori.length;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (i == valori.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return alto | valori[i++];
+                }
+            };
+        }
+
+        @Override
+        long byteOccupati() {
+            return 16 + 16 + 2L * valori.length;
+        }
+
+        @Override
+        char[] valori() {
+            return valori;
+        }
+    }
+
+    private static final class Bitmap extends Contenitore {
+        private final long[] parole;
+        private final int cardinalita;
+
+        Bitmap(long[] parole, int cardinalita) {
+            this.parole = parole;
+            this.cardinalita = cardinalita;
+        }
+
+        @Override
+        int cardinalita() {
+            return cardinalita;
+        }
+
+        @Override
+        boolean contiene(char valore) {
+            return (parole[valore >>> 6] & (1L << valore)) != 0;
+        }
+
+        @Override
+        Contenitore and(Contenitore altro) {
+            if (altro instanceof Array array) {
+                char[] risultato = new char[array.valori.length];
+                int n = 0;
+                // Senza salti: si scrive sempre e si avanza di 1 solo se il bit c'è
+                for (char v : array.valori) {
+                    risultato[n] = v;
+                    n += (int) (parole[v >>> 6] >>> v) & 1;
+                }
+                return n == 0 ? null : n == risultato.length ? array : new Array(Arrays.copyOf(risultato, n));
+            }
+            long[] b = ((Bitmap) altro).parole;
+            // Prima solo il conteggio: se il risultato è sparso si scrive subito l'array, senza bitmap intermedia
+            int n = 0;
+            for (int w = 0; w < PAROLE; w++) {
+                n += Long.bitCount(parole[w] & b[w]);
+            }
+            if (n == 0) {
+                return null;
+            }
+            if (n <= MAX_ARRAY) {
+                char[] valori = new char[n];
+                int pos = 0;
+                for (int w = 0; w < PAROLE; w++) {
+                    long parola = parole[w] & b[w];
+                    while (parola != 0) {
+                        valori[pos++] = (char) ((w << 6) + Long.numberOfTrailingZeros(parola));
+                        parola &= parola - 1;
+                    }
+                }
+                return new Array(valori);
+            }
+            long[] risultato = new long[PAROLE];
+            for (int w = 0; w < PAROLE; w++) {
+                risultato[w] = parole[w] & b[w];
+            }
+            return new Bitmap(risultato, n);
+        }
+
+        @Override
+        Contenitore or(Contenitore altro) {
+            if (this == PIENO || altro == PIENO) {
+                return PIENO;
+            }
+            long[] risultato = parole.clone();
+            int n;
+            if (altro instanceof Array array) {
+                n = cardinalita;
+                for (char v : array.valori) {
+                    long bit = 1L << v;
+                    if ((risultato[v >>> 6] & bit) == 0) {
+                        risultato[v >>> 6] |= bit;
+                        n++;
+                    }
+                }
+            } else {
+                long[] b = ((Bitmap) altro).parole;
+                n = 0;
+                for (int w = 0; w < PAROLE; w++) {
+                    risultato[w] |= b[w];
+                    n += Long.bitCount(risultato[w]);
+                }
+            }
+            return n == 1 << 16 ? PIENO : new Bitmap(risultato, n);
+        }
+
+        @Override
+        Contenitore andNot(Contenitore altro) {
+            long[] risultato = parole.clone();
+            int n;
+            if (altro instanceof Array array) {
+                n = cardinalita;
+                for (char v : array.valori) {
+                    long bit = 1L << v;
+                    if ((risultato[v >>> 6] & bit) != 0) {
+                        risultato[v >>> 6] &= ~bit;
+                        n--;
+                    }
+                }
+            } else {
+                long[] b = ((Bitmap) altro).parole;
+                n = 0;
+                for (int w = 0; w < PAROLE; w++) {
+                    risultato[w] &= ~b[w];
+                    n += Long.bitCount(risultato[w]);
+                }
+            }
+            return compatta(risultato, n);
+        }
+
+        @Override
+        void perOgni(int alto, IntConsumer azione) {
+            for (int w = 0; w < PAROLE; w++) {
+                long parola = parole[w];
+                while (parola != 0) {
+                    azione.accept(alto | (w << 6) + Long.numberOfTrailingZeros(parola));
+                    parola &= parola - 1;
+                }
+            }
+        }
+
+        @Override
+        int copia(int alto, int[] destinazione, int pos) {
+            for (int w = 0; w < PAROLE; w++) {
+                long parola = parole[w];
+                while (parola != 0) {
+                    destinazione[pos++] = alto | (w << 6) + Long.numberOfTrailingZeros(parola);
+                    parola &= parola - 1;
+                }
+            }
+            return pos;
+        }
+
+        @Override
+        PrimitiveIterator.OfInt iteratore(int alto) {
+            return new PrimitiveIterator.OfInt() {
+                private int w = -1;
+                private long parola;
+
+                @Override
+                public boolean hasNext() {
+                    while (parola == 0) {
+                        if (++w == PAROLE) {
+                            w = PAROLE - 1;
+                            return false;
+                        }
+                        parola = parole[w];
+                    }
+                    return true;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int v = alto | (w << 6) + Long.numberOfTrailingZeros(parola);
+                    parola &= parola - 1;
+                    return v;
+                }
+            };
+        }
+
+        @Override
+        long byteOccupati() {
+            return 16 + 16 + 8L * PAROLE;
+        }
+
+        @Override
+        char[] valori() {
+            char[] valori = new char[cardinalita];
+            int pos = 0;
+            for (int w = 0; w < PAROLE; w++) {
+                long parola = parole[w];
+                while (parola != 0) {
+                    valori[pos++] = (char) ((w << 6) + Long.numberOfTrailingZeros(parola));
+                    parola &= parola - 1;
+                }
+            }
+            return valori;
+        }
+
+        @Override
+        boolean stessiValori(Contenitore altro) {
+            if (altro instanceof Bitmap bitmap) {
+                return cardinalita == bitmap.cardinalita && Arrays.equals(parole, bitmap.parole);
+            }
+            return super.stessiValori(altro);
+        }
+    }
+}
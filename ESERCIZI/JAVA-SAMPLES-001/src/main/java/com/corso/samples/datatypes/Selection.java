@@ -0,0 +1,213 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Selezione parziale su int[]: quando servono solo i primi k elementi
+ * non conviene ordinare tutto l'array. nthElement esiste anche per double[].
+ * - nthElement: introselect (Quick Select con la partizione mediana di tre
+ *   di AlgoritmiOrdinamentoDemo); dopo troppe partizioni sbilanciate
+ *   ordina il tratto rimasto con PatternDefeatingSort
+ * - partialSort: nthElement + ordinamento dei soli primi k
+ * - topK: i k più grandi con un min-heap limitato a k elementi,
+ *   senza modificare l'array di partenza
+ * Per gli oggetti (es. gli ordini con importo più alto) vedi TopKCollector.
+ */
+public final class Selection {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private Selection() {
+    }
+
+    // ==================== NTH ELEMENT ====================
+
+    /**
+     * Mette in arr[k] l'elemento che ci sarebbe dopo un ordinamento completo:
+     * a sinistra restano elementi <= arr[k], a destra elementi >= arr[k].
+     * Complessità: O(n) in media, O(n log n) nel caso peggiore
+     * Spazio: O(1)
+     */
+    public static void nthElement(int[] arr, int k) {
+        if (k < 0 || k >= arr.length) {
+            throw new ArrayIndexOutOfBoundsException("k = " + k + ", lunghezza = " + arr.length);
+        }
+        select(arr, 0, arr.length - 1, k);
+    }
+
+    private static void select(int[] arr, int low, int high, int k) {
+        // Come in introsort: oltre 2 log2(n) partizioni il pivot è stato scelto male troppe volte
+        int profondita = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+
+        while (high > low) {
+            if (high - low < INSERTION_SORT_THRESHOLD) {
+                insertionSort(arr, low, high);
+                return;
+            }
+            if (profondita-- == 0) {
+                PatternDefeatingSort.sort(arr, low, high + 1);
+                return;
+            }
+
+            int p = AlgoritmiOrdinamentoDemo.partitionMedian(arr, low, high);
+            if (k == p) {
+                return;
+            }
+            // Si continua solo nel lato che contiene k: niente ricorsione
+            if (k < p) {
+                high = p - 1;
+            } else {
+                low = p + 1;
+            }
+        }
+    }
+
+    private static void insertionSort(int[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Come nthElement(int[], int) per i double, ad esempio per i percentili
+     * di ColumnAggregates. L'array non deve contenere NaN.
+     */
+    public static void nthElement(double[] arr, int k) {
+        if (k < 0 || k >= arr.length) {
+            throw new ArrayIndexOutOfBoundsException("k = " + k + ", lunghezza = " + arr.length);
+        }
+        int low = 0;
+        int high = arr.length - 1;
+        int profondita = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+
+        while (high > low) {
+            if (high - low < INSERTION_SORT_THRESHOLD || profondita-- == 0) {
+                PatternDefeatingSort.sort(arr, low, high + 1);
+                return;
+            }
+
+            int p = partitionMedian(arr, low, high);
+            if (k == p) {
+                return;
+            }
+            if (k < p) {
+                high = p - 1;
+            } else {
+                low = p + 1;
+            }
+        }
+    }
+
+    /**
+     * Stessa partizione di AlgoritmiOrdinamentoDemo.partitionMedian, su double[]
+     */
+    private static int partitionMedian(double[] arr, int low, int high) {
+        int mid = low + (high - low) / 2;
+        if (arr[mid] < arr[low]) swap(arr, low, mid);
+        if (arr[high] < arr[low]) swap(arr, low, high);
+        if (arr[mid] < arr[high]) swap(arr, mid, high);
+
+        double pivot = arr[high];
+        int i = low - 1;
+        for (int j = low; j < high; j++) {
+            if (arr[j] < pivot) {
+                swap(arr, ++i, j);
+            }
+        }
+        swap(arr, i + 1, high);
+        return i + 1;
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    // ==================== PARTIAL SORT ====================
+
+    /**
+     * Ordina in modo crescente i k elementi più piccoli in arr[0, k);
+     * il resto dell'array rimane in ordine non specificato.
+     * Complessità: O(n + k log k) in media
+     * Spazio: O(log k)
+     */
+    public static void partialSort(int[] arr, int k) {
+        if (k < 0 || k > arr.length) {
+            throw new ArrayIndexOutOfBoundsException("k = " + k + ", lunghezza = " + arr.length);
+        }
+        if (k == 0) {
+            return;
+        }
+        select(arr, 0, arr.length - 1, k - 1);
+        PatternDefeatingSort.sort(arr, 0, k - 1);
+    }
+
+    // ==================== TOP K ====================
+
+    /**
+     * I k elementi più grandi in ordine decrescente. L'array non viene modificato.
+     * Il min-heap contiene i migliori k visti finora: un nuovo elemento
+     * entra solo se supera la radice (il più piccolo dei k).
+     * Complessità: O(n log k)
+     * Spazio: O(k)
+     */
+    public static int[] topK(int[] arr, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k negativo: " + k);
+        }
+        int[] heap = new int[Math.min(k, arr.length)];
+        int size = 0;
+
+        for (int value : arr) {
+            if (size < heap.length) {
+                heap[size] = value;
+                siftUp(heap, size++);
+            } else if (size > 0 && value > heap[0]) {
+                heap[0] = value;
+                siftDown(heap, size, 0);
+            }
+        }
+
+        // Estrae il minimo ad ogni passo e lo mette in fondo: risultato decrescente
+        for (int i = size - 1; i > 0; i--) {
+            AlgoritmiOrdinamentoDemo.swap(heap, 0, i);
+            siftDown(heap, i, 0);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int i) {
+        int value = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, int i) {
+        int value = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (value <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
@@ -0,0 +1,99 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Contatori di una singola esecuzione di un ordinamento strumentato.
+ * Gli algoritmi di AlgoritmiOrdinamentoDemo hanno un'unica implementazione che
+ * passa da qui per confronti, scambi e spostamenti: solo incrementi di campi long,
+ * nessuna stampa e nessuna allocazione, così la misura non altera il risultato.
+ * Le versioni senza contatore usano NESSUNO.
+ * Non è thread-safe: un contatore per esecuzione.
+ */
+public class SortCounter {
+
+    /**
+     * Confronta e scambia senza contare: condiviso tra thread perché non ha stato.
+     * Dove passa solo lui la chiamata è monomorfa e il JIT la riduce al confronto
+     */
+    public static final SortCounter NESSUNO = new SortCounter() {
+        @Override
+        public int confronta(int a, int b) {
+            return Integer.compare(a, b);
+        }
+
+        @Override
+        public void scambia(int[] arr, int i, int j) {
+            int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+
+        @Override
+        public void sposta(long n) {
+        }
+
+        @Override
+        public void entra() {
+        }
+
+        @Override
+        public void esci() {
+        }
+    };
+
+    private long confronti;
+    private long scambi;
+    private long spostamenti;
+    private int profondita;
+    private int profonditaMassima;
+
+    /**
+     * Confronta due elementi come Integer.compare e conta il confronto
+     */
+    public int confronta(int a, int b) {
+        confronti++;
+        return Integer.compare(a, b);
+    }
+
+    public void scambia(int[] arr, int i, int j) {
+        scambi++;
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * Conta n scritture singole (shift, copie da e verso array temporanei)
+     */
+    public void sposta(long n) {
+        spostamenti += n;
+    }
+
+    /**
+     * Da chiamare all'ingresso di ogni chiamata ricorsiva, insieme a esci()
+     */
+    public void entra() {
+        if (++profondita > profonditaMassima) {
+            profonditaMassima = profondita;
+        }
+    }
+
+    public void esci() {
+        profondita--;
+    }
+
+    public long getConfronti() {
+        return confronti;
+    }
+
+    public long getScambi() {
+        return scambi;
+    }
+
+    public long getSpostamenti() {
+        return spostamenti;
+    }
+
+    public int getProfonditaMassima() {
+        return profonditaMassima;
+    }
+}
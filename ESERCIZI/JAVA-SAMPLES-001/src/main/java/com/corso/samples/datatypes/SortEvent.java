@@ -0,0 +1,44 @@
+package com.corso.samples.datatypes;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR emesso da SortProfiler per ogni esecuzione misurata.
+ * Viene registrato solo se c'è una registrazione attiva, ad esempio:
+ *   java -XX:StartFlightRecording=filename=sort.jfr ...
+ *   jfr print --events com.corso.samples.Sort sort.jfr
+ */
+@Name("com.corso.samples.Sort")
+@Label("Ordinamento")
+@Category({"Corso", "Ordinamento"})
+@Description("Contatori di un ordinamento strumentato")
+@StackTrace(false)
+class SortEvent extends jdk.jfr.Event {
+
+    @Label("Algoritmo")
+    String algoritmo;
+
+    @Label("Elementi")
+    int elementi;
+
+    @Label("Confronti")
+    long confronti;
+
+    @Label("Scambi")
+    long scambi;
+
+    @Label("Spostamenti")
+    long spostamenti;
+
+    @Label("Profondità massima")
+    int profonditaMassima;
+
+    @Label("Byte allocati")
+    @DataAmount
+    long byteAllocati;
+}
@@ -0,0 +1,100 @@
+package com.corso.samples.datatypes;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.BiConsumer;
+
+/**
+ * Esegue un ordinamento strumentato più volte sullo stesso input e
+ * restituisce i contatori aggregati in un SortStats.
+ * Per ogni esecuzione:
+ * - l'input viene copiato prima di iniziare la misura
+ * - i byte allocati sono letti dal ThreadMXBean della JVM
+ *   (com.sun.management), prima e dopo l'ordinamento; la misura delle
+ *   allocazioni, se spenta, viene accesa solo durante misura() e poi rispenta
+ * - il risultato viene verificato: un array non ordinato è un errore
+ * - se JFR sta registrando viene emesso un SortEvent
+ * Esempio:
+ *   SortStats stats = SortProfiler.misura("Merge Sort", input, demo::mergeSort, 5);
+ */
+public final class SortProfiler {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+    private SortProfiler() {
+    }
+
+    public static SortStats misura(String algoritmo, int[] input,
+                                   BiConsumer<int[], SortCounter> sort, int esecuzioni) {
+        if (esecuzioni < 1) {
+            throw new IllegalArgumentException("Serve almeno un'esecuzione: " + esecuzioni);
+        }
+        // L'impostazione vale per tutta la JVM: si ripristina quella trovata
+        boolean accesa = THREAD_MX_BEAN != null && THREAD_MX_BEAN.isThreadAllocatedMemoryEnabled();
+        if (THREAD_MX_BEAN != null && !accesa) {
+            THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+        }
+        try {
+            SortStats totale = SortStats.vuote(algoritmo);
+            for (int i = 0; i < esecuzioni; i++) {
+                totale = totale.somma(misura(algoritmo, input, sort));
+            }
+            return totale;
+        } finally {
+            if (THREAD_MX_BEAN != null && !accesa) {
+                THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(false);
+            }
+        }
+    }
+
+    private static SortStats misura(String algoritmo, int[] input, BiConsumer<int[], SortCounter> sort) {
+        // Tutto ciò che alloca sta fuori dalla finestra misurata
+        int[] arr = input.clone();
+        SortCounter counter = new SortCounter();
+        SortEvent event = new SortEvent();
+
+        event.begin();
+        long byteInizio = byteAllocati();
+        long start = System.nanoTime();
+        sort.accept(arr, counter);
+        long tempo = System.nanoTime() - start;
+        long byteFine = byteAllocati();
+        event.end();
+
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) {
+                throw new IllegalStateException(algoritmo + ": array non ordinato all'indice " + i);
+            }
+        }
+
+        long byteUsati = byteInizio < 0 ? -1 : byteFine - byteInizio;
+        if (event.shouldCommit()) {
+            event.algoritmo = algoritmo;
+            event.elementi = arr.length;
+            event.confronti = counter.getConfronti();
+            event.scambi = counter.getScambi();
+            event.spostamenti = counter.getSpostamenti();
+            event.profonditaMassima = counter.getProfonditaMassima();
+            event.byteAllocati = byteUsati;
+            event.commit();
+        }
+
+        return new SortStats(algoritmo, 1, arr.length,
+            counter.getConfronti(), counter.getScambi(), counter.getSpostamenti(),
+            counter.getProfonditaMassima(), byteUsati, tempo);
+    }
+
+    private static long byteAllocati() {
+        return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * ThreadMXBean con il conteggio delle allocazioni, null se la JVM non lo supporta
+     */
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.corso.samples.datatypes;
+
+/**
+ * Statistiche di un algoritmo di ordinamento strumentato, sommate su una
+ * o più esecuzioni sullo stesso input (vedi SortProfiler):
+ * - elementi: dimensione dell'input di una esecuzione (non si somma)
+ * - confronti: confronti tra elementi
+ * - scambi: swap di due elementi
+ * - spostamenti: scritture singole (shift dell'Insertion Sort, copie del merge)
+ * - profonditaMassima: ricorsione più profonda raggiunta
+ * - byteAllocati: byte allocati dal thread durante l'ordinamento,
+ *   -1 se la JVM non li misura
+ * - tempoNanos: tempo totale, strumentazione compresa
+ */
+public record SortStats(String algoritmo,
+                        int esecuzioni,
+                        long elementi,
+                        long confronti,
+                        long scambi,
+                        long spostamenti,
+                        int profonditaMassima,
+                        long byteAllocati,
+                        long tempoNanos) {
+
+    public static SortStats vuote(String algoritmo) {
+        return new SortStats(algoritmo, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Aggrega due statistiche dello stesso algoritmo sulla stessa dimensione di
+     * input: i contatori si sommano, per la profondità si tiene il massimo
+     */
+    public SortStats somma(SortStats altre) {
+        if (!algoritmo.equals(altre.algoritmo)) {
+            throw new IllegalArgumentException("Algoritmi diversi: " + algoritmo + ", " + altre.algoritmo);
+        }
+        if (esecuzioni > 0 && altre.esecuzioni > 0 && elementi != altre.elementi) {
+            throw new IllegalArgumentException("Input di dimensioni diverse: " + elementi + ", " + altre.elementi);
+        }
+        long byteTotali = byteAllocati < 0 || altre.byteAllocati < 0 ? -1 : byteAllocati + altre.byteAllocati;
+        return new SortStats(algoritmo,
+            esecuzioni + altre.esecuzioni,
+            esecuzioni > 0 ? elementi : altre.elementi,
+            confronti + altre.confronti,
+            scambi + altre.scambi,
+            spostamenti + altre.spostamenti,
+            Math.max(profonditaMassima, altre.profonditaMassima),
+            byteTotali,
+            tempoNanos + altre.tempoNanos);
+    }
+
+    // Medie per esecuzione
+
+    public double confrontiMedi() {
+        return media(confronti);
+    }
+
+    public double scambiMedi() {
+        return media(scambi);
+    }
+
+    public double spostamentiMedi() {
+        return media(spostamenti);
+    }
+
+    public double byteMedi() {
+        return byteAllocati < 0 ? -1 : media(byteAllocati);
+    }
+
+    public double tempoMedioNanos() {
+        return media(tempoNanos);
+    }
+
+    private double media(long totale) {
+        return esecuzioni == 0 ? 0 : (double) totale / esecuzioni;
+    }
+}
@@ -0,0 +1,210 @@
+package com.corso.samples.datatypes;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * API generica di ordinamento per oggetti, con scelta dell'algoritmo.
+ * Due modalità:
+ * - Comparator: l'algoritmo confronta direttamente gli oggetti
+ *   (stabile solo con MERGE e TIM)
+ * - Chiave primitiva (comparingInt/Long/Double): le chiavi vengono estratte
+ *   una sola volta in un long[] insieme a una permutazione di indici int[].
+ *   L'algoritmo ordina le coppie (chiave, indice) senza chiamare getter né
+ *   fare unboxing; a parità di chiave decide l'indice originale, quindi
+ *   l'ordinamento è stabile con qualunque algoritmo.
+ * Esempio:
+ *   Sorter.comparingDouble(Ordine::getImporto)
+ *         .algoritmo(Sorter.Algoritmo.QUICK_3WAY)
+ *         .decrescente()
+ *         .sort(ordini);
+ * Le istanze sono immutabili e riutilizzabili da più thread.
+ */
+public final class Sorter<T> {
+
+    /**
+     * Le varianti QUICK limitano la profondità come Introsort (fallback su
+     * Heap Sort), quindi restano O(n log n) anche su input già ordinato,
+     * frequente per ordini per data o per id; su dati quasi ordinati TIM
+     * sfrutta le run esistenti ed è il più veloce.
+     */
+    public enum Algoritmo {
+        MERGE(true),
+        TIM(true),
+        HEAP(false),
+        QUICK(false),
+        QUICK_MEDIAN_OF_THREE(false),
+        QUICK_RANDOMIZED(false),
+        QUICK_3WAY(false);
+
+        private final boolean stabile;
+
+        Algoritmo(boolean stabile) {
+            this.stabile = stabile;
+        }
+
+        /**
+         * Stabilità dell'algoritmo quando confronta oggetti con un Comparator
+         */
+        public boolean isStabile() {
+            return stabile;
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private final ToIntFunction<? super T> chiaveInt;
+    private final ToLongFunction<? super T> chiaveLong;
+    private final ToDoubleFunction<? super T> chiaveDouble;
+    private final Algoritmo algoritmo;
+    private final boolean decrescente;
+
+    private Sorter(Comparator<? super T> comparator,
+                   ToIntFunction<? super T> chiaveInt,
+                   ToLongFunction<? super T> chiaveLong,
+                   ToDoubleFunction<? super T> chiaveDouble,
+                   Algoritmo algoritmo,
+                   boolean decrescente) {
+        this.comparator = comparator;
+        this.chiaveInt = chiaveInt;
+        this.chiaveLong = chiaveLong;
+        this.chiaveDouble = chiaveDouble;
+        this.algoritmo = algoritmo;
+        this.decrescente = decrescente;
+    }
+
+    // ==================== FACTORY ====================
+
+    public static <T> Sorter<T> comparing(Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator");
+        return new Sorter<>(comparator, null, null, null, Algoritmo.TIM, false);
+    }
+
+    public static <T> Sorter<T> comparingInt(ToIntFunction<? super T> chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        return new Sorter<>(null, chiave, null, null, Algoritmo.TIM, false);
+    }
+
+    public static <T> Sorter<T> comparingLong(ToLongFunction<? super T> chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        return new Sorter<>(null, null, chiave, null, Algoritmo.TIM, false);
+    }
+
+    /**
+     * Ordine di Double.compare: -0.0 prima di 0.0, NaN dopo +Infinity
+     */
+    public static <T> Sorter<T> comparingDouble(ToDoubleFunction<? super T> chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        return new Sorter<>(null, null, null, chiave, Algoritmo.TIM, false);
+    }
+
+    // ==================== CONFIGURAZIONE ====================
+
+    public Sorter<T> algoritmo(Algoritmo algoritmo) {
+        Objects.requireNonNull(algoritmo, "algoritmo");
+        return new Sorter<>(comparator, chiaveInt, chiaveLong, chiaveDouble, algoritmo, decrescente);
+    }
+
+    /**
+     * Ordine decrescente. Con le chiavi primitive, a parità di chiave
+     * resta l'ordine originale (la stabilità è preservata).
+     */
+    public Sorter<T> decrescente() {
+        return new Sorter<>(comparator, chiaveInt, chiaveLong, chiaveDouble, algoritmo, !decrescente);
+    }
+
+    public Algoritmo getAlgoritmo() {
+        return algoritmo;
+    }
+
+    /**
+     * True se elementi equivalenti mantengono l'ordine relativo originale
+     */
+    public boolean isStabile() {
+        return comparator == null || algoritmo.isStabile();
+    }
+
+    // ==================== ORDINAMENTO ====================
+
+    public void sort(T[] arr) {
+        if (arr.length < 2) {
+            return;
+        }
+        if (comparator != null) {
+            Comparator<? super T> comp = decrescente ? reverse(comparator) : comparator;
+            ComparatorSort.sort(arr, comp, algoritmo);
+        } else {
+            sortPerChiave(arr);
+        }
+    }
+
+    /**
+     * Ordina la lista in place, come List.sort: copia in un array,
+     * ordina e riscrive gli elementi con il ListIterator.
+     */
+    @SuppressWarnings("unchecked")
+    public void sort(List<T> list) {
+        Object[] arr = list.toArray();
+        sort((T[]) arr);
+        ListIterator<T> it = list.listIterator();
+        for (Object element : arr) {
+            it.next();
+            it.set((T) element);
+        }
+    }
+
+    private void sortPerChiave(T[] arr) {
+        int n = arr.length;
+        long[] keys = new long[n];
+        int[] idx = new int[n];
+
+        // Estrazione delle chiavi: l'unico punto in cui vengono chiamati i getter
+        if (chiaveInt != null) {
+            for (int i = 0; i < n; i++) {
+                keys[i] = chiaveInt.applyAsInt(arr[i]);
+            }
+        } else if (chiaveLong != null) {
+            for (int i = 0; i < n; i++) {
+                keys[i] = chiaveLong.applyAsLong(arr[i]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                keys[i] = doubleOrdinabile(chiaveDouble.applyAsDouble(arr[i]));
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+            if (decrescente) {
+                // ~k inverte l'ordine di tutti i long senza overflow
+                keys[i] = ~keys[i];
+            }
+        }
+
+        KeyIndexSort.sort(keys, idx, algoritmo);
+
+        // Applica la permutazione
+        Object[] copia = arr.clone();
+        for (int i = 0; i < n; i++) {
+            @SuppressWarnings("unchecked")
+            T element = (T) copia[idx[i]];
+            arr[i] = element;
+        }
+    }
+
+    /**
+     * Trasforma un double in un long con lo stesso ordinamento di Double.compare
+     */
+    static long doubleOrdinabile(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static <T> Comparator<T> reverse(Comparator<T> comparator) {
+        return (a, b) -> comparator.compare(b, a);
+    }
+}
@@ -1,5 +1,6 @@
 package com.corso.samples.datatypes;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -11,11 +12,16 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
+import java.util.Random;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
@@ -31,9 +37,16 @@ import java.util.stream.Stream;
  * - Collectors avanzati
  * - Stream paralleli
  * - Stream infiniti
+ * - Pipeline push con Flow: backpressure e finestre temporali (FlowPipeline)
  * - FlatMap e operazioni complesse
  * - Stream di tipi primitivi
  * - Custom collectors
+ * - Collector per stream paralleli (LongAdder, mappe primitive, HyperLogLog, t-digest)
+ * - Tabelle colonnari (PersonaTable, OrdineTable) con aggregazioni senza boxing
+ * - Indici bitmap (RoaringBitmap) e predicati AND/OR/NOT per filtri ripetuti
+ * - Tabelle fuori dall'heap (OffHeapPersonaTable, OffHeapOrdineTable) con viste flyweight
+ * - Stringhe ripetute: codici densi e istanze canoniche (StringInterner), testo Latin-1 (ByteString)
+ * - Top-K con heap limitato (TopKCollector) invece di sorted().limit()
  * - Pattern avanzati e best practices
  */
 public class StreamsDemo {
@@ -53,10 +66,17 @@ public class StreamsDemo {
         demo.flatMapOperazioni();
         demo.optionalConStream();
         demo.streamParalleli();
+        demo.topKDemo();
         demo.streamInfiniti();
+        demo.pipelineFlowDemo();
         demo.streamPrimitivi();
         demo.statistiche();
+        demo.tabelleColonnariDemo();
+        demo.indiciBitmapDemo();
+        demo.tabelleOffHeapDemo();
+        demo.stringheRipetuteDemo();
         demo.customCollectors();
+        demo.collectorsParalleliDemo();
         demo.patternAvanzati();
         demo.casiUsoReali();
     }
@@ -71,6 +91,12 @@ public class StreamsDemo {
         private String dipartimento;
         private List<String> hobby;
 
+        /**
+         * Per le viste flyweight (OffHeapPersonaTable), che ridefiniscono i getter
+         */
+        Persona() {
+        }
+
         public Persona(String nome, int eta, String citta, double stipendio, String dipartimento) {
             this.nome = nome;
             this.eta = eta;
@@ -111,6 +137,12 @@ public class StreamsDemo {
         private String stato;
         private List<Prodotto> prodotti;
 
+        /**
+         * Per le viste flyweight (OffHeapOrdineTable), che ridefiniscono i getter
+         */
+        Ordine() {
+        }
+
         public Ordine(String id, String cliente, double importo, String stato, List<Prodotto> prodotti) {
             this.id = id;
             this.cliente = cliente;
@@ -137,6 +169,12 @@ public class StreamsDemo {
         private String categoria;
         private int quantita;
 
+        /**
+         * Per le viste flyweight (OffHeapOrdineTable), che ridefiniscono i getter
+         */
+        Prodotto() {
+        }
+
         public Prodotto(String nome, double prezzo, String categoria, int quantita) {
             this.nome = nome;
             this.prezzo = prezzo;
@@ -155,6 +193,22 @@ public class StreamsDemo {
         }
     }
 
+    /**
+     * Ordine ricevuto da un feed, con l'istante dell'evento in millisecondi
+     */
+    static class EventoOrdine {
+        private long timestamp;
+        private Ordine ordine;
+
+        public EventoOrdine(long timestamp, Ordine ordine) {
+            this.timestamp = timestamp;
+            this.ordine = ordine;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public Ordine getOrdine() { return ordine; }
+    }
+
     // ==================== DATASET DI ESEMPIO ====================
 
     private List<Persona> creaPersone() {
@@ -862,6 +916,13 @@ public class StreamsDemo {
             .sum();
         System.out.println("Somma parallelo (con .parallel()): " + sumPar2);
 
+        // Senza List<Integer>: nessun boxing, lo stream si divide sul range
+        long sumPrimitivo = LongStream.rangeClosed(1, 1000)
+            .parallel()
+            .map(n -> n * n)
+            .sum();
+        System.out.println("Somma parallelo (LongStream, senza boxing): " + sumPrimitivo);
+
         // Verifica se è parallelo
         boolean isParallel = numeri.parallelStream().isParallel();
         System.out.println("È parallelo: " + isParallel);
@@ -905,6 +966,77 @@ public class StreamsDemo {
         System.out.println();
     }
 
+    // ==================== TOP-K ====================
+
+    public void topKDemo() {
+        System.out.println("=== TOP-K: I PRIMI K SENZA ORDINARE TUTTO ===");
+
+        List<Persona> persone = creaPersone();
+
+        // Con sorted().limit() lo stream ordina tutti gli elementi
+        List<Persona> top3Sorted = persone.stream()
+            .sorted(Comparator.comparingDouble(Persona::getStipendio).reversed())
+            .limit(3)
+            .collect(Collectors.toList());
+        System.out.println("Top 3 stipendi (sorted + limit): " +
+            top3Sorted.stream().map(Persona::getNome).collect(Collectors.toList()));
+
+        // TopKCollector tiene solo un heap di 3 elementi
+        List<Persona> top3Heap = persone.stream()
+            .collect(TopKCollector.comparingDouble(3, Persona::getStipendio));
+        System.out.println("Top 3 stipendi (TopKCollector): " +
+            top3Heap.stream().map(Persona::getNome).collect(Collectors.toList()));
+
+        List<Persona> piuGiovani = persone.stream()
+            .collect(TopKCollector.of(2, Comparator.comparingInt(Persona::getEta).reversed()));
+        System.out.println("I 2 più giovani (Comparator): " +
+            piuGiovani.stream().map(Persona::getNome).collect(Collectors.toList()));
+
+        // Top 100 ordini per importo su un volume più realistico
+        int numeroOrdini = 500_000;
+        Random rand = new Random(42);
+        List<Ordine> ordini = new ArrayList<>(numeroOrdini);
+        for (int i = 0; i < numeroOrdini; i++) {
+            ordini.add(new Ordine("ORD" + i, "Cliente" + rand.nextInt(1000),
+                rand.nextInt(10_000_000) / 100.0, "COMPLETATO", Collections.emptyList()));
+        }
+
+        long start = System.nanoTime();
+        List<Ordine> topSorted = ordini.stream()
+            .sorted(Comparator.comparingDouble(Ordine::getImporto).reversed())
+            .limit(100)
+            .collect(Collectors.toList());
+        long tempoSorted = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<Ordine> topHeap = ordini.stream()
+            .collect(TopKCollector.comparingDouble(100, Ordine::getImporto));
+        long tempoHeap = System.nanoTime() - start;
+
+        // Negli stream paralleli ogni thread ha il suo heap, poi gli heap vengono fusi
+        start = System.nanoTime();
+        List<Ordine> topParallelo = ordini.parallelStream()
+            .collect(TopKCollector.comparingDouble(100, Ordine::getImporto));
+        long tempoParallelo = System.nanoTime() - start;
+
+        System.out.println("\nTop 100 ordini su " + numeroOrdini + ":");
+        System.out.println("  sorted().limit(100):       " + tempoSorted / 1_000_000 + " ms");
+        System.out.println("  TopKCollector:             " + tempoHeap / 1_000_000 + " ms");
+        System.out.println("  TopKCollector (parallelo): " + tempoParallelo / 1_000_000 + " ms");
+        System.out.println("  Primo: " + topHeap.get(0) + ", centesimo: " + topHeap.get(99));
+
+        // A parità di importo gli ordini scelti possono differire: si confrontano gli importi
+        boolean uguali = importi(topSorted).equals(importi(topHeap))
+            && importi(topSorted).equals(importi(topParallelo));
+        System.out.println("  Stessi importi: " + uguali);
+
+        System.out.println();
+    }
+
+    private static List<Double> importi(List<Ordine> ordini) {
+        return ordini.stream().map(Ordine::getImporto).collect(Collectors.toList());
+    }
+
     // ==================== STREAM INFINITI ====================
 
     public void streamInfiniti() {
@@ -968,6 +1100,109 @@ public class StreamsDemo {
         return true;
     }
 
+    // ==================== PIPELINE FLOW ====================
+
+    public void pipelineFlowDemo() {
+        System.out.println("=== PIPELINE PUSH CON FLOW ===");
+
+        // Sorgente infinita: l'iteratore viene consumato solo per gli elementi richiesti
+        System.out.println("Quadrati dei primi 8 pari da una sorgente infinita:");
+        AtomicLong generati = new AtomicLong();
+        FlowPipeline.fromIterator(Stream.iterate(1L, n -> n + 1).peek(n -> generati.incrementAndGet()).iterator())
+            .filter(n -> n % 2 == 0)
+            .map(n -> n * n)
+            .limit(8)
+            .subscribe(batch -> System.out.println("  batch " + batch), 3)
+            .join();
+        System.out.println("  Elementi generati dalla sorgente: " + generati.get()
+            + " (prefetch limitato dal buffer, non infinito)");
+
+        // Feed di ordini da un altro thread: submit() si blocca quando il buffer è pieno
+        String[] categorie = {"Elettronica", "Libri", "Casa", "Sport"};
+        String[] stati = {"Completato", "Completato", "Completato", "Annullato"};
+        Random rand = new Random(7);
+        int numeroEventi = 50_000;
+        long inizioFeed = 9 * 3_600_000L; // 09:00 del giorno simulato
+
+        SubmissionPublisher<EventoOrdine> feedMinuto = new SubmissionPublisher<>();
+        SubmissionPublisher<EventoOrdine> feedSliding = new SubmissionPublisher<>();
+
+        Map<String, Double> totaliTumbling = new TreeMap<>();
+        CompletableFuture<Void> perMinuto = FlowPipeline.from(feedMinuto)
+            .filter(e -> !e.getOrdine().getStato().equals("Annullato"))
+            .<String>tumblingWindow(Duration.ofMinutes(1), EventoOrdine::getTimestamp, (e, out) ->
+                e.getOrdine().getProdotti().forEach(p -> out.accept(p.getCategoria(), p.getPrezzo() * p.getQuantita())))
+            .subscribe(finestre -> finestre.forEach(f -> {
+                f.aggregati().forEach((categoria, s) -> totaliTumbling.merge(categoria, s.getSum(), Double::sum));
+                if (f.inizio() < inizioFeed + 3 * 60_000) {
+                    System.out.println("  " + orario(f.inizio()) + "-" + orario(f.fine()) + " " + riepilogo(f, categorie));
+                }
+            }), 4);
+
+        List<String> primeSliding = new ArrayList<>();
+        CompletableFuture<Void> sliding = FlowPipeline.from(feedSliding)
+            .filter(e -> !e.getOrdine().getStato().equals("Annullato"))
+            .<String>slidingWindow(Duration.ofMinutes(5), Duration.ofMinutes(1), EventoOrdine::getTimestamp, (e, out) ->
+                e.getOrdine().getProdotti().forEach(p -> out.accept(p.getCategoria(), p.getPrezzo() * p.getQuantita())))
+            .subscribe(finestre -> finestre.forEach(f -> {
+                // Le prime finestre complete: quelle precedenti coprono anche minuti senza ordini
+                if (f.inizio() >= inizioFeed && primeSliding.size() < 3) {
+                    primeSliding.add("  " + orario(f.inizio()) + "-" + orario(f.fine()) + " " + riepilogo(f, categorie));
+                }
+            }), 4);
+
+        System.out.println("\nFatturato per categoria al minuto (prime 3 finestre tumbling):");
+        Map<String, Double> totaliAttesi = new TreeMap<>();
+        int lagMassimo = 0;
+        long timestamp = inizioFeed;
+        for (int i = 0; i < numeroEventi; i++) {
+            timestamp += rand.nextInt(30); // in media un ordine ogni 15 ms
+            List<Prodotto> prodotti = new ArrayList<>();
+            for (int j = 1 + rand.nextInt(3); j > 0; j--) {
+                prodotti.add(new Prodotto("P" + rand.nextInt(100), 5 + rand.nextInt(9_500) / 10.0,
+                    categorie[rand.nextInt(categorie.length)], 1 + rand.nextInt(3)));
+            }
+            Ordine ordine = new Ordine("EV" + i, "Cliente" + rand.nextInt(1000),
+                prodotti.stream().mapToDouble(p -> p.getPrezzo() * p.getQuantita()).sum(),
+                stati[rand.nextInt(stati.length)], prodotti);
+            if (!ordine.getStato().equals("Annullato")) {
+                prodotti.forEach(p -> totaliAttesi.merge(p.getCategoria(), p.getPrezzo() * p.getQuantita(), Double::sum));
+            }
+            EventoOrdine evento = new EventoOrdine(timestamp, ordine);
+            feedMinuto.submit(evento);
+            feedSliding.submit(evento);
+            lagMassimo = Math.max(lagMassimo, feedMinuto.estimateMaximumLag());
+        }
+        feedMinuto.close();
+        feedSliding.close();
+        perMinuto.join();
+        sliding.join();
+
+        System.out.println("\nFinestre sliding di 5 minuti con passo 1 minuto:");
+        primeSliding.forEach(System.out::println);
+
+        System.out.println("\nEventi: " + numeroEventi + ", dal " + orario(inizioFeed) + " al " + orario(timestamp)
+            + ", ordini in attesa al massimo: " + lagMassimo
+            + " (submit si blocca quando il buffer di " + feedMinuto.getMaxBufferCapacity() + " per subscriber è pieno)");
+        boolean coincidono = totaliAttesi.keySet().equals(totaliTumbling.keySet())
+            && totaliAttesi.entrySet().stream().allMatch(e ->
+                Math.abs(e.getValue() - totaliTumbling.get(e.getKey())) < 1e-6 * e.getValue());
+        System.out.println("Somma delle finestre = totale degli ordini non annullati: " + coincidono);
+        System.out.println();
+    }
+
+    private static String orario(long millis) {
+        return String.format("%02d:%02d", millis / 3_600_000 % 24, millis / 60_000 % 60);
+    }
+
+    private static String riepilogo(FlowPipeline.Finestra<String> finestra, String[] categorie) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (String categoria : categorie) {
+            joiner.add(String.format("%s €%.0f", categoria, finestra.totale(categoria)));
+        }
+        return joiner.toString();
+    }
+
     // ==================== STREAM PRIMITIVI ====================
 
     public void streamPrimitivi() {
@@ -1113,6 +1348,327 @@ public class StreamsDemo {
         System.out.println();
     }
 
+    // ==================== TABELLE COLONNARI ====================
+
+    public void tabelleColonnariDemo() {
+        System.out.println("=== TABELLE COLONNARI (PersonaTable, OrdineTable) ===");
+
+        // Stessi dati di creaPersone(), una colonna per campo
+        PersonaTable tabella = PersonaTable.da(creaPersone());
+        DoubleSummaryStatistics stipendi = tabella.statisticheStipendio();
+        System.out.println("Persone: " + tabella.size());
+        System.out.println("Stipendio medio: €" + String.format("%.2f", stipendi.getAverage())
+            + ", min: €" + String.format("%.0f", stipendi.getMin())
+            + ", max: €" + String.format("%.0f", stipendi.getMax()));
+        System.out.println("Età media: " + String.format("%.2f", tabella.statisticheEta().getAverage()));
+        System.out.println("Mediana stipendi: €" + String.format("%.0f", tabella.percentileStipendio(50)));
+        System.out.println("90° percentile stipendi: €" + String.format("%.0f", tabella.percentileStipendio(90)));
+
+        System.out.println("\nStipendio medio per dipartimento:");
+        tabella.stipendioPerDipartimento().forEach((dip, stats) ->
+            System.out.println("  " + dip + ": €" + String.format("%.2f", stats.getAverage())
+                + " (" + stats.getCount() + " persone)"));
+
+        OrdineTable ordini = OrdineTable.da(creaOrdini());
+        System.out.println("\nImporto totale per stato:");
+        ordini.importoPerStato().forEach((stato, stats) ->
+            System.out.println("  " + stato + ": €" + String.format("%.2f", stats.getSum())));
+
+        // Stesso report su molte righe: oggetti + Collectors contro colonne
+        int righe = 2_000_000;
+        String[] citta = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+        String[] dipartimenti = {"IT", "Marketing", "HR", "Sales", "Management"};
+        Random rand = new Random(42);
+        List<Persona> molte = new ArrayList<>(righe);
+        PersonaTable.Builder builder = PersonaTable.builder(righe);
+        for (int i = 0; i < righe; i++) {
+            String nome = "P" + (i % 1000);
+            int eta = 20 + rand.nextInt(45);
+            String c = citta[rand.nextInt(citta.length)];
+            double stipendio = 25_000 + rand.nextInt(50_000);
+            String dip = dipartimenti[rand.nextInt(dipartimenti.length)];
+            molte.add(new Persona(nome, eta, c, stipendio, dip));
+            builder.aggiungi(nome, eta, c, stipendio, dip);
+        }
+        PersonaTable grande = builder.build();
+
+        long start = System.nanoTime();
+        Map<String, DoubleSummaryStatistics> perDipCollectors = molte.parallelStream()
+            .collect(Collectors.groupingBy(Persona::getDipartimento,
+                Collectors.summarizingDouble(Persona::getStipendio)));
+        long tempoCollectors = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Map<String, DoubleSummaryStatistics> perDipTabella = grande.stipendioPerDipartimento();
+        long tempoTabella = System.nanoTime() - start;
+
+        System.out.println("\nStipendio per dipartimento su " + righe + " righe:");
+        System.out.println("  groupingBy + summarizingDouble: " + tempoCollectors / 1_000_000 + " ms");
+        System.out.println("  PersonaTable (Fork/Join):       " + tempoTabella / 1_000_000 + " ms");
+        boolean uguali = perDipCollectors.keySet().equals(perDipTabella.keySet())
+            && perDipTabella.entrySet().stream().allMatch(e ->
+                e.getValue().getCount() == perDipCollectors.get(e.getKey()).getCount()
+                && e.getValue().getSum() == perDipCollectors.get(e.getKey()).getSum());
+        System.out.println("  Stessi risultati: " + uguali);
+
+        System.out.println();
+    }
+
+    // ==================== INDICI BITMAP ====================
+
+    public void indiciBitmapDemo() {
+        System.out.println("=== INDICI BITMAP (RoaringBitmap, BitmapPredicate) ===");
+
+        // Insiemi di id: contenitori array per i valori sparsi, bitmap per quelli densi
+        RoaringBitmap pari = RoaringBitmap.builder().add(2).add(4).add(6).add(8).build();
+        RoaringBitmap primi = RoaringBitmap.of(2, 3, 5, 7);
+        System.out.println("pari AND primi: " + pari.and(primi));
+        System.out.println("pari OR primi: " + pari.or(primi));
+        System.out.println("pari AND NOT primi: " + pari.andNot(primi));
+        RoaringBitmap intervallo = RoaringBitmap.range(0, 1_000_000);
+        System.out.println("range(0, 1000000): " + intervallo + ", " + intervallo.sizeInBytes() / 1024 + " KB");
+
+        // Gli ordini: predicati su stato e importo
+        OrdineBitmapIndex ordini = OrdineTable.da(creaOrdini()).indiceBitmap();
+        BitmapPredicate completatiGrandi = ordini.stato().eq("Completato").and(ordini.importo().atLeast(150));
+        System.out.println("\nOrdini completati da almeno €150: "
+            + Arrays.stream(ordini.select(completatiGrandi)).mapToObj(ordini.tabella()::getId).toList());
+        System.out.println("Ordini non completati: " + ordini.count(ordini.not(ordini.stato().eq("Completato"))));
+
+        int righe = 2_000_000;
+        String[] citta = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+        String[] dipartimenti = {"IT", "Marketing", "HR", "Sales", "Management"};
+        Random rand = new Random(42);
+        List<Persona> molte = new ArrayList<>(righe);
+        PersonaTable.Builder builder = PersonaTable.builder(righe);
+        for (int i = 0; i < righe; i++) {
+            String nome = "P" + (i % 1000);
+            int eta = 20 + rand.nextInt(45);
+            String c = citta[rand.nextInt(citta.length)];
+            double stipendio = 25_000 + rand.nextInt(50_000);
+            String dip = dipartimenti[rand.nextInt(dipartimenti.length)];
+            molte.add(new Persona(nome, eta, c, stipendio, dip));
+            builder.aggiungi(nome, eta, c, stipendio, dip);
+        }
+        PersonaTable tabella = builder.build();
+
+        long start = System.nanoTime();
+        PersonaBitmapIndex indice = tabella.indiceBitmap();
+        long tempoIndice = System.nanoTime() - start;
+        System.out.println("\nIndice su " + righe + " persone: " + tempoIndice / 1_000_000 + " ms, "
+            + indice.sizeInBytes() / (1024 * 1024) + " MB");
+
+        // Stessa query: scansione di tutti gli oggetti contro AND di bitmap già pronte
+        BitmapPredicate query = indice.citta().eq("Milano")
+            .and(indice.dipartimento().eq("IT"))
+            .and(indice.eta().greaterThan(30))
+            .and(indice.stipendio().between(40_000, 60_000));
+        // Si misurano 20 ripetizioni dopo il riscaldamento del JIT: 20 per lo stream,
+        // che scorre 2M righe a ogni query, 200 per le bitmap, che fanno poco lavoro per query
+        int ripetizioni = 20;
+        int[] idStream = null;
+        long tempoStream = 0;
+        for (int r = 0; r < 2 * ripetizioni; r++) {
+            start = System.nanoTime();
+            idStream = IntStream.range(0, righe)
+                .filter(i -> {
+                    Persona p = molte.get(i);
+                    return p.getCitta().equals("Milano") && p.getDipartimento().equals("IT")
+                        && p.getEta() > 30 && p.getStipendio() >= 40_000 && p.getStipendio() <= 60_000;
+                })
+                .toArray();
+            if (r >= ripetizioni) {
+                tempoStream += System.nanoTime() - start;
+            }
+        }
+
+        int[] idBitmap = null;
+        long tempoBitmap = 0;
+        for (int r = 0; r < 200 + ripetizioni; r++) {
+            start = System.nanoTime();
+            idBitmap = indice.select(query);
+            if (r >= 200) {
+                tempoBitmap += System.nanoTime() - start;
+            }
+        }
+        tempoStream /= ripetizioni;
+        tempoBitmap /= ripetizioni;
+
+        System.out.println("Milano AND IT AND eta > 30 AND stipendio in [40000, 60000]: " + idBitmap.length + " persone");
+        System.out.println("  Stream.filter su oggetti: " + tempoStream / 1_000 + " µs per query");
+        System.out.println("  Indice bitmap:            " + tempoBitmap / 1_000 + " µs per query");
+        System.out.println("  Stessi id: " + Arrays.equals(idStream, idBitmap));
+
+        // OR e NOT; righe() produce gli id man mano, qui solo i primi 5
+        BitmapPredicate giovaniFuoriRoma = indice.eta().lessThan(25).andNot(indice.citta().in("Roma", "Milano"));
+        System.out.println("Età < 25 non a Roma né a Milano: " + indice.count(giovaniFuoriRoma));
+        BitmapPredicate nonIt = indice.not(indice.dipartimento().eq("IT"));
+        System.out.println("Non IT: " + indice.count(nonIt)
+            + ", IT o HR: " + indice.count(indice.dipartimento().in("IT", "HR")));
+        System.out.println("Prime righe Management a Torino: " + Arrays.toString(
+            indice.righe(indice.dipartimento().eq("Management").and(indice.citta().eq("Torino")))
+                .limit(5).toArray()));
+
+        System.out.println();
+    }
+
+    // ==================== TABELLE FUORI DALL'HEAP ====================
+
+    public void tabelleOffHeapDemo() {
+        System.out.println("=== TABELLE FUORI DALL'HEAP (OffHeapPersonaTable, OffHeapOrdineTable) ===");
+
+        // Le viste estendono Persona e Ordine: lo stesso codice stream di prima
+        OffHeapPersonaTable persone = OffHeapPersonaTable.da(creaPersone());
+        System.out.println("Nomi con più di 30 anni: " + persone.stream()
+            .filter(p -> p.getEta() > 30)
+            .map(Persona::getNome)
+            .collect(Collectors.toList()));
+        System.out.println("Stipendio medio per città: " + persone.stream()
+            .collect(Collectors.groupingBy(Persona::getCitta, TreeMap::new,
+                Collectors.averagingDouble(Persona::getStipendio))));
+
+        OffHeapOrdineTable ordini = OffHeapOrdineTable.da(creaOrdini());
+        System.out.println("Primo ordine: " + ordini.get(0) + " -> " + ordini.get(0).getProdotti());
+        System.out.println("Totale prodotti venduti: " + ordini.stream()
+            .flatMap(o -> o.getProdotti().stream())
+            .mapToInt(Prodotto::getQuantita)
+            .sum());
+
+        // Molte righe: gli oggetti pesano sull'heap, le colonne off-heap no
+        int righe = 5_000_000;
+        String[] citta = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+        String[] dipartimenti = {"IT", "Marketing", "HR", "Sales", "Management"};
+        Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        long heapPrima = runtime.totalMemory() - runtime.freeMemory();
+        Random rand = new Random(42);
+        OffHeapPersonaTable.Builder builder = OffHeapPersonaTable.builder(righe);
+        for (int i = 0; i < righe; i++) {
+            builder.aggiungi("Persona" + i, 20 + rand.nextInt(45), citta[rand.nextInt(citta.length)],
+                25_000 + rand.nextInt(50_000), dipartimenti[rand.nextInt(dipartimenti.length)]);
+        }
+        OffHeapPersonaTable grande = builder.build();
+        System.gc();
+        long heapOffHeap = runtime.totalMemory() - runtime.freeMemory() - heapPrima;
+
+        rand = new Random(42);
+        List<Persona> oggetti = new ArrayList<>(righe);
+        for (int i = 0; i < righe; i++) {
+            oggetti.add(new Persona("Persona" + i, 20 + rand.nextInt(45), citta[rand.nextInt(citta.length)],
+                25_000 + rand.nextInt(50_000), dipartimenti[rand.nextInt(dipartimenti.length)]));
+        }
+        System.gc();
+        long heapOggetti = runtime.totalMemory() - runtime.freeMemory() - heapPrima - heapOffHeap;
+
+        System.out.println("\n" + righe + " persone:");
+        System.out.println("  List<Persona>:       " + heapOggetti / (1024 * 1024) + " MB di heap");
+        System.out.println("  OffHeapPersonaTable: " + Math.max(0, heapOffHeap) / (1024 * 1024) + " MB di heap, "
+            + grande.byteOffHeap() / (1024 * 1024) + " MB fuori dall'heap");
+
+        long start = System.nanoTime();
+        DoubleSummaryStatistics daOggetti = oggetti.stream().mapToDouble(Persona::getStipendio).summaryStatistics();
+        long tempoOggetti = System.nanoTime() - start;
+        start = System.nanoTime();
+        DoubleSummaryStatistics daColonna = grande.statisticheStipendio();
+        long tempoColonna = System.nanoTime() - start;
+        start = System.nanoTime();
+        DoubleSummaryStatistics daViste = grande.stream().mapToDouble(Persona::getStipendio).summaryStatistics();
+        long tempoViste = System.nanoTime() - start;
+
+        System.out.println("Somma stipendi:");
+        System.out.println("  stream su List<Persona>:       " + tempoOggetti / 1_000_000 + " ms");
+        System.out.println("  scansione colonna off-heap:    " + tempoColonna / 1_000_000 + " ms");
+        System.out.println("  stream di viste off-heap:      " + tempoViste / 1_000_000 + " ms");
+        System.out.println("  Stessi risultati: " + (daOggetti.getCount() == daColonna.getCount()
+            && daOggetti.getSum() == daColonna.getSum() && daViste.getSum() == daColonna.getSum()));
+
+        System.out.println();
+    }
+
+    // ==================== STRINGHE RIPETUTE ====================
+
+    public void stringheRipetuteDemo() {
+        System.out.println("=== STRINGHE RIPETUTE (StringInterner, ByteString) ===");
+
+        // Righe lette da un file: ogni campo è una String nuova con il suo byte[], anche
+        // se il testo si ripete (new String(String) invece condividerebbe l'array)
+        int righe = 2_000_000;
+        String[] citta = {"Roma", "Milano", "Napoli", "Torino", "Firenze"};
+        String[] dipartimenti = {"IT", "Marketing", "HR", "Sales", "Management"};
+        Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        long heapPrima = runtime.totalMemory() - runtime.freeMemory();
+        Random rand = new Random(42);
+        List<Persona> copie = new ArrayList<>(righe);
+        for (int i = 0; i < righe; i++) {
+            copie.add(new Persona("P" + (i % 1000), 20 + rand.nextInt(45),
+                new String(citta[rand.nextInt(citta.length)].toCharArray()), 25_000 + rand.nextInt(50_000),
+                new String(dipartimenti[rand.nextInt(dipartimenti.length)].toCharArray())));
+        }
+        System.gc();
+        long heapCopie = runtime.totalMemory() - runtime.freeMemory() - heapPrima;
+
+        // Stesso caricamento, ma i campi ripetuti passano dall'interner di quel campo
+        StringInterner internerCitta = new StringInterner();
+        StringInterner internerDipartimenti = new StringInterner();
+        StringInterner internerNomi = new StringInterner();
+        System.gc();
+        heapPrima = runtime.totalMemory() - runtime.freeMemory();
+        rand = new Random(42);
+        List<Persona> internate = new ArrayList<>(righe);
+        for (int i = 0; i < righe; i++) {
+            internate.add(new Persona(internerNomi.intern("P" + (i % 1000)), 20 + rand.nextInt(45),
+                internerCitta.intern(new String(citta[rand.nextInt(citta.length)].toCharArray())), 25_000 + rand.nextInt(50_000),
+                internerDipartimenti.intern(new String(dipartimenti[rand.nextInt(dipartimenti.length)].toCharArray()))));
+        }
+        System.gc();
+        long heapInternate = runtime.totalMemory() - runtime.freeMemory() - heapPrima;
+
+        System.out.println(copie.size() + " persone con nome, città e dipartimento letti come String nuove:");
+        System.out.println("  copie duplicate: " + heapCopie / (1024 * 1024) + " MB di heap");
+        System.out.println("  internate:       " + heapInternate / (1024 * 1024) + " MB di heap ("
+            + (internerNomi.dimensione() + internerCitta.dimensione() + internerDipartimenti.dimensione())
+            + " stringhe distinte)");
+        System.out.println("  intern(new String(\"Roma\")) == intern(new String(\"Roma\")): "
+            + (internerCitta.intern(new String("Roma")) == internerCitta.intern(new String("Roma"))));
+
+        // I codici densi indicizzano array primitivi: conteggio per città senza mappe né boxing
+        int[] codiciCitta = new int[righe];
+        for (int i = 0; i < righe; i++) {
+            codiciCitta[i] = internerCitta.codifica(internate.get(i).getCitta());
+        }
+        long start = System.nanoTime();
+        long[] perCitta = new long[internerCitta.dimensione()];
+        for (int codice : codiciCitta) {
+            perCitta[codice]++;
+        }
+        long tempoCodici = System.nanoTime() - start;
+        start = System.nanoTime();
+        Map<String, Long> perCittaMappa = internate.stream()
+            .collect(Collectors.groupingBy(Persona::getCitta, Collectors.counting()));
+        long tempoMappa = System.nanoTime() - start;
+        System.out.println("\nConteggio per città:");
+        System.out.println("  long[] indicizzato dal codice:   " + tempoCodici / 1_000_000 + " ms");
+        System.out.println("  groupingBy + counting:           " + tempoMappa / 1_000_000 + " ms");
+        boolean uguali = IntStream.range(0, perCitta.length)
+            .allMatch(c -> perCittaMappa.get(internerCitta.decodifica(c)) == perCitta[c]);
+        System.out.println("  Stessi risultati: " + uguali);
+
+        // ByteString: fette di un buffer letto, senza creare String
+        byte[] riga = "ORD001;SHIPPED;Milano".getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+        ByteString record = ByteString.wrap(riga, 0, riga.length);
+        int primo = record.indexOf(';', 0);
+        int secondo = record.indexOf(';', primo + 1);
+        ByteString stato = record.subSequence(primo + 1, secondo);
+        System.out.println("\nByteString: " + record + " -> stato '" + stato + "'"
+            + ", contentEquals(\"SHIPPED\"): " + stato.contentEquals("SHIPPED")
+            + ", stesso hashCode di String: " + (stato.hashCode() == "SHIPPED".hashCode()));
+
+        System.out.println();
+    }
+
     // ==================== CUSTOM COLLECTORS ====================
 
     public void customCollectors() {
@@ -1200,6 +1756,79 @@ public class StreamsDemo {
         System.out.println();
     }
 
+    // ==================== COLLECTOR PARALLELI ====================
+
+    public void collectorsParalleliDemo() {
+        System.out.println("=== COLLECTOR PER STREAM PARALLELI ===");
+
+        int numeroOrdini = 2_000_000;
+        int numeroClienti = 50_000;
+        String[] stati = {"Completato", "In corso", "Annullato"};
+        Random rand = new Random(42);
+        List<Ordine> ordini = new ArrayList<>(numeroOrdini);
+        for (int i = 0; i < numeroOrdini; i++) {
+            ordini.add(new Ordine("ORD" + i, "Cliente" + rand.nextInt(numeroClienti),
+                rand.nextInt(100_000) / 100.0, stati[rand.nextInt(stati.length)], Collections.emptyList()));
+        }
+        System.out.println("Ordini: " + numeroOrdini + ", clienti: " + numeroClienti);
+
+        // Conteggio per cliente: mappe parziali fuse nel combiner contro una mappa condivisa
+        long start = System.nanoTime();
+        Map<String, Long> perClienteCollectors = ordini.parallelStream()
+            .collect(Collectors.groupingBy(Ordine::getCliente, Collectors.counting()));
+        long tempoCollectors = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Map<String, Long> perClienteAdder = ordini.parallelStream()
+            .collect(ParallelCollectors.countingByKey(Ordine::getCliente));
+        long tempoAdder = System.nanoTime() - start;
+
+        System.out.println("\nConteggio ordini per cliente:");
+        System.out.println("  groupingBy + counting:       " + tempoCollectors / 1_000_000 + " ms");
+        System.out.println("  countingByKey (LongAdder):   " + tempoAdder / 1_000_000 + " ms");
+        System.out.println("  Stessi risultati: " + perClienteCollectors.equals(perClienteAdder));
+
+        // Somma per cliente senza Double boxed
+        start = System.nanoTime();
+        Map<String, Double> totaleCollectors = ordini.parallelStream()
+            .collect(Collectors.groupingBy(Ordine::getCliente, Collectors.summingDouble(Ordine::getImporto)));
+        tempoCollectors = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ObjectDoubleHashMap<String> totalePrimitivo = ordini.parallelStream()
+            .collect(ParallelCollectors.summingDoubleByKey(Ordine::getCliente, Ordine::getImporto));
+        long tempoPrimitivo = System.nanoTime() - start;
+
+        System.out.println("\nImporto totale per cliente:");
+        System.out.println("  groupingBy + summingDouble:  " + tempoCollectors / 1_000_000 + " ms");
+        System.out.println("  summingDoubleByKey:          " + tempoPrimitivo / 1_000_000 + " ms");
+        System.out.println("  Cliente0: €" + String.format("%.2f", totaleCollectors.get("Cliente0"))
+            + " / €" + String.format("%.2f", totalePrimitivo.getOrDefault("Cliente0", 0)));
+
+        DoubleSummaryStatistics stats = ordini.parallelStream()
+            .collect(ParallelCollectors.summarizingDouble(Ordine::getImporto));
+        System.out.println("\nStatistiche importi: media €" + String.format("%.2f", stats.getAverage())
+            + ", max €" + String.format("%.2f", stats.getMax()));
+
+        // Stime con memoria fissa
+        long distintiEsatti = ordini.parallelStream().map(Ordine::getCliente).distinct().count();
+        long distintiStimati = ordini.parallelStream()
+            .collect(ParallelCollectors.approxDistinct(Ordine::getCliente));
+        System.out.println("\nClienti distinti: esatti " + distintiEsatti + ", HyperLogLog " + distintiStimati
+            + String.format(" (errore %.2f%%, 16 KB)", 100.0 * Math.abs(distintiStimati - distintiEsatti) / distintiEsatti));
+
+        TDigest digest = ordini.parallelStream()
+            .collect(ParallelCollectors.quantiles(Ordine::getImporto));
+        double[] importiOrdinati = ordini.stream().mapToDouble(Ordine::getImporto).sorted().toArray();
+        System.out.println("Quantili importo (esatto / t-digest con " + digest.numeroCentroidi() + " centroidi):");
+        for (double q : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            double esatto = importiOrdinati[(int) Math.ceil(q * importiOrdinati.length) - 1];
+            System.out.println(String.format("  p%-5s €%9.2f / €%9.2f", q * 100, esatto, digest.quantile(q)));
+        }
+
+        System.out.println();
+    }
+
     // ==================== PATTERN AVANZATI ====================
 
     public void patternAvanzati() {
@@ -0,0 +1,107 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+
+/**
+ * Dizionario di stringhe: assegna a ogni valore distinto un codice int denso
+ * (0, 1, 2, ... nell'ordine di inserimento). Le colonne di PersonaTable e
+ * OrdineTable salvano i codici in un int[] invece di un riferimento a String
+ * per riga, e i group-by usano il codice come indice di array.
+ * La ricerca è una tabella a indirizzamento aperto di int (codice + 1, 0 = libero)
+ * sui valori stessi: nessun nodo di HashMap e nessun Integer per valore.
+ * Non è thread-safe: va popolato da un solo thread, poi può essere letto da più
+ * thread. Per un dizionario condiviso tra thread c'è StringInterner.
+ */
+public final class StringDictionary {
+
+    private int[] tabella = new int[32];
+    private String[] valori = new String[16];
+    private int size;
+
+    /**
+     * Codice del valore, aggiunto al dizionario se non c'è ancora
+     */
+    public int codifica(String valore) {
+        int maschera = tabella.length - 1;
+        int i = slot(valore.hashCode(), maschera);
+        int voce;
+        while ((voce = tabella[i]) != 0) {
+            if (valori[voce - 1].equals(valore)) {
+                return voce - 1;
+            }
+            i = (i + 1) & maschera;
+        }
+        if (size == valori.length) {
+            valori = Arrays.copyOf(valori, size * 2);
+        }
+        valori[size] = valore;
+        tabella[i] = size + 1;
+        size++;
+        // Fattore di carico massimo 0.5
+        if (size * 2 > tabella.length) {
+            ridimensiona(tabella.length * 2);
+        }
+        return size - 1;
+    }
+
+    /**
+     * Codice del valore, -1 se non è nel dizionario
+     */
+    public int codice(String valore) {
+        int maschera = tabella.length - 1;
+        int i = slot(valore.hashCode(), maschera);
+        int voce;
+        while ((voce = tabella[i]) != 0) {
+            if (valori[voce - 1].equals(valore)) {
+                return voce - 1;
+            }
+            i = (i + 1) & maschera;
+        }
+        return -1;
+    }
+
+    public String decodifica(int codice) {
+        if (codice < 0 || codice >= size) {
+            throw new IndexOutOfBoundsException("Codice non valido: " + codice);
+        }
+        return valori[codice];
+    }
+
+    /**
+     * Copia indipendente con gli stessi codici: i build() di PersonaTable e
+     * OrdineTable la prendono, così un add() successivo sul Builder non cambia
+     * il dizionario di una tabella già costruita
+     */
+    public StringDictionary copia() {
+        StringDictionary copia = new StringDictionary();
+        copia.tabella = tabella.clone();
+        copia.valori = valori.clone();
+        copia.size = size;
+        return copia;
+    }
+
+    /**
+     * Numero di valori distinti: i codici vanno da 0 a dimensione() - 1
+     */
+    public int dimensione() {
+        return size;
+    }
+
+    private void ridimensiona(int capacita) {
+        int[] nuova = new int[capacita];
+        int maschera = capacita - 1;
+        for (int codice = 0; codice < size; codice++) {
+            int i = slot(valori[codice].hashCode(), maschera);
+            while (nuova[i] != 0) {
+                i = (i + 1) & maschera;
+            }
+            nuova[i] = codice + 1;
+        }
+        tabella = nuova;
+    }
+
+    private static int slot(int hash, int maschera) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maschera;
+    }
+}
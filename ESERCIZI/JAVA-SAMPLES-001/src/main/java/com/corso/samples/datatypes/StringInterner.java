@@ -0,0 +1,120 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servizio di internamento condiviso tra thread: ogni stringa distinta riceve
+ * un codice int denso (0, 1, 2, ... in ordine di arrivo) e un'istanza canonica.
+ * Pensato per i campi con pochi valori ripetuti milioni di volte (città,
+ * dipartimento, stato dell'ordine, categoria): letti da file, JSON o database
+ * arrivano come String nuove a ogni riga, tutte uguali ma tutte distinte in memoria.
+ * - intern(s): restituisce l'istanza canonica, le copie diventano garbage
+ *   ("Milano" costa circa 48 byte per copia: oggetto String + byte[])
+ * - codifica(s): il codice denso, da salvare al posto della stringa (4 byte) e
+ *   da usare come indice di array primitivi: conteggi per stato in un long[]
+ *   grande dimensione(), somme per categoria in un double[], ...
+ * A differenza di String.intern() il pool è per campo, i codici sono densi e
+ * la memoria viene liberata con il servizio; -XX:+UseStringDeduplication di G1
+ * condivide solo i byte[] e non riduce il numero di oggetti String.
+ * Letture (codice, decodifica, intern di valori già presenti) senza lock; solo
+ * l'aggiunta di un valore nuovo è sincronizzata. Con un solo thread
+ * StringDictionary fa lo stesso lavoro con meno memoria.
+ */
+public final class StringInterner {
+
+    private final ConcurrentHashMap<String, Integer> codici = new ConcurrentHashMap<>();
+    // valori viene sostituito prima di incrementare size: chi legge size vede
+    // sempre un array che contiene tutti i codici minori di size
+    private volatile String[] valori = new String[16];
+    private volatile int size;
+
+    public StringInterner() {
+    }
+
+    /**
+     * Servizio con i valori già codificati nell'ordine dato: i codici sono
+     * noti a priori (0 per il primo valore, 1 per il secondo, ...)
+     */
+    public static StringInterner of(String... valori) {
+        StringInterner interner = new StringInterner();
+        for (String v : valori) {
+            interner.codifica(v);
+        }
+        return interner;
+    }
+
+    /**
+     * Codice del valore, assegnato se il valore non c'è ancora
+     */
+    public int codifica(String valore) {
+        Integer codice = codici.get(valore);
+        return codice != null ? codice : aggiungi(valore);
+    }
+
+    private synchronized int aggiungi(String valore) {
+        Integer codice = codici.get(valore);
+        if (codice != null) {
+            return codice;
+        }
+        int n = size;
+        String[] attuali = valori;
+        if (n == attuali.length) {
+            attuali = Arrays.copyOf(attuali, n * 2);
+        }
+        attuali[n] = valore;
+        valori = attuali;
+        size = n + 1;
+        codici.put(valore, n);
+        return n;
+    }
+
+    /**
+     * Codice del valore, -1 se non è stato ancora codificato
+     */
+    public int codice(String valore) {
+        Integer codice = codici.get(valore);
+        return codice != null ? codice : -1;
+    }
+
+    public String decodifica(int codice) {
+        if (codice < 0 || codice >= size) {
+            throw new IndexOutOfBoundsException("Codice non valido: " + codice);
+        }
+        return valori[codice];
+    }
+
+    /**
+     * Istanza canonica del valore: due stringhe uguali internate sono lo stesso oggetto
+     */
+    public String intern(String valore) {
+        if (valore == null) {
+            return null;
+        }
+        return decodifica(codifica(valore));
+    }
+
+    /**
+     * Codici di tutti i valori dell'array, nello stesso ordine
+     */
+    public int[] codifica(String[] valori) {
+        int[] risultato = new int[valori.length];
+        for (int i = 0; i < valori.length; i++) {
+            risultato[i] = codifica(valori[i]);
+        }
+        return risultato;
+    }
+
+    /**
+     * Numero di valori distinti: i codici vanno da 0 a dimensione() - 1
+     */
+    public int dimensione() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        int n = size;
+        return "StringInterner" + Arrays.toString(Arrays.copyOf(valori, n));
+    }
+}
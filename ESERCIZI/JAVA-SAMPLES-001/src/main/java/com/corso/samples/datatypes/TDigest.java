@@ -0,0 +1,219 @@
+package com.corso.samples.datatypes;
+
+import java.util.Arrays;
+
+/**
+ * Quantili approssimati con un t-digest (variante "merging").
+ * I valori vengono raccolti in un buffer; quando è pieno, buffer e centroidi
+ * esistenti si ordinano per media e si fondono in centroidi (media, peso).
+ * La dimensione massima di un centroide dipende dalla sua posizione:
+ * piccoli vicino a 0 e 1, grandi verso la mediana (funzione di scala
+ * k(q) = compressione / 2π · asin(2q - 1)). Per questo le code
+ * (p99, p99.9) restano precise con pochi centroidi.
+ * - memoria: O(compressione), indipendente dal numero di valori
+ * - merge di due digest: si aggiungono i centroidi dell'altro e si ricompatta
+ * Non è thread-safe.
+ */
+public final class TDigest {
+
+    public static final double COMPRESSIONE_PREDEFINITA = 100;
+
+    private final double compressione;
+
+    // Centroidi compattati, ordinati per media
+    private double[] medie;
+    private double[] pesi;
+    private int centroidi;
+
+    // Valori (o centroidi di un altro digest) non ancora compattati
+    private double[] bufferMedie;
+    private double[] bufferPesi;
+    private int buffer;
+
+    private double pesoTotale;
+    private double minimo = Double.POSITIVE_INFINITY;
+    private double massimo = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(COMPRESSIONE_PREDEFINITA);
+    }
+
+    public TDigest(double compressione) {
+        verificaCompressione(compressione);
+        this.compressione = compressione;
+        int capacita = (int) Math.ceil(compressione) * 2 + 10;
+        medie = new double[capacita];
+        pesi = new double[capacita];
+        bufferMedie = new double[capacita * 5];
+        bufferPesi = new double[capacita * 5];
+    }
+
+    static void verificaCompressione(double compressione) {
+        if (!(compressione >= 10)) {
+            throw new IllegalArgumentException("Compressione troppo bassa: " + compressione);
+        }
+    }
+
+    public void add(double valore) {
+        add(valore, 1);
+    }
+
+    private void add(double media, double peso) {
+        if (Double.isNaN(media)) {
+            throw new IllegalArgumentException("NaN non ammesso");
+        }
+        if (buffer == bufferMedie.length) {
+            compatta();
+        }
+        bufferMedie[buffer] = media;
+        bufferPesi[buffer] = peso;
+        buffer++;
+        pesoTotale += peso;
+        minimo = Math.min(minimo, media);
+        massimo = Math.max(massimo, media);
+    }
+
+    public TDigest merge(TDigest altro) {
+        altro.compatta();
+        for (int i = 0; i < altro.centroidi; i++) {
+            add(altro.medie[i], altro.pesi[i]);
+        }
+        // min e max esatti dell'altro, non le medie dei suoi centroidi estremi
+        minimo = Math.min(minimo, altro.minimo);
+        massimo = Math.max(massimo, altro.massimo);
+        return this;
+    }
+
+    /**
+     * Fonde buffer e centroidi: una passata da sinistra a destra che unisce
+     * il centroide corrente al successivo finché non supera il limite di peso
+     * dato dalla funzione di scala.
+     */
+    private void compatta() {
+        if (buffer == 0) {
+            return;
+        }
+        int n = centroidi + buffer;
+        double[] tutteMedie = Arrays.copyOf(medie, n);
+        double[] tuttiPesi = Arrays.copyOf(pesi, n);
+        System.arraycopy(bufferMedie, 0, tutteMedie, centroidi, buffer);
+        System.arraycopy(bufferPesi, 0, tuttiPesi, centroidi, buffer);
+        ordinaPerMedia(tutteMedie, tuttiPesi, n);
+
+        int out = 0;
+        double pesoPrecedente = 0;
+        double limite = pesoTotale * q(k(0) + 1);
+        double mediaCorrente = tutteMedie[0];
+        double pesoCorrente = tuttiPesi[0];
+
+        for (int i = 1; i < n; i++) {
+            if (pesoPrecedente + pesoCorrente + tuttiPesi[i] <= limite) {
+                pesoCorrente += tuttiPesi[i];
+                mediaCorrente += (tutteMedie[i] - mediaCorrente) * tuttiPesi[i] / pesoCorrente;
+            } else {
+                pesoPrecedente += pesoCorrente;
+                medie[out] = mediaCorrente;
+                pesi[out] = pesoCorrente;
+                out++;
+                limite = pesoTotale * q(k(pesoPrecedente / pesoTotale) + 1);
+                mediaCorrente = tutteMedie[i];
+                pesoCorrente = tuttiPesi[i];
+            }
+        }
+        medie[out] = mediaCorrente;
+        pesi[out] = pesoCorrente;
+        centroidi = out + 1;
+        buffer = 0;
+    }
+
+    private double k(double q) {
+        return compressione / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private double q(double k) {
+        if (k >= compressione / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compressione) + 1) / 2;
+    }
+
+    /**
+     * Ordina le coppie (media, peso) per media con KeyIndexSort, lo stesso
+     * percorso a chiave primitiva di Sorter.comparingDouble: niente boxing
+     */
+    private static void ordinaPerMedia(double[] medie, double[] pesi, int n) {
+        long[] chiavi = new long[n];
+        int[] indici = new int[n];
+        for (int i = 0; i < n; i++) {
+            chiavi[i] = Sorter.doubleOrdinabile(medie[i]);
+            indici[i] = i;
+        }
+        KeyIndexSort.sort(chiavi, indici, Sorter.Algoritmo.TIM);
+        double[] m = new double[n];
+        double[] p = new double[n];
+        for (int i = 0; i < n; i++) {
+            m[i] = medie[indici[i]];
+            p[i] = pesi[indici[i]];
+        }
+        System.arraycopy(m, 0, medie, 0, n);
+        System.arraycopy(p, 0, pesi, 0, n);
+    }
+
+    // ==================== QUANTILI ====================
+
+    /**
+     * Quantile q tra 0 e 1 (0.5 = mediana, 0.99 = p99), interpolando
+     * linearmente tra i centri dei centroidi; NaN se il digest è vuoto
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile fuori da [0, 1]: " + q);
+        }
+        compatta();
+        if (centroidi == 0) {
+            return Double.NaN;
+        }
+        if (centroidi == 1) {
+            return medie[0];
+        }
+
+        double obiettivo = q * pesoTotale;
+        // Prima metà del primo centroide: tra il minimo e la sua media
+        if (obiettivo < pesi[0] / 2) {
+            return minimo + (medie[0] - minimo) * obiettivo / (pesi[0] / 2);
+        }
+        double cumulato = pesi[0] / 2;
+        for (int i = 0; i < centroidi - 1; i++) {
+            double distanza = (pesi[i] + pesi[i + 1]) / 2;
+            if (cumulato + distanza > obiettivo) {
+                double t = (obiettivo - cumulato) / distanza;
+                return medie[i] + t * (medie[i + 1] - medie[i]);
+            }
+            cumulato += distanza;
+        }
+        // Ultima metà dell'ultimo centroide: tra la sua media e il massimo
+        double ultimo = pesi[centroidi - 1] / 2;
+        double t = Math.min(1, (obiettivo - cumulato) / ultimo);
+        return medie[centroidi - 1] + t * (massimo - medie[centroidi - 1]);
+    }
+
+    public long count() {
+        return Math.round(pesoTotale);
+    }
+
+    public double getMin() {
+        return minimo;
+    }
+
+    public double getMax() {
+        return massimo;
+    }
+
+    /**
+     * Numero di centroidi dopo la compattazione: misura la memoria effettiva
+     */
+    public int numeroCentroidi() {
+        compatta();
+        return centroidi;
+    }
+}
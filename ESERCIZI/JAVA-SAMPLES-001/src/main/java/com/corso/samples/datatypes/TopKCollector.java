@@ -0,0 +1,198 @@
+package com.corso.samples.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collector per i k elementi più grandi di uno stream, al posto di
+ * sorted(comparator.reversed()).limit(k):
+ * - ogni contenitore parziale è un min-heap limitato a k elementi, quindi
+ *   la memoria è O(k) e il tempo O(n log k) invece di O(n log n)
+ * - negli stream paralleli ogni thread riempie il suo heap e il combiner
+ *   fonde i due heap mantenendo sempre solo i migliori k
+ * - il risultato è una lista in ordine decrescente
+ * Esempio:
+ *   List<Ordine> top = ordini.parallelStream()
+ *       .collect(TopKCollector.comparingDouble(100, Ordine::getImporto));
+ * A parità di valore non è garantito quale elemento venga tenuto.
+ */
+public final class TopKCollector {
+
+    private TopKCollector() {
+    }
+
+    /**
+     * I k elementi più grandi secondo il comparator
+     */
+    public static <T> Collector<T, ?, List<T>> of(int k, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator, "comparator");
+        checkK(k);
+        return Collector.of(
+            () -> new Heap<T>(k, comparator, null),
+            Heap::offer,
+            Heap::merge,
+            Heap::toList,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * I k elementi con la chiave più grande (ordine di Double.compare).
+     * La chiave viene calcolata una sola volta per elemento e conservata
+     * nell'heap insieme all'elemento, senza boxing.
+     */
+    public static <T> Collector<T, ?, List<T>> comparingDouble(int k, ToDoubleFunction<? super T> chiave) {
+        Objects.requireNonNull(chiave, "chiave");
+        checkK(k);
+        return Collector.of(
+            () -> new Heap<T>(k, null, chiave),
+            Heap::offer,
+            Heap::merge,
+            Heap::toList,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k negativo: " + k);
+        }
+    }
+
+    /**
+     * Min-heap limitato: la radice è il più piccolo dei migliori k visti finora.
+     * Gli array crescono per raddoppio fino a k, così gli stream corti
+     * (o le tante parti di uno stream parallelo) non allocano k posizioni.
+     */
+    private static final class Heap<T> {
+        private static final int CAPACITA_INIZIALE = 16;
+
+        private final int k;
+        private final Comparator<? super T> comparator;
+        private final ToDoubleFunction<? super T> chiave;
+        private Object[] elementi;
+        private double[] chiavi;
+        private int size;
+
+        Heap(int k, Comparator<? super T> comparator, ToDoubleFunction<? super T> chiave) {
+            this.k = k;
+            this.comparator = comparator;
+            this.chiave = chiave;
+            int capacita = Math.min(k, CAPACITA_INIZIALE);
+            this.elementi = new Object[capacita];
+            this.chiavi = chiave != null ? new double[capacita] : null;
+        }
+
+        void offer(T elemento) {
+            offer(elemento, chiave != null ? chiave.applyAsDouble(elemento) : 0.0);
+        }
+
+        private void offer(T elemento, double valore) {
+            if (size < k) {
+                if (size == elementi.length) {
+                    int capacita = (int) Math.min(k, 2L * size);
+                    elementi = Arrays.copyOf(elementi, capacita);
+                    if (chiavi != null) {
+                        chiavi = Arrays.copyOf(chiavi, capacita);
+                    }
+                }
+                set(size, elemento, valore);
+                siftUp(size++);
+            } else if (k > 0 && confronta(elemento, valore, 0) > 0) {
+                set(0, elemento, valore);
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Combiner: versa l'heap più piccolo in quello più grande
+         */
+        Heap<T> merge(Heap<T> other) {
+            Heap<T> grande = size >= other.size ? this : other;
+            Heap<T> piccolo = grande == this ? other : this;
+            for (int i = 0; i < piccolo.size; i++) {
+                grande.offer(piccolo.elemento(i), piccolo.chiave(i));
+            }
+            return grande;
+        }
+
+        /**
+         * Svuota l'heap estraendo ogni volta il minimo: lista decrescente
+         */
+        List<T> toList() {
+            Object[] risultato = new Object[size];
+            for (int i = size - 1; i >= 0; i--) {
+                risultato[i] = elementi[0];
+                size--;
+                if (size > 0) {
+                    set(0, elemento(size), chiave(size));
+                    siftDown(0);
+                }
+            }
+            @SuppressWarnings("unchecked")
+            List<T> lista = (List<T>) new ArrayList<>(Arrays.asList(risultato));
+            return lista;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T elemento(int i) {
+            return (T) elementi[i];
+        }
+
+        private double chiave(int i) {
+            return chiavi != null ? chiavi[i] : 0.0;
+        }
+
+        private void set(int i, Object elemento, double valore) {
+            elementi[i] = elemento;
+            if (chiavi != null) {
+                chiavi[i] = valore;
+            }
+        }
+
+        /**
+         * Confronta un elemento (con la sua chiave) con quello in posizione i
+         */
+        private int confronta(T elemento, double valore, int i) {
+            if (chiavi != null) {
+                return Double.compare(valore, chiavi[i]);
+            }
+            return comparator.compare(elemento, elemento(i));
+        }
+
+        private void siftUp(int i) {
+            T elemento = elemento(i);
+            double valore = chiave(i);
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (confronta(elemento, valore, parent) >= 0) {
+                    break;
+                }
+                set(i, elementi[parent], chiave(parent));
+                i = parent;
+            }
+            set(i, elemento, valore);
+        }
+
+        private void siftDown(int i) {
+            T elemento = elemento(i);
+            double valore = chiave(i);
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && confronta(elemento(child + 1), chiave(child + 1), child) < 0) {
+                    child++;
+                }
+                if (confronta(elemento, valore, child) <= 0) {
+                    break;
+                }
+                set(i, elementi[child], chiave(child));
+                i = child;
+            }
+            set(i, elemento, valore);
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package com.corso.samples.datatypes;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementazione di ArrayKernels con la Vector API (modulo incubator).
+ * Ogni ciclo elabora LANE elementi per iterazione fino a loopBound e chiude
+ * con un ciclo scalare sulla coda (gli ultimi n % LANE elementi).
+ * Si compila solo con il profilo Maven vector; ArrayKernels la carica per
+ * riflessione se la JVM è partita con --add-modules jdk.incubator.vector.
+ */
+final class VectorKernels implements ArrayKernels.Kernels {
+
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+
+    /** Int con tante lane quanti i long del vettore preferito, per dot(int[], int[]) */
+    private static final VectorSpecies<Integer> INT_PER_LONG =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(LONG.vectorBitSize() / 2));
+
+    private static final VectorShuffle<Integer> INVERTI_INT = INT.iotaShuffle(INT.length() - 1, -1, true);
+    private static final VectorShuffle<Long> INVERTI_LONG = LONG.iotaShuffle(LONG.length() - 1, -1, true);
+    private static final VectorShuffle<Double> INVERTI_DOUBLE = DOUBLE.iotaShuffle(DOUBLE.length() - 1, -1, true);
+
+    // Somma prefissa: SPOSTA_k porta la lane i - k nella lane i, DOPO_k
+    // seleziona le lane i >= k, ULTIMA copia l'ultima lane in tutte.
+    // Campi distinti (non array) perché il JIT li tratti come costanti.
+    private static final VectorShuffle<Integer> SPOSTA_INT_1 = sposta(INT, 1);
+    private static final VectorShuffle<Integer> SPOSTA_INT_2 = sposta(INT, 2);
+    private static final VectorShuffle<Integer> SPOSTA_INT_4 = sposta(INT, 4);
+    private static final VectorShuffle<Integer> SPOSTA_INT_8 = sposta(INT, 8);
+    private static final VectorMask<Integer> DOPO_INT_1 = INT.indexInRange(-1, INT.length() - 1);
+    private static final VectorMask<Integer> DOPO_INT_2 = INT.indexInRange(-2, INT.length() - 2);
+    private static final VectorMask<Integer> DOPO_INT_4 = INT.indexInRange(-4, INT.length() - 4);
+    private static final VectorMask<Integer> DOPO_INT_8 = INT.indexInRange(-8, INT.length() - 8);
+    private static final VectorShuffle<Integer> ULTIMA_INT = INT.iotaShuffle(INT.length() - 1, 0, true);
+
+    private static final VectorShuffle<Long> SPOSTA_LONG_1 = sposta(LONG, 1);
+    private static final VectorShuffle<Long> SPOSTA_LONG_2 = sposta(LONG, 2);
+    private static final VectorShuffle<Long> SPOSTA_LONG_4 = sposta(LONG, 4);
+    private static final VectorShuffle<Long> SPOSTA_LONG_8 = sposta(LONG, 8);
+    private static final VectorMask<Long> DOPO_LONG_1 = LONG.indexInRange(-1, LONG.length() - 1);
+    private static final VectorMask<Long> DOPO_LONG_2 = LONG.indexInRange(-2, LONG.length() - 2);
+    private static final VectorMask<Long> DOPO_LONG_4 = LONG.indexInRange(-4, LONG.length() - 4);
+    private static final VectorMask<Long> DOPO_LONG_8 = LONG.indexInRange(-8, LONG.length() - 8);
+    private static final VectorShuffle<Long> ULTIMA_LONG = LONG.iotaShuffle(LONG.length() - 1, 0, true);
+
+    private static final VectorShuffle<Double> SPOSTA_DOUBLE_1 = sposta(DOUBLE, 1);
+    private static final VectorShuffle<Double> SPOSTA_DOUBLE_2 = sposta(DOUBLE, 2);
+    private static final VectorShuffle<Double> SPOSTA_DOUBLE_4 = sposta(DOUBLE, 4);
+    private static final VectorShuffle<Double> SPOSTA_DOUBLE_8 = sposta(DOUBLE, 8);
+    private static final VectorMask<Double> DOPO_DOUBLE_1 = DOUBLE.indexInRange(-1, DOUBLE.length() - 1);
+    private static final VectorMask<Double> DOPO_DOUBLE_2 = DOUBLE.indexInRange(-2, DOUBLE.length() - 2);
+    private static final VectorMask<Double> DOPO_DOUBLE_4 = DOUBLE.indexInRange(-4, DOUBLE.length() - 4);
+    private static final VectorMask<Double> DOPO_DOUBLE_8 = DOUBLE.indexInRange(-8, DOUBLE.length() - 8);
+    private static final VectorShuffle<Double> ULTIMA_DOUBLE = DOUBLE.iotaShuffle(DOUBLE.length() - 1, 0, true);
+
+    private static <E> VectorShuffle<E> sposta(VectorSpecies<E> specie, int k) {
+        return specie.iotaShuffle(-k, 1, true);
+    }
+
+    // ==================== SOMMA ====================
+
+    @Override
+    public int sum(int[] a) {
+        IntVector acc = IntVector.zero(INT);
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            acc = acc.add(IntVector.fromArray(INT, a, i));
+        }
+        int s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    @Override
+    public long sum(long[] a) {
+        LongVector acc = LongVector.zero(LONG);
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            acc = acc.add(LongVector.fromArray(LONG, a, i));
+        }
+        long s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double sum(double[] a) {
+        DoubleVector acc = DoubleVector.zero(DOUBLE);
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    // ==================== MINIMO E MASSIMO ====================
+    // Gli operatori (MIN, MAX, confronti) devono essere costanti nel codice:
+    // passati come parametro il JIT non li traduce in istruzioni SIMD
+
+    @Override
+    public int min(int[] a) {
+        IntVector acc = IntVector.broadcast(INT, a[0]);
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            acc = acc.min(IntVector.fromArray(INT, a, i));
+        }
+        int m = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            m = Math.min(m, a[i]);
+        }
+        return m;
+    }
+
+    @Override
+    public long min(long[] a) {
+        LongVector acc = LongVector.broadcast(LONG, a[0]);
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            acc = acc.min(LongVector.fromArray(LONG, a, i));
+        }
+        long m = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            m = Math.min(m, a[i]);
+        }
+        return m;
+    }
+
+    @Override
+    public double min(double[] a) {
+        DoubleVector acc = DoubleVector.broadcast(DOUBLE, a[0]);
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            acc = acc.min(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double m = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            m = Math.min(m, a[i]);
+        }
+        return m;
+    }
+
+    @Override
+    public int max(int[] a) {
+        IntVector acc = IntVector.broadcast(INT, a[0]);
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            acc = acc.max(IntVector.fromArray(INT, a, i));
+        }
+        int m = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            m = Math.max(m, a[i]);
+        }
+        return m;
+    }
+
+    @Override
+    public long max(long[] a) {
+        LongVector acc = LongVector.broadcast(LONG, a[0]);
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            acc = acc.max(LongVector.fromArray(LONG, a, i));
+        }
+        long m = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            m = Math.max(m, a[i]);
+        }
+        return m;
+    }
+
+    @Override
+    public double max(double[] a) {
+        DoubleVector acc = DoubleVector.broadcast(DOUBLE, a[0]);
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            acc = acc.max(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double m = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            m = Math.max(m, a[i]);
+        }
+        return m;
+    }
+
+    // ==================== ARGMAX ====================
+    // Due passate vettoriali: prima il massimo, poi la prima lane uguale
+
+    @Override
+    public int argMax(int[] a) {
+        int m = max(a);
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            VectorMask<Integer> uguali = IntVector.fromArray(INT, a, i).eq(m);
+            if (uguali.anyTrue()) {
+                return i + uguali.firstTrue();
+            }
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == m) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int argMax(long[] a) {
+        long m = max(a);
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            VectorMask<Long> uguali = LongVector.fromArray(LONG, a, i).eq(m);
+            if (uguali.anyTrue()) {
+                return i + uguali.firstTrue();
+            }
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == m) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int argMax(double[] a) {
+        double m = max(a);
+        boolean nan = Double.isNaN(m);
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLE, a, i);
+            VectorMask<Double> uguali = nan ? v.test(VectorOperators.IS_NAN) : v.eq(m);
+            if (uguali.anyTrue()) {
+                return i + uguali.firstTrue();
+            }
+        }
+        for (; i < a.length; i++) {
+            if (nan ? Double.isNaN(a[i]) : a[i] == m) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // ==================== PRODOTTO SCALARE ====================
+
+    /**
+     * Gli int si leggono con metà larghezza (tante lane quanti i long) e si
+     * allargano a long prima della moltiplicazione
+     */
+    @Override
+    public long dot(int[] a, int[] b) {
+        LongVector acc = LongVector.zero(LONG);
+        int i = 0;
+        for (int limite = INT_PER_LONG.loopBound(a.length); i < limite; i += INT_PER_LONG.length()) {
+            LongVector va = (LongVector) IntVector.fromArray(INT_PER_LONG, a, i).castShape(LONG, 0);
+            LongVector vb = (LongVector) IntVector.fromArray(INT_PER_LONG, b, i).castShape(LONG, 0);
+            acc = acc.add(va.mul(vb));
+        }
+        long s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += (long) a[i] * b[i];
+        }
+        return s;
+    }
+
+    @Override
+    public long dot(long[] a, long[] b) {
+        LongVector acc = LongVector.zero(LONG);
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            acc = acc.add(LongVector.fromArray(LONG, a, i).mul(LongVector.fromArray(LONG, b, i)));
+        }
+        long s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    /**
+     * fma: moltiplicazione e somma con un solo arrotondamento
+     */
+    @Override
+    public double dot(double[] a, double[] b) {
+        DoubleVector acc = DoubleVector.zero(DOUBLE);
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            acc = DoubleVector.fromArray(DOUBLE, a, i).fma(DoubleVector.fromArray(DOUBLE, b, i), acc);
+        }
+        double s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    // ==================== SOMME PREFISSE ====================
+    // Dentro il vettore: log2(LANE) passi, al passo k ogni lane i >= k somma
+    // la lane i - k. Tra vettori: si somma il riporto, cioè l'ultima lane del
+    // blocco precedente ripetuta in tutte le lane. I passi coprono fino a 16
+    // lane (AVX-512 con int); con vettori più larghi si resta sullo scalare.
+
+    @Override
+    public void prefixSum(int[] a, int[] risultato) {
+        int lane = INT.length();
+        int i = 0;
+        if (lane <= 16) {
+            IntVector riporto = IntVector.zero(INT);
+            for (int limite = INT.loopBound(a.length); i < limite; i += lane) {
+                IntVector v = IntVector.fromArray(INT, a, i);
+                v = v.add(v.rearrange(SPOSTA_INT_1), DOPO_INT_1);
+                if (lane > 2) {
+                    v = v.add(v.rearrange(SPOSTA_INT_2), DOPO_INT_2);
+                }
+                if (lane > 4) {
+                    v = v.add(v.rearrange(SPOSTA_INT_4), DOPO_INT_4);
+                }
+                if (lane > 8) {
+                    v = v.add(v.rearrange(SPOSTA_INT_8), DOPO_INT_8);
+                }
+                v = v.add(riporto);
+                v.intoArray(risultato, i);
+                riporto = v.rearrange(ULTIMA_INT);
+            }
+        }
+        int somma = i > 0 ? risultato[i - 1] : 0;
+        for (; i < a.length; i++) {
+            somma += a[i];
+            risultato[i] = somma;
+        }
+    }
+
+    @Override
+    public void prefixSum(long[] a, long[] risultato) {
+        int lane = LONG.length();
+        int i = 0;
+        if (lane <= 16) {
+            LongVector riporto = LongVector.zero(LONG);
+            for (int limite = LONG.loopBound(a.length); i < limite; i += lane) {
+                LongVector v = LongVector.fromArray(LONG, a, i);
+                v = v.add(v.rearrange(SPOSTA_LONG_1), DOPO_LONG_1);
+                if (lane > 2) {
+                    v = v.add(v.rearrange(SPOSTA_LONG_2), DOPO_LONG_2);
+                }
+                if (lane > 4) {
+                    v = v.add(v.rearrange(SPOSTA_LONG_4), DOPO_LONG_4);
+                }
+                if (lane > 8) {
+                    v = v.add(v.rearrange(SPOSTA_LONG_8), DOPO_LONG_8);
+                }
+                v = v.add(riporto);
+                v.intoArray(risultato, i);
+                riporto = v.rearrange(ULTIMA_LONG);
+            }
+        }
+        long somma = i > 0 ? risultato[i - 1] : 0;
+        for (; i < a.length; i++) {
+            somma += a[i];
+            risultato[i] = somma;
+        }
+    }
+
+    @Override
+    public void prefixSum(double[] a, double[] risultato) {
+        int lane = DOUBLE.length();
+        int i = 0;
+        if (lane <= 16) {
+            DoubleVector riporto = DoubleVector.zero(DOUBLE);
+            for (int limite = DOUBLE.loopBound(a.length); i < limite; i += lane) {
+                DoubleVector v = DoubleVector.fromArray(DOUBLE, a, i);
+                v = v.add(v.rearrange(SPOSTA_DOUBLE_1), DOPO_DOUBLE_1);
+                if (lane > 2) {
+                    v = v.add(v.rearrange(SPOSTA_DOUBLE_2), DOPO_DOUBLE_2);
+                }
+                if (lane > 4) {
+                    v = v.add(v.rearrange(SPOSTA_DOUBLE_4), DOPO_DOUBLE_4);
+                }
+                if (lane > 8) {
+                    v = v.add(v.rearrange(SPOSTA_DOUBLE_8), DOPO_DOUBLE_8);
+                }
+                v = v.add(riporto);
+                v.intoArray(risultato, i);
+                riporto = v.rearrange(ULTIMA_DOUBLE);
+            }
+        }
+        double somma = i > 0 ? risultato[i - 1] : 0;
+        for (; i < a.length; i++) {
+            somma += a[i];
+            risultato[i] = somma;
+        }
+    }
+
+    // ==================== INVERSIONE ====================
+    // Si scambiano blocchi simmetrici (testa i, coda j) invertendo le lane;
+    // la parte centrale, più corta di due vettori, si inverte a mano
+
+    @Override
+    public void reverse(int[] a) {
+        int lane = INT.length();
+        int i = 0;
+        int j = a.length - lane;
+        for (; i + lane <= j; i += lane, j -= lane) {
+            IntVector testa = IntVector.fromArray(INT, a, i).rearrange(INVERTI_INT);
+            IntVector coda = IntVector.fromArray(INT, a, j).rearrange(INVERTI_INT);
+            coda.intoArray(a, i);
+            testa.intoArray(a, j);
+        }
+        for (int basso = i, alto = j + lane - 1; basso < alto; basso++, alto--) {
+            int t = a[basso];
+            a[basso] = a[alto];
+            a[alto] = t;
+        }
+    }
+
+    @Override
+    public void reverse(long[] a) {
+        int lane = LONG.length();
+        int i = 0;
+        int j = a.length - lane;
+        for (; i + lane <= j; i += lane, j -= lane) {
+            LongVector testa = LongVector.fromArray(LONG, a, i).rearrange(INVERTI_LONG);
+            LongVector coda = LongVector.fromArray(LONG, a, j).rearrange(INVERTI_LONG);
+            coda.intoArray(a, i);
+            testa.intoArray(a, j);
+        }
+        for (int basso = i, alto = j + lane - 1; basso < alto; basso++, alto--) {
+            long t = a[basso];
+            a[basso] = a[alto];
+            a[alto] = t;
+        }
+    }
+
+    @Override
+    public void reverse(double[] a) {
+        int lane = DOUBLE.length();
+        int i = 0;
+        int j = a.length - lane;
+        for (; i + lane <= j; i += lane, j -= lane) {
+            DoubleVector testa = DoubleVector.fromArray(DOUBLE, a, i).rearrange(INVERTI_DOUBLE);
+            DoubleVector coda = DoubleVector.fromArray(DOUBLE, a, j).rearrange(INVERTI_DOUBLE);
+            coda.intoArray(a, i);
+            testa.intoArray(a, j);
+        }
+        for (int basso = i, alto = j + lane - 1; basso < alto; basso++, alto--) {
+            double t = a[basso];
+            a[basso] = a[alto];
+            a[alto] = t;
+        }
+    }
+
+    // ==================== CONTEGGI ====================
+    // Tre cicli con l'operatore scritto nel codice (LT, GT, EQ); gli altri
+    // confronti si ottengono sommando o complementando (anche con NaN:
+    // NaN non è minore, maggiore né uguale, quindi è sempre "diverso")
+
+    @Override
+    public int count(int[] a, ArrayKernels.Confronto confronto, int valore) {
+        return switch (confronto) {
+            case MINORE -> minori(a, valore);
+            case MINORE_UGUALE -> minori(a, valore) + uguali(a, valore);
+            case MAGGIORE -> maggiori(a, valore);
+            case MAGGIORE_UGUALE -> maggiori(a, valore) + uguali(a, valore);
+            case UGUALE -> uguali(a, valore);
+            case DIVERSO -> a.length - uguali(a, valore);
+        };
+    }
+
+    private static int minori(int[] a, int valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            n += IntVector.fromArray(INT, a, i).compare(VectorOperators.LT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] < valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int maggiori(int[] a, int valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            n += IntVector.fromArray(INT, a, i).compare(VectorOperators.GT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] > valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int uguali(int[] a, int valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = INT.loopBound(a.length); i < limite; i += INT.length()) {
+            n += IntVector.fromArray(INT, a, i).compare(VectorOperators.EQ, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int count(long[] a, ArrayKernels.Confronto confronto, long valore) {
+        return switch (confronto) {
+            case MINORE -> minori(a, valore);
+            case MINORE_UGUALE -> minori(a, valore) + uguali(a, valore);
+            case MAGGIORE -> maggiori(a, valore);
+            case MAGGIORE_UGUALE -> maggiori(a, valore) + uguali(a, valore);
+            case UGUALE -> uguali(a, valore);
+            case DIVERSO -> a.length - uguali(a, valore);
+        };
+    }
+
+    private static int minori(long[] a, long valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            n += LongVector.fromArray(LONG, a, i).compare(VectorOperators.LT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] < valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int maggiori(long[] a, long valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            n += LongVector.fromArray(LONG, a, i).compare(VectorOperators.GT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] > valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int uguali(long[] a, long valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = LONG.loopBound(a.length); i < limite; i += LONG.length()) {
+            n += LongVector.fromArray(LONG, a, i).compare(VectorOperators.EQ, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int count(double[] a, ArrayKernels.Confronto confronto, double valore) {
+        return switch (confronto) {
+            case MINORE -> minori(a, valore);
+            case MINORE_UGUALE -> minori(a, valore) + uguali(a, valore);
+            case MAGGIORE -> maggiori(a, valore);
+            case MAGGIORE_UGUALE -> maggiori(a, valore) + uguali(a, valore);
+            case UGUALE -> uguali(a, valore);
+            case DIVERSO -> a.length - uguali(a, valore);
+        };
+    }
+
+    private static int minori(double[] a, double valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            n += DoubleVector.fromArray(DOUBLE, a, i).compare(VectorOperators.LT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] < valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int maggiori(double[] a, double valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            n += DoubleVector.fromArray(DOUBLE, a, i).compare(VectorOperators.GT, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] > valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int uguali(double[] a, double valore) {
+        int n = 0;
+        int i = 0;
+        for (int limite = DOUBLE.loopBound(a.length); i < limite; i += DOUBLE.length()) {
+            n += DoubleVector.fromArray(DOUBLE, a, i).compare(VectorOperators.EQ, valore).trueCount();
+        }
+        for (; i < a.length; i++) {
+            if (a[i] == valore) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public String descrizione() {
+        return "Vector API (" + INT.vectorBitSize() + " bit, " + INT.length() + " int per istruzione)";
+    }
+}
@@ -0,0 +1,425 @@
+package com.corso.samples.javaadv;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Codec binario compatto guidato da uno schema, al posto della serializzazione
+ * Java nativa sui percorsi caldi. Ogni record è
+ *   lunghezza (varint) | campo | campo | ...
+ * e ogni campo è chiave (tag << 3 | tipo) + valore (vedi BinaryWire):
+ * niente descrittori di classe, nomi di campo o riflessione per record.
+ * - int, long, boolean: varint (zigzag per int e long)
+ * - double: 8 byte
+ * - String: lunghezza + UTF-8; un campo null non viene scritto
+ * - List<String>: un campo per elemento, con lo stesso tag
+ * - oggetti annidati: un record con il proprio codec
+ * Evoluzione dello schema: un campo che il lettore non conosce viene saltato
+ * grazie al tipo nella chiave, un campo che manca nei dati resta al valore del
+ * costruttore. Un tag non va mai riusato per un campo di tipo diverso.
+ * Lo schema si dichiara con il Builder (lambda per leggere e scrivere i campi)
+ * oppure si ricava dalla classe con fromClass, dai campi annotati con @Tag.
+ * write e read lavorano su ByteBuffer forniti dal chiamante, che si possono
+ * riusare per milioni di record; il codec è immutabile e thread-safe.
+ * Esempio:
+ *   BinaryCodec<Person> codec = BinaryCodec.fromClass(Person.class);
+ *   codec.write(persona, buffer);   ...   buffer.flip();   Person p = codec.read(buffer);
+ */
+public final class BinaryCodec<T> {
+
+    /**
+     * Tag del campo per fromClass: intero positivo, unico nella classe e stabile
+     * tra le versioni (è ciò che finisce nei dati, non il nome)
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    public @interface Tag {
+        int value();
+    }
+
+    private static final int TAG_MASSIMO = (1 << 29) - 1;
+
+    private final Supplier<T> costruttore;
+    private final Campo<T>[] campi;
+
+    private BinaryCodec(Supplier<T> costruttore, Campo<T>[] campi) {
+        this.costruttore = costruttore;
+        this.campi = campi;
+    }
+
+    // ==================== SCRITTURA ====================
+
+    /**
+     * Scrive il record dalla posizione corrente del buffer. Se il buffer non ha
+     * spazio lancia BufferOverflowException e lascia la posizione com'era: il
+     * chiamante può svuotarlo (o ingrandirlo) e riprovare
+     */
+    public void write(T valore, ByteBuffer out) {
+        int inizio = out.position();
+        try {
+            scriviRecord(valore, out);
+        } catch (BufferOverflowException e) {
+            out.position(inizio);
+            throw e;
+        }
+    }
+
+    private void scriviRecord(T valore, ByteBuffer out) {
+        int inizio = BinaryWire.apriLunghezza(out);
+        for (Campo<T> campo : campi) {
+            campo.scrivi(valore, out);
+        }
+        BinaryWire.chiudiLunghezza(out, inizio);
+    }
+
+    /**
+     * Il record in un array della dimensione esatta (comodo per test e messaggi
+     * singoli; per molti record conviene write su un buffer riusato)
+     */
+    public byte[] toByteArray(T valore) {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        while (true) {
+            try {
+                scriviRecord(valore, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    // ==================== LETTURA ====================
+
+    /**
+     * Legge il record che inizia alla posizione corrente e avanza fino alla sua fine
+     *
+     * @throws java.nio.BufferUnderflowException se il record è troncato
+     * @throws IllegalArgumentException se i dati non sono un record valido
+     */
+    public T read(ByteBuffer in) {
+        int fine = BinaryWire.fineLunghezza(in);
+        T valore = costruttore.get();
+        int atteso = 0;
+        while (in.position() < fine) {
+            long chiave = BinaryWire.leggiVarint(in);
+            int tag = (int) (chiave >>> 3);
+            int tipo = (int) chiave & 7;
+            // I campi arrivano di solito nell'ordine dello schema: si prova prima il successivo
+            int indice = atteso < campi.length && campi[atteso].tag == tag ? atteso : cerca(tag);
+            if (indice >= 0 && campi[indice].tipo == tipo) {
+                campi[indice].leggi(in, valore);
+                atteso = indice + 1;
+            } else {
+                BinaryWire.salta(in, tipo);
+            }
+        }
+        if (in.position() != fine) {
+            throw new IllegalArgumentException("Campo oltre la fine del record in posizione " + fine);
+        }
+        return valore;
+    }
+
+    public T fromByteArray(byte[] dati) {
+        return read(ByteBuffer.wrap(dati));
+    }
+
+    private int cerca(int tag) {
+        for (int i = 0; i < campi.length; i++) {
+            if (campi[i].tag == tag) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tag dei campi, nell'ordine in cui vengono scritti
+     */
+    public int[] tags() {
+        return Arrays.stream(campi).mapToInt(c -> c.tag).toArray();
+    }
+
+    // ==================== SCHEMA DICHIARATO ====================
+
+    public static <T> Builder<T> builder(Supplier<T> costruttore) {
+        return new Builder<>(costruttore);
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> costruttore;
+        private final List<Campo<T>> campi = new ArrayList<>();
+        private final Set<Integer> tagUsati = new HashSet<>();
+
+        private Builder(Supplier<T> costruttore) {
+            this.costruttore = costruttore;
+        }
+
+        private Builder<T> aggiungi(Campo<T> campo) {
+            if (campo.tag < 1 || campo.tag > TAG_MASSIMO) {
+                throw new IllegalArgumentException("Tag non valido: " + campo.tag);
+            }
+            if (!tagUsati.add(campo.tag)) {
+                throw new IllegalArgumentException("Tag duplicato: " + campo.tag);
+            }
+            campi.add(campo);
+            return this;
+        }
+
+        public Builder<T> int32(int tag, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.VARINT) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    BinaryWire.scriviChiave(out, tag, BinaryWire.VARINT);
+                    BinaryWire.scriviVarint(out, BinaryWire.zigzag(getter.applyAsInt(oggetto)));
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, (int) BinaryWire.dezigzag(BinaryWire.leggiVarint(in)));
+                }
+            });
+        }
+
+        public Builder<T> int64(int tag, ToLongFunction<T> getter, ObjLongConsumer<T> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.VARINT) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    BinaryWire.scriviChiave(out, tag, BinaryWire.VARINT);
+                    BinaryWire.scriviVarint(out, BinaryWire.zigzag(getter.applyAsLong(oggetto)));
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, BinaryWire.dezigzag(BinaryWire.leggiVarint(in)));
+                }
+            });
+        }
+
+        public Builder<T> bool(int tag, Predicate<T> getter, BiConsumer<T, Boolean> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.VARINT) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    BinaryWire.scriviChiave(out, tag, BinaryWire.VARINT);
+                    out.put(getter.test(oggetto) ? (byte) 1 : (byte) 0);
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, BinaryWire.leggiVarint(in) != 0);
+                }
+            });
+        }
+
+        public Builder<T> float64(int tag, ToDoubleFunction<T> getter, ObjDoubleConsumer<T> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.FIXED64) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    BinaryWire.scriviChiave(out, tag, BinaryWire.FIXED64);
+                    BinaryWire.scriviDouble(out, getter.applyAsDouble(oggetto));
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, BinaryWire.leggiDouble(in));
+                }
+            });
+        }
+
+        public Builder<T> string(int tag, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.LUNGHEZZA) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    String valore = getter.apply(oggetto);
+                    if (valore != null) {
+                        BinaryWire.scriviChiave(out, tag, BinaryWire.LUNGHEZZA);
+                        BinaryWire.scriviStringa(out, valore);
+                    }
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, BinaryWire.leggiStringa(in));
+                }
+            });
+        }
+
+        /**
+         * Lista di stringhe: in lettura gli elementi si aggiungono alla lista
+         * restituita dal getter, o a una nuova ArrayList passata al setter se è null
+         */
+        public Builder<T> stringList(int tag, Function<T, List<String>> getter, BiConsumer<T, List<String>> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.LUNGHEZZA) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    List<String> valori = getter.apply(oggetto);
+                    if (valori != null) {
+                        for (String valore : valori) {
+                            BinaryWire.scriviChiave(out, tag, BinaryWire.LUNGHEZZA);
+                            BinaryWire.scriviStringa(out, valore);
+                        }
+                    }
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    List<String> valori = getter.apply(oggetto);
+                    if (valori == null) {
+                        valori = new ArrayList<>();
+                        setter.accept(oggetto, valori);
+                    }
+                    valori.add(BinaryWire.leggiStringa(in));
+                }
+            });
+        }
+
+        /**
+         * Oggetto annidato, scritto come record con il suo codec
+         */
+        public <V> Builder<T> message(int tag, BinaryCodec<V> codec, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return aggiungi(new Campo<>(tag, BinaryWire.LUNGHEZZA) {
+                @Override
+                void scrivi(T oggetto, ByteBuffer out) {
+                    V valore = getter.apply(oggetto);
+                    if (valore != null) {
+                        BinaryWire.scriviChiave(out, tag, BinaryWire.LUNGHEZZA);
+                        codec.scriviRecord(valore, out);
+                    }
+                }
+
+                @Override
+                void leggi(ByteBuffer in, T oggetto) {
+                    setter.accept(oggetto, codec.read(in));
+                }
+            });
+        }
+
+        public BinaryCodec<T> build() {
+            // Array generici non si creano: Campo[] grezzo, che contiene solo Campo<T>
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Campo<T>[] schema = campi.toArray(new Campo[0]);
+            return new BinaryCodec<>(costruttore, schema);
+        }
+    }
+
+    /**
+     * Un campo dello schema: scrive chiave e valore, legge il valore (la chiave è già letta)
+     */
+    private abstract static class Campo<T> {
+        final int tag;
+        final int tipo;
+
+        Campo(int tag, int tipo) {
+            this.tag = tag;
+            this.tipo = tipo;
+        }
+
+        abstract void scrivi(T oggetto, ByteBuffer out);
+
+        abstract void leggi(ByteBuffer in, T oggetto);
+    }
+
+    // ==================== SCHEMA DALLA CLASSE ====================
+
+    /**
+     * Schema ricavato dai campi annotati con @Tag (anche privati), in ordine di tag.
+     * Tipi ammessi: int, long, double, boolean, String, List<String> e classi a loro
+     * volta con campi @Tag (senza cicli). La classe deve avere un costruttore senza
+     * argomenti. La riflessione serve solo qui: i campi si leggono e scrivono poi
+     * con VarHandle
+     *
+     * @throws IllegalArgumentException se la classe non rispetta questi vincoli
+     */
+    public static <T> BinaryCodec<T> fromClass(Class<T> classe) {
+        return fromClass(classe, new HashSet<>());
+    }
+
+    private static <T> BinaryCodec<T> fromClass(Class<T> classe, Set<Class<?>> inCorso) {
+        if (!inCorso.add(classe)) {
+            throw new IllegalArgumentException("Riferimento circolare su " + classe.getName());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(classe, MethodHandles.lookup());
+            MethodHandle costruttore = lookup.findConstructor(classe, MethodType.methodType(void.class));
+            Builder<T> builder = builder(() -> nuovo(costruttore));
+            List<Field> annotati = new ArrayList<>();
+            for (Field f : classe.getDeclaredFields()) {
+                if (f.isAnnotationPresent(Tag.class) && !Modifier.isStatic(f.getModifiers())) {
+                    annotati.add(f);
+                }
+            }
+            if (annotati.isEmpty()) {
+                throw new IllegalArgumentException("Nessun campo @Tag in " + classe.getName());
+            }
+            annotati.sort((a, b) -> Integer.compare(a.getAnnotation(Tag.class).value(), b.getAnnotation(Tag.class).value()));
+            for (Field f : annotati) {
+                aggiungiCampo(builder, f, lookup.unreflectVarHandle(f), inCorso);
+            }
+            inCorso.remove(classe);
+            return builder.build();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("Classe non utilizzabile da BinaryCodec: " + classe.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T nuovo(MethodHandle costruttore) {
+        try {
+            return (T) costruttore.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void aggiungiCampo(Builder<T> builder, Field f, VarHandle vh, Set<Class<?>> inCorso) {
+        int tag = f.getAnnotation(Tag.class).value();
+        Class<?> tipo = f.getType();
+        if (tipo == int.class) {
+            builder.int32(tag, o -> (int) vh.get(o), (o, v) -> vh.set(o, v));
+        } else if (tipo == long.class) {
+            builder.int64(tag, o -> (long) vh.get(o), (o, v) -> vh.set(o, v));
+        } else if (tipo == double.class) {
+            builder.float64(tag, o -> (double) vh.get(o), (o, v) -> vh.set(o, v));
+        } else if (tipo == boolean.class) {
+            builder.bool(tag, o -> (boolean) vh.get(o), (o, v) -> vh.set(o, (boolean) v));
+        } else if (tipo == String.class) {
+            builder.string(tag, o -> (String) vh.get(o), (o, v) -> vh.set(o, v));
+        } else if (tipo == List.class && f.getGenericType() instanceof ParameterizedType p
+            && p.getActualTypeArguments()[0] == String.class) {
+            builder.stringList(tag, o -> (List<String>) vh.get(o), (o, v) -> vh.set(o, v));
+        } else if (!tipo.isPrimitive() && !tipo.isArray() && !tipo.getName().startsWith("java.")) {
+            BinaryCodec<Object> annidato = (BinaryCodec<Object>) fromClass(tipo, inCorso);
+            builder.message(tag, annidato, o -> vh.get(o), (o, v) -> vh.set(o, v));
+        } else {
+            throw new IllegalArgumentException("Tipo non supportato per il campo " + f.getName() + ": " + f.getGenericType());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.corso.samples.javaadv;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitive del formato binario di BinaryCodec, lette e scritte direttamente
+ * su ByteBuffer (nessuno stream intermedio):
+ * - varint: 7 bit per byte, bit alto = continua; gli int con segno passano
+ *   per lo zigzag (0, -1, 1, -2 ... diventano 0, 1, 2, 3 ...), così i negativi
+ *   piccoli restano corti
+ * - fixed64: 8 byte little-endian, qualunque sia l'ordine del buffer
+ * - lunghezza + contenuto: varint con la lunghezza, poi i byte (UTF-8 per le stringhe)
+ * Ogni campo è preceduto da una chiave varint (tag << 3 | tipo): il tipo dice
+ * come saltare un campo sconosciuto, ed è ciò che permette di evolvere lo schema.
+ */
+final class BinaryWire {
+
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LUNGHEZZA = 2;
+
+    private static final int MAX_VARINT = 10;
+
+    private BinaryWire() {
+    }
+
+    // ==================== VARINT ====================
+
+    static void scriviVarint(ByteBuffer out, long valore) {
+        while ((valore & ~0x7FL) != 0) {
+            out.put((byte) ((valore & 0x7F) | 0x80));
+            valore >>>= 7;
+        }
+        out.put((byte) valore);
+    }
+
+    static long leggiVarint(ByteBuffer in) {
+        long risultato = 0;
+        for (int i = 0; i < MAX_VARINT; i++) {
+            byte b = in.get();
+            risultato |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) {
+                return risultato;
+            }
+        }
+        throw new IllegalArgumentException("Varint oltre " + MAX_VARINT + " byte in posizione " + in.position());
+    }
+
+    static int leggiVarint32(ByteBuffer in) {
+        long valore = leggiVarint(in);
+        if (valore != (int) valore) {
+            throw new IllegalArgumentException("Valore fuori dal range di int: " + valore);
+        }
+        return (int) valore;
+    }
+
+    static int dimensioneVarint(long valore) {
+        return valore == 0 ? 1 : (63 - Long.numberOfLeadingZeros(valore)) / 7 + 1;
+    }
+
+    static long zigzag(long valore) {
+        return (valore << 1) ^ (valore >> 63);
+    }
+
+    static long dezigzag(long valore) {
+        return (valore >>> 1) ^ -(valore & 1);
+    }
+
+    static void scriviChiave(ByteBuffer out, int tag, int tipo) {
+        scriviVarint(out, (long) tag << 3 | tipo);
+    }
+
+    // ==================== FIXED64 ====================
+
+    static void scriviDouble(ByteBuffer out, double valore) {
+        long bit = Double.doubleToRawLongBits(valore);
+        out.putLong(out.order() == ByteOrder.LITTLE_ENDIAN ? bit : Long.reverseBytes(bit));
+    }
+
+    static double leggiDouble(ByteBuffer in) {
+        long bit = in.getLong();
+        return Double.longBitsToDouble(in.order() == ByteOrder.LITTLE_ENDIAN ? bit : Long.reverseBytes(bit));
+    }
+
+    // ==================== LUNGHEZZA + CONTENUTO ====================
+
+    /**
+     * Riserva un byte per la lunghezza: quasi sempre basta (contenuto sotto i 128 byte)
+     * e non serve calcolare la dimensione prima di scrivere. Restituisce l'inizio da
+     * passare a chiudiLunghezza
+     */
+    static int apriLunghezza(ByteBuffer out) {
+        int inizio = out.position();
+        out.put((byte) 0);
+        return inizio;
+    }
+
+    /**
+     * Scrive la lunghezza del contenuto scritto dopo apriLunghezza; se non sta in
+     * un byte sposta il contenuto in avanti per far posto al varint
+     */
+    static void chiudiLunghezza(ByteBuffer out, int inizio) {
+        int lunghezza = out.position() - inizio - 1;
+        int byteLunghezza = dimensioneVarint(lunghezza);
+        if (byteLunghezza > 1) {
+            int spostamento = byteLunghezza - 1;
+            if (out.remaining() < spostamento) {
+                throw new BufferOverflowException();
+            }
+            if (out.hasArray()) {
+                byte[] array = out.array();
+                int base = out.arrayOffset() + inizio + 1;
+                System.arraycopy(array, base, array, base + spostamento, lunghezza);
+            } else {
+                for (int i = inizio + lunghezza; i > inizio; i--) {
+                    out.put(i + spostamento, out.get(i));
+                }
+            }
+        }
+        int pos = inizio;
+        long valore = lunghezza;
+        while ((valore & ~0x7FL) != 0) {
+            out.put(pos++, (byte) ((valore & 0x7F) | 0x80));
+            valore >>>= 7;
+        }
+        out.put(pos++, (byte) valore);
+        out.position(pos + lunghezza);
+    }
+
+    /**
+     * Legge una lunghezza e restituisce la posizione di fine del contenuto
+     */
+    static int fineLunghezza(ByteBuffer in) {
+        int lunghezza = leggiVarint32(in);
+        if (lunghezza < 0 || lunghezza > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return in.position() + lunghezza;
+    }
+
+    /**
+     * Stringa in UTF-8 preceduta dalla lunghezza in byte. Sui buffer su array
+     * i caratteri ASCII vengono copiati direttamente nell'array
+     */
+    static void scriviStringa(ByteBuffer out, String valore) {
+        int inizio = apriLunghezza(out);
+        int n = valore.length();
+        int i = 0;
+        if (out.hasArray()) {
+            byte[] array = out.array();
+            int pos = out.arrayOffset() + out.position();
+            int fine = pos + Math.min(n, out.remaining());
+            char c;
+            while (pos < fine && (c = valore.charAt(i)) < 0x80) {
+                array[pos++] = (byte) c;
+                i++;
+            }
+            out.position(pos - out.arrayOffset());
+        }
+        for (; i < n; i++) {
+            char c = valore.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(valore.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, valore.charAt(++i));
+                    out.put((byte) (0xF0 | cp >> 18));
+                    out.put((byte) (0x80 | cp >> 12 & 0x3F));
+                    out.put((byte) (0x80 | cp >> 6 & 0x3F));
+                    out.put((byte) (0x80 | cp & 0x3F));
+                } else {
+                    // Surrogato isolato: '?' come String.getBytes(UTF_8)
+                    out.put((byte) '?');
+                }
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        chiudiLunghezza(out, inizio);
+    }
+
+    static String leggiStringa(ByteBuffer in) {
+        int fine = fineLunghezza(in);
+        int lunghezza = fine - in.position();
+        String valore;
+        if (in.hasArray()) {
+            valore = new String(in.array(), in.arrayOffset() + in.position(), lunghezza, StandardCharsets.UTF_8);
+        } else {
+            byte[] byteStringa = new byte[lunghezza];
+            in.get(in.position(), byteStringa);
+            valore = new String(byteStringa, StandardCharsets.UTF_8);
+        }
+        in.position(fine);
+        return valore;
+    }
+
+    // ==================== CAMPI SCONOSCIUTI ====================
+
+    /**
+     * Salta il valore di un campo che lo schema non conosce (scritto da una versione più nuova)
+     */
+    static void salta(ByteBuffer in, int tipo) {
+        switch (tipo) {
+            case VARINT -> leggiVarint(in);
+            case FIXED64 -> {
+                if (in.remaining() < 8) {
+                    throw new BufferUnderflowException();
+                }
+                in.position(in.position() + 8);
+            }
+            case LUNGHEZZA -> in.position(fineLunghezza(in));
+            default -> throw new IllegalArgumentException("Tipo di campo sconosciuto: " + tipo);
+        }
+    }
+}
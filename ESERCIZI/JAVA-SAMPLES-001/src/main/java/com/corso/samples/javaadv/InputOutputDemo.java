@@ -10,6 +10,8 @@ import java.util.*;
 import java.util.stream.*;
 import java.util.zip.*;
 
+import com.corso.samples.datatypes.ExternalSorter;
+
 /**
  * Esempio completo e avanzato su Input/Output in Java
  * Include:
@@ -23,7 +25,9 @@ import java.util.zip.*;
  * - NIO.2 (New I/O) - java.nio.file
  * - Files e Paths API
  * - Channel e Buffer
+ * - Ordinamento esterno (file più grandi della memoria)
  * - Memory-Mapped Files
+ * - MappedRecordStore (record append-only su segmenti mappati)
  * - RandomAccessFile
  * - File attributes e metadata
  * - Directory operations
@@ -63,7 +67,9 @@ public class InputOutputDemo {
         
         // I/O Avanzato
         demo.channelAndBufferIO();
+        demo.externalSortDemo();
         demo.memoryMappedFiles();
+        demo.mappedRecordStoreDemo();
         demo.randomAccessFileDemo();
         demo.fileCompression();
         
@@ -956,6 +962,72 @@ public class InputOutputDemo {
         System.out.println();
     }
 
+    // ==================== EXTERNAL SORT ====================
+
+    public void externalSortDemo() {
+        System.out.println("=== EXTERNAL MERGE SORT ===");
+
+        Path input = Paths.get(TEMP_DIR + "numeri.bin");
+        Path output = Paths.get(TEMP_DIR + "numeri-ordinati.bin");
+        int count = 1_000_000;
+
+        // File binario di int casuali (4 MB)
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(input)))) {
+            Random rand = new Random(12345);
+            for (int i = 0; i < count; i++) {
+                dos.writeInt(rand.nextInt());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        System.out.println("Creato file di " + count + " int (" + count * Integer.BYTES + " byte)");
+
+        // 512 KB di memoria: il file viene diviso in run ordinate e poi fuso
+        ExternalSorter sorter = new ExternalSorter(512 * 1024, 16)
+            .algoritmo(ExternalSorter.AlgoritmoRun.MERGE_SORT)
+            .directoryTemporanea(Paths.get(TEMP_DIR));
+
+        try {
+            long start = System.nanoTime();
+            long ordinati = sorter.sortInteri(input, output);
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Ordinati " + ordinati + " int con 512 KB di memoria in " + elapsed / 1_000_000 + " ms");
+
+            // Verifica
+            try (DataInputStream dis = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(output)))) {
+                int precedente = dis.readInt();
+                boolean ordinato = true;
+                for (int i = 1; i < ordinati; i++) {
+                    int corrente = dis.readInt();
+                    if (corrente < precedente) {
+                        ordinato = false;
+                        break;
+                    }
+                    precedente = corrente;
+                }
+                System.out.println("Output ordinato: " + ordinato);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        // File di testo: ordinamento per righe
+        Path righe = Paths.get(TEMP_DIR + "righe.txt");
+        Path righeOrdinate = Paths.get(TEMP_DIR + "righe-ordinate.txt");
+        try {
+            Files.write(righe, Arrays.asList("pera", "mela", "banana", "kiwi", "arancia", "mela"));
+            sorter.sortRighe(righe, righeOrdinate);
+            System.out.println("Righe ordinate: " + Files.readAllLines(righeOrdinate));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        System.out.println();
+    }
+
     // ==================== MEMORY MAPPED FILES ====================
 
     public void memoryMappedFiles() {
@@ -1020,6 +1092,111 @@ public class InputOutputDemo {
         System.out.println();
     }
 
+    // ==================== MAPPED RECORD STORE ====================
+
+    /**
+     * MappedRecordStore: milioni di record scritti e riletti attraverso segmenti
+     * mappati, senza stream né seek; in fondo lo stesso accesso casuale con RandomAccessFile
+     */
+    public void mappedRecordStoreDemo() {
+        System.out.println("=== MAPPED RECORD STORE ===");
+
+        Path fissi = Paths.get(TEMP_DIR, "misure.mrs");
+        Path variabili = Paths.get(TEMP_DIR, "eventi.mrs");
+        int numeroFissi = 5_000_000;
+        int numeroVariabili = 1_000_000;
+        int letture = 1_000_000;
+        Random random = new Random(42);
+
+        try {
+            // Gli store sono append-only: si riparte da file nuovi
+            Files.deleteIfExists(fissi);
+            Files.deleteIfExists(variabili);
+            Files.deleteIfExists(Paths.get(TEMP_DIR, "eventi.mrs.idx"));
+
+            // Record fissi di 16 byte (id, valore): la posizione del record i si calcola
+            long start = System.nanoTime();
+            try (MappedRecordStore store = MappedRecordStore.builder(fissi)
+                    .fixedSize(16)
+                    .forcePolicy(MappedRecordStore.ForcePolicy.everyBytes(32 << 20))
+                    .open()) {
+                ByteBuffer record = ByteBuffer.allocate(16);
+                for (int i = 0; i < numeroFissi; i++) {
+                    record.clear();
+                    record.putLong(i).putDouble(i * 0.5);
+                    record.flip();
+                    store.append(record);
+                }
+                stampaTempo("Scritti " + store.size() + " record fissi (" + store.sizeInBytes() / (1 << 20) + " MB)",
+                    numeroFissi, System.nanoTime() - start);
+            }
+
+            // Record di lunghezza variabile: prefisso di lunghezza e indice degli offset
+            start = System.nanoTime();
+            try (MappedRecordStore store = MappedRecordStore.builder(variabili).open()) {
+                for (int i = 0; i < numeroVariabili; i++) {
+                    byte[] evento = ("evento-" + i + ":" + "x".repeat(i % 40)).getBytes(StandardCharsets.UTF_8);
+                    store.append(evento);
+                }
+                stampaTempo("Scritti " + store.size() + " record variabili (" + store.sizeInBytes() / (1 << 20) + " MB)",
+                    numeroVariabili, System.nanoTime() - start);
+            }
+
+            // Riapertura in sola lettura: header e indice dicono dove sono i record
+            try (MappedRecordStore store = MappedRecordStore.builder(fissi).readOnly().open()) {
+                start = System.nanoTime();
+                double somma = 0;
+                for (int k = 0; k < letture; k++) {
+                    ByteBuffer record = store.get(random.nextInt(numeroFissi));
+                    somma += record.getDouble(8);
+                }
+                stampaTempo("Letture casuali di record fissi (somma " + (long) somma + ")",
+                    letture, System.nanoTime() - start);
+
+                ByteBuffer ultimo = store.get(store.size() - 1);
+                System.out.println("Ultimo record: id=" + ultimo.getLong(0) + ", valore=" + ultimo.getDouble(8));
+            }
+
+            try (MappedRecordStore store = MappedRecordStore.builder(variabili).readOnly().open()) {
+                start = System.nanoTime();
+                long byteLetti = 0;
+                for (int k = 0; k < letture; k++) {
+                    byteLetti += store.get(random.nextInt(numeroVariabili)).remaining();
+                }
+                stampaTempo("Letture casuali di record variabili (" + byteLetti / (1 << 20) + " MB)",
+                    letture, System.nanoTime() - start);
+
+                ByteBuffer record = store.get(123_456);
+                byte[] testo = new byte[record.remaining()];
+                record.get(testo);
+                System.out.println("Record 123456: " + new String(testo, StandardCharsets.UTF_8));
+            }
+
+            // Lo stesso accesso casuale con seek e read: una system call per record
+            int lettureRaf = letture / 10;
+            try (RandomAccessFile raf = new RandomAccessFile(fissi.toFile(), "r")) {
+                start = System.nanoTime();
+                double somma = 0;
+                for (int k = 0; k < lettureRaf; k++) {
+                    // Il primo slot da 16 byte dopo i 64 dell'header è il record 0
+                    raf.seek(64 + 16L * random.nextInt(numeroFissi) + 8);
+                    somma += raf.readDouble();
+                }
+                stampaTempo("Letture casuali con RandomAccessFile (somma " + (long) somma + ")",
+                    lettureRaf, System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        System.out.println();
+    }
+
+    private static void stampaTempo(String descrizione, long operazioni, long nanos) {
+        System.out.printf("%s: %d ms, %.1f M/s%n",
+            descrizione, nanos / 1_000_000, operazioni * 1000.0 / Math.max(nanos, 1));
+    }
+
     // ==================== RANDOM ACCESS FILE ====================
 
     public void randomAccessFileDemo() {
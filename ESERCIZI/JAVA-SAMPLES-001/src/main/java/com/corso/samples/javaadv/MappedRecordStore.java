@@ -0,0 +1,563 @@
+package com.corso.samples.javaadv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * File di record append-only letto e scritto in memoria, attraverso segmenti
+ * mappati (MappedByteBuffer) di dimensione fissa: niente stream, niente seek
+ * come in InputOutputDemo.randomAccessFileDemo, niente copie in lettura.
+ * - record a dimensione fissa (fixedSize): il record i sta in una posizione
+ *   calcolata, senza indice
+ * - record a dimensione variabile: lunghezza (int) + byte, con un indice di
+ *   offset in un secondo file mappato (nome.idx, 8 byte per record)
+ * In entrambi i casi get(i) è O(1) e restituisce una slice in sola lettura
+ * del segmento: i byte non vengono copiati (la slice è big-endian).
+ * Un record non attraversa mai due segmenti: se non ci sta, si passa al
+ * segmento successivo. Il file cresce mappando un segmento in più (il file
+ * si estende alla mappatura, sparso sui file system che lo supportano).
+ * L'header (64 byte all'inizio) contiene dimensione dei record, dei segmenti,
+ * numero di record e fine logica dei dati: riaprendo il file si riparte da lì,
+ * e i parametri del builder valgono solo per i file nuovi.
+ * Durabilità: la memoria mappata arriva su disco quando lo decide il sistema
+ * operativo, in qualunque ordine, oppure con force(); la ForcePolicy decide ogni
+ * quanto chiamarlo. Numero di record e fine nell'header cambiano solo in force(),
+ * dopo che dati e indice sono su disco: dopo un crash si riapre con i record
+ * dell'ultimo force(), tutti integri, e quelli aggiunti dopo sono persi.
+ * Scrive un solo thread; le letture possono arrivare da più thread e vedono
+ * i record aggiunti fino a size().
+ * Esempio:
+ *   try (MappedRecordStore store = MappedRecordStore.builder(path).fixedSize(16).open()) {
+ *       long i = store.append(record);   ...   ByteBuffer letto = store.get(i);
+ *   }
+ */
+public final class MappedRecordStore implements Closeable {
+
+    /**
+     * Ogni quanto forzare su disco le scritture: dopo ogniRecord record o dopo
+     * ogniByte byte di dati, quello che arriva prima (0 = mai, solo alla chiusura)
+     */
+    public record ForcePolicy(long ogniRecord, long ogniByte) {
+
+        public ForcePolicy {
+            if (ogniRecord < 0 || ogniByte < 0) {
+                throw new IllegalArgumentException("Soglie negative: " + ogniRecord + ", " + ogniByte);
+            }
+        }
+
+        /** Solo in close() e nelle chiamate esplicite a force(): il più veloce */
+        public static ForcePolicy onClose() {
+            return new ForcePolicy(0, 0);
+        }
+
+        /** Dopo ogni record: ogni append aspetta il disco */
+        public static ForcePolicy always() {
+            return new ForcePolicy(1, 0);
+        }
+
+        public static ForcePolicy everyRecords(long record) {
+            return new ForcePolicy(record, 0);
+        }
+
+        public static ForcePolicy everyBytes(long byteDati) {
+            return new ForcePolicy(0, byteDati);
+        }
+    }
+
+    private static final int MAGIC = 0x4D525331; // "MRS1"
+    private static final int VERSIONE = 1;
+    private static final int HEADER = 64;
+    private static final int POS_MAGIC = 0;
+    private static final int POS_VERSIONE = 4;
+    private static final int POS_DIMENSIONE_RECORD = 8;
+    private static final int POS_SHIFT_SEGMENTO = 12;
+    private static final int POS_CONTEGGIO = 16;
+    private static final int POS_FINE = 24;
+
+    private static final int PREFISSO = Integer.BYTES;
+    // Al posto della lunghezza: il resto del segmento è vuoto, il record successivo è nel prossimo
+    private static final int SALTO = -1;
+
+    public static final int SEGMENTO_DEFAULT = 64 << 20;
+    private static final int SHIFT_SEGMENTO_MINIMO = 12;
+    private static final int SHIFT_SEGMENTO_MASSIMO = 30;
+
+    private final FileChannel dati;
+    private final FileChannel indice;
+    private final boolean soloLettura;
+    private final int dimensioneRecord;
+    private final int shiftSegmento;
+    private final long maschera;
+    private final int recordPerSegmento;
+    private final int slotHeader;
+    private final ForcePolicy policy;
+
+    // Segmenti scritti dal thread che aggiunge, letti da tutti: array sostituiti, mai modificati
+    private volatile MappedByteBuffer[] segmenti = new MappedByteBuffer[0];
+    private volatile ByteBuffer[] viste = new ByteBuffer[0];
+    private volatile MappedByteBuffer[] segmentiIndice = new MappedByteBuffer[0];
+    private volatile long conteggio;
+    private long fine;
+
+    private long conteggioForzato;
+    private long fineForzata;
+    private boolean chiuso;
+
+    private MappedRecordStore(Builder builder) throws IOException {
+        this.soloLettura = builder.soloLettura;
+        this.policy = builder.policy;
+        this.dati = soloLettura
+            ? FileChannel.open(builder.file, StandardOpenOption.READ)
+            : FileChannel.open(builder.file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            boolean nuovo = dati.size() == 0;
+            if (nuovo && soloLettura) {
+                throw new IOException("File vuoto: " + builder.file);
+            }
+            if (nuovo) {
+                dimensioneRecord = builder.dimensioneRecord;
+                shiftSegmento = builder.shiftSegmento;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                while (header.hasRemaining() && dati.read(header, header.position()) > 0) {
+                    // legge finché l'header è completo
+                }
+                if (header.hasRemaining() || header.getInt(POS_MAGIC) != MAGIC) {
+                    throw new IOException("Non è un MappedRecordStore: " + builder.file);
+                }
+                if (header.getInt(POS_VERSIONE) != VERSIONE) {
+                    throw new IOException("Versione non supportata: " + header.getInt(POS_VERSIONE));
+                }
+                dimensioneRecord = header.getInt(POS_DIMENSIONE_RECORD);
+                shiftSegmento = header.getInt(POS_SHIFT_SEGMENTO);
+                conteggio = header.getLong(POS_CONTEGGIO);
+                fine = header.getLong(POS_FINE);
+                if (shiftSegmento < SHIFT_SEGMENTO_MINIMO || shiftSegmento > SHIFT_SEGMENTO_MASSIMO
+                    || dimensioneRecord < 0 || dimensioneRecord > (1 << shiftSegmento)
+                    || conteggio < 0 || fine < HEADER || fine > dati.size()) {
+                    throw new IOException("Header non valido: " + builder.file);
+                }
+            }
+            maschera = (1L << shiftSegmento) - 1;
+            recordPerSegmento = dimensioneRecord > 0 ? (1 << shiftSegmento) / dimensioneRecord : 0;
+            slotHeader = dimensioneRecord > 0 ? (HEADER + dimensioneRecord - 1) / dimensioneRecord : 0;
+
+            if (nuovo) {
+                fine = dimensioneRecord > 0 ? (long) slotHeader * dimensioneRecord : HEADER;
+                garantisciSegmento(0);
+                MappedByteBuffer header = segmenti[0];
+                header.putInt(POS_MAGIC, MAGIC);
+                header.putInt(POS_VERSIONE, VERSIONE);
+                header.putInt(POS_DIMENSIONE_RECORD, dimensioneRecord);
+                header.putInt(POS_SHIFT_SEGMENTO, shiftSegmento);
+                scriviHeader(0, fine);
+            } else {
+                mappaEsistenti();
+            }
+
+            if (dimensioneRecord > 0) {
+                indice = null;
+            } else {
+                Path fileIndice = builder.file.resolveSibling(builder.file.getFileName() + ".idx");
+                indice = soloLettura
+                    ? FileChannel.open(fileIndice, StandardOpenOption.READ)
+                    : FileChannel.open(fileIndice, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                if (indice.size() < conteggio * Long.BYTES) {
+                    if (soloLettura) {
+                        throw new IOException("Indice incompleto: " + fileIndice);
+                    }
+                    ricostruisciIndice();
+                } else {
+                    mappaIndiceEsistente();
+                }
+            }
+            conteggioForzato = conteggio;
+            fineForzata = fine;
+        } catch (IOException | RuntimeException e) {
+            dati.close();
+            throw e;
+        }
+    }
+
+    public static Builder builder(Path file) {
+        return new Builder(file);
+    }
+
+    public static final class Builder {
+        private final Path file;
+        private int dimensioneRecord;
+        private int shiftSegmento = Integer.numberOfTrailingZeros(SEGMENTO_DEFAULT);
+        private ForcePolicy policy = ForcePolicy.onClose();
+        private boolean soloLettura;
+
+        private Builder(Path file) {
+            this.file = Objects.requireNonNull(file);
+        }
+
+        /**
+         * Record tutti di byteRecord byte: niente prefisso di lunghezza né indice
+         */
+        public Builder fixedSize(int byteRecord) {
+            if (byteRecord <= 0) {
+                throw new IllegalArgumentException("Dimensione del record non positiva: " + byteRecord);
+            }
+            this.dimensioneRecord = byteRecord;
+            return this;
+        }
+
+        /**
+         * Potenza di due tra 4 KB e 1 GB (default 64 MB); limita anche la dimensione di un record
+         */
+        public Builder segmentSize(int byteSegmento) {
+            if (Integer.bitCount(byteSegmento) != 1
+                || byteSegmento < (1 << SHIFT_SEGMENTO_MINIMO) || byteSegmento > (1 << SHIFT_SEGMENTO_MASSIMO)) {
+                throw new IllegalArgumentException("Segmento non valido (potenza di due tra 4 KB e 1 GB): " + byteSegmento);
+            }
+            this.shiftSegmento = Integer.numberOfTrailingZeros(byteSegmento);
+            return this;
+        }
+
+        public Builder forcePolicy(ForcePolicy policy) {
+            this.policy = Objects.requireNonNull(policy);
+            return this;
+        }
+
+        /**
+         * Mappa in sola lettura i record presenti all'apertura, cioè fino all'ultimo
+         * force() di chi scrive: append non è permesso
+         */
+        public Builder readOnly() {
+            this.soloLettura = true;
+            return this;
+        }
+
+        public MappedRecordStore open() throws IOException {
+            if (dimensioneRecord > (1 << shiftSegmento)) {
+                throw new IllegalArgumentException("Record più grande del segmento: " + dimensioneRecord);
+            }
+            return new MappedRecordStore(this);
+        }
+    }
+
+    // ==================== SCRITTURA ====================
+
+    /**
+     * Aggiunge i byte rimanenti di record (la sua posizione non cambia) e
+     * restituisce l'indice del nuovo record
+     */
+    public long append(ByteBuffer record) {
+        int lunghezza = record.remaining();
+        if (dimensioneRecord > 0 && lunghezza != dimensioneRecord) {
+            throw new IllegalArgumentException("Il record deve essere di " + dimensioneRecord + " byte: " + lunghezza);
+        }
+        long inizio = riserva(lunghezza);
+        int pos = (int) (inizio & maschera);
+        MappedByteBuffer segmento = segmenti[(int) (inizio >>> shiftSegmento)];
+        if (dimensioneRecord == 0) {
+            segmento.putInt(pos, lunghezza);
+            pos += PREFISSO;
+        }
+        segmento.put(pos, record, record.position(), lunghezza);
+        return conferma(inizio, lunghezza);
+    }
+
+    public long append(byte[] record) {
+        return append(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Il record viene scritto direttamente nel file: scrittore riceve una slice
+     * di capacita byte e ci scrive il record; la lunghezza è la sua posizione
+     * finale (con fixedSize la capacità non può superare la dimensione del record)
+     */
+    public long append(int capacita, Consumer<ByteBuffer> scrittore) {
+        if (capacita < 0 || (dimensioneRecord > 0 && capacita > dimensioneRecord)) {
+            throw new IllegalArgumentException("Capacità non valida: " + capacita);
+        }
+        int spazio = dimensioneRecord > 0 ? dimensioneRecord : capacita;
+        long inizio = riserva(spazio);
+        int pos = (int) (inizio & maschera);
+        MappedByteBuffer segmento = segmenti[(int) (inizio >>> shiftSegmento)];
+        int corpo = dimensioneRecord > 0 ? pos : pos + PREFISSO;
+        ByteBuffer slice = segmento.slice(corpo, capacita);
+        scrittore.accept(slice);
+        if (dimensioneRecord > 0) {
+            return conferma(inizio, dimensioneRecord);
+        }
+        segmento.putInt(pos, slice.position());
+        return conferma(inizio, slice.position());
+    }
+
+    /**
+     * Offset globale da cui scrivere un record di lunghezza byte (prefisso incluso
+     * per i record variabili), con il segmento già mappato
+     */
+    private long riserva(int lunghezza) {
+        if (soloLettura) {
+            throw new UnsupportedOperationException("Store aperto in sola lettura");
+        }
+        if (chiuso) {
+            throw new IllegalStateException("Store chiuso");
+        }
+        long inizio;
+        if (dimensioneRecord > 0) {
+            long slot = conteggio + slotHeader;
+            inizio = (slot / recordPerSegmento << shiftSegmento) + slot % recordPerSegmento * dimensioneRecord;
+        } else {
+            long spazio = PREFISSO + (long) lunghezza;
+            long dimensioneSegmento = maschera + 1;
+            if (spazio > dimensioneSegmento) {
+                throw new IllegalArgumentException("Record più grande del segmento: " + lunghezza);
+            }
+            inizio = fine;
+            long resto = dimensioneSegmento - (inizio & maschera);
+            if (resto < spazio) {
+                if (resto >= PREFISSO) {
+                    segmenti[(int) (inizio >>> shiftSegmento)].putInt((int) (inizio & maschera), SALTO);
+                }
+                inizio += resto;
+            }
+        }
+        garantisciSegmento((int) (inizio >>> shiftSegmento));
+        return inizio;
+    }
+
+    /**
+     * Registra il record scritto in inizio: indice e conteggio visibile ai lettori.
+     * L'header resta all'ultimo force(): il sistema operativo potrebbe scriverne la
+     * pagina prima di quelle dei dati
+     */
+    private long conferma(long inizio, int lunghezza) {
+        long i = conteggio;
+        if (dimensioneRecord > 0) {
+            fine = inizio + dimensioneRecord;
+        } else {
+            scriviIndice(i, inizio);
+            fine = inizio + PREFISSO + lunghezza;
+        }
+        conteggio = i + 1;
+        if ((policy.ogniRecord() > 0 && conteggio - conteggioForzato >= policy.ogniRecord())
+            || (policy.ogniByte() > 0 && fine - fineForzata >= policy.ogniByte())) {
+            force();
+        }
+        return i;
+    }
+
+    /**
+     * Scrive numero di record e fine nell'header e lo porta su disco
+     */
+    private void scriviHeader(long record, long fineDati) {
+        MappedByteBuffer header = segmenti[0];
+        header.putLong(POS_FINE, fineDati);
+        header.putLong(POS_CONTEGGIO, record);
+        header.force(0, HEADER);
+    }
+
+    // ==================== LETTURA ====================
+
+    public long size() {
+        return conteggio;
+    }
+
+    /**
+     * Il record i come slice in sola lettura del file mappato (nessuna copia):
+     * position 0, limit = lunghezza del record. Resta valida finché lo store è aperto
+     */
+    public ByteBuffer get(long i) {
+        Objects.checkIndex(i, conteggio);
+        ByteBuffer[] v = viste;
+        if (dimensioneRecord > 0) {
+            long slot = i + slotHeader;
+            return v[(int) (slot / recordPerSegmento)].slice((int) (slot % recordPerSegmento) * dimensioneRecord, dimensioneRecord);
+        }
+        long inizio = leggiIndice(i);
+        ByteBuffer segmento = v[(int) (inizio >>> shiftSegmento)];
+        int pos = (int) (inizio & maschera);
+        return segmento.slice(pos + PREFISSO, segmento.getInt(pos));
+    }
+
+    public int length(long i) {
+        Objects.checkIndex(i, conteggio);
+        if (dimensioneRecord > 0) {
+            return dimensioneRecord;
+        }
+        long inizio = leggiIndice(i);
+        return viste[(int) (inizio >>> shiftSegmento)].getInt((int) (inizio & maschera));
+    }
+
+    /**
+     * Tutti i record in ordine, ognuno come in get(i)
+     */
+    public void forEach(Consumer<? super ByteBuffer> azione) {
+        long n = conteggio;
+        for (long i = 0; i < n; i++) {
+            azione.accept(get(i));
+        }
+    }
+
+    /**
+     * Byte di dati occupati (header incluso); il file è lungo un multiplo del segmento
+     */
+    public long sizeInBytes() {
+        return fine;
+    }
+
+    // ==================== DURABILITÀ ====================
+
+    /**
+     * Porta su disco i dati scritti dall'ultimo force(), poi l'indice; solo allora
+     * aggiorna l'header con i valori appena forzati e forza anche quello
+     */
+    public void force() {
+        if (soloLettura || chiuso) {
+            return;
+        }
+        forza(segmenti, Math.max(fineForzata, HEADER), fine);
+        if (dimensioneRecord == 0) {
+            forza(segmentiIndice, conteggioForzato * Long.BYTES, conteggio * Long.BYTES);
+        }
+        scriviHeader(conteggio, fine);
+        conteggioForzato = conteggio;
+        fineForzata = fine;
+    }
+
+    private void forza(MappedByteBuffer[] segmentiDaForzare, long da, long a) {
+        while (da < a) {
+            int s = (int) (da >>> shiftSegmento);
+            long inizioSegmento = (long) s << shiftSegmento;
+            int pos = (int) (da - inizioSegmento);
+            int fineSegmento = (int) Math.min(maschera + 1, a - inizioSegmento);
+            segmentiDaForzare[s].force(pos, fineSegmento - pos);
+            da = inizioSegmento + fineSegmento;
+        }
+    }
+
+    /**
+     * Forza le scritture (secondo la durabilità richiesta) e chiude i file.
+     * Le mappature restano finché le slice restituite non vengono raccolte dal GC:
+     * Java non offre un modo sicuro per rilasciarle prima
+     */
+    @Override
+    public void close() throws IOException {
+        if (chiuso) {
+            return;
+        }
+        force();
+        chiuso = true;
+        try {
+            dati.close();
+        } finally {
+            if (indice != null) {
+                indice.close();
+            }
+        }
+    }
+
+    // ==================== SEGMENTI ====================
+
+    private void garantisciSegmento(int s) {
+        MappedByteBuffer[] attuali = segmenti;
+        if (s < attuali.length) {
+            return;
+        }
+        MappedByteBuffer[] nuovi = Arrays.copyOf(attuali, s + 1);
+        ByteBuffer[] nuoveViste = Arrays.copyOf(viste, s + 1);
+        for (int i = attuali.length; i <= s; i++) {
+            nuovi[i] = mappa(dati, (long) i << shiftSegmento, maschera + 1, FileChannel.MapMode.READ_WRITE);
+            nuoveViste[i] = nuovi[i].asReadOnlyBuffer();
+        }
+        viste = nuoveViste;
+        segmenti = nuovi;
+    }
+
+    private void mappaEsistenti() throws IOException {
+        long dimensione = dati.size();
+        int numero = (int) ((dimensione + maschera) >>> shiftSegmento);
+        MappedByteBuffer[] nuovi = new MappedByteBuffer[numero];
+        ByteBuffer[] nuoveViste = new ByteBuffer[numero];
+        for (int i = 0; i < numero; i++) {
+            long inizio = (long) i << shiftSegmento;
+            // In sola lettura non si può estendere il file: l'ultimo segmento può essere parziale
+            long lunghezza = soloLettura ? Math.min(maschera + 1, dimensione - inizio) : maschera + 1;
+            nuovi[i] = mappa(dati, inizio, lunghezza,
+                soloLettura ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE);
+            nuoveViste[i] = nuovi[i].asReadOnlyBuffer();
+        }
+        viste = nuoveViste;
+        segmenti = nuovi;
+    }
+
+    private static MappedByteBuffer mappa(FileChannel canale, long inizio, long lunghezza, FileChannel.MapMode modo) {
+        try {
+            return canale.map(modo, inizio, lunghezza);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Mappatura del segmento da " + inizio + " fallita", e);
+        }
+    }
+
+    // ==================== INDICE ====================
+
+    private long leggiIndice(long i) {
+        long offset = i * Long.BYTES;
+        return segmentiIndice[(int) (offset >>> shiftSegmento)].getLong((int) (offset & maschera));
+    }
+
+    private void scriviIndice(long i, long inizio) {
+        long offset = i * Long.BYTES;
+        int s = (int) (offset >>> shiftSegmento);
+        MappedByteBuffer[] attuali = segmentiIndice;
+        if (s >= attuali.length) {
+            MappedByteBuffer[] nuovi = Arrays.copyOf(attuali, s + 1);
+            for (int k = attuali.length; k <= s; k++) {
+                nuovi[k] = mappa(indice, (long) k << shiftSegmento, maschera + 1, FileChannel.MapMode.READ_WRITE);
+            }
+            segmentiIndice = nuovi;
+        }
+        segmentiIndice[s].putLong((int) (offset & maschera), inizio);
+    }
+
+    private void mappaIndiceEsistente() throws IOException {
+        long dimensione = indice.size();
+        int numero = (int) ((dimensione + maschera) >>> shiftSegmento);
+        MappedByteBuffer[] nuovi = new MappedByteBuffer[numero];
+        for (int i = 0; i < numero; i++) {
+            long inizio = (long) i << shiftSegmento;
+            long lunghezza = soloLettura ? Math.min(maschera + 1, dimensione - inizio) : maschera + 1;
+            nuovi[i] = mappa(indice, inizio, lunghezza,
+                soloLettura ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE);
+        }
+        segmentiIndice = nuovi;
+    }
+
+    /**
+     * Indice mancante o più corto del conteggio: lo si rifà scorrendo i dati
+     */
+    private void ricostruisciIndice() throws IOException {
+        indice.truncate(0);
+        long offset = HEADER;
+        for (long i = 0; i < conteggio; i++) {
+            long resto = maschera + 1 - (offset & maschera);
+            if (resto < PREFISSO || segmenti[(int) (offset >>> shiftSegmento)].getInt((int) (offset & maschera)) == SALTO) {
+                offset += resto;
+            }
+            int s = (int) (offset >>> shiftSegmento);
+            int lunghezza = s < segmenti.length ? segmenti[s].getInt((int) (offset & maschera)) : -1;
+            if (lunghezza < 0 || offset + PREFISSO + lunghezza > fine) {
+                throw new IOException("Dati corrotti al record " + i + " (offset " + offset + ")");
+            }
+            scriviIndice(i, offset);
+            offset += PREFISSO + lunghezza;
+        }
+        // Si forza subito: il prossimo force() porterebbe su disco solo i record nuovi
+        forza(segmentiIndice, 0, conteggio * Long.BYTES);
+    }
+}
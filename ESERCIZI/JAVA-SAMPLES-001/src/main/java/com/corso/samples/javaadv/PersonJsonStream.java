@@ -0,0 +1,260 @@
+package com.corso.samples.javaadv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+/**
+ * Array JSON di SerializationDemo.PersonJSON scritti e letti un elemento alla
+ * volta con le API a token di Jackson (JsonGenerator, JsonParser), senza
+ * costruire la String o la List completa come mapper.writeValueAsString(lista):
+ * la memoria usata non dipende dal numero di persone.
+ * Il formato è quello di Gson sugli stessi oggetti (name, age, email, address,
+ * hobbies): i campi null non vengono scritti, come fa Gson e come fa ObjectMapper
+ * solo con Include.NON_NULL (di default scrive "email":null). In lettura i null
+ * e i campi sconosciuti vengono saltati; un valore del tipo sbagliato (un oggetto
+ * al posto del nome, una stringa al posto dell'indirizzo) è una JsonParseException
+ * sull'elemento stesso.
+ * Esempio:
+ *   PersonJsonStream.write(persone.iterator(), out);
+ *   try (Stream<PersonJSON> lette = PersonJsonStream.read(in)) { lette.filter(...)... }
+ */
+final class PersonJsonStream {
+
+    // Thread-safe e costoso da creare: uno solo per tutte le chiamate.
+    // Il generator non chiude lo stream del chiamante, lo svuota soltanto
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private PersonJsonStream() {
+    }
+
+    // ==================== SCRITTURA ====================
+
+    /**
+     * Scrive l'array consumando l'iteratore; restituisce il numero di persone scritte.
+     * Lo stream non viene chiuso
+     */
+    static long write(Iterator<SerializationDemo.PersonJSON> persone, OutputStream out) throws IOException {
+        long scritte = 0;
+        try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            while (persone.hasNext()) {
+                scrivi(generator, persone.next());
+                scritte++;
+            }
+            generator.writeEndArray();
+        }
+        return scritte;
+    }
+
+    static long write(Stream<SerializationDemo.PersonJSON> persone, OutputStream out) throws IOException {
+        return write(persone.iterator(), out);
+    }
+
+    /**
+     * Scrive dalla posizione corrente del canale; il canale resta aperto
+     */
+    static long write(Iterator<SerializationDemo.PersonJSON> persone, FileChannel canale) throws IOException {
+        return write(persone, Channels.newOutputStream(canale));
+    }
+
+    private static void scrivi(JsonGenerator generator, SerializationDemo.PersonJSON persona) throws IOException {
+        generator.writeStartObject();
+        if (persona.getName() != null) {
+            generator.writeStringField("name", persona.getName());
+        }
+        generator.writeNumberField("age", persona.getAge());
+        if (persona.getEmail() != null) {
+            generator.writeStringField("email", persona.getEmail());
+        }
+        SerializationDemo.AddressJSON indirizzo = persona.getAddress();
+        if (indirizzo != null) {
+            generator.writeObjectFieldStart("address");
+            if (indirizzo.getStreet() != null) {
+                generator.writeStringField("street", indirizzo.getStreet());
+            }
+            if (indirizzo.getCity() != null) {
+                generator.writeStringField("city", indirizzo.getCity());
+            }
+            if (indirizzo.getZipCode() != null) {
+                generator.writeStringField("zipCode", indirizzo.getZipCode());
+            }
+            generator.writeEndObject();
+        }
+        List<String> hobbies = persona.getHobbies();
+        if (hobbies != null) {
+            generator.writeArrayFieldStart("hobbies");
+            for (String hobby : hobbies) {
+                generator.writeString(hobby);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    // ==================== LETTURA ====================
+
+    /**
+     * Stream lazy sugli elementi dell'array: ogni elemento viene letto quando lo
+     * stream lo chiede. Va chiuso (try-with-resources), e chiuderlo chiude anche
+     * lo stream di input. Gli errori di lettura arrivano come UncheckedIOException
+     *
+     * @throws IOException se l'input non inizia con un array JSON
+     */
+    static Stream<SerializationDemo.PersonJSON> read(InputStream in) throws IOException {
+        JsonParser parser = FACTORY.createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("Atteso un array JSON, trovato " + parser.currentToken());
+        }
+        Spliterator<SerializationDemo.PersonJSON> elementi = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super SerializationDemo.PersonJSON> azione) {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY || token == null) {
+                        return false;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new IOException("Atteso un oggetto, trovato " + token
+                            + " in " + parser.currentLocation());
+                    }
+                    azione.accept(leggi(parser));
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(elementi, false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Legge dalla posizione corrente del canale; chiudere lo stream chiude il canale
+     */
+    static Stream<SerializationDemo.PersonJSON> read(FileChannel canale) throws IOException {
+        return read(Channels.newInputStream(canale));
+    }
+
+    /**
+     * Un oggetto persona, con il parser sul suo START_OBJECT
+     */
+    private static SerializationDemo.PersonJSON leggi(JsonParser parser) throws IOException {
+        String nome = null;
+        int eta = 0;
+        String email = null;
+        SerializationDemo.AddressJSON indirizzo = null;
+        List<String> hobbies = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valore = parser.nextToken();
+            if (valore == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (campo) {
+                case "name" -> nome = leggiTesto(parser);
+                case "age" -> eta = leggiIntero(parser);
+                case "email" -> email = leggiTesto(parser);
+                case "address" -> indirizzo = leggiIndirizzo(parser);
+                case "hobbies" -> hobbies = leggiStringhe(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        SerializationDemo.PersonJSON persona = new SerializationDemo.PersonJSON(nome, eta, email);
+        persona.setAddress(indirizzo);
+        if (hobbies != null) {
+            persona.getHobbies().addAll(hobbies);
+        }
+        return persona;
+    }
+
+    private static SerializationDemo.AddressJSON leggiIndirizzo(JsonParser parser) throws IOException {
+        // Senza questo controllo il ciclo leggerebbe i campi della persona come campi dell'indirizzo
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Atteso un oggetto indirizzo, trovato " + parser.currentToken());
+        }
+        String via = null;
+        String citta = null;
+        String cap = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (campo) {
+                case "street" -> via = leggiTesto(parser);
+                case "city" -> citta = leggiTesto(parser);
+                case "zipCode" -> cap = leggiTesto(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new SerializationDemo.AddressJSON(via, citta, cap);
+    }
+
+    /**
+     * Un campo stringa: numeri e booleani diventano testo come in ObjectMapper;
+     * su un oggetto o un array getText restituirebbe "{" o "["
+     */
+    private static String leggiTesto(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue()) {
+            throw new JsonParseException(parser, "Atteso un valore stringa, trovato " + parser.currentToken());
+        }
+        return parser.getText();
+    }
+
+    private static int leggiIntero(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isNumeric()) {
+            throw new JsonParseException(parser, "Atteso un numero, trovato " + parser.currentToken());
+        }
+        return parser.getIntValue();
+    }
+
+    /**
+     * Array di stringhe come lo legge ObjectMapper: null resta null, numeri e
+     * booleani diventano testo, oggetti e array annidati sono un errore
+     */
+    private static List<String> leggiStringhe(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Atteso un array di stringhe, trovato " + parser.currentToken());
+        }
+        List<String> valori = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_NULL) {
+                valori.add(null);
+            } else if (token != null && token.isScalarValue()) {
+                valori.add(parser.getText());
+            } else {
+                throw new JsonParseException(parser, "Atteso un valore stringa, trovato " + token);
+            }
+        }
+        return valori;
+    }
+}
@@ -0,0 +1,635 @@
+package com.corso.samples.javaadv;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Code limitate senza lock su un array circolare, al posto di ArrayBlockingQueue
+ * quando il passaggio producer/consumer è il collo di bottiglia:
+ * - spsc: un solo producer e un solo consumer (algoritmo di Lamport): nessuna
+ *   CAS, solo scritture con semantica release sugli indici
+ * - mpsc: più producer (CAS sull'indice di coda), un solo consumer
+ * - mpmc: più producer e più consumer (coda di Vyukov: una sequenza per slot)
+ * Gli indici sono contatori long che crescono sempre: lo slot è indice & maschera.
+ * Indici di producer e consumer stanno in oggetti Sequenza separati e riempiti
+ * con 56 byte per lato, così non condividono la linea di cache (false sharing):
+ * ogni incremento del producer invaliderebbe altrimenti la linea letta dal consumer.
+ * In spsc e mpsc chi scrive tiene una copia dell'indice opposto e lo rilegge solo
+ * quando la copia dice che la coda è piena (o vuota).
+ * Le operazioni non bloccanti (offer, poll, drainTo, offerAll) non usano mai lock;
+ * quelle bloccanti (put, take, offer/poll con timeout) ripetono l'operazione con
+ * la WaitStrategy scelta. Con spsc e mpsc il vincolo sul numero di thread è a
+ * carico del chiamante: non viene controllato.
+ * Come BlockingQueue non ammette null. iterator() scorre una fotografia degli
+ * elementi (debolmente coerente, come quello delle code di java.util.concurrent),
+ * quindi contains, toArray e containsAll funzionano; remove(Object) e
+ * Iterator.remove no: togliere un elemento dal mezzo dell'anello richiederebbe
+ * una CAS in più a ogni poll. Come coda di un ThreadPoolExecutor vanno bene
+ * execute e shutdown, non remove e purge.
+ * Esempio:
+ *   BlockingQueue<Evento> coda = RingBufferQueue.spsc(1024, RingBufferQueue.WaitStrategy.YIELD);
+ *   // producer: coda.put(evento);   consumer: coda.drainTo(lotto, 256);
+ */
+public abstract class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    /**
+     * Cosa fa un thread mentre aspetta spazio (put) o elementi (take)
+     */
+    public enum WaitStrategy {
+        /** Thread.onSpinWait(): latenza minima, occupa un core; solo con core dedicati */
+        BUSY_SPIN {
+            @Override
+            void attendi(int tentativo) {
+                Thread.onSpinWait();
+            }
+        },
+        /** Thread.yield(): cede il core agli altri thread pronti */
+        YIELD {
+            @Override
+            void attendi(int tentativo) {
+                Thread.yield();
+            }
+        },
+        /** Qualche giro di spin, poi parkNanos con attesa crescente fino a 1 ms */
+        PARK {
+            @Override
+            void attendi(int tentativo) {
+                if (tentativo < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(1_000L << Math.min(10, (tentativo - 100) / 16));
+                }
+            }
+        };
+
+        abstract void attendi(int tentativo);
+    }
+
+    private static final VarHandle ELEMENTI = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    final Object[] elementi;
+    final int maschera;
+    final WaitStrategy strategia;
+
+    RingBufferQueue(int capacita, WaitStrategy strategia) {
+        if (capacita < 2 || capacita > 1 << 30) {
+            throw new IllegalArgumentException("Capacità non valida: " + capacita);
+        }
+        int potenza = Integer.highestOneBit(capacita - 1) << 1;
+        this.elementi = new Object[potenza];
+        this.maschera = potenza - 1;
+        this.strategia = Objects.requireNonNull(strategia);
+    }
+
+    /**
+     * Un producer e un consumer; la capacità è arrotondata alla potenza di 2
+     */
+    public static <E> RingBufferQueue<E> spsc(int capacita, WaitStrategy strategia) {
+        return new Spsc<>(capacita, strategia);
+    }
+
+    /**
+     * Più producer e un consumer; la capacità è arrotondata alla potenza di 2
+     */
+    public static <E> RingBufferQueue<E> mpsc(int capacita, WaitStrategy strategia) {
+        return new Mpsc<>(capacita, strategia);
+    }
+
+    /**
+     * Più producer e più consumer; la capacità è arrotondata alla potenza di 2
+     */
+    public static <E> RingBufferQueue<E> mpmc(int capacita, WaitStrategy strategia) {
+        return new Mpmc<>(capacita, strategia);
+    }
+
+    public int capacity() {
+        return elementi.length;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return strategia;
+    }
+
+    // ==================== OPERAZIONI DA IMPLEMENTARE ====================
+
+    abstract long indiceProduttore();
+
+    abstract long indiceConsumatore();
+
+    /**
+     * Inserisce gli elementi della lista in ordine finché c'è spazio.
+     * @return quanti elementi sono stati inseriti (un prefisso della lista)
+     */
+    public abstract int offerAll(List<? extends E> lista);
+
+    // ==================== QUEUE ====================
+
+    @Override
+    public int size() {
+        // Rilegge il consumatore finché la coppia di indici è coerente
+        while (true) {
+            long prima = indiceConsumatore();
+            long produttore = indiceProduttore();
+            long dopo = indiceConsumatore();
+            if (prima == dopo) {
+                return (int) Math.max(0, Math.min(elementi.length, produttore - dopo));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return indiceProduttore() == indiceConsumatore();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return elementi.length - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> destinazione) {
+        return drainTo(destinazione, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Versione base: poll ripetuto. spsc e mpsc pubblicano l'indice una volta per lotto.
+     */
+    @Override
+    public int drainTo(Collection<? super E> destinazione, int massimo) {
+        controllaDestinazione(destinazione);
+        int n = 0;
+        E e;
+        while (n < massimo && (e = poll()) != null) {
+            destinazione.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    void controllaDestinazione(Collection<? super E> destinazione) {
+        Objects.requireNonNull(destinazione);
+        if (destinazione == this) {
+            throw new IllegalArgumentException("drainTo sulla coda stessa");
+        }
+    }
+
+    // ==================== OPERAZIONI BLOCCANTI ====================
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        for (int tentativo = 0; !offer(e); tentativo++) {
+            attendi(tentativo);
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        for (int tentativo = 0; (e = poll()) == null; tentativo++) {
+            attendi(tentativo);
+        }
+        return e;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unita) throws InterruptedException {
+        Objects.requireNonNull(e);
+        long scadenza = System.nanoTime() + unita.toNanos(timeout);
+        for (int tentativo = 0; !offer(e); tentativo++) {
+            if (System.nanoTime() - scadenza >= 0) {
+                return false;
+            }
+            attendi(tentativo);
+        }
+        return true;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unita) throws InterruptedException {
+        long scadenza = System.nanoTime() + unita.toNanos(timeout);
+        E e;
+        for (int tentativo = 0; (e = poll()) == null; tentativo++) {
+            if (System.nanoTime() - scadenza >= 0) {
+                return null;
+            }
+            attendi(tentativo);
+        }
+        return e;
+    }
+
+    private void attendi(int tentativo) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        strategia.attendi(tentativo);
+    }
+
+    /**
+     * Iteratore debolmente coerente su una copia degli elementi tra consumatore e
+     * produttore al momento della chiamata: non blocca nessuno, non vede gli
+     * elementi aggiunti dopo e può contenere elementi consumati nel frattempo.
+     * Gli slot prenotati ma non ancora scritti vengono saltati; remove() non è supportato
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableList(fotografia()).iterator();
+    }
+
+    private List<E> fotografia() {
+        // Stessa lettura coerente di size()
+        long testa;
+        long coda;
+        do {
+            testa = indiceConsumatore();
+            coda = indiceProduttore();
+        } while (testa != indiceConsumatore());
+        int n = (int) Math.max(0, Math.min(elementi.length, coda - testa));
+        List<E> copia = new ArrayList<>(n);
+        for (long i = testa; i < testa + n; i++) {
+            E e = leggiAcquire(i);
+            if (e != null) {
+                copia.add(e);
+            }
+        }
+        return copia;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + size() + "/" + capacity() + ", " + strategia + "]";
+    }
+
+    // ==================== ACCESSO AGLI SLOT ====================
+
+    @SuppressWarnings("unchecked")
+    final E leggiAcquire(long indice) {
+        return (E) ELEMENTI.getAcquire(elementi, (int) indice & maschera);
+    }
+
+    final void scriviRelease(long indice, Object valore) {
+        ELEMENTI.setRelease(elementi, (int) indice & maschera, valore);
+    }
+
+    @SuppressWarnings("unchecked")
+    final E leggi(long indice) {
+        return (E) elementi[(int) indice & maschera];
+    }
+
+    final void scrivi(long indice, Object valore) {
+        elementi[(int) indice & maschera] = valore;
+    }
+
+    // ==================== SEQUENZE CON PADDING ====================
+    // La JVM mette i campi della superclasse prima di quelli della sottoclasse:
+    // valore e copia stanno tra due blocchi di 7 long inutilizzati
+
+    abstract static class PaddingSinistro {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    abstract static class ValoreSequenza extends PaddingSinistro {
+        long valore;
+        // Copia dell'indice opposto, usata solo dal thread proprietario della sequenza
+        long copia;
+    }
+
+    static final class Sequenza extends ValoreSequenza {
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        private static final VarHandle VALORE;
+
+        static {
+            try {
+                VALORE = MethodHandles.lookup().findVarHandle(ValoreSequenza.class, "valore", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long getAcquire() {
+            return (long) VALORE.getAcquire(this);
+        }
+
+        void setRelease(long nuovo) {
+            VALORE.setRelease(this, nuovo);
+        }
+
+        boolean compareAndSet(long atteso, long nuovo) {
+            return VALORE.compareAndSet(this, atteso, nuovo);
+        }
+    }
+
+    // ==================== SPSC ====================
+
+    private static final class Spsc<E> extends RingBufferQueue<E> {
+        // copia del produttore = consumatore visto dal produttore e viceversa
+        private final Sequenza produttore = new Sequenza();
+        private final Sequenza consumatore = new Sequenza();
+
+        Spsc(int capacita, WaitStrategy strategia) {
+            super(capacita, strategia);
+        }
+
+        @Override
+        long indiceProduttore() {
+            return produttore.getAcquire();
+        }
+
+        @Override
+        long indiceConsumatore() {
+            return consumatore.getAcquire();
+        }
+
+        @Override
+        public boolean offer(E e) {
+            Objects.requireNonNull(e);
+            long coda = produttore.valore;
+            if (coda - produttore.copia >= elementi.length) {
+                produttore.copia = consumatore.getAcquire();
+                if (coda - produttore.copia >= elementi.length) {
+                    return false;
+                }
+            }
+            scrivi(coda, e);
+            produttore.setRelease(coda + 1);
+            return true;
+        }
+
+        @Override
+        public int offerAll(List<? extends E> lista) {
+            long coda = produttore.valore;
+            int n = (int) Math.min(lista.size(), elementi.length - (coda - produttore.copia));
+            if (n < lista.size()) {
+                produttore.copia = consumatore.getAcquire();
+                n = (int) Math.min(lista.size(), elementi.length - (coda - produttore.copia));
+            }
+            for (int i = 0; i < n; i++) {
+                scrivi(coda + i, Objects.requireNonNull(lista.get(i)));
+            }
+            // Una sola pubblicazione per tutto il lotto
+            produttore.setRelease(coda + n);
+            return n;
+        }
+
+        @Override
+        public E poll() {
+            long testa = consumatore.valore;
+            if (testa >= consumatore.copia) {
+                consumatore.copia = produttore.getAcquire();
+                if (testa >= consumatore.copia) {
+                    return null;
+                }
+            }
+            E e = leggi(testa);
+            scrivi(testa, null);
+            consumatore.setRelease(testa + 1);
+            return e;
+        }
+
+        @Override
+        public E peek() {
+            long testa = consumatore.valore;
+            return testa < produttore.getAcquire() ? leggi(testa) : null;
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> destinazione, int massimo) {
+            controllaDestinazione(destinazione);
+            long testa = consumatore.valore;
+            consumatore.copia = produttore.getAcquire();
+            int n = (int) Math.min(Math.max(massimo, 0), consumatore.copia - testa);
+            for (int i = 0; i < n; i++) {
+                destinazione.add(leggi(testa + i));
+                scrivi(testa + i, null);
+            }
+            consumatore.setRelease(testa + n);
+            return n;
+        }
+    }
+
+    // ==================== MPSC ====================
+
+    private static final class Mpsc<E> extends RingBufferQueue<E> {
+        // I producer prenotano gli slot con una CAS sul produttore e poi li scrivono:
+        // uno slot prima del produttore ancora null è prenotato ma non ancora scritto.
+        // La copia dell'indice opposto c'è solo lato consumer: tra più producer
+        // andrebbe condivisa e scritta da tutti
+        private final Sequenza produttore = new Sequenza();
+        private final Sequenza consumatore = new Sequenza();
+
+        Mpsc(int capacita, WaitStrategy strategia) {
+            super(capacita, strategia);
+        }
+
+        @Override
+        long indiceProduttore() {
+            return produttore.getAcquire();
+        }
+
+        @Override
+        long indiceConsumatore() {
+            return consumatore.getAcquire();
+        }
+
+        @Override
+        public boolean offer(E e) {
+            Objects.requireNonNull(e);
+            while (true) {
+                long coda = produttore.getAcquire();
+                if (coda - consumatore.getAcquire() >= elementi.length) {
+                    return false;
+                }
+                if (produttore.compareAndSet(coda, coda + 1)) {
+                    scriviRelease(coda, e);
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public int offerAll(List<? extends E> lista) {
+            // I null vanno scartati prima di prenotare: uno slot prenotato e mai scritto bloccherebbe il consumer
+            for (E e : lista) {
+                Objects.requireNonNull(e);
+            }
+            while (true) {
+                long coda = produttore.getAcquire();
+                int n = (int) Math.min(lista.size(), elementi.length - (coda - consumatore.getAcquire()));
+                if (n <= 0) {
+                    return 0;
+                }
+                // Una sola CAS per tutto il lotto
+                if (produttore.compareAndSet(coda, coda + n)) {
+                    for (int i = 0; i < n; i++) {
+                        scriviRelease(coda + i, lista.get(i));
+                    }
+                    return n;
+                }
+            }
+        }
+
+        @Override
+        public E poll() {
+            long testa = consumatore.valore;
+            E e = leggiAcquire(testa);
+            if (e == null) {
+                if (testa >= consumatore.copia) {
+                    consumatore.copia = produttore.getAcquire();
+                    if (testa >= consumatore.copia) {
+                        return null;
+                    }
+                }
+                // Slot prenotato: il producer sta per scriverlo
+                for (int tentativo = 0; (e = leggiAcquire(testa)) == null; tentativo++) {
+                    strategia.attendi(tentativo);
+                }
+            }
+            scrivi(testa, null);
+            consumatore.setRelease(testa + 1);
+            return e;
+        }
+
+        /**
+         * Può restituire null mentre un producer sta scrivendo il primo slot
+         */
+        @Override
+        public E peek() {
+            return leggiAcquire(consumatore.valore);
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> destinazione, int massimo) {
+            controllaDestinazione(destinazione);
+            long testa = consumatore.valore;
+            int n = 0;
+            E e;
+            // Si ferma al primo slot non ancora scritto
+            while (n < massimo && (e = leggiAcquire(testa + n)) != null) {
+                destinazione.add(e);
+                scrivi(testa + n, null);
+                n++;
+            }
+            consumatore.setRelease(testa + n);
+            return n;
+        }
+    }
+
+    // ==================== MPMC ====================
+
+    private static final class Mpmc<E> extends RingBufferQueue<E> {
+        private static final VarHandle SEQUENZE = MethodHandles.arrayElementVarHandle(long[].class);
+
+        // sequenze[i] dice a chi tocca lo slot i: == indice di coda se è libero per
+        // il producer, == indice + 1 se è pieno e pronto per il consumer
+        private final long[] sequenze;
+        private final Sequenza coda = new Sequenza();
+        private final Sequenza testa = new Sequenza();
+
+        Mpmc(int capacita, WaitStrategy strategia) {
+            super(capacita, strategia);
+            sequenze = new long[elementi.length];
+            for (int i = 0; i < sequenze.length; i++) {
+                sequenze[i] = i;
+            }
+        }
+
+        private long sequenza(long indice) {
+            return (long) SEQUENZE.getAcquire(sequenze, (int) indice & maschera);
+        }
+
+        private void pubblica(long indice, long valore) {
+            SEQUENZE.setRelease(sequenze, (int) indice & maschera, valore);
+        }
+
+        @Override
+        long indiceProduttore() {
+            return coda.getAcquire();
+        }
+
+        @Override
+        long indiceConsumatore() {
+            return testa.getAcquire();
+        }
+
+        @Override
+        public boolean offer(E e) {
+            Objects.requireNonNull(e);
+            while (true) {
+                long t = coda.getAcquire();
+                long differenza = sequenza(t) - t;
+                if (differenza == 0) {
+                    if (coda.compareAndSet(t, t + 1)) {
+                        scrivi(t, e);
+                        pubblica(t, t + 1);
+                        return true;
+                    }
+                } else if (differenza < 0) {
+                    // Lo slot contiene ancora l'elemento del giro precedente: piena
+                    return false;
+                }
+                // differenza > 0: un altro producer ha preso lo slot, si rilegge la coda
+            }
+        }
+
+        /**
+         * Con più consumer gli slot si liberano in ordine sparso: offer ripetuto
+         */
+        @Override
+        public int offerAll(List<? extends E> lista) {
+            int n = 0;
+            while (n < lista.size() && offer(lista.get(n))) {
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public E poll() {
+            while (true) {
+                long h = testa.getAcquire();
+                long differenza = sequenza(h) - (h + 1);
+                if (differenza == 0) {
+                    if (testa.compareAndSet(h, h + 1)) {
+                        E e = leggi(h);
+                        scrivi(h, null);
+                        // Libera lo slot per il producer del giro successivo
+                        pubblica(h, h + elementi.length);
+                        return e;
+                    }
+                } else if (differenza < 0) {
+                    return null;
+                }
+            }
+        }
+
+        @Override
+        public E peek() {
+            while (true) {
+                long h = testa.getAcquire();
+                long differenza = sequenza(h) - (h + 1);
+                if (differenza < 0) {
+                    return null;
+                }
+                if (differenza == 0) {
+                    E e = leggi(h);
+                    // Se la testa non è avanzata lo slot non è stato riusato
+                    if (testa.getAcquire() == h) {
+                        return e;
+                    }
+                }
+            }
+        }
+    }
+}
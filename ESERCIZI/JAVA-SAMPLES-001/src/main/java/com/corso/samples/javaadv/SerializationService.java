@@ -0,0 +1,518 @@
+package com.corso.samples.javaadv;
+
+import java.beans.ExceptionListener;
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Punto unico per serializzare in tutti i formati della demo, con le parti
+ * costose create una volta sola e riusate:
+ * - JAXB: un JAXBContext per classe (crearlo costa decine di millisecondi);
+ *   Marshaller e Unmarshaller non sono thread-safe, quindi uno per thread e classe
+ * - Jackson: un ObjectMapper, con ObjectWriter/ObjectReader per classe (immutabili)
+ * - Gson: un Gson, con il TypeAdapter per classe
+ * - BinaryCodec: un codec per classe (fromClass, oppure registrato con registerCodec)
+ * - Java nativa e XMLEncoder: nulla da riusare tranne il buffer, ogni stream ha
+ *   la sua intestazione; gli errori di XMLEncoder/XMLDecoder, che di default
+ *   vengono stampati e ignorati, arrivano come IOException
+ * I byte passano per PooledBuffer presi da un pool limitato: un array che cresce
+ * una volta e poi viene riusato, invece di un ByteArrayOutputStream nuovo a
+ * ogni chiamata. Il servizio è thread-safe; va creato una volta e condiviso
+ * (i Marshaller per thread sono legati all'istanza).
+ * Esempio:
+ *   SerializationService servizio = new SerializationService();
+ *   byte[] json = servizio.serialize(persona, Format.JACKSON);
+ *   Person p = servizio.deserialize(json, Person.class, Format.JACKSON);
+ */
+public final class SerializationService {
+
+    public enum Format {
+        JAVA, JACKSON, GSON, JAXB, XML_ENCODER, BINARY
+    }
+
+    private static final int BUFFER_NEL_POOL = 16;
+    private static final int CAPACITA_INIZIALE = 4 * 1024;
+    // Oltre questa dimensione un buffer non torna nel pool: non si tiene in vita un array enorme
+    private static final int CAPACITA_MASSIMA_POOL = 1024 * 1024;
+
+    // Con una StreamSource JAXB cerca e crea una fabbrica di parser a ogni chiamata.
+    // Niente DTD né entità esterne: l'XML da deserializzare può arrivare da fuori
+    private static final XMLInputFactory FABBRICA_XML = XMLInputFactory.newFactory();
+
+    static {
+        FABBRICA_XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FABBRICA_XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ObjectMapper mapper;
+    private final Gson gson;
+
+    private final Map<Class<?>, ObjectWriter> writerJackson = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> readerJackson = new ConcurrentHashMap<>();
+    private final Map<Class<?>, TypeAdapter<?>> adapterGson = new ConcurrentHashMap<>();
+    private final Map<Class<?>, JAXBContext> contestiJaxb = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<Class<?>, Marshaller>> marshaller = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<Map<Class<?>, Unmarshaller>> unmarshaller = ThreadLocal.withInitial(HashMap::new);
+    private final Map<Class<?>, BinaryCodec<?>> codec = new ConcurrentHashMap<>();
+    private final Map<Class<?>, FiltroJava> filtriJava = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<PooledBuffer> pool = new ArrayBlockingQueue<>(BUFFER_NEL_POOL);
+
+    public SerializationService() {
+        this(new ObjectMapper(), new Gson());
+    }
+
+    /**
+     * Con mapper e Gson già configurati (moduli, date, naming): il servizio non li modifica
+     */
+    public SerializationService(ObjectMapper mapper, Gson gson) {
+        this.mapper = mapper;
+        this.gson = gson;
+    }
+
+    /**
+     * Schema dichiarato per una classe, al posto di quello ricavato da fromClass
+     */
+    public <T> SerializationService registerCodec(Class<T> classe, BinaryCodec<T> schema) {
+        codec.put(classe, schema);
+        return this;
+    }
+
+    // ==================== SERIALIZZAZIONE ====================
+
+    public byte[] serialize(Object valore, Format formato) throws IOException {
+        try (PooledBuffer buffer = acquireBuffer()) {
+            write(valore, formato, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Scrive su out senza chiuderlo; su un PooledBuffer il codec binario scrive
+     * direttamente nel suo array
+     */
+    @SuppressWarnings("unchecked")
+    public void write(Object valore, Format formato, OutputStream out) throws IOException {
+        Class<Object> classe = (Class<Object>) valore.getClass();
+        switch (formato) {
+            case JAVA -> {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(valore);
+                oos.flush();
+            }
+            case JACKSON -> writerJackson(classe).writeValue(out, valore);
+            // Un OutputStreamWriter per chiamata alloca 8 KB di buffer: costa più della String
+            case GSON -> out.write(adapterGson(classe).toJson(valore).getBytes(StandardCharsets.UTF_8));
+            case JAXB -> {
+                try {
+                    marshaller(classe).marshal(radiceXml(classe, valore), out);
+                } catch (JAXBException e) {
+                    throw new IOException("Errore JAXB su " + classe.getName(), e);
+                }
+            }
+            case XML_ENCODER -> {
+                ErroriBeans errori = new ErroriBeans();
+                // close() scrive la chiusura del documento, ma chiuderebbe anche out
+                XMLEncoder encoder = new XMLEncoder(new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] b, int da, int lunghezza) throws IOException {
+                        out.write(b, da, lunghezza);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                });
+                encoder.setExceptionListener(errori);
+                encoder.writeObject(valore);
+                encoder.close();
+                errori.verifica(classe);
+            }
+            case BINARY -> {
+                if (out instanceof PooledBuffer buffer) {
+                    scriviBinario(codec(classe), valore, buffer);
+                } else {
+                    try (PooledBuffer buffer = acquireBuffer()) {
+                        scriviBinario(codec(classe), valore, buffer);
+                        buffer.writeTo(out);
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> void scriviBinario(BinaryCodec<T> schema, T valore, PooledBuffer buffer) {
+        while (true) {
+            ByteBuffer libero = buffer.spazioLibero();
+            try {
+                schema.write(valore, libero);
+                buffer.avanza(libero.position());
+                return;
+            } catch (BufferOverflowException e) {
+                buffer.cresci(buffer.array.length * 2);
+            }
+        }
+    }
+
+    // Una classe senza @XmlRootElement viene avvolta in un elemento con il suo nome
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object radiceXml(Class<?> classe, Object valore) {
+        if (classe.isAnnotationPresent(XmlRootElement.class)) {
+            return valore;
+        }
+        String nome = classe.getSimpleName();
+        QName elemento = new QName(Character.toLowerCase(nome.charAt(0)) + nome.substring(1));
+        return new JAXBElement(elemento, classe, valore);
+    }
+
+    // ==================== DESERIALIZZAZIONE ====================
+
+    public <T> T deserialize(byte[] dati, Class<T> classe, Format formato) throws IOException {
+        if (formato == Format.BINARY) {
+            return codec(classe).read(ByteBuffer.wrap(dati));
+        }
+        return read(new ByteArrayInputStream(dati), classe, formato);
+    }
+
+    /**
+     * Legge un valore da in senza chiuderlo. Lo stream non resta posizionato subito
+     * dopo il valore: Jackson, Gson, JAXB, XMLDecoder e ObjectInputStream leggono in
+     * anticipo nei loro buffer e BINARY consuma tutto quello che resta. Dopo la
+     * chiamata il resto di in va considerato consumato: per più valori in fila
+     * serve un framing esterno (lunghezza + byte, letti con deserialize)
+     */
+    public <T> T read(InputStream in, Class<T> classe, Format formato) throws IOException {
+        return switch (formato) {
+            case JAVA -> {
+                ObjectInputStream ois = new ObjectInputStream(in);
+                ois.setObjectInputFilter(filtroJava(classe));
+                try {
+                    yield classe.cast(ois.readObject());
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Classe non trovata: " + e.getMessage(), e);
+                }
+            }
+            case JACKSON -> readerJackson(classe).readValue(in);
+            case GSON -> adapterGson(classe).read(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            case JAXB -> {
+                try {
+                    yield unmarshaller(classe).unmarshal(FABBRICA_XML.createXMLStreamReader(in), classe).getValue();
+                } catch (JAXBException | XMLStreamException e) {
+                    throw new IOException("Errore JAXB su " + classe.getName(), e);
+                }
+            }
+            case XML_ENCODER -> {
+                ErroriBeans errori = new ErroriBeans();
+                XMLDecoder decoder = new XMLDecoder(in, null, errori);
+                Object letto;
+                try {
+                    letto = decoder.readObject();
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    errori.exceptionThrown(new IOException("Nessun oggetto nel documento XML", e));
+                    letto = null;
+                }
+                errori.verifica(classe);
+                yield classe.cast(letto);
+            }
+            // Il record binario è l'ultimo nello stream: si legge tutto quello che resta
+            case BINARY -> codec(classe).read(ByteBuffer.wrap(in.readAllBytes()));
+        };
+    }
+
+    /**
+     * Tiene la prima eccezione segnalata da XMLEncoder/XMLDecoder, che altrimenti
+     * proseguono scartando l'oggetto
+     */
+    private static final class ErroriBeans implements ExceptionListener {
+        private Exception prima;
+
+        @Override
+        public void exceptionThrown(Exception e) {
+            if (prima == null) {
+                prima = e;
+            }
+        }
+
+        void verifica(Class<?> classe) throws IOException {
+            if (prima != null) {
+                throw new IOException("Errore XMLEncoder/XMLDecoder su " + classe.getName() + ": " + prima, prima);
+            }
+        }
+    }
+
+    /**
+     * Filtro della deserializzazione nativa: readObject istanzia qualunque classe
+     * nominata nello stream, quindi si ammette solo il grafo della classe attesa.
+     * Ammesse: la classe, i tipi dei suoi campi (anche ereditati e dentro i generics,
+     * come l'elemento di una List), i loro sottotipi fuori da java.* (una Forma
+     * astratta ammette Cerchio e Rettangolo), i primitivi e i tipi valore e
+     * collezione del JDK. Tutto il resto viene rifiutato con InvalidClassException.
+     */
+    private static final class FiltroJava implements ObjectInputFilter {
+        private static final ObjectInputFilter JDK =
+            ObjectInputFilter.Config.createFilter("java.lang.*;java.util.*;java.time.*;java.math.*");
+
+        private final Set<Class<?>> ammesse = new HashSet<>();
+
+        FiltroJava(Class<?> radice) {
+            raccogli(radice);
+        }
+
+        private void raccogli(Type tipo) {
+            if (tipo instanceof Class<?> classe) {
+                while (classe.isArray()) {
+                    classe = classe.getComponentType();
+                }
+                if (classe.isPrimitive() || !ammesse.add(classe)) {
+                    return;
+                }
+                for (Class<?> c = classe; c != null && c != Object.class; c = c.getSuperclass()) {
+                    for (Field campo : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(campo.getModifiers()) && !Modifier.isTransient(campo.getModifiers())) {
+                            raccogli(campo.getGenericType());
+                        }
+                    }
+                }
+            } else if (tipo instanceof ParameterizedType parametrico) {
+                raccogli(parametrico.getRawType());
+                for (Type argomento : parametrico.getActualTypeArguments()) {
+                    raccogli(argomento);
+                }
+            } else if (tipo instanceof GenericArrayType array) {
+                raccogli(array.getGenericComponentType());
+            } else if (tipo instanceof WildcardType jolly) {
+                for (Type limite : jolly.getUpperBounds()) {
+                    raccogli(limite);
+                }
+            } else if (tipo instanceof TypeVariable<?> variabile) {
+                for (Type limite : variabile.getBounds()) {
+                    raccogli(limite);
+                }
+            }
+        }
+
+        @Override
+        public Status checkInput(FilterInfo info) {
+            Class<?> classe = info.serialClass();
+            if (classe == null) {
+                return Status.UNDECIDED;
+            }
+            while (classe.isArray()) {
+                classe = classe.getComponentType();
+            }
+            if (classe.isPrimitive() || ammesse.contains(classe)) {
+                return Status.ALLOWED;
+            }
+            for (Class<?> a : ammesse) {
+                if (!a.getName().startsWith("java.") && a.isAssignableFrom(classe)) {
+                    return Status.ALLOWED;
+                }
+            }
+            return JDK.checkInput(info) == Status.ALLOWED ? Status.ALLOWED : Status.REJECTED;
+        }
+    }
+
+    // ==================== CACHE ====================
+
+    private ObjectWriter writerJackson(Class<?> classe) {
+        return writerJackson.computeIfAbsent(classe,
+            c -> mapper.writerFor(c).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    private ObjectReader readerJackson(Class<?> classe) {
+        return readerJackson.computeIfAbsent(classe,
+            c -> mapper.readerFor(c).without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+    }
+
+    private FiltroJava filtroJava(Class<?> classe) {
+        return filtriJava.computeIfAbsent(classe, FiltroJava::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> adapterGson(Class<T> classe) {
+        return (TypeAdapter<T>) adapterGson.computeIfAbsent(classe, gson::getAdapter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> BinaryCodec<T> codec(Class<T> classe) {
+        return (BinaryCodec<T>) codec.computeIfAbsent(classe, BinaryCodec::fromClass);
+    }
+
+    private JAXBContext contestoJaxb(Class<?> classe) throws JAXBException {
+        JAXBContext contesto = contestiJaxb.get(classe);
+        if (contesto == null) {
+            // Fuori da computeIfAbsent: newInstance è lento e lancia un'eccezione checked
+            contesto = JAXBContext.newInstance(classe);
+            JAXBContext esistente = contestiJaxb.putIfAbsent(classe, contesto);
+            if (esistente != null) {
+                contesto = esistente;
+            }
+        }
+        return contesto;
+    }
+
+    private Marshaller marshaller(Class<?> classe) throws JAXBException {
+        Map<Class<?>, Marshaller> delThread = marshaller.get();
+        Marshaller m = delThread.get(classe);
+        if (m == null) {
+            m = contestoJaxb(classe).createMarshaller();
+            delThread.put(classe, m);
+        }
+        return m;
+    }
+
+    private Unmarshaller unmarshaller(Class<?> classe) throws JAXBException {
+        Map<Class<?>, Unmarshaller> delThread = unmarshaller.get();
+        Unmarshaller u = delThread.get(classe);
+        if (u == null) {
+            u = contestoJaxb(classe).createUnmarshaller();
+            delThread.put(classe, u);
+        }
+        return u;
+    }
+
+    // ==================== BUFFER ====================
+
+    /**
+     * Un buffer vuoto dal pool (o nuovo se il pool è vuoto); va chiuso per restituirlo
+     */
+    public PooledBuffer acquireBuffer() {
+        PooledBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return new PooledBuffer(this);
+        }
+        buffer.inUso = true;
+        return buffer;
+    }
+
+    private void restituisci(PooledBuffer buffer) {
+        if (buffer.array.length <= CAPACITA_MASSIMA_POOL) {
+            buffer.size = 0;
+            pool.offer(buffer);
+        }
+    }
+
+    /**
+     * OutputStream su un array di byte riusabile. close() lo rimette nel pool:
+     * dopo non va più usato, né vanno tenuti riferimenti al suo contenuto
+     * (asByteBuffer è una vista, toByteArray una copia)
+     */
+    public static final class PooledBuffer extends OutputStream {
+
+        private final SerializationService servizio;
+        private byte[] array = new byte[CAPACITA_INIZIALE];
+        private int size;
+        private boolean inUso = true;
+
+        private PooledBuffer(SerializationService servizio) {
+            this.servizio = servizio;
+        }
+
+        @Override
+        public void write(int b) {
+            if (size == array.length) {
+                cresci(size + 1);
+            }
+            array[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int da, int lunghezza) {
+            if (array.length - size < lunghezza) {
+                cresci(size + lunghezza);
+            }
+            System.arraycopy(b, da, array, size, lunghezza);
+            size += lunghezza;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(array, size);
+        }
+
+        /**
+         * Vista in lettura sui byte scritti, senza copia
+         */
+        public ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(array, 0, size).asReadOnlyBuffer();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(array, 0, size);
+        }
+
+        @Override
+        public void close() {
+            if (inUso) {
+                inUso = false;
+                servizio.restituisci(this);
+            }
+        }
+
+        ByteBuffer spazioLibero() {
+            return ByteBuffer.wrap(array, size, array.length - size).slice();
+        }
+
+        void avanza(int scritti) {
+            size += scritti;
+        }
+
+        void cresci(int minimo) {
+            array = Arrays.copyOf(array, Math.max(minimo, array.length * 2));
+        }
+    }
+}
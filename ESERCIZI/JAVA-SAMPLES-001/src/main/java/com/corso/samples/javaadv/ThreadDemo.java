@@ -50,6 +50,7 @@ import java.util.stream.LongStream;
  * - Thread lifecycle e stati
  * - Sincronizzazione (synchronized, Lock)
  * - Wait/Notify pattern
+ * - Code ring buffer senza lock (RingBufferQueue SPSC/MPSC/MPMC)
  * - Thread pools (ExecutorService)
  * - Callable e Future
  * - CompletableFuture (async programming)
@@ -85,6 +86,7 @@ public class ThreadDemo {
         // Thread Communication
         demo.waitNotifyDemo();
         demo.producerConsumerDemo();
+        demo.ringBufferDemo();
         
         // Thread Pools
         demo.executorServiceDemo();
@@ -640,6 +642,112 @@ public class ThreadDemo {
         System.out.println();
     }
 
+    // ==================== RING BUFFER SENZA LOCK ====================
+
+    public void ringBufferDemo() throws InterruptedException {
+        System.out.println("=== RING BUFFER SENZA LOCK (RingBufferQueue) ===");
+
+        // Stesso producer-consumer di sopra: RingBufferQueue è una BlockingQueue
+        BlockingQueue<Integer> queue = RingBufferQueue.spsc(4, RingBufferQueue.WaitStrategy.PARK);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 1; i <= 10; i++) {
+                    queue.put(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "Producer");
+        List<Integer> consumati = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                while (consumati.size() < 10) {
+                    consumati.add(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "Consumer");
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        System.out.println("SPSC (capacità 4): " + consumati);
+
+        // Passaggio di milioni di messaggi: lock e condition di ArrayBlockingQueue contro
+        // indici atomici. Con pochi core BUSY_SPIN toglierebbe la CPU all'altro lato
+        RingBufferQueue.WaitStrategy strategia = Runtime.getRuntime().availableProcessors() > 4
+            ? RingBufferQueue.WaitStrategy.BUSY_SPIN : RingBufferQueue.WaitStrategy.YIELD;
+        int messaggi = 4_000_000;
+        System.out.println("\n" + messaggi + " messaggi, consumer con drainTo a lotti di 256, " + strategia + ":");
+        misuraPassaggio("1P/1C ArrayBlockingQueue", new ArrayBlockingQueue<>(1024), 1, 1, messaggi);
+        misuraPassaggio("1P/1C RingBufferQueue.spsc", RingBufferQueue.spsc(1024, strategia), 1, 1, messaggi);
+        misuraPassaggio("2P/1C ArrayBlockingQueue", new ArrayBlockingQueue<>(1024), 2, 1, messaggi);
+        misuraPassaggio("2P/1C RingBufferQueue.mpsc", RingBufferQueue.mpsc(1024, strategia), 2, 1, messaggi);
+        misuraPassaggio("2P/2C ArrayBlockingQueue", new ArrayBlockingQueue<>(1024), 2, 2, messaggi);
+        misuraPassaggio("2P/2C RingBufferQueue.mpmc", RingBufferQueue.mpmc(1024, strategia), 2, 2, messaggi);
+
+        // Inserimento a lotti: offerAll pubblica tutto il prefisso che ci sta
+        RingBufferQueue<String> lotti = RingBufferQueue.mpsc(4, RingBufferQueue.WaitStrategy.PARK);
+        int inseriti = lotti.offerAll(List.of("a", "b", "c", "d", "e", "f"));
+        List<String> drenati = new ArrayList<>();
+        lotti.drainTo(drenati);
+        System.out.println("\nofferAll di 6 su capacità 4: inseriti " + inseriti + ", drainTo: " + drenati);
+
+        System.out.println();
+    }
+
+    /**
+     * Produttori e consumatori si dividono i messaggi in parti uguali; i consumatori
+     * svuotano la coda a lotti e si bloccano con take() solo quando è vuota
+     */
+    private void misuraPassaggio(String nome, BlockingQueue<Integer> coda, int produttori, int consumatori,
+                                 int messaggi) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        AtomicLong somma = new AtomicLong();
+        for (int p = 0; p < produttori; p++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < messaggi / produttori; i++) {
+                        coda.put(i & 1023);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int c = 0; c < consumatori; c++) {
+            threads.add(new Thread(() -> {
+                List<Integer> lotto = new ArrayList<>(256);
+                long parziale = 0;
+                try {
+                    for (int ricevuti = 0; ricevuti < messaggi / consumatori; ) {
+                        lotto.clear();
+                        if (coda.drainTo(lotto, Math.min(256, messaggi / consumatori - ricevuti)) == 0) {
+                            lotto.add(coda.take());
+                        }
+                        for (int v : lotto) {
+                            parziale += v;
+                        }
+                        ricevuti += lotto.size();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                somma.addAndGet(parziale);
+            }));
+        }
+
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        long tempo = System.nanoTime() - start;
+        System.out.printf("  %-28s %5d ms  %6.1f M msg/s  (somma %d)%n", nome, tempo / 1_000_000,
+            messaggi * 1e3 / tempo, somma.get());
+    }
+
     // ==================== EXECUTOR SERVICE ====================
 
     public void executorServiceDemo() throws InterruptedException {
@@ -1180,9 +1180,34 @@ public class CondizioniDemo {
         return prezzo * quantita;
     }
 
+    // Stati decodificati una volta sola all'ingresso (lettura da file, DB, JSON): gli
+    // ordini conservano un riferimento a una costante invece di una String, e lo
+    // switch su un enum è un salto su ordinal() senza hashCode + equals
+    private enum StatoOrdine {
+        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED, SCONOSCIUTO;
+
+        private static final Map<String, StatoOrdine> PER_NOME = new HashMap<>();
+
+        static {
+            for (StatoOrdine stato : values()) {
+                PER_NOME.put(stato.name(), stato);
+            }
+        }
+
+        // A differenza di valueOf, uno stato non previsto non lancia eccezioni
+        static StatoOrdine decodifica(String nome) {
+            return PER_NOME.getOrDefault(nome, SCONOSCIUTO);
+        }
+    }
+
     private static void gestioneStatoOrdine(String stato, boolean pagato, int giorni) {
-        String azione = switch (stato) {
-            case "PENDING" -> {
+        String azione = azioneStatoOrdine(StatoOrdine.decodifica(stato), pagato, giorni);
+        System.out.println("  Stato " + stato + ": " + azione);
+    }
+
+    private static String azioneStatoOrdine(StatoOrdine stato, boolean pagato, int giorni) {
+        return switch (stato) {
+            case PENDING -> {
                 if (!pagato) {
                     yield "⏳ In attesa di pagamento";
                 } else if (giorni > 7) {
@@ -1191,14 +1216,12 @@ public class CondizioniDemo {
                     yield "✓ Pronto per elaborazione";
                 }
             }
-            case "PROCESSING" -> pagato ? "🔄 Elaborazione in corso" : "✗ Errore: non pagato";
-            case "SHIPPED" -> "📦 Spedito";
-            case "DELIVERED" -> "✅ Consegnato";
-            case "CANCELLED" -> "❌ Annullato";
-            default -> "❓ Stato sconosciuto";
+            case PROCESSING -> pagato ? "🔄 Elaborazione in corso" : "✗ Errore: non pagato";
+            case SHIPPED -> "📦 Spedito";
+            case DELIVERED -> "✅ Consegnato";
+            case CANCELLED -> "❌ Annullato";
+            case SCONOSCIUTO -> "❓ Stato sconosciuto";
         };
-
-        System.out.println("  Stato " + stato + ": " + azione);
     }
 
     private static void verificaAccesso(String ruolo, String azione) {
@@ -0,0 +1,274 @@
+package com.corso.samples.datatypes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Decimal64 confrontato con BigDecimal su operandi casuali (seme fisso):
+ * scale da 2 a 6, tutte le RoundingMode (UNNECESSARY compresa), valori di ogni
+ * ordine di grandezza. Per ogni operazione:
+ * - se BigDecimal lancia ArithmeticException, deve lanciarla anche Decimal64
+ * - se il risultato di BigDecimal non sta in un long, Decimal64 deve lanciare
+ *   ArithmeticException invece di traboccare
+ * - altrimenti stesso valore e stessa scala (BigDecimal.equals)
+ */
+class Decimal64Test {
+
+    private static final int OPERAZIONI = 200_000;
+    private static final RoundingMode[] MODI = RoundingMode.values();
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int confronti;
+    private int traboccamenti;
+
+    @Test
+    void addSubtract() {
+        for (int i = 0; i < OPERAZIONI; i++) {
+            long ua = operando();
+            long ub = operando();
+            int sa = scala();
+            int sb = scala();
+            BigDecimal a = BigDecimal.valueOf(ua, sa);
+            BigDecimal b = BigDecimal.valueOf(ub, sb);
+            Decimal64 da = Decimal64.valueOf(ua, sa);
+            Decimal64 db = Decimal64.valueOf(ub, sb);
+            confronta(() -> a.add(b), () -> da.add(db), () -> a + " + " + b);
+            confronta(() -> a.subtract(b), () -> da.subtract(db), () -> a + " - " + b);
+        }
+        verificaCopertura();
+    }
+
+    @Test
+    void multiply() {
+        for (int i = 0; i < OPERAZIONI; i++) {
+            long ua = operando();
+            long ub = operando();
+            int sa = scala();
+            int sb = scala();
+            int scala = scala();
+            RoundingMode modo = modo();
+            BigDecimal a = BigDecimal.valueOf(ua, sa);
+            BigDecimal b = BigDecimal.valueOf(ub, sb);
+            Decimal64 da = Decimal64.valueOf(ua, sa);
+            Decimal64 db = Decimal64.valueOf(ub, sb);
+            confronta(() -> a.multiply(b), () -> da.multiply(db), () -> a + " * " + b);
+            confronta(() -> a.multiply(BigDecimal.valueOf(ub)), () -> da.multiply(ub), () -> a + " * " + ub);
+            confronta(() -> a.multiply(b).setScale(scala, modo), () -> da.multiply(db, scala, modo),
+                () -> a + " * " + b + " a scala " + scala + " " + modo);
+        }
+        verificaCopertura();
+    }
+
+    @Test
+    void divide() {
+        for (int i = 0; i < OPERAZIONI; i++) {
+            long ua = operando();
+            // Un divisore su mille è zero: entrambi lanciano ArithmeticException
+            long ub = random.nextInt(1000) == 0 ? 0 : operando();
+            int sa = scala();
+            int sb = scala();
+            int scala = scala();
+            RoundingMode modo = modo();
+            BigDecimal a = BigDecimal.valueOf(ua, sa);
+            BigDecimal b = BigDecimal.valueOf(ub, sb);
+            Decimal64 da = Decimal64.valueOf(ua, sa);
+            Decimal64 db = Decimal64.valueOf(ub, sb);
+            confronta(() -> a.divide(b, scala, modo), () -> da.divide(db, scala, modo),
+                () -> a + " / " + b + " a scala " + scala + " " + modo);
+        }
+        verificaCopertura();
+    }
+
+    @Test
+    void setScale() {
+        for (int i = 0; i < OPERAZIONI; i++) {
+            long ua = operando();
+            int sa = scala();
+            int scala = scala();
+            RoundingMode modo = modo();
+            BigDecimal a = BigDecimal.valueOf(ua, sa);
+            Decimal64 da = Decimal64.valueOf(ua, sa);
+            confronta(() -> a.setScale(scala, modo), () -> da.setScale(scala, modo),
+                () -> a + " a scala " + scala + " " + modo);
+        }
+        verificaCopertura();
+    }
+
+    @Test
+    void overflow() {
+        Decimal64 massimo = Decimal64.valueOf(Long.MAX_VALUE, 2);
+        Decimal64 minimo = Decimal64.valueOf(Long.MIN_VALUE, 2);
+        assertThrows(ArithmeticException.class, () -> massimo.add(Decimal64.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> minimo.subtract(Decimal64.of("0.01")));
+        assertThrows(ArithmeticException.class, () -> massimo.add(Decimal64.of("0.001")));
+        assertThrows(ArithmeticException.class, minimo::negate);
+        assertThrows(ArithmeticException.class, minimo::abs);
+        assertThrows(ArithmeticException.class, () -> massimo.multiply(2));
+        assertThrows(ArithmeticException.class, () -> massimo.multiply(Decimal64.of("1.01"), 2, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> massimo.setScale(3, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> massimo.divide(Decimal64.of("0.1"), 2, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class, () -> Decimal64.of("92233720368547758.08"));
+        assertThrows(ArithmeticException.class, () -> Decimal64.of(new BigDecimal("1e19")));
+        // Allineamento fuori dal long ma risultato dentro: nessun errore
+        assertEquals(Decimal64.valueOf(1_000_000_000_000_000_000L, 3),
+            Decimal64.valueOf(1_000_000_000_000_000_000L, 2).add(Decimal64.valueOf(-9_000_000_000_000_000_000L, 3)));
+        assertEquals(Decimal64.valueOf(Long.MAX_VALUE - 1, 2),
+            massimo.multiply(Decimal64.of("1.00"), 2, RoundingMode.DOWN).subtract(Decimal64.of("0.01")));
+    }
+
+    @Test
+    void sumColonna() {
+        for (int i = 0; i < OPERAZIONI / 10; i++) {
+            long[] valori = colonna(1 + random.nextInt(16));
+            int scala = scala();
+            confronta(() -> somma(valori, scala), () -> Decimal64.sum(valori, scala),
+                () -> "somma di " + valori.length + " valori a scala " + scala);
+        }
+        verificaCopertura();
+        // Una somma parziale esce dal long, il totale no
+        assertEquals(Decimal64.valueOf(Long.MAX_VALUE - 1, 2),
+            Decimal64.sum(new long[] {Long.MAX_VALUE, 1, -2}, 2));
+        assertEquals(Decimal64.valueOf(Long.MIN_VALUE, 2),
+            Decimal64.sum(new long[] {Long.MIN_VALUE, -1, -1, 2}, 2));
+        assertThrows(ArithmeticException.class, () -> Decimal64.sum(new long[] {Long.MAX_VALUE, 1}, 2));
+        assertEquals(Decimal64.valueOf(0, 4), Decimal64.sum(new long[0], 4));
+    }
+
+    @Test
+    void multiplyColonna() {
+        for (int i = 0; i < OPERAZIONI / 10; i++) {
+            long[] valori = colonna(1 + random.nextInt(16));
+            int scala = scala();
+            // Fattori interi (scala 0) e decimali, anche fuori dal long una volta moltiplicati
+            long uf = operando();
+            int sf = random.nextInt(4) == 0 ? 0 : scala();
+            RoundingMode modo = modo();
+            Decimal64 fattore = Decimal64.valueOf(uf, sf);
+            long[] destinazione = new long[valori.length];
+            BigDecimal[] attesi = new BigDecimal[valori.length];
+            ArithmeticException errore = null;
+            try {
+                for (int j = 0; j < valori.length; j++) {
+                    attesi[j] = BigDecimal.valueOf(valori[j], scala).multiply(fattore.toBigDecimal()).setScale(scala, modo);
+                    attesi[j].unscaledValue().longValueExact();
+                }
+            } catch (ArithmeticException e) {
+                errore = e;
+            }
+            if (errore != null) {
+                traboccamenti++;
+                assertThrows(ArithmeticException.class,
+                    () -> Decimal64.multiply(valori, scala, fattore, modo, destinazione),
+                    () -> "colonna * " + fattore + " " + modo + ": BigDecimal lancia un'eccezione");
+                continue;
+            }
+            confronti++;
+            Decimal64.multiply(valori, scala, fattore, modo, destinazione);
+            for (int j = 0; j < valori.length; j++) {
+                int riga = j;
+                assertEquals(attesi[j], BigDecimal.valueOf(destinazione[j], scala),
+                    () -> valori[riga] + " (scala " + scala + ") * " + fattore + " " + modo);
+            }
+        }
+        verificaCopertura();
+    }
+
+    @Test
+    void addColonna() {
+        for (int i = 0; i < OPERAZIONI / 10; i++) {
+            int n = 1 + random.nextInt(16);
+            long[] a = colonna(n);
+            long[] b = colonna(n);
+            long[] destinazione = new long[n];
+            boolean trabocca = false;
+            long[] attesi = new long[n];
+            for (int j = 0; j < n; j++) {
+                BigDecimal somma = BigDecimal.valueOf(a[j]).add(BigDecimal.valueOf(b[j]));
+                trabocca |= somma.unscaledValue().bitLength() > 63;
+                attesi[j] = somma.longValue();
+            }
+            if (trabocca) {
+                traboccamenti++;
+                assertThrows(ArithmeticException.class, () -> Decimal64.add(a, b, destinazione));
+            } else {
+                confronti++;
+                Decimal64.add(a, b, destinazione);
+                assertArrayEquals(attesi, destinazione);
+            }
+        }
+        verificaCopertura();
+        assertThrows(IllegalArgumentException.class, () -> Decimal64.add(new long[2], new long[3], new long[3]));
+    }
+
+    /**
+     * Stesso risultato, oppure ArithmeticException da entrambe le parti o
+     * solo da Decimal64 se il risultato esatto non sta in un long
+     */
+    private void confronta(Supplier<BigDecimal> bigDecimal, Supplier<Decimal64> decimal64, Supplier<String> operazione) {
+        BigDecimal atteso;
+        try {
+            atteso = bigDecimal.get();
+        } catch (ArithmeticException e) {
+            traboccamenti++;
+            assertThrows(ArithmeticException.class, decimal64::get,
+                () -> operazione.get() + ": BigDecimal lancia " + e.getMessage());
+            return;
+        }
+        if (atteso.unscaledValue().bitLength() > 63) {
+            traboccamenti++;
+            assertThrows(ArithmeticException.class, decimal64::get,
+                () -> operazione.get() + " = " + atteso + " non sta in un long");
+            return;
+        }
+        confronti++;
+        assertEquals(atteso, decimal64.get().toBigDecimal(), operazione);
+    }
+
+    /**
+     * I casi casuali devono esercitare sia i risultati esatti sia gli errori
+     */
+    private void verificaCopertura() {
+        assertTrue(confronti > 0 && traboccamenti > 0,
+            () -> "Copertura insufficiente: " + confronti + " confronti, " + traboccamenti + " eccezioni");
+    }
+
+    private static BigDecimal somma(long[] valori, int scala) {
+        BigDecimal somma = BigDecimal.valueOf(0, scala);
+        for (long v : valori) {
+            somma = somma.add(BigDecimal.valueOf(v, scala));
+        }
+        return somma;
+    }
+
+    /**
+     * Valori di ogni ordine di grandezza: da 0 e -1 fino a tutto il long
+     */
+    private long operando() {
+        return random.nextLong() >> random.nextInt(64);
+    }
+
+    private long[] colonna(int n) {
+        long[] valori = new long[n];
+        for (int i = 0; i < n; i++) {
+            valori[i] = operando();
+        }
+        return valori;
+    }
+
+    private int scala() {
+        return 2 + random.nextInt(5);
+    }
+
+    private RoundingMode modo() {
+        return MODI[random.nextInt(MODI.length)];
+    }
+}